@@ -0,0 +1,191 @@
+package gg.sep.alyx.plugin;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.dv8tion.jda.api.OnlineStatus;
+import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.entities.ClientType;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.RoleImpl;
+import net.dv8tion.jda.internal.entities.UserImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reports the heap held by JDA's guild and member caches for a synthetic guild population, comparing
+ * the intents and caches the bot previously always enabled against those declared through
+ * {@link GatewayRequirements}.
+ *
+ * The population is built from JDA's internal entities, the same way JDA caches what it receives
+ * from the gateway. Each guild has a fixed share of online members, some of them playing a game,
+ * and a small share of active members who send messages. A member is received if it is active, or
+ * if it is online and presences are enabled, and is cached if the member cache policy caches it.
+ * Presence data is only stored when the cache flags holding it are enabled.
+ *
+ * The retained heap of the population is printed after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GatewayFootprintBenchmark {
+
+    private static final int GUILDS = 20;
+    private static final int ROLES_PER_GUILD = 25;
+    private static final double ONLINE = 0.4;
+    private static final double PLAYING = 0.5;
+    private static final double ACTIVE = 0.05;
+    private static final long FIRST_ID = 100_000_000_000_000_000L;
+
+    @Param({"previous", "core", "lazyMembers"})
+    private String configuration;
+
+    @Param({"25000"})
+    private int membersPerGuild;
+
+    private GatewayRequirements requirements;
+    private JDAImpl jda;
+    private long baseline;
+
+    /**
+     * Selects the requirements of the configuration being measured.
+     */
+    @Setup
+    public void setup() {
+        switch (configuration) {
+            case "previous":
+                // JDA's default intents with members and presences, every cache flag and JDA's default policy
+                final EnumSet<GatewayIntent> intents = GatewayIntent.getIntents(GatewayIntent.DEFAULT);
+                intents.add(GatewayIntent.GUILD_MEMBERS);
+                intents.add(GatewayIntent.GUILD_PRESENCES);
+                requirements = GatewayRequirements.of(intents, EnumSet.allOf(CacheFlag.class),
+                    MemberCachePolicy.DEFAULT);
+                break;
+            case "core":
+                requirements = GatewayRequirements.CORE;
+                break;
+            case "lazyMembers":
+                // a plugin caching every member it sees, without presences
+                requirements = GatewayRequirements.CORE.union(GatewayRequirements.of(
+                    EnumSet.of(GatewayIntent.GUILD_MEMBERS), EnumSet.noneOf(CacheFlag.class), MemberCachePolicy.ALL));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown configuration: " + configuration);
+        }
+    }
+
+    /**
+     * Drops the previous iteration's population and measures the heap without it.
+     */
+    @Setup(Level.Iteration)
+    public void measureBaseline() {
+        jda = null;
+        baseline = retainedHeap();
+    }
+
+    /**
+     * Prints the heap retained by the iteration's population.
+     */
+    @TearDown(Level.Iteration)
+    public void printFootprint() {
+        final long retained = retainedHeap() - baseline;
+        final long members = jda.getGuildCache().stream().mapToLong(guild -> guild.getMemberCache().size()).sum();
+        System.out.printf("%nretained heap: %d MB, cached members: %d, cached users: %d%n",
+            retained / (1024 * 1024), members, jda.getUserCache().size());
+        jda = null;
+    }
+
+    /**
+     * Builds the synthetic population, caching the members and presence data the requirements enable.
+     *
+     * @return The populated JDA instance.
+     */
+    @Benchmark
+    public JDAImpl populate() {
+        jda = new JDAImpl(new AuthorizationConfig("synthetic"));
+        final boolean presences = requirements.getIntents().contains(GatewayIntent.GUILD_PRESENCES);
+        final boolean activities = requirements.getCacheFlags().contains(CacheFlag.ACTIVITY);
+        final boolean clientStatus = requirements.getCacheFlags().contains(CacheFlag.CLIENT_STATUS);
+        final MemberCachePolicy policy = requirements.getMemberCachePolicy();
+
+        final Random random = new Random(42);
+        long nextId = FIRST_ID;
+        for (int g = 0; g < GUILDS; g++) {
+            final GuildImpl guild = new GuildImpl(jda, nextId++);
+            guild.setName("guild-" + g);
+            jda.getGuildsView().getMap().put(guild.getIdLong(), guild);
+
+            final Role[] roles = new Role[ROLES_PER_GUILD];
+            for (int r = 0; r < ROLES_PER_GUILD; r++) {
+                final RoleImpl role = new RoleImpl(nextId++, guild);
+                role.setName("role-" + r);
+                guild.getRolesView().getMap().put(role.getIdLong(), role);
+                roles[r] = role;
+            }
+
+            for (int m = 0; m < membersPerGuild; m++) {
+                final boolean online = random.nextDouble() < ONLINE;
+                final boolean playing = online && random.nextDouble() < PLAYING;
+                final boolean active = random.nextDouble() < ACTIVE;
+                final long userId = nextId++;
+                if (!active && !(online && presences)) {
+                    continue;
+                }
+
+                final UserImpl user = new UserImpl(userId, jda);
+                user.setName("user-" + userId);
+                user.setDiscriminator(String.format("%04d", m % 10_000));
+                final MemberImpl member = new MemberImpl(guild, user);
+                member.getRoleSet().add(roles[random.nextInt(ROLES_PER_GUILD)]);
+                member.getRoleSet().add(roles[random.nextInt(ROLES_PER_GUILD)]);
+
+                if (presences) {
+                    member.setOnlineStatus(online ? OnlineStatus.ONLINE : OnlineStatus.OFFLINE);
+                    if (clientStatus && online) {
+                        member.setClientStatus(ClientType.DESKTOP, OnlineStatus.ONLINE);
+                    }
+                    if (activities && playing) {
+                        member.setActivities(List.of(Activity.playing("Half-Life: Alyx")));
+                    }
+                }
+
+                if (policy.cacheMember(member)) {
+                    guild.getMembersView().getMap().put(userId, member);
+                    jda.getUsersView().getMap().put(userId, user);
+                }
+            }
+        }
+        return jda;
+    }
+
+    private static long retainedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
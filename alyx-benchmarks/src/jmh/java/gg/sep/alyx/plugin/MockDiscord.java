@@ -0,0 +1,66 @@
+package gg.sep.alyx.plugin;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+/**
+ * Mocked JDA objects, so that the benchmarks run without connecting to Discord.
+ *
+ * Calls to a mock cost more than calls to JDA's own entities, but the cost is the same between
+ * releases, so results can still be compared with each other.
+ */
+public final class MockDiscord {
+
+    /**
+     * ID of the channel messages are sent in.
+     */
+    public static final long CHANNEL_ID = 100_000_000_000_000_001L;
+
+    /**
+     * ID of the user who sends messages.
+     */
+    public static final long AUTHOR_ID = 100_000_000_000_000_002L;
+
+    private MockDiscord() { }
+
+    /**
+     * Creates a JDA instance which is not part of a shard manager.
+     *
+     * @return The mocked JDA instance.
+     */
+    public static JDA jda() {
+        return mock(JDA.class);
+    }
+
+    /**
+     * Creates the event for a message sent to the bot in a private channel.
+     *
+     * @param jda The JDA instance which received the message.
+     * @param content The raw content of the message.
+     * @return The mocked event.
+     */
+    public static MessageReceivedEvent privateMessage(final JDA jda, final String content) {
+        final Message message = mock(Message.class);
+        when(message.getContentRaw()).thenReturn(content);
+
+        final MessageChannel channel = mock(MessageChannel.class);
+        when(channel.getIdLong()).thenReturn(CHANNEL_ID);
+
+        final User author = mock(User.class);
+        when(author.getIdLong()).thenReturn(AUTHOR_ID);
+
+        final MessageReceivedEvent event = mock(MessageReceivedEvent.class);
+        when(event.getJDA()).thenReturn(jda);
+        when(event.getMessage()).thenReturn(message);
+        when(event.getChannel()).thenReturn(channel);
+        when(event.getAuthor()).thenReturn(author);
+        when(event.isFromGuild()).thenReturn(false);
+        return event;
+    }
+}
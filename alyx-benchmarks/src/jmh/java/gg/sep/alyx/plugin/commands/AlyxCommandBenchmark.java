@@ -0,0 +1,84 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gg.sep.alyx.plugin.AlyxException;
+import gg.sep.alyx.plugin.MockDiscord;
+import gg.sep.alyx.plugin.commands.parsers.IntegerParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.StringParameterParser;
+import gg.sep.alyx.plugin.util.MessageTokens;
+
+/**
+ * Measures matching a tokenized message against a single command, and invoking the command.
+ *
+ * The command methods are empty, so invoking measures the work Alyx does around them: checking
+ * permissions, extracting and parsing the parameters and calling the bound method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlyxCommandBenchmark {
+
+    private static final Map<Class<?>, ParameterParser<?>> PARSERS = Map.of(
+        String.class, new StringParameterParser(),
+        Integer.class, new IntegerParameterParser()
+    );
+
+    @Param({"ping", "echo \"hello world\"", "roll 20 3", "config get prefix"})
+    private String message;
+
+    private AlyxCommand command;
+    private MessageTokens tokens;
+    private MessageReceivedEvent event;
+
+    /**
+     * Loads the commands of {@link CommandLoadingBenchmark.BenchmarkPlugin} and finds the one handling the message.
+     *
+     * @throws AlyxException Never thrown, a parser is provided for each parameter type.
+     */
+    @Setup
+    public void setup() throws AlyxException {
+        final CommandIndex index = new CommandIndex(
+            CommandLoader.load(new CommandLoadingBenchmark.BenchmarkPlugin(null), PARSERS));
+        tokens = MessageTokens.tokenize(message);
+        command = index.findCommand(tokens).orElseThrow();
+        event = MockDiscord.privateMessage(MockDiscord.jda(), "!" + message);
+    }
+
+    /**
+     * Checks whether the command handles the message.
+     *
+     * @return Returns {@code true}, the command handles the message.
+     */
+    @Benchmark
+    public boolean matches() {
+        return command.matches(tokens);
+    }
+
+    /**
+     * Invokes the command with the parameters in the message.
+     *
+     * @throws AlyxException Never thrown, the message's parameters are valid.
+     */
+    @Benchmark
+    public void invoke() throws AlyxException {
+        command.invoke(event, tokens);
+    }
+}
@@ -0,0 +1,93 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares resolving a command through {@link CommandIndex} with scanning every loaded
+ * command and calling {@link AlyxCommand#matches(String)} on each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandIndexBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int commandCount;
+
+    private List<AlyxCommand> commands;
+    private CommandIndex index;
+    private String message;
+
+    /**
+     * Builds {@code commandCount} commands, half of them top level commands with an alias
+     * and half of them nested under one of ten shared command groups.
+     *
+     * @throws Exception Never thrown, the benchmark's own no-op method is used for each command.
+     */
+    @Setup
+    public void setup() throws Exception {
+        final CommandInvoker invoker = CommandInvoker.bind(null, CommandIndexBenchmark.class.getDeclaredMethod("noop"));
+        commands = new ArrayList<>(commandCount);
+
+        for (int i = 0; i < commandCount; i++) {
+            final List<List<String>> commandChain = i % 2 == 0
+                ? List.of(List.of("command" + i, "alias" + i))
+                : List.of(List.of("group" + (i % 10)), List.of("sub" + i));
+            // the plugin is never used on the matching path
+            commands.add(new AlyxCommand(null, "command" + i, commandChain, List.of(), invoker));
+        }
+        index = new CommandIndex(commands);
+
+        final int last = commandCount - 1;
+        message = "group" + (last % 10) + " sub" + last + " \"some quoted\" arguments";
+    }
+
+    /**
+     * Resolves the message the way the command listener did before {@link CommandIndex}:
+     * every command is checked, keeping the match with the longest command chain.
+     *
+     * @return The matching command.
+     */
+    @Benchmark
+    public AlyxCommand linearScan() {
+        AlyxCommand longestCommand = null;
+        int longest = 0;
+        for (final AlyxCommand command : commands) {
+            if (command.matches(message) && command.getCommandChain().size() > longest) {
+                longest = command.getCommandChain().size();
+                longestCommand = command;
+            }
+        }
+        return longestCommand;
+    }
+
+    /**
+     * Resolves the message through the command index.
+     *
+     * @return The matching command.
+     */
+    @Benchmark
+    public Optional<AlyxCommand> indexLookup() {
+        return index.findCommand(message);
+    }
+
+    private static void noop() { }
+}
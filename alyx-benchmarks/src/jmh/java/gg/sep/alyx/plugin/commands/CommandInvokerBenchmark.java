@@ -0,0 +1,84 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.TimeUnit;
+
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the per invocation overhead of calling a command's method, comparing the reflective
+ * path {@link AlyxCommand} used previously against a bound {@link CommandInvoker}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandInvokerBenchmark {
+
+    private Method method;
+    private CommandInvoker invoker;
+    private Blackhole blackhole;
+
+    /**
+     * Binds the benchmark's command method.
+     *
+     * @param blackhole Consumes the values received by the command method.
+     * @throws Exception Never thrown, the benchmark's own command method is used.
+     */
+    @Setup
+    public void setup(final Blackhole blackhole) throws Exception {
+        this.blackhole = blackhole;
+        method = CommandInvokerBenchmark.class.getDeclaredMethod("command", String.class, Integer.class);
+        method.setAccessible(true);
+        invoker = CommandInvoker.bind(this, method);
+    }
+
+    /**
+     * Invokes the command the way {@link AlyxCommand} did before {@link CommandInvoker}, inspecting
+     * the method's parameters and calling {@link Method#invoke(Object, Object...)} each time.
+     *
+     * @throws Exception Never thrown.
+     */
+    @Benchmark
+    public void reflective() throws Exception {
+        final Parameter[] parameters = method.getParameters();
+        final boolean receivesEvent = parameters.length > 0
+            && parameters[0].getType().equals(MessageReceivedEvent.class);
+        final Object[] args = new Object[receivesEvent ? 3 : 2];
+        args[0] = "value";
+        args[1] = 42;
+        method.invoke(this, args);
+    }
+
+    /**
+     * Invokes the command through the bound {@link CommandInvoker}.
+     *
+     * @throws Throwable Never thrown.
+     */
+    @Benchmark
+    public void bound() throws Throwable {
+        final Object[] args = new Object[invoker.isReceivesEvent() ? 3 : 2];
+        args[0] = "value";
+        args[1] = 42;
+        invoker.invoke(args);
+    }
+
+    private void command(final String value, final Integer count) {
+        blackhole.consume(value);
+        blackhole.consume(count);
+    }
+}
@@ -0,0 +1,101 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gg.sep.alyx.plugin.Alyx;
+import gg.sep.alyx.plugin.AlyxException;
+import gg.sep.alyx.plugin.StatelessAlyxPlugin;
+import gg.sep.alyx.plugin.commands.parsers.IntegerParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.StringParameterParser;
+
+/**
+ * Measures the time taken to load a plugin's commands when the bot starts, comparing reflecting
+ * over the plugin's methods against the plugin's generated {@link CommandTable}.
+ *
+ * Each fork loads the commands once, in a fresh JVM, so the measurement includes the class loading
+ * and reflection caches filled in by the first load, as it would be when the bot starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class CommandLoadingBenchmark {
+
+    private static final Map<Class<?>, ParameterParser<?>> PARSERS = Map.of(
+        String.class, new StringParameterParser(),
+        Integer.class, new IntegerParameterParser()
+    );
+
+    /**
+     * Plugin declaring the commands which are loaded.
+     */
+    public static class BenchmarkPlugin extends StatelessAlyxPlugin {
+        BenchmarkPlugin(final Alyx alyx) {
+            super("BenchmarkPlugin", 0, alyx);
+        }
+
+        @Command(name = "ping", aliases = {"p"})
+        void ping(final MessageReceivedEvent event) { }
+
+        @Command(name = "echo")
+        void echo(final MessageReceivedEvent event, final String message) { }
+
+        @Command(name = "roll", aliases = {"dice", "r"})
+        void roll(final MessageReceivedEvent event, final Integer sides, final Integer count) { }
+
+        @Command(name = "config")
+        @Command(name = "get")
+        void configGet(final MessageReceivedEvent event, final String key) { }
+
+        @Command(name = "config")
+        @Command(name = "set", level = PermissionLevel.BOT_ADMIN)
+        void configSet(final MessageReceivedEvent event, final String key, final String value) { }
+
+        @Command(name = "remind", aliases = {"reminder"}, guildOnly = true)
+        void remind(final MessageReceivedEvent event, final Integer minutes, final String message) { }
+
+        @Command(name = "shutdown", level = PermissionLevel.BOT_ADMIN)
+        void shutdown(final MessageReceivedEvent event) { }
+
+        @Command(name = "shutdown", level = PermissionLevel.BOT_ADMIN)
+        @Command(name = "now", level = PermissionLevel.BOT_ADMIN)
+        void shutdownNow(final MessageReceivedEvent event) { }
+    }
+
+    /**
+     * Loads the plugin's commands by reflecting over its methods and annotations.
+     *
+     * @return The plugin's commands.
+     * @throws AlyxException Never thrown, a parser is provided for each parameter type.
+     */
+    @Benchmark
+    public List<AlyxCommand> reflective() throws AlyxException {
+        return CommandLoader.loadReflective(new BenchmarkPlugin(null), PARSERS);
+    }
+
+    /**
+     * Loads the plugin's commands from its generated command table.
+     *
+     * @return The plugin's commands.
+     * @throws AlyxException Never thrown, a parser is provided for each parameter type.
+     */
+    @Benchmark
+    public List<AlyxCommand> generatedTable() throws AlyxException {
+        return CommandLoader.load(new BenchmarkPlugin(null), PARSERS);
+    }
+}
@@ -0,0 +1,158 @@
+package gg.sep.alyx.plugin.commands.parsers;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Emote;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildChannel;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gg.sep.alyx.plugin.MockDiscord;
+import gg.sep.alyx.plugin.commands.CommandParseException;
+import gg.sep.alyx.plugin.commands.GuildNameIndex;
+import gg.sep.alyx.plugin.commands.ParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.discord.ChannelParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.discord.EmoteParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.discord.RoleParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.discord.UserParameterParser;
+
+/**
+ * Measures parsing a single parameter with each of the built in {@link ParameterParser}s.
+ *
+ * Discord entities are found in a mocked JDA cache, by the ID in a mention. The {@code roleName}
+ * parser looks a role up by name in a guild of {@value #GUILD_ROLES} roles, through {@link GuildNameIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterParserBenchmark {
+
+    private static final int GUILD_ROLES = 250;
+    private static final long ID = 123_456_789_012_345_678L;
+
+    @Param({"string", "integer", "long", "double", "instant", "user", "role", "roleName", "channel", "emote"})
+    private String parser;
+
+    private ParameterParser<?> parameterParser;
+    private String value;
+    private MessageReceivedEvent event;
+
+    /**
+     * Creates the parser and its parameter, and the mocked entities it finds.
+     */
+    @Setup
+    public void setup() {
+        final JDA jda = MockDiscord.jda();
+        when(jda.getUserById(anyLong())).thenReturn(mock(User.class));
+        when(jda.getRoleById(anyLong())).thenReturn(mock(Role.class));
+        when(jda.getGuildChannelById(anyLong())).thenReturn(mock(GuildChannel.class));
+        when(jda.getEmoteById(anyLong())).thenReturn(mock(Emote.class));
+        event = MockDiscord.privateMessage(jda, "");
+
+        switch (parser) {
+            case "string":
+                parameterParser = new StringParameterParser();
+                value = "a quoted parameter";
+                break;
+            case "integer":
+                parameterParser = new IntegerParameterParser();
+                value = "1337";
+                break;
+            case "long":
+                parameterParser = new LongParameterParser();
+                value = String.valueOf(ID);
+                break;
+            case "double":
+                parameterParser = new DoubleParameterParser();
+                value = "3.14159";
+                break;
+            case "instant":
+                parameterParser = new InstantParameterParser();
+                value = "1590000000000";
+                break;
+            case "user":
+                parameterParser = new UserParameterParser();
+                value = "<@!" + ID + ">";
+                break;
+            case "role":
+                parameterParser = new RoleParameterParser(new GuildNameIndex());
+                value = "<@&" + ID + ">";
+                break;
+            case "roleName":
+                parameterParser = new RoleParameterParser(new GuildNameIndex());
+                value = "Role " + (GUILD_ROLES - 1);
+                event = guildMessage(jda);
+                break;
+            case "channel":
+                parameterParser = new ChannelParameterParser(new GuildNameIndex());
+                value = "<#" + ID + ">";
+                break;
+            case "emote":
+                parameterParser = new EmoteParameterParser(new GuildNameIndex());
+                value = "<:alyx:" + ID + ">";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown parser: " + parser);
+        }
+    }
+
+    /**
+     * Parses the parameter.
+     *
+     * @return The parsed parameter.
+     * @throws CommandParseException Never thrown, each parameter is valid for its parser.
+     */
+    @Benchmark
+    public Object parse() throws CommandParseException {
+        return parameterParser.parse(value, event);
+    }
+
+    /**
+     * Creates the event for a message sent in a guild, whose roles are only found by name.
+     *
+     * @param jda The JDA instance which received the message.
+     * @return The mocked event.
+     */
+    private static MessageReceivedEvent guildMessage(final JDA jda) {
+        final List<Role> roles = new ArrayList<>(GUILD_ROLES);
+        final Guild guild = mock(Guild.class);
+        when(guild.getIdLong()).thenReturn(ID);
+        for (long i = 0; i < GUILD_ROLES; i++) {
+            final Role role = mock(Role.class);
+            when(role.getIdLong()).thenReturn(i + 1);
+            when(role.getName()).thenReturn("Role " + i);
+            when(guild.getRoleById(i + 1)).thenReturn(role);
+            roles.add(role);
+        }
+        when(guild.getRoles()).thenReturn(roles);
+
+        final MessageReceivedEvent event = mock(MessageReceivedEvent.class);
+        when(event.getJDA()).thenReturn(jda);
+        when(event.isFromGuild()).thenReturn(true);
+        when(event.getGuild()).thenReturn(guild);
+        return event;
+    }
+}
@@ -0,0 +1,145 @@
+package gg.sep.alyx.plugin.events;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gg.sep.alyx.plugin.Alyx;
+import gg.sep.alyx.plugin.MockDiscord;
+import gg.sep.alyx.plugin.commands.AlyxCommand;
+import gg.sep.alyx.plugin.commands.CommandDispatcher;
+import gg.sep.alyx.plugin.commands.CommandIndex;
+import gg.sep.alyx.plugin.commands.CommandInvoker;
+import gg.sep.alyx.plugin.commands.ParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.IntegerParameterParser;
+
+/**
+ * Measures the full handling of a command message by {@link AbstractAlyxCommandListener}, from
+ * receiving the event to the command's method returning, with {@code commandCount} commands loaded.
+ *
+ * The dispatcher runs commands on the thread dispatching them, so that each operation includes the
+ * command's execution rather than only handing it off to another thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandListenerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int commandCount;
+
+    private CommandDispatcher dispatcher;
+    private AlyxCommandListener listener;
+    private MessageReceivedEvent event;
+
+    /**
+     * Executor running each task on the thread which submits it.
+     */
+    private static final class DirectExecutorService extends AbstractExecutorService {
+        private volatile boolean shutdown;
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    }
+
+    /**
+     * Builds {@code commandCount} commands taking a single integer parameter, half of them top level
+     * commands with an alias and half of them nested under one of ten shared command groups.
+     *
+     * @throws Exception Never thrown, the benchmark's own no-op method is used for each command.
+     */
+    @Setup
+    public void setup() throws Exception {
+        final CommandInvoker invoker = CommandInvoker.bind(null,
+            CommandListenerBenchmark.class.getDeclaredMethod("noop", Integer.class));
+        final List<ParameterParser<?>> parsers = List.of(new IntegerParameterParser());
+        final List<AlyxCommand> commands = new ArrayList<>(commandCount);
+
+        for (int i = 0; i < commandCount; i++) {
+            final List<List<String>> commandChain = i % 2 == 0
+                ? List.of(List.of("command" + i, "alias" + i))
+                : List.of(List.of("group" + (i % 10)), List.of("sub" + i));
+            // commands usable by everyone never use their plugin
+            commands.add(new AlyxCommand(null, "command" + i, commandChain, parsers, invoker));
+        }
+
+        dispatcher = new CommandDispatcher(new DirectExecutorService(), CommandDispatcher.Ordering.CHANNEL,
+            CommandDispatcher.DEFAULT_QUEUE_LIMIT);
+
+        final Alyx alyx = mock(Alyx.class);
+        when(alyx.getCommandPrefix()).thenReturn("!");
+        when(alyx.getCommandIndex()).thenReturn(new CommandIndex(commands));
+        when(alyx.getCommandDispatcher()).thenReturn(dispatcher);
+        listener = new AlyxCommandListener(alyx);
+
+        final int last = commandCount - 1;
+        event = MockDiscord.privateMessage(MockDiscord.jda(), "!group" + (last % 10) + " sub" + last + " 42");
+    }
+
+    /**
+     * Shuts down the dispatcher.
+     */
+    @TearDown
+    public void tearDown() {
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Handles the command message.
+     */
+    @Benchmark
+    public void onMessageReceived() {
+        listener.onMessageReceived(event);
+    }
+
+    private static void noop(final Integer value) { }
+}
@@ -0,0 +1,101 @@
+package gg.sep.alyx.plugin.events;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gg.sep.alyx.plugin.MockDiscord;
+
+/**
+ * Measures the cost {@link EventWaiter#onEvent(net.dv8tion.jda.api.events.GenericEvent)} adds to
+ * every event received by the bot while {@code pending} waits are registered for the event's class.
+ *
+ * The received event matches none of the waits, as is the case for almost every event. Waits are
+ * either registered with a condition only, which is checked against every event, or with an
+ * {@link EventKey}, which limits the check to waits for the event's key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventWaiterBenchmark {
+
+    private static final EventKey<BenchmarkEvent> MESSAGE_ID =
+        EventKey.of(BenchmarkEvent.class, BenchmarkEvent::getMessageId);
+
+    /**
+     * Event waited for. A real event class is used, since waits are looked up by the event's class,
+     * and the class of a mock is a generated subclass.
+     */
+    public static final class BenchmarkEvent extends Event {
+        private final long messageId;
+
+        BenchmarkEvent(final JDA api, final long messageId) {
+            super(api, 0);
+            this.messageId = messageId;
+        }
+
+        long getMessageId() {
+            return messageId;
+        }
+    }
+
+    @Param({"10", "1000", "100000"})
+    private int pending;
+
+    @Param({"condition", "keyed"})
+    private String waitType;
+
+    private EventWaiter waiter;
+    private BenchmarkEvent event;
+
+    /**
+     * Registers {@code pending} waits, each for a different message, which don't expire during the benchmark.
+     */
+    @Setup
+    public void setup() {
+        waiter = new EventWaiter("benchmark");
+        final Duration timeout = Duration.ofHours(1);
+        for (long i = 0; i < pending; i++) {
+            final long messageId = i;
+            if ("keyed".equals(waitType)) {
+                waiter.waitForEvent(MESSAGE_ID, messageId, e -> true, e -> e, timeout);
+            } else {
+                waiter.waitForEvent(BenchmarkEvent.class, e -> e.getMessageId() == messageId, e -> e, timeout);
+            }
+        }
+        event = new BenchmarkEvent(MockDiscord.jda(), -1);
+    }
+
+    /**
+     * Shuts down the waiter, completing its waits.
+     */
+    @TearDown
+    public void tearDown() {
+        waiter.shutdown(0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Passes an event which matches none of the waits to the waiter.
+     */
+    @Benchmark
+    public void onEvent() {
+        waiter.onEvent(event);
+    }
+}
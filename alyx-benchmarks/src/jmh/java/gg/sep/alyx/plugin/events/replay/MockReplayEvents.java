@@ -0,0 +1,147 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageReaction;
+import net.dv8tion.jda.api.entities.PrivateChannel;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Creates the JDA events replayed for recorded events, with mocked guilds, channels, users and messages.
+ *
+ * The events themselves are JDA's own classes, so that {@link gg.sep.alyx.plugin.events.EventWaiter}, which
+ * looks up waits by the event's exact class, handles them as it would handle events from the gateway. The
+ * entities are only created once for each ID, and are stub only mocks, so they don't remember the calls
+ * made to them while the recording is replayed. Anything the bot sends to Discord is discarded.
+ */
+public final class MockReplayEvents implements Function<RecordedEvent, GenericEvent> {
+
+    private final JDA jda;
+    private final Map<Long, Guild> guilds = new HashMap<>();
+    private final Map<Long, MessageChannel> channels = new HashMap<>();
+    private final Map<Long, User> users = new HashMap<>();
+    private final Map<Pair<Long, Long>, Member> members = new HashMap<>();
+
+    /**
+     * Creates the factory.
+     *
+     * @param jda The JDA instance which receives the events.
+     */
+    public MockReplayEvents(final JDA jda) {
+        this.jda = jda;
+    }
+
+    /**
+     * Creates the event for a recorded event.
+     *
+     * @param recorded The recorded event.
+     * @return A {@link MessageReceivedEvent} for a recorded message, or a {@link MessageReactionAddEvent}
+     *         for a recorded reaction.
+     */
+    @Override
+    public GenericEvent apply(final RecordedEvent recorded) {
+        final MessageChannel channel = channel(recorded);
+        final User user = user(recorded.getUserId());
+        final Member member = recorded.isFromGuild() ? member(recorded.getGuildId(), recorded.getUserId(), user) : null;
+
+        if (recorded.getType() == RecordedEvent.Type.REACTION) {
+            final MessageReaction reaction = new MessageReaction(channel,
+                MessageReaction.ReactionEmote.fromUnicode(recorded.getContent(), jda), recorded.getMessageId(),
+                false, 1);
+            return new MessageReactionAddEvent(jda, 0, user, member, reaction, recorded.getUserId());
+        }
+
+        // mocks are created before stubbing the message, as they can't be created while a stub is unfinished
+        final Guild guild = recorded.isFromGuild() ? guild(recorded.getGuildId()) : null;
+        final Message message = stub(Message.class);
+        when(message.getJDA()).thenReturn(jda);
+        when(message.getIdLong()).thenReturn(recorded.getMessageId());
+        when(message.getId()).thenReturn(Long.toUnsignedString(recorded.getMessageId()));
+        when(message.getContentRaw()).thenReturn(recorded.getContent());
+        when(message.getChannel()).thenReturn(channel);
+        when(message.getChannelType()).thenReturn(recorded.isFromGuild() ? ChannelType.TEXT : ChannelType.PRIVATE);
+        when(message.isFromGuild()).thenReturn(recorded.isFromGuild());
+        when(message.getAuthor()).thenReturn(user);
+        when(message.getMember()).thenReturn(member);
+        if (recorded.isFromGuild()) {
+            when(message.getGuild()).thenReturn(guild);
+            when(message.getTextChannel()).thenReturn((TextChannel) channel);
+        }
+        return new MessageReceivedEvent(jda, 0, message);
+    }
+
+    private MessageChannel channel(final RecordedEvent recorded) {
+        return channels.computeIfAbsent(recorded.getChannelId(), id -> {
+            final MessageChannel channel;
+            if (recorded.isFromGuild()) {
+                final Guild guild = guild(recorded.getGuildId());
+                final TextChannel textChannel = stub(TextChannel.class);
+                when(textChannel.getType()).thenReturn(ChannelType.TEXT);
+                when(textChannel.getGuild()).thenReturn(guild);
+                channel = textChannel;
+            } else {
+                channel = stub(PrivateChannel.class);
+                when(channel.getType()).thenReturn(ChannelType.PRIVATE);
+            }
+            when(channel.getJDA()).thenReturn(jda);
+            when(channel.getIdLong()).thenReturn(id);
+            when(channel.getId()).thenReturn(Long.toUnsignedString(id));
+            return channel;
+        });
+    }
+
+    private Guild guild(final long guildId) {
+        return guilds.computeIfAbsent(guildId, id -> {
+            final Guild guild = stub(Guild.class);
+            when(guild.getJDA()).thenReturn(jda);
+            when(guild.getIdLong()).thenReturn(id);
+            when(guild.getId()).thenReturn(Long.toUnsignedString(id));
+            return guild;
+        });
+    }
+
+    private User user(final long userId) {
+        return users.computeIfAbsent(userId, id -> {
+            final User user = stub(User.class);
+            when(user.getJDA()).thenReturn(jda);
+            when(user.getIdLong()).thenReturn(id);
+            when(user.getId()).thenReturn(Long.toUnsignedString(id));
+            when(user.isBot()).thenReturn(false);
+            return user;
+        });
+    }
+
+    private Member member(final long guildId, final long userId, final User user) {
+        return members.computeIfAbsent(Pair.of(guildId, userId), key -> {
+            final Guild guild = guild(guildId);
+            final Member member = stub(Member.class);
+            when(member.getJDA()).thenReturn(jda);
+            when(member.getGuild()).thenReturn(guild);
+            when(member.getUser()).thenReturn(user);
+            when(member.getIdLong()).thenReturn(userId);
+            return member;
+        });
+    }
+
+    private static <T> T stub(final Class<T> type) {
+        return mock(type, withSettings().stubOnly().defaultAnswer(RETURNS_DEEP_STUBS));
+    }
+}
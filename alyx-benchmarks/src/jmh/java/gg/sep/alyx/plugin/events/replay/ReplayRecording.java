@@ -0,0 +1,115 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import gg.sep.alyx.plugin.Alyx;
+import gg.sep.alyx.plugin.AlyxPlugin;
+import gg.sep.alyx.plugin.MockDiscord;
+import gg.sep.alyx.plugin.commands.AlyxCommand;
+import gg.sep.alyx.plugin.commands.CommandDispatcher;
+import gg.sep.alyx.plugin.commands.CommandIndex;
+import gg.sep.alyx.plugin.commands.CommandLoader;
+import gg.sep.alyx.plugin.commands.ParameterParser;
+import gg.sep.alyx.plugin.commands.PermissionCache;
+import gg.sep.alyx.plugin.commands.parsers.DoubleParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.InstantParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.IntegerParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.LongParameterParser;
+import gg.sep.alyx.plugin.commands.parsers.StringParameterParser;
+import gg.sep.alyx.plugin.events.AlyxCommandListener;
+import gg.sep.alyx.plugin.events.EventWaiter;
+import gg.sep.alyx.plugin.metrics.MetricsRegistry;
+import gg.sep.alyx.plugin.model.BotConfig;
+
+/**
+ * Replays a gateway recording into an {@link AlyxCommandListener} and {@link EventWaiter}, with the commands
+ * of the given plugins loaded, and prints the throughput and latency of the replay.
+ *
+ * Arguments: {@code recording [original|maximum] [commandPrefix] [pluginClass...]}
+ *
+ * Each plugin is created with a mocked {@link Alyx}, through a constructor taking only the {@link Alyx}.
+ * Commands are dispatched as they are by the bot, with the default dispatcher settings. Only the parameter
+ * types which don't need the bot's guild caches can be parsed.
+ */
+public final class ReplayRecording {
+
+    private static final String DEFAULT_PLUGIN = "gg.sep.alyx.plugins.PingCommandsPlugin";
+
+    private static final Map<Class<?>, ParameterParser<?>> PARSERS = Map.of(
+        String.class, new StringParameterParser(),
+        Integer.class, new IntegerParameterParser(),
+        Long.class, new LongParameterParser(),
+        Double.class, new DoubleParameterParser(),
+        Instant.class, new InstantParameterParser()
+    );
+
+    private ReplayRecording() { }
+
+    /**
+     * Replays the recording.
+     *
+     * @param args The arguments.
+     * @throws Exception Thrown if the recording could not be read, or a plugin could not be loaded.
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 0 || args[0].isEmpty()) {
+            System.err.println("Usage: ReplayRecording recording [original|maximum] [commandPrefix] [pluginClass...]");
+            System.exit(1);
+        }
+        final Path path = Paths.get(args[0]);
+        final GatewayReplayer.Pace pace = args.length > 1
+            ? GatewayReplayer.Pace.valueOf(args[1].toUpperCase(Locale.ROOT))
+            : GatewayReplayer.Pace.ORIGINAL;
+        final String commandPrefix = args.length > 2 ? args[2] : "!";
+        final List<String> pluginClasses = args.length > 3
+            ? Arrays.asList(args).subList(3, args.length)
+            : List.of(DEFAULT_PLUGIN);
+
+        final MetricsRegistry metrics = new MetricsRegistry();
+        final EventWaiter eventWaiter = new EventWaiter("Replay", metrics);
+        final CommandDispatcher dispatcher = CommandDispatcher.fromConfig("Replay", BotConfig.builder().build());
+
+        // stub only, so the mock doesn't remember every call made to it during the replay
+        final Alyx alyx = mock(Alyx.class, withSettings().stubOnly());
+        when(alyx.getCommandPrefix()).thenReturn(commandPrefix);
+        when(alyx.getMetricsRegistry()).thenReturn(metrics);
+        when(alyx.getEventWaiter()).thenReturn(eventWaiter);
+        when(alyx.getCommandDispatcher()).thenReturn(dispatcher);
+        when(alyx.getPermissionCache()).thenReturn(new PermissionCache());
+        when(alyx.getParameterParsers()).thenReturn(PARSERS);
+
+        final List<AlyxCommand> commands = new ArrayList<>();
+        for (final String pluginClass : pluginClasses) {
+            final AlyxPlugin<?> plugin = (AlyxPlugin<?>) Class.forName(pluginClass)
+                .getConstructor(Alyx.class)
+                .newInstance(alyx);
+            commands.addAll(CommandLoader.load(plugin, PARSERS));
+        }
+        final CommandIndex commandIndex = commands.isEmpty() ? CommandIndex.empty() : new CommandIndex(commands);
+        when(alyx.getCommandIndex()).thenReturn(commandIndex);
+
+        final List<RecordedEvent> recording = RecordedEvent.read(path);
+        System.out.printf("Replaying %d events at %s pace, with %d commands loaded.%n", recording.size(),
+            pace.name().toLowerCase(Locale.ROOT), commands.size());
+
+        final GatewayReplayer replayer = new GatewayReplayer(List.of(new AlyxCommandListener(alyx), eventWaiter),
+            new MockReplayEvents(MockDiscord.jda()), pace, dispatcher);
+        final ReplayResult result = replayer.replay(recording);
+        System.out.print(result.summary());
+
+        dispatcher.shutdown(1, TimeUnit.SECONDS);
+        eventWaiter.shutdown(1, TimeUnit.SECONDS).join();
+    }
+}
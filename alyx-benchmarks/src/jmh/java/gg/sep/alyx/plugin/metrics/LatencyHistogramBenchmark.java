@@ -0,0 +1,47 @@
+package gg.sep.alyx.plugin.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of timing a command with a {@link LatencyHistogram}, from a single thread and
+ * from several threads recording into the same histogram, as the dispatcher's threads do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyHistogramBenchmark {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * Records the time since a start time from a single thread.
+     */
+    @Benchmark
+    @Threads(1)
+    public void recordSince() {
+        histogram.recordSince(System.nanoTime() - 1_500_000L);
+    }
+
+    /**
+     * Records the time since a start time from four threads at once.
+     */
+    @Benchmark
+    @Threads(4)
+    public void recordSinceContended() {
+        histogram.recordSince(System.nanoTime() - 1_500_000L);
+    }
+}
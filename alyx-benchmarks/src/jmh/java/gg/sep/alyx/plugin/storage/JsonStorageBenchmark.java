@@ -0,0 +1,180 @@
+package gg.sep.alyx.plugin.storage;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gg.sep.alyx.plugin.util.ModelParser;
+
+/**
+ * Compares reading and writing a large plugin data file through whole-file strings, the way
+ * {@link JsonStorageEngine} did previously, against the engine's streaming reads and writes.
+ *
+ * The peak heap usage of each iteration is printed after it finishes. Run with {@code -prof gc}
+ * to also compare the allocation rates of each path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JsonStorageBenchmark {
+
+    private static final String PLUGIN_ID = "1.BenchmarkPlugin";
+
+    /**
+     * Synthetic plugin data.
+     */
+    public static final class BenchmarkData extends AbstractJsonObject {
+        private Map<String, List<String>> values = new HashMap<>();
+
+        /**
+         * Creates data with the given number of entries.
+         *
+         * @param entries Number of entries.
+         * @return The data.
+         */
+        static BenchmarkData withEntries(final int entries) {
+            final BenchmarkData data = new BenchmarkData();
+            for (int i = 0; i < entries; i++) {
+                final List<String> value = new ArrayList<>();
+                value.add("entry-" + i);
+                value.add("a moderately long value so that the file is a realistic size " + i);
+                data.values.put("key-" + i, value);
+            }
+            return data;
+        }
+    }
+
+    @Param({"500000"})
+    private int entries;
+
+    private Path dataDir;
+    private Path dataFile;
+    private BenchmarkData data;
+    private JsonStorageEngine engine;
+
+    /**
+     * Builds the synthetic data and writes it once, so that both paths start from an existing data file.
+     *
+     * @throws IOException Thrown if the temporary data directory could not be created.
+     */
+    @Setup
+    public void setup() throws IOException {
+        dataDir = Files.createTempDirectory("alyx-json-benchmark");
+        dataFile = dataDir.resolve("plugins").resolve(PLUGIN_ID).resolve(JsonStorageEngine.DATA_FILE_NAME);
+
+        data = BenchmarkData.withEntries(entries);
+        engine = new JsonStorageEngine();
+        engine.writePluginData(PLUGIN_ID, dataDir, data);
+        engine.flush();
+        // a new engine sees the existing file is too large to journal, and streams writes straight to it
+        engine = new JsonStorageEngine();
+    }
+
+    /**
+     * Removes the temporary data directory.
+     *
+     * @throws IOException Thrown if the directory could not be removed.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (final Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Collects garbage left by the previous iteration and resets the peak heap usage.
+     */
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        System.gc();
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Prints the peak heap usage of the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void printPeakHeap() {
+        long peak = 0;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("%npeak heap: %d MB%n", peak / (1024 * 1024));
+    }
+
+    /**
+     * Writes the data as a single pretty JSON string.
+     *
+     * @throws IOException Thrown if writing the file fails.
+     */
+    @Benchmark
+    public void stringWrite() throws IOException {
+        Files.writeString(dataFile, data.toPrettyJson());
+    }
+
+    /**
+     * Streams the data into the file through the storage engine.
+     */
+    @Benchmark
+    public void streamingWrite() {
+        engine.writePluginData(PLUGIN_ID, dataDir, data);
+    }
+
+    /**
+     * Reads the whole file into a string before parsing it.
+     *
+     * @return The parsed data.
+     * @throws IOException Thrown if reading the file fails.
+     */
+    @Benchmark
+    public Optional<BenchmarkData> stringRead() throws IOException {
+        return ModelParser.parseJson(Files.readString(dataFile), BenchmarkData.class);
+    }
+
+    /**
+     * Parses the file as it is read through the storage engine.
+     *
+     * @return The parsed data.
+     */
+    @Benchmark
+    public Optional<BenchmarkData> streamingRead() {
+        return engine.loadPluginData(PLUGIN_ID, dataDir, BenchmarkData.class);
+    }
+}
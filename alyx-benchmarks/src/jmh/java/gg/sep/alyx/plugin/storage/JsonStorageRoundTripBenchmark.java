@@ -0,0 +1,86 @@
+package gg.sep.alyx.plugin.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gg.sep.alyx.plugin.storage.JsonStorageBenchmark.BenchmarkData;
+
+/**
+ * Measures writing a plugin's data through {@link JsonStorageEngine} and loading it back, at
+ * several sizes of data.
+ *
+ * Small data is appended to the plugin's journal, while data too large to journal is written
+ * straight to the plugin's data file, so both of the engine's write paths are covered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonStorageRoundTripBenchmark {
+
+    private static final String PLUGIN_ID = "1.BenchmarkPlugin";
+
+    @Param({"10", "1000", "100000"})
+    private int entries;
+
+    private Path dataDir;
+    private BenchmarkData data;
+    private JsonStorageEngine engine;
+
+    /**
+     * Builds the synthetic data.
+     *
+     * @throws IOException Thrown if the temporary data directory could not be created.
+     */
+    @Setup
+    public void setup() throws IOException {
+        dataDir = Files.createTempDirectory("alyx-json-round-trip");
+        data = BenchmarkData.withEntries(entries);
+        engine = new JsonStorageEngine();
+    }
+
+    /**
+     * Removes the temporary data directory.
+     *
+     * @throws IOException Thrown if the directory could not be removed.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (final Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Writes the data, then loads it back.
+     *
+     * @return The loaded data.
+     */
+    @Benchmark
+    public Optional<BenchmarkData> writeThenLoad() {
+        engine.writePluginData(PLUGIN_ID, dataDir, data);
+        return engine.loadPluginData(PLUGIN_ID, dataDir, BenchmarkData.class);
+    }
+}
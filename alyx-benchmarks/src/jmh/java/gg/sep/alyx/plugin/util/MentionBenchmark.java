@@ -0,0 +1,91 @@
+package gg.sep.alyx.plugin.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.dv8tion.jda.api.entities.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading the ID from a parameter with {@link Mention#scan(String)} against the regular
+ * expression based matching the user, role, channel and emote parameter parsers used previously.
+ *
+ * Each parameter is read by the parser of its mention type, bare IDs by the user parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MentionBenchmark {
+
+    @Param({
+        "123456789012345678",
+        "<@!123456789012345678>",
+        "<@&123456789012345678>",
+        "<#123456789012345678>",
+        "<a:alyx_wave:123456789012345678>",
+        "general"
+    })
+    private String parameter;
+
+    private Message.MentionType type;
+    private Pattern pattern;
+    private int idGroup;
+
+    /**
+     * Selects the parser which reads the parameter.
+     */
+    @Setup
+    public void setup() {
+        final Mention mention = Mention.scan(parameter);
+        type = mention == null || mention.getType() == null ? Message.MentionType.USER : mention.getType();
+        pattern = type.getPattern();
+        idGroup = type == Message.MentionType.EMOTE ? 2 : 1;
+    }
+
+    /**
+     * Reads the ID the way the parameter parsers did before {@link Mention}: checking for a numeric
+     * parameter, matching the mention pattern once to test it and again to extract the ID, and
+     * parsing the ID string as JDA's {@code getXById(String)} lookups do.
+     *
+     * @return The ID, or {@link Mention#NO_ID}.
+     */
+    @Benchmark
+    public long regex() {
+        if (Strings.isNumeric(parameter)) {
+            return Long.parseUnsignedLong(parameter);
+        }
+        final Matcher test = pattern.matcher(parameter);
+        if (test.matches() && test.groupCount() >= idGroup) {
+            final Matcher matcher = pattern.matcher(parameter);
+            if (matcher.matches()) {
+                return Long.parseUnsignedLong(matcher.group(idGroup));
+            }
+        }
+        return Mention.NO_ID;
+    }
+
+    /**
+     * Reads the ID in a single pass.
+     *
+     * @return The ID, or {@link Mention#NO_ID}.
+     */
+    @Benchmark
+    public long scan() {
+        final Mention mention = Mention.scan(parameter);
+        return mention != null && mention.refersTo(type) ? mention.getId() : Mention.NO_ID;
+    }
+}
@@ -0,0 +1,84 @@
+package gg.sep.alyx.plugin.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares splitting a command message with {@link MessageTokens} against the regular
+ * expression based split which {@link Strings#splitWithQuotes(String)} used previously.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTokensBenchmark {
+
+    @Param({
+        "ping",
+        "plugins load FooPlugin",
+        "remind <@!123456789012345678> \"take out the trash\" in 2 hours"
+    })
+    private String message;
+
+    /**
+     * Splits the message the way {@link Strings#splitWithQuotes(String)} did before {@link MessageTokens}.
+     *
+     * @return The words in the message.
+     */
+    @Benchmark
+    public String[] regexSplit() {
+        final String cleanString = Strings.strip(message);
+        final List<String> list = new ArrayList<>();
+        final Matcher m = Pattern.compile("([^\"]\\S*|\".*?\")\\s*").matcher(cleanString);
+        while (m.find()) {
+            list.add(Strings.strip(m.group(1), "\""));
+        }
+        return list.toArray(new String[0]);
+    }
+
+    /**
+     * Tokenizes the message without copying out any of the words.
+     *
+     * @return The tokenized message.
+     */
+    @Benchmark
+    public MessageTokens tokenize() {
+        return MessageTokens.tokenize(message);
+    }
+
+    /**
+     * Tokenizes the message and copies each word into an array.
+     *
+     * @return The words in the message.
+     */
+    @Benchmark
+    public String[] tokenizeToArray() {
+        return MessageTokens.tokenize(message).toArray();
+    }
+
+    /**
+     * Splits the message through {@link Strings#splitWithQuotes(String)}.
+     *
+     * @return The words in the message.
+     */
+    @Benchmark
+    public String[] splitWithQuotes() {
+        return Strings.splitWithQuotes(message);
+    }
+}
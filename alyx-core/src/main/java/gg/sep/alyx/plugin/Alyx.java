@@ -4,11 +4,18 @@ import java.util.Collection;
 import java.util.Map;
 
 import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.sharding.ShardManager;
 
 import gg.sep.alyx.plugin.events.EventWaiter;
 import gg.sep.alyx.plugin.model.BotEntry;
 import gg.sep.alyx.plugin.commands.AlyxCommand;
+import gg.sep.alyx.plugin.commands.CommandDispatcher;
+import gg.sep.alyx.plugin.commands.CommandIndex;
+import gg.sep.alyx.plugin.commands.GuildNameIndex;
 import gg.sep.alyx.plugin.commands.ParameterParser;
+import gg.sep.alyx.plugin.commands.PermissionCache;
+import gg.sep.alyx.plugin.commands.PermissionLevelResolver;
+import gg.sep.alyx.plugin.metrics.MetricsRegistry;
 import gg.sep.alyx.plugin.storage.AlyxStorageEngine;
 
 /**
@@ -31,6 +38,31 @@ public interface Alyx {
      */
     User getBotOwner();
 
+    /**
+     * Returns the shard manager which holds the bot's connections to the Discord gateway.
+     *
+     * Listeners registered by Alyx receive the events of every shard. The bot connects once its plugins
+     * are registered, with their {@link GatewayRequirements}, so this is {@code null} while registering.
+     *
+     * @return The bot's {@link ShardManager}.
+     */
+    ShardManager getShardManager();
+
+    /**
+     * Returns the gateway latency and event throughput of each of the bot's shards.
+     *
+     * @return The {@link ShardMetrics} of this instance of {@link Alyx}.
+     */
+    ShardMetrics getShardMetrics();
+
+    /**
+     * Returns the registry holding the latencies and counters of the bot's commands, event waits and
+     * storage, which plugins may also register their own metrics in.
+     *
+     * @return The {@link MetricsRegistry} of this instance of {@link Alyx}.
+     */
+    MetricsRegistry getMetricsRegistry();
+
     /**
      * The prefix used to trigger commands for this bot.
      *
@@ -48,6 +80,16 @@ public interface Alyx {
      */
     EventWaiter getEventWaiter();
 
+    /**
+     * Returns the current snapshot of the plugins registered and loaded into this instance of {@link Alyx}.
+     *
+     * The registry is immutable and is replaced whenever a plugin is registered, loaded or unloaded,
+     * so it can be read from any thread without locking.
+     *
+     * @return The current {@link PluginRegistry} of this instance.
+     */
+    PluginRegistry getPluginRegistry();
+
     /**
      * Returns the plugins that have been fully registered into this instance of {@link Alyx}.
      *
@@ -80,6 +122,46 @@ public interface Alyx {
      */
     Collection<AlyxCommand> getLoadedCommands();
 
+    /**
+     * Returns the index used to resolve message text into one of the loaded commands.
+     *
+     * The index is rebuilt whenever plugins are loaded or unloaded, as part of the
+     * {@link #getPluginRegistry()}, and always reflects the contents of {@link #getLoadedCommands()}.
+     *
+     * @return The {@link CommandIndex} of the commands loaded into this instance of {@link Alyx}.
+     */
+    CommandIndex getCommandIndex();
+
+    /**
+     * Returns the dispatcher which executes commands off of the Discord event thread.
+     *
+     * @return The {@link CommandDispatcher} used by this instance of {@link Alyx}.
+     */
+    CommandDispatcher getCommandDispatcher();
+
+    /**
+     * Returns the cache of guild role and member permission values used to check whether
+     * a member is allowed to use a command.
+     *
+     * @return The {@link PermissionCache} used by this instance of {@link Alyx}.
+     */
+    PermissionCache getPermissionCache();
+
+    /**
+     * Returns the resolver of the {@link gg.sep.alyx.plugin.commands.PermissionLevel}s granted
+     * to users and guild members by the bot's config.
+     *
+     * @return The {@link PermissionLevelResolver} used by this instance of {@link Alyx}.
+     */
+    PermissionLevelResolver getPermissionLevelResolver();
+
+    /**
+     * Returns the index of the guilds' roles, channels and emotes by name, used by the parameter parsers.
+     *
+     * @return The {@link GuildNameIndex} of this instance of {@link Alyx}.
+     */
+    GuildNameIndex getGuildNameIndex();
+
     /**
      * Returns the storage engine used by this instance of Alyx.
      *
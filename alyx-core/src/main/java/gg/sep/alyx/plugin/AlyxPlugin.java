@@ -113,6 +113,17 @@ public interface AlyxPlugin<D extends JsonSerializable> extends ExtensionPoint {
      */
     Collection<AlyxCommand> loadCommands() throws AlyxException;
 
+    /**
+     * Returns the gateway intents, cache flags and member cache policy this plugin needs.
+     *
+     * These are read when the bot connects, and Alyx enables only the union of the requirements of
+     * its loaded plugins. A plugin loaded after the bot connects, which needs more than is enabled,
+     * does not receive the missing events or cache entries until the bot is restarted.
+     *
+     * @return The plugin's gateway requirements.
+     */
+    GatewayRequirements getGatewayRequirements();
+
     /**
      * Returns the class of this plugin's data object.
      * @return The class of this plugin's data object.
@@ -0,0 +1,161 @@
+package gg.sep.alyx.plugin;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.ToString;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+
+/**
+ * The gateway intents, cache flags and member cache policy needed by an {@link AlyxPlugin}.
+ *
+ * Alyx connects to Discord with the union of the requirements of its loaded plugins, so that it
+ * receives and caches only what they use. Presences and the member cache are by far the largest
+ * part of the bot's memory in large guilds, so plugins should only declare them when needed.
+ *
+ * A cache flag implies the intent it is populated by, see {@link CacheFlag#getRequiredIntent()}.
+ * JDA only sends member updates for the {@link GatewayIntent#GUILD_MEMBERS} intent, so without it
+ * the member cache policy is always {@link MemberCachePolicy#NONE}, rather than caching members
+ * which would never be updated.
+ */
+@Getter
+@ToString
+public final class GatewayRequirements {
+
+    /**
+     * Requirements of a plugin which needs nothing beyond what Alyx itself uses.
+     */
+    public static final GatewayRequirements NONE = new GatewayRequirements(EnumSet.noneOf(GatewayIntent.class),
+        EnumSet.noneOf(CacheFlag.class), MemberCachePolicy.NONE);
+
+    /**
+     * Requirements of Alyx itself: receiving commands, the reactions waited for by
+     * {@link gg.sep.alyx.plugin.events.EventWaiter}, emotes for the emote parameter parser and the
+     * member specific channel overrides used to check command permissions.
+     *
+     * Members aren't cached, as command permissions are cached by the member's roles rather than by
+     * member, see {@link gg.sep.alyx.plugin.commands.PermissionCache}.
+     */
+    public static final GatewayRequirements CORE = of(
+        EnumSet.of(GatewayIntent.GUILD_MESSAGES, GatewayIntent.GUILD_MESSAGE_REACTIONS,
+            GatewayIntent.DIRECT_MESSAGES, GatewayIntent.DIRECT_MESSAGE_REACTIONS),
+        EnumSet.of(CacheFlag.EMOTE, CacheFlag.MEMBER_OVERRIDES));
+
+    private final Set<GatewayIntent> intents;
+    private final Set<CacheFlag> cacheFlags;
+    private final MemberCachePolicy memberCachePolicy;
+
+    private GatewayRequirements(final EnumSet<GatewayIntent> intents, final EnumSet<CacheFlag> cacheFlags,
+                                final MemberCachePolicy memberCachePolicy) {
+        for (final CacheFlag flag : cacheFlags) {
+            if (flag.getRequiredIntent() != null) {
+                intents.add(flag.getRequiredIntent());
+            }
+        }
+        this.intents = Collections.unmodifiableSet(intents);
+        this.cacheFlags = Collections.unmodifiableSet(cacheFlags);
+        this.memberCachePolicy = intents.contains(GatewayIntent.GUILD_MEMBERS)
+            ? memberCachePolicy : MemberCachePolicy.NONE;
+    }
+
+    /**
+     * Creates the requirements for a set of intents and cache flags, without caching members.
+     *
+     * @param intents The gateway intents.
+     * @param cacheFlags The cache flags.
+     * @return The requirements.
+     */
+    public static GatewayRequirements of(final Collection<GatewayIntent> intents,
+                                         final Collection<CacheFlag> cacheFlags) {
+        return of(intents, cacheFlags, MemberCachePolicy.NONE);
+    }
+
+    /**
+     * Creates the requirements for a set of intents, cache flags and a member cache policy.
+     *
+     * @param intents The gateway intents.
+     * @param cacheFlags The cache flags.
+     * @param memberCachePolicy The policy for which members are cached.
+     * @return The requirements.
+     */
+    public static GatewayRequirements of(final Collection<GatewayIntent> intents,
+                                         final Collection<CacheFlag> cacheFlags,
+                                         final MemberCachePolicy memberCachePolicy) {
+        final EnumSet<GatewayIntent> intentSet = EnumSet.noneOf(GatewayIntent.class);
+        intentSet.addAll(intents);
+        final EnumSet<CacheFlag> flagSet = EnumSet.noneOf(CacheFlag.class);
+        flagSet.addAll(cacheFlags);
+        return new GatewayRequirements(intentSet, flagSet, memberCachePolicy);
+    }
+
+    /**
+     * Returns the requirements needed by both these and the other requirements.
+     *
+     * A member is cached if either member cache policy caches it.
+     *
+     * @param other The other requirements.
+     * @return The union of the requirements.
+     */
+    public GatewayRequirements union(final GatewayRequirements other) {
+        final EnumSet<GatewayIntent> intentSet = EnumSet.noneOf(GatewayIntent.class);
+        intentSet.addAll(this.intents);
+        intentSet.addAll(other.intents);
+        final EnumSet<CacheFlag> flagSet = EnumSet.noneOf(CacheFlag.class);
+        flagSet.addAll(this.cacheFlags);
+        flagSet.addAll(other.cacheFlags);
+
+        final MemberCachePolicy policy;
+        if (this.memberCachePolicy == MemberCachePolicy.NONE) {
+            policy = other.memberCachePolicy;
+        } else if (other.memberCachePolicy == MemberCachePolicy.NONE) {
+            policy = this.memberCachePolicy;
+        } else {
+            policy = this.memberCachePolicy.or(other.memberCachePolicy);
+        }
+        return new GatewayRequirements(intentSet, flagSet, policy);
+    }
+
+    /**
+     * Returns the union of the requirements of each of the plugins.
+     *
+     * @param base Requirements of the bot itself.
+     * @param plugins The plugins.
+     * @return The union of the requirements.
+     */
+    public static GatewayRequirements union(final GatewayRequirements base,
+                                            final Collection<? extends AlyxPlugin<?>> plugins) {
+        GatewayRequirements requirements = base;
+        for (final AlyxPlugin<?> plugin : plugins) {
+            requirements = requirements.union(plugin.getGatewayRequirements());
+        }
+        return requirements;
+    }
+
+    /**
+     * Checks whether the intents and cache flags of these requirements are all enabled by other requirements.
+     *
+     * Member cache policies can't be compared, so they are not checked.
+     *
+     * @param enabled The enabled requirements.
+     * @return Returns {@code true} if all of the intents and cache flags are enabled.
+     */
+    public boolean isSatisfiedBy(final GatewayRequirements enabled) {
+        return enabled.intents.containsAll(this.intents) && enabled.cacheFlags.containsAll(this.cacheFlags);
+    }
+
+    /**
+     * Returns the cache flags which are not required, and should be disabled.
+     *
+     * @return The cache flags which are not required.
+     */
+    public Set<CacheFlag> getDisabledCacheFlags() {
+        final EnumSet<CacheFlag> disabled = EnumSet.allOf(CacheFlag.class);
+        disabled.removeAll(this.cacheFlags);
+        return disabled;
+    }
+}
@@ -0,0 +1,195 @@
+package gg.sep.alyx.plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+
+import gg.sep.alyx.plugin.commands.AlyxCommand;
+import gg.sep.alyx.plugin.commands.CommandIndex;
+
+/**
+ * An immutable snapshot of the plugins registered and loaded into an instance of {@link Alyx},
+ * along with the commands of each loaded plugin.
+ *
+ * Registering, loading or unloading a plugin returns a new registry, which the bot swaps in as a
+ * whole. Readers such as the command listener can therefore use a registry from any thread without
+ * locking, and always see a consistent set of plugins, commands and {@link CommandIndex}.
+ */
+public final class PluginRegistry {
+
+    private static final PluginRegistry EMPTY = new PluginRegistry(Collections.emptySet(), Collections.emptyMap());
+
+    /**
+     * The plugins which have been registered, in the order they were registered.
+     */
+    @Getter
+    private final Set<AlyxPlugin<?>> registeredPlugins;
+    private final Map<AlyxPlugin<?>, List<AlyxCommand>> pluginCommands;
+    /**
+     * The commands of every loaded plugin, in the order their plugins were loaded.
+     */
+    @Getter
+    private final List<AlyxCommand> loadedCommands;
+    /**
+     * The index used to resolve message text into one of the {@link #getLoadedCommands()}.
+     */
+    @Getter
+    private final CommandIndex commandIndex;
+
+    private PluginRegistry(final Set<AlyxPlugin<?>> registeredPlugins,
+                           final Map<AlyxPlugin<?>, List<AlyxCommand>> pluginCommands) {
+        this.registeredPlugins = Collections.unmodifiableSet(registeredPlugins);
+        this.pluginCommands = Collections.unmodifiableMap(pluginCommands);
+
+        final List<AlyxCommand> commands = new ArrayList<>();
+        for (final List<AlyxCommand> loaded : pluginCommands.values()) {
+            commands.addAll(loaded);
+        }
+        this.loadedCommands = Collections.unmodifiableList(commands);
+        this.commandIndex = commands.isEmpty() ? CommandIndex.empty() : new CommandIndex(commands);
+    }
+
+    /**
+     * Returns a registry with no registered plugins.
+     *
+     * @return A registry with no registered plugins.
+     */
+    public static PluginRegistry empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the plugins which have been loaded, in the order they were loaded.
+     *
+     * @return The plugins which have been loaded.
+     */
+    public Set<AlyxPlugin<?>> getLoadedPlugins() {
+        return pluginCommands.keySet();
+    }
+
+    /**
+     * Returns whether the plugin has been registered.
+     *
+     * @param plugin The plugin to check.
+     * @return {@code true} if the plugin has been registered.
+     */
+    public boolean isRegistered(final AlyxPlugin<?> plugin) {
+        return registeredPlugins.contains(plugin);
+    }
+
+    /**
+     * Returns whether the plugin has been loaded.
+     *
+     * @param plugin The plugin to check.
+     * @return {@code true} if the plugin has been loaded.
+     */
+    public boolean isLoaded(final AlyxPlugin<?> plugin) {
+        return pluginCommands.containsKey(plugin);
+    }
+
+    /**
+     * Returns the commands which were loaded from the plugin.
+     *
+     * @param plugin The plugin to return the commands of.
+     * @return The plugin's commands, or an empty list if the plugin is not loaded.
+     */
+    public List<AlyxCommand> getCommands(final AlyxPlugin<?> plugin) {
+        return pluginCommands.getOrDefault(plugin, Collections.emptyList());
+    }
+
+    /**
+     * Returns a copy of this registry with the plugin registered.
+     *
+     * @param plugin The plugin to register.
+     * @return A new registry with the plugin registered.
+     * @throws AlyxException Thrown if a matching plugin is already registered.
+     */
+    public PluginRegistry withRegistered(final AlyxPlugin<?> plugin) throws AlyxException {
+        if (isRegistered(plugin)) {
+            throw new AlyxException("A matching plugin already exists.");
+        }
+        final Set<AlyxPlugin<?>> registered = new LinkedHashSet<>(registeredPlugins);
+        registered.add(plugin);
+        return new PluginRegistry(registered, new LinkedHashMap<>(pluginCommands));
+    }
+
+    /**
+     * Returns a copy of this registry with each of the plugins registered, building the registry only once.
+     *
+     * @param plugins The plugins to register, in order.
+     * @return A new registry with the plugins registered.
+     * @throws AlyxException Thrown if a matching plugin is already registered.
+     */
+    public PluginRegistry withRegistered(final Collection<? extends AlyxPlugin<?>> plugins) throws AlyxException {
+        final Set<AlyxPlugin<?>> registered = new LinkedHashSet<>(registeredPlugins);
+        for (final AlyxPlugin<?> plugin : plugins) {
+            if (!registered.add(plugin)) {
+                throw new AlyxException("A matching plugin already exists.");
+            }
+        }
+        return new PluginRegistry(registered, new LinkedHashMap<>(pluginCommands));
+    }
+
+    /**
+     * Returns a copy of this registry with the plugin loaded.
+     *
+     * @param plugin The plugin to load.
+     * @param commands The commands loaded from the plugin.
+     * @return A new registry with the plugin and its commands loaded.
+     * @throws AlyxException Thrown if the plugin is not registered.
+     */
+    public PluginRegistry withLoaded(final AlyxPlugin<?> plugin, final Collection<AlyxCommand> commands)
+        throws AlyxException {
+
+        if (!isRegistered(plugin)) {
+            throw new AlyxException(String.format("Plugin '%s' is not registered.", plugin.getName()));
+        }
+        final Map<AlyxPlugin<?>, List<AlyxCommand>> loaded = new LinkedHashMap<>(pluginCommands);
+        loaded.put(plugin, List.copyOf(commands));
+        return new PluginRegistry(new LinkedHashSet<>(registeredPlugins), loaded);
+    }
+
+    /**
+     * Returns a copy of this registry with each of the plugins loaded, building the {@link CommandIndex} only once.
+     *
+     * @param commands The plugins to load, in order, with the commands loaded from each of them.
+     * @return A new registry with the plugins and their commands loaded.
+     * @throws AlyxException Thrown if any of the plugins is not registered.
+     */
+    public PluginRegistry withLoaded(final Map<? extends AlyxPlugin<?>, ? extends Collection<AlyxCommand>> commands)
+        throws AlyxException {
+
+        final Map<AlyxPlugin<?>, List<AlyxCommand>> loaded = new LinkedHashMap<>(pluginCommands);
+        for (final Map.Entry<? extends AlyxPlugin<?>, ? extends Collection<AlyxCommand>> entry : commands.entrySet()) {
+
+            if (!isRegistered(entry.getKey())) {
+                throw new AlyxException(String.format("Plugin '%s' is not registered.", entry.getKey().getName()));
+            }
+            loaded.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        return new PluginRegistry(new LinkedHashSet<>(registeredPlugins), loaded);
+    }
+
+    /**
+     * Returns a copy of this registry with the plugin and its commands unloaded.
+     *
+     * @param plugin The plugin to unload.
+     * @return A new registry without the plugin loaded.
+     * @throws AlyxException Thrown if the plugin is not registered or loaded.
+     */
+    public PluginRegistry withUnloaded(final AlyxPlugin<?> plugin) throws AlyxException {
+        if (!isRegistered(plugin) || !isLoaded(plugin)) {
+            throw new AlyxException(String.format("Plugin '%s' is not registered or loaded", plugin.getName()));
+        }
+        final Map<AlyxPlugin<?>, List<AlyxCommand>> loaded = new LinkedHashMap<>(pluginCommands);
+        loaded.remove(plugin);
+        return new PluginRegistry(new LinkedHashSet<>(registeredPlugins), loaded);
+    }
+}
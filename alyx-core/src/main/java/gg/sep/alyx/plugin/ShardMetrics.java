@@ -0,0 +1,114 @@
+package gg.sep.alyx.plugin;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.sharding.ShardManager;
+
+/**
+ * Reports the gateway latency and event throughput of each of a bot's shards.
+ *
+ * Throughput is measured from the number of gateway events each shard has received, so collecting
+ * it adds no work to the event thread. The events per second of a shard are averaged over the time
+ * since the previous {@link #snapshot()}, and are reported as zero for the snapshot following the
+ * start of a new gateway session.
+ */
+public final class ShardMetrics {
+
+    private final ShardManager shardManager;
+    private final LongSupplier clock;
+    private final Map<Integer, Sample> lastSamples = new ConcurrentHashMap<>();
+
+    /**
+     * The state of a single shard at the time of a {@link #snapshot()}.
+     */
+    @Getter
+    @Builder
+    @ToString
+    public static final class ShardStats {
+        private final int shardId;
+        private final int shardTotal;
+        private final JDA.Status status;
+        private final long gatewayPing;
+        private final long eventsReceived;
+        private final double eventsPerSecond;
+    }
+
+    private static final class Sample {
+        private final long eventsReceived;
+        private final long time;
+
+        private Sample(final long eventsReceived, final long time) {
+            this.eventsReceived = eventsReceived;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Creates new metrics for the shards of a shard manager.
+     *
+     * @param shardManager The bot's shard manager.
+     */
+    public ShardMetrics(final ShardManager shardManager) {
+        this(shardManager, System::nanoTime);
+    }
+
+    ShardMetrics(final ShardManager shardManager, final LongSupplier clock) {
+        this.shardManager = shardManager;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the current state of each shard, ordered by shard ID.
+     *
+     * @return The state of each shard.
+     */
+    public List<ShardStats> snapshot() {
+        final List<JDA> shards = new ArrayList<>(shardManager.getShards());
+        shards.sort(Comparator.comparingInt(shard -> shard.getShardInfo().getShardId()));
+
+        final long now = clock.getAsLong();
+        final List<ShardStats> stats = new ArrayList<>(shards.size());
+        for (final JDA shard : shards) {
+            final int shardId = shard.getShardInfo().getShardId();
+            final Sample sample = new Sample(shard.getResponseTotal(), now);
+            final Sample previous = lastSamples.put(shardId, sample);
+
+            // a shard's count starts again from zero when it starts a new gateway session, so a drop in
+            // the count is a reset, and the shard's new count is the baseline for the next snapshot
+            double eventsPerSecond = 0;
+            if (previous != null && sample.time > previous.time
+                && sample.eventsReceived >= previous.eventsReceived) {
+                eventsPerSecond = (sample.eventsReceived - previous.eventsReceived)
+                    / ((sample.time - previous.time) / 1_000_000_000D);
+            }
+
+            stats.add(ShardStats.builder()
+                .shardId(shardId)
+                .shardTotal(shard.getShardInfo().getShardTotal())
+                .status(shard.getStatus())
+                .gatewayPing(shard.getGatewayPing())
+                .eventsReceived(sample.eventsReceived)
+                .eventsPerSecond(eventsPerSecond)
+                .build());
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the average gateway latency of all of the shards, in milliseconds.
+     *
+     * @return The average gateway latency.
+     */
+    public double getAverageGatewayPing() {
+        return shardManager.getAverageGatewayPing();
+    }
+}
@@ -1,44 +1,81 @@
 package gg.sep.alyx.plugin.commands;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import net.dv8tion.jda.api.Permission;
-import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 import gg.sep.alyx.plugin.AlyxException;
 import gg.sep.alyx.plugin.AlyxPlugin;
+import gg.sep.alyx.plugin.util.MessageTokens;
 import gg.sep.alyx.plugin.util.Strings;
 
 /**
  * Represents a single command which can be executed/invoked by Alyx.
  */
-@AllArgsConstructor
 public final class AlyxCommand {
     private final AlyxPlugin<?> plugin;
 
-    @Setter private Collection<Permission> requiredPermissions;
+    private Collection<Permission> requiredPermissions;
+    private long requiredPermissionsRaw;
+    private long requiredChannelPermissionsRaw;
     @Setter private Collection<String> requiredRoles;
     @Setter private PermissionLevel permissionLevel;
     @Setter private boolean guildOnly;
 
+    @Getter
     private final String name;
     @Getter
     private final List<List<String>> commandChain;
     private final List<ParameterParser<?>> parsers;
 
-    private final Method method;
+    private final CommandInvoker invoker;
+    private RateLimiter rateLimiter;
+    @Getter
+    @Setter
+    private volatile CommandMetrics metrics = CommandMetrics.UNREGISTERED;
+
+    /**
+     * Creates a new AlyxCommand.
+     *
+     * @param plugin The plugin where the command is defined.
+     * @param requiredPermissions Permissions, any of which allow a guild member to use the command.
+     * @param requiredRoles Names of the roles, any of which allow a guild member to use the command.
+     * @param permissionLevel The minimum permission level required to use the command.
+     * @param guildOnly Whether the command can only be used in a guild.
+     * @param name The name of the command.
+     * @param commandChain The chain of commands needed to execute the command.
+     * @param parsers Parameter parsers used by the command.
+     * @param invoker Invoker for the Java method which executes the command.
+     */
+    public AlyxCommand(final AlyxPlugin<?> plugin, final Collection<Permission> requiredPermissions,
+                       final Collection<String> requiredRoles, final PermissionLevel permissionLevel,
+                       final boolean guildOnly, final String name, final List<List<String>> commandChain,
+                       final List<ParameterParser<?>> parsers, final CommandInvoker invoker) {
+        this.plugin = plugin;
+        this.requiredRoles = requiredRoles;
+        this.permissionLevel = permissionLevel;
+        this.guildOnly = guildOnly;
+        this.name = name;
+        this.commandChain = commandChain;
+        this.parsers = parsers;
+        this.invoker = invoker;
+        setRequiredPermissions(requiredPermissions);
+    }
 
     /**
      * Creates a new AlyxCommand.
@@ -47,13 +84,74 @@ public final class AlyxCommand {
      * @param name The name of the command.
      * @param commandChain The chain of commands needed to execute the command.
      * @param parsers Parameter parsers used by the command.
-     * @param method The Java method which executes the command.
+     * @param invoker Invoker for the Java method which executes the command.
      */
     public AlyxCommand(final AlyxPlugin<?> plugin, final String name, final List<List<String>> commandChain,
-                       final List<ParameterParser<?>> parsers, final Method method) {
+                       final List<ParameterParser<?>> parsers, final CommandInvoker invoker) {
 
         this(plugin, Collections.emptyList(), Collections.emptyList(),
-            PermissionLevel.EVERYONE, false, name, commandChain, parsers, method);
+            PermissionLevel.EVERYONE, false, name, commandChain, parsers, invoker);
+    }
+
+    /**
+     * Sets the permissions, any of which allow a guild member to use the command.
+     *
+     * @param requiredPermissions The command's required permissions.
+     */
+    public void setRequiredPermissions(final Collection<Permission> requiredPermissions) {
+        this.requiredPermissions = requiredPermissions;
+        this.requiredPermissionsRaw = Permission.getRaw(requiredPermissions);
+        this.requiredChannelPermissionsRaw = Permission.getRaw(requiredPermissions.stream()
+            .filter(Permission::isChannel)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Sets the rate limit of the command, replacing any existing limit and its usage.
+     *
+     * @param rateLimit The command's rate limit, or {@code null} to remove the limit.
+     * @throws AlyxException Exception thrown if the rate limit's uses or period are not positive.
+     */
+    public void setRateLimit(final RateLimitPolicy rateLimit) throws AlyxException {
+        this.rateLimiter = rateLimit == null ? null : new RateLimiter(rateLimit, RateLimiter.DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * Returns the rate limit of the command.
+     *
+     * @return The command's rate limit, or empty if it is not limited.
+     */
+    public Optional<RateLimitPolicy> getRateLimit() {
+        return Optional.ofNullable(rateLimiter).map(RateLimiter::getPolicy);
+    }
+
+    /**
+     * Attempts to use the command under its rate limit, for the user, channel or guild of the event
+     * depending on the limit's scope.
+     *
+     * @param event The Discord message event which triggered the command.
+     * @return Result of the attempt. Always allowed if the command is not limited.
+     */
+    private RateLimiter.Result acquireRateLimit(final MessageReceivedEvent event) {
+        final RateLimiter limiter = this.rateLimiter;
+        if (limiter == null) {
+            return RateLimiter.Result.allowed();
+        }
+
+        final long key;
+        switch (limiter.getPolicy().getScope()) {
+            case GUILD:
+                key = event.isFromGuild() ? event.getGuild().getIdLong() : event.getChannel().getIdLong();
+                break;
+            case CHANNEL:
+                key = event.getChannel().getIdLong();
+                break;
+            case USER:
+            default:
+                key = event.getAuthor().getIdLong();
+                break;
+        }
+        return limiter.acquire(key);
     }
 
     /**
@@ -63,14 +161,22 @@ public final class AlyxCommand {
      * @return Returns {@code true} if this command handles the event text command string.
      */
     public boolean matches(final String messageText) {
-        final String[] splitCheck = Strings.splitWithQuotes(messageText);
+        return matches(MessageTokens.tokenize(messageText));
+    }
 
-        if (splitCheck.length < commandChain.size()) {
+    /**
+     * Checks whether this command responds to the supplied, already tokenized, command string.
+     *
+     * @param tokens The event's message text minus the bot's prefix, split into words.
+     * @return Returns {@code true} if this command handles the event text command string.
+     */
+    public boolean matches(final MessageTokens tokens) {
+        if (tokens.size() < commandChain.size()) {
             return false;
         }
 
         for (int i = 0; i < commandChain.size(); i++) {
-            final String cmdPortion = splitCheck[i];
+            final String cmdPortion = tokens.get(i);
             if (!commandChain.get(i).contains(cmdPortion.trim())) {
                 return false;
             }
@@ -80,38 +186,42 @@ public final class AlyxCommand {
 
     /**
      * Extracts the parameter passed to a bot command, removing the command chain from
-     * the start of the string.
+     * the start of the message.
      *
-     * @param messageText The raw event message text, minus the command prefix.
+     * @param tokens The raw event message text, minus the command prefix, split into words.
      * @return Array of string parameters to pass to the command invoker.
      */
-    private String[] extractParameters(final String messageText) {
+    private String[] extractParameters(final MessageTokens tokens) {
         // we've already validated the command string at this point
-        final String[] splitMessageText = Strings.splitWithQuotes(messageText);
-        final List<String> parameters = new ArrayList<>();
-        final int parametersLen = splitMessageText.length - commandChain.size();
+        final int parametersLen = Math.max(0, tokens.size() - commandChain.size());
+        final String[] parameters = new String[parametersLen];
+        boolean allBlank = true;
 
         // skip past the command's in the message and grab just the parameters (if any)
         for (int i = 0; i < parametersLen; i++) {
-            final int argsPosition = i + commandChain.size();
-            parameters.add(splitMessageText[argsPosition]);
+            parameters[i] = tokens.get(i + commandChain.size());
+            allBlank &= Strings.isBlank(parameters[i]);
         }
         // clear out any empty parameters
         // TODO: This may be a valid use case in the future for empty double quotes
-        if (parameters.size() == 0 || parameters.stream().allMatch(Strings::isBlank)) {
+        if (allBlank) {
             return new String[]{};
         }
-        return parameters.toArray(new String[0]);
+        return parameters;
     }
 
     /**
-     * Checks whether a command method receives the raw message event as the first parameter.
+     * Invokes the command, passing any parameters to the command's method.
+     *
+     * If the parameters do not match the format of the method's parameters,
+     * the command's help text will instead by sent back to the user.
      *
-     * @return Returns {@code true} if the command's method receives the Discord event as the first parameter.
+     * @param event The Discord message event which triggered the command.
+     * @param messageText The raw event message text, minus the command prefix.
+     * @throws AlyxException Exception thrown if invoking the command failed.
      */
-    private boolean receivesEvent() {
-        final Parameter[] parameters = method.getParameters();
-        return parameters.length > 0 && parameters[0].getType().equals(MessageReceivedEvent.class);
+    public void invoke(final MessageReceivedEvent event, final String messageText) throws AlyxException {
+        invoke(event, MessageTokens.tokenize(messageText));
     }
 
     /**
@@ -120,48 +230,137 @@ public final class AlyxCommand {
      * If the parameters do not match the format of the method's parameters,
      * the command's help text will instead by sent back to the user.
      *
+     * Blocks until any parameters which are fetched from Discord are ready, see
+     * {@link #invokeAsync(MessageReceivedEvent, MessageTokens, Executor)}.
+     *
      * @param event The Discord message event which triggered the command.
-     * @param messageText The raw event message text, minus the command prefix.
+     * @param tokens The raw event message text, minus the command prefix, split into words.
      * @throws AlyxException Exception thrown if invoking the command failed.
      */
-    public void invoke(final MessageReceivedEvent event, final String messageText) throws AlyxException {
+    public void invoke(final MessageReceivedEvent event, final MessageTokens tokens) throws AlyxException {
+        try {
+            invokeAsync(event, tokens, Runnable::run).toCompletableFuture().join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof AlyxException) {
+                throw (AlyxException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Invokes the command once all of its parameters are parsed, without blocking while any of them
+     * are fetched from Discord.
+     *
+     * Each parameter is parsed with {@link ParameterParser#parseAsync(String, net.dv8tion.jda.api.events.Event)},
+     * so parameters which need to be fetched are fetched concurrently. If every parameter is parsed
+     * immediately, the command is run on the calling thread before this returns. Otherwise it is run
+     * on the executor once the last parameter is ready.
+     *
+     * If the parameters do not match the format of the method's parameters,
+     * the command's help text will instead by sent back to the user.
+     *
+     * The command's rate limit is only used once the user is known to be allowed to use the command.
+     *
+     * @param event The Discord message event which triggered the command.
+     * @param tokens The raw event message text, minus the command prefix, split into words.
+     * @param executor Executor which runs the command if any of its parameters were not ready immediately.
+     * @return Stage completed once the command has run, or completed exceptionally with the
+     *         {@link AlyxException} thrown if parsing the parameters or invoking the command failed.
+     */
+    public CompletionStage<Void> invokeAsync(final MessageReceivedEvent event, final MessageTokens tokens,
+                                             final Executor executor) {
 
         if (!canUseCommand(event)) {
-            return;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // only users allowed to use the command take up its rate limit
+        final RateLimiter.Result rateLimit = acquireRateLimit(event);
+        if (!rateLimit.isAllowed()) {
+            this.metrics.getRateLimited().increment();
+            if (rateLimit.isFirstRejection()) {
+                sendRateLimited(event, rateLimit);
+            }
+            return CompletableFuture.completedFuture(null);
         }
 
-        final String[] parameterArgs = extractParameters(messageText);
+        final String[] parameterArgs = extractParameters(tokens);
 
         // We matched the command, but it's missing parameters or has too many parameters
         if (parameterArgs.length != parsers.size()) {
             sendCommandHelp(event);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // place the event at the start of the array if the method receives the event as a parameter
-        final Object[] invokeArgs;
-        if (receivesEvent()) {
-            invokeArgs = new Object[parameterArgs.length + 1];
+        final int offset = invoker.isReceivesEvent() ? 1 : 0;
+        final Object[] invokeArgs = new Object[parameterArgs.length + offset];
+        if (offset == 1) {
             invokeArgs[0] = event;
-        } else {
-            invokeArgs = new Object[parameterArgs.length];
         }
 
-        // parse the parameter strings into their typed counterparts
+        // parse the parameter strings into their typed counterparts, keeping only those which aren't ready yet
+        final CommandMetrics commandMetrics = this.metrics;
+        final long parseStarted = System.nanoTime();
+        final CompletableFuture<?>[] pending = new CompletableFuture<?>[parameterArgs.length];
+        int pendingCount = 0;
         for (int i = 0; i < parameterArgs.length; i++) {
-            final Object parsed = parsers.get(i).parse(parameterArgs[i], event);
-            invokeArgs[i + 1] = parsed;
+            final int index = i + offset;
+            final Class<?> type = parsers.get(i).getType();
+            final CompletableFuture<?> parsed = parsers.get(i).parseAsync(parameterArgs[i], event)
+                .toCompletableFuture();
+            if (parsed.isDone() && !parsed.isCompletedExceptionally()) {
+                invokeArgs[index] = parsed.join();
+            } else {
+                pending[pendingCount++] = parsed.whenComplete((value, throwable) -> {
+                    if (throwable != null) {
+                        commandMetrics.recordParseFailure(type);
+                    }
+                }).thenAccept(value -> invokeArgs[index] = value);
+            }
         }
 
-        try {
-            method.invoke(plugin, invokeArgs);
-        } catch (final ReflectiveOperationException e) {
-            if (e.getCause() instanceof AlyxException) {
-                throw (AlyxException) e.getCause();
+        if (pendingCount == 0) {
+            commandMetrics.getParseLatency().recordSince(parseStarted);
+            try {
+                invokeNow(invokeArgs);
+                return CompletableFuture.completedFuture(null);
+            } catch (final AlyxException e) {
+                return CompletableFuture.failedFuture(e);
             }
+        }
+
+        final CompletableFuture<Void> allParsed = CompletableFuture.allOf(Arrays.copyOf(pending, pendingCount))
+            .whenComplete((result, throwable) -> commandMetrics.getParseLatency().recordSince(parseStarted));
+        return allParsed.thenRunAsync(() -> {
+            try {
+                invokeNow(invokeArgs);
+            } catch (final AlyxException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private void invokeNow(final Object[] invokeArgs) throws AlyxException {
+        final CommandMetrics commandMetrics = this.metrics;
+        final long started = System.nanoTime();
+        try {
+            invoker.invoke(invokeArgs);
+        } catch (final AlyxException | RuntimeException | Error e) {
+            commandMetrics.getErrors().increment();
+            throw e;
+        } catch (final Throwable e) {
+            commandMetrics.getErrors().increment();
             // TODO (release): Wrap this in an AlyxException
             // TODO: Leaving this as a Runtime exception during development
             throw new RuntimeException(e);
+        } finally {
+            commandMetrics.getInvokeLatency().recordSince(started);
         }
     }
 
@@ -188,31 +387,34 @@ public final class AlyxCommand {
         }
 
         // guild permission checks
-        if (event.isFromGuild() && event.getMember() != null) {
-            // role check
-            final List<String> userRoles = event.getMember().getRoles().stream().map(Role::getName)
-                .collect(Collectors.toList());
+        final Member member = event.getMember();
+        if (event.isFromGuild() && member != null) {
+            final PermissionCache permissionCache = plugin.getAlyx().getPermissionCache();
 
-            final boolean hasRole = requiredRoles.stream().anyMatch(userRoles::contains);
-            if (hasRole) {
+            // role check
+            if (permissionCache.hasAnyRole(member, requiredRoles)) {
                 return true;
             }
 
-            // permissions check
-            for (final Permission permission : requiredPermissions) {
-                final boolean hasChannelPermission = permission.isChannel() &&
-                    event.getMember().hasPermission(event.getTextChannel(), permission);
+            // permissions check, allowing channel permissions granted by the channel's overrides
+            if (requiredPermissionsRaw != 0) {
+                final boolean hasChannelPermission = requiredChannelPermissionsRaw != 0
+                    && (permissionCache.getPermissions(member, event.getTextChannel())
+                        & requiredChannelPermissionsRaw) != 0;
                 if (hasChannelPermission) {
                     return true;
                 }
 
-                final boolean hasGlobalPermission = event.getMember().hasPermission(permission);
+                final boolean hasGlobalPermission =
+                    (permissionCache.getPermissions(member) & requiredPermissionsRaw) != 0;
                 if (hasGlobalPermission) {
                     return true;
                 }
             }
         }
-        final PermissionLevel userPermissionLevel = PermissionLevel.getLevel(eventUser, plugin.getAlyx());
+        final PermissionLevel userPermissionLevel = member != null
+            ? PermissionLevel.getLevel(member, plugin.getAlyx())
+            : PermissionLevel.getLevel(eventUser, plugin.getAlyx());
         if (userPermissionLevel.isOk(permissionLevel)) {
             return true;
         }
@@ -220,6 +422,27 @@ public final class AlyxCommand {
         return false;
     }
 
+    /**
+     * Lets the user know their command was rejected by its rate limit, using the limit's message
+     * if it has one, or otherwise a reaction.
+     *
+     * Only sent for the first rejection since the last allowed use, so the responses to a user
+     * repeatedly using the command are not themselves rate limited by Discord.
+     *
+     * @param event The event which triggered the command.
+     * @param rateLimit The rejected attempt to use the command.
+     */
+    private void sendRateLimited(final MessageReceivedEvent event, final RateLimiter.Result rateLimit) {
+        final String message = getRateLimit().map(RateLimitPolicy::getMessage).orElse("");
+        if (message.isEmpty()) {
+            event.getMessage().addReaction("🐢").queue();
+            return;
+        }
+
+        final long seconds = Math.max(1, (rateLimit.getRetryAfter().toMillis() + 999) / 1000);
+        event.getChannel().sendMessage(message.replace("{seconds}", String.valueOf(seconds))).queue();
+    }
+
     /**
      * Sends the command's usage documentation back to the user.
      *
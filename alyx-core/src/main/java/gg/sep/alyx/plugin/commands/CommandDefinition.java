@@ -0,0 +1,45 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import net.dv8tion.jda.api.Permission;
+
+/**
+ * Describes a single command method of a plugin class, as read from its {@link Command} annotations
+ * at build time. Entries of a generated {@link CommandTable}.
+ *
+ * @param <P> The type of the plugin class which declares the command.
+ */
+@Getter
+@Builder
+public final class CommandDefinition<P> {
+
+    /**
+     * Calls a command method directly on an instance of its plugin.
+     *
+     * @param <P> The type of the plugin class which declares the command.
+     */
+    @FunctionalInterface
+    public interface Stub<P> {
+        /**
+         * Calls the command method.
+         *
+         * @param plugin The plugin to call the method on.
+         * @param arguments Arguments to pass to the method, one for each of its parameters.
+         * @throws Throwable Exception thrown by the method.
+         */
+        void invoke(P plugin, Object[] arguments) throws Throwable;
+    }
+
+    private final String name;
+    private final List<List<String>> commandChain;
+    private final List<Permission> requiredPermissions;
+    private final List<String> requiredRoles;
+    private final PermissionLevel permissionLevel;
+    private final boolean guildOnly;
+    private final List<Class<?>> parameterTypes;
+    private final RateLimitPolicy rateLimit;
+    private final Stub<P> stub;
+}
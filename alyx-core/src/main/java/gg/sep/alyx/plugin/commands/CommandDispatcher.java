@@ -0,0 +1,276 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import gg.sep.alyx.plugin.model.BotConfig;
+
+/**
+ * Executes commands off of JDA's event thread.
+ *
+ * Each dispatched command is handed to an executor, so a slow or blocking command does not stall
+ * the processing of other Discord events. Commands which share an ordering key (the channel or guild
+ * they were sent from, see {@link Ordering}) are run one at a time in the order they were dispatched,
+ * while commands with different keys run concurrently.
+ *
+ * A command may also finish asynchronously, by returning a stage from {@link #dispatchAsync(Object, Supplier)}.
+ * It is counted as running, and holds up the commands queued behind it, until the stage completes,
+ * without occupying an executor thread while it waits.
+ *
+ * The dispatcher tracks how many commands are waiting or running, and rejects new commands once
+ * that number reaches the configured limit.
+ */
+@Log4j2
+public final class CommandDispatcher {
+
+    /**
+     * Default maximum number of commands which can be waiting or running at once.
+     */
+    public static final int DEFAULT_QUEUE_LIMIT = 1000;
+
+    /**
+     * Determines which commands must be run in the order they were received.
+     */
+    public enum Ordering {
+        /**
+         * Commands sent in the same channel are run in order.
+         */
+        CHANNEL,
+        /**
+         * Commands sent anywhere in the same guild are run in order. Commands sent in private
+         * channels are ordered by channel.
+         */
+        GUILD
+    }
+
+    private final ExecutorService executor;
+    private final Ordering ordering;
+    @Getter
+    private final int queueLimit;
+
+    private final Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param executor The executor which commands are run on. It will be shut down along with the dispatcher.
+     * @param ordering Which commands must be run in the order they were received.
+     * @param queueLimit Maximum number of commands which can be waiting or running at once.
+     */
+    public CommandDispatcher(final ExecutorService executor, final Ordering ordering, final int queueLimit) {
+        this.executor = executor;
+        this.ordering = ordering;
+        this.queueLimit = queueLimit;
+    }
+
+    /**
+     * Creates a new dispatcher from the settings in a bot's configuration, using defaults for
+     * any settings which are not present.
+     *
+     * @param identifier Identifier used to name the threads spawned by this dispatcher. A good
+     *                   practices is to use the Bot's name.
+     * @param botConfig The bot's configuration.
+     * @return New dispatcher for the bot.
+     */
+    public static CommandDispatcher fromConfig(final String identifier, final BotConfig botConfig) {
+        final int threads = Optional.ofNullable(botConfig.getCommandThreads())
+            .orElse(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        final boolean virtualThreads = Boolean.TRUE.equals(botConfig.getCommandVirtualThreads());
+        final Ordering ordering = Optional.ofNullable(botConfig.getCommandOrdering()).orElse(Ordering.CHANNEL);
+        final int queueLimit = Optional.ofNullable(botConfig.getCommandQueueLimit()).orElse(DEFAULT_QUEUE_LIMIT);
+
+        return new CommandDispatcher(createExecutor(identifier, threads, virtualThreads), ordering, queueLimit);
+    }
+
+    /**
+     * Creates an executor for running commands.
+     *
+     * If {@code virtualThreads} is set and the running JVM supports virtual threads, each command is
+     * run on its own virtual thread and {@code threads} is ignored. Otherwise, a fixed pool of
+     * {@code threads} daemon threads is used.
+     *
+     * @param identifier Identifier used to name the threads spawned by the executor.
+     * @param threads Number of threads in the pool.
+     * @param virtualThreads Whether to use virtual threads when they are available.
+     * @return Executor for running commands.
+     */
+    public static ExecutorService createExecutor(final String identifier, final int threads,
+                                                 final boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (final ReflectiveOperationException e) {
+                log.warn("Virtual threads are not available in this JVM, using a thread pool instead.");
+            }
+        }
+        return Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+            .namingPattern("CommandDispatcher-" + identifier + "-%d")
+            .daemon(true)
+            .build());
+    }
+
+    /**
+     * Returns the key which commands triggered by the event are ordered by.
+     *
+     * @param event The event which triggered the command.
+     * @return The ordering key for the event.
+     */
+    public Object orderingKey(final MessageReceivedEvent event) {
+        if (ordering == Ordering.GUILD && event.isFromGuild()) {
+            return event.getGuild().getIdLong();
+        }
+        return event.getChannel().getIdLong();
+    }
+
+    /**
+     * Submits a command to be run after any commands previously dispatched with the same key.
+     *
+     * @param key The ordering key of the command. See {@link #orderingKey(MessageReceivedEvent)}.
+     * @param command The command to run.
+     * @return Returns {@code true} if the command was accepted, or {@code false} if it was rejected
+     *         because the dispatcher is saturated or has been shut down.
+     */
+    public boolean dispatch(final Object key, final Runnable command) {
+        return dispatchAsync(key, () -> {
+            command.run();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Submits a command which finishes asynchronously to be run after any commands previously
+     * dispatched with the same key.
+     *
+     * The command is started on the executor, and commands queued behind it are held until the
+     * stage it returns completes.
+     *
+     * @param key The ordering key of the command. See {@link #orderingKey(MessageReceivedEvent)}.
+     * @param command Starts the command, returning a stage which completes when the command finishes.
+     * @return Returns {@code true} if the command was accepted, or {@code false} if it was rejected
+     *         because the dispatcher is saturated or has been shut down.
+     */
+    public boolean dispatchAsync(final Object key, final Supplier<? extends CompletionStage<?>> command) {
+        if (queueDepth.incrementAndGet() > queueLimit || executor.isShutdown()) {
+            queueDepth.decrementAndGet();
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+
+        final Function<Object, CompletionStage<Void>> task = ignored -> {
+            CompletionStage<?> finished;
+            try {
+                finished = command.get();
+            } catch (final Throwable e) {
+                finished = CompletableFuture.failedFuture(e);
+            }
+            return finished.handle((result, throwable) -> {
+                if (throwable != null) {
+                    log.error("Uncaught exception while running a command.", throwable);
+                }
+                queueDepth.decrementAndGet();
+                return null;
+            });
+        };
+
+        final CompletableFuture<Void> tail;
+        try {
+            tail = tails.compute(key, (k, previous) -> previous == null
+                ? CompletableFuture.completedFuture(null).thenComposeAsync(task, executor)
+                : previous.thenComposeAsync(task, executor));
+        } catch (final RejectedExecutionException e) {
+            queueDepth.decrementAndGet();
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+
+        // drop the key once nothing else has been queued behind this command
+        tail.whenComplete((result, throwable) -> {
+            tails.remove(key, tail);
+            if (throwable != null) {
+                // the executor rejected the command, so it never ran
+                queueDepth.decrementAndGet();
+                rejectedCount.incrementAndGet();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Returns the executor which commands are run on, for continuing a command which finishes
+     * asynchronously. See {@link #dispatchAsync(Object, Supplier)}.
+     *
+     * @return The executor which commands are run on.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns the number of commands which are waiting to run or currently running.
+     *
+     * @return The number of commands which are waiting to run or currently running.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Returns the number of commands which have been rejected since the dispatcher was created.
+     *
+     * @return The number of commands which have been rejected.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Stops accepting new commands and waits for any queued commands to finish, up to the timeout
+     * specified in {@code timeout}/{@code unit}.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The time unit of the timeout argument
+     * @return {@code true} if all commands finished and {@code false} if the timeout elapsed first
+     */
+    public boolean shutdown(final long timeout, final TimeUnit unit) {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            // queued commands are chained onto earlier ones, so wait for them before closing the executor
+            CompletableFuture.allOf(tails.values().toArray(new CompletableFuture[0]))
+                .get(timeout, unit);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | TimeoutException e) {
+            log.warn("Timed out waiting for queued commands to finish.");
+        }
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
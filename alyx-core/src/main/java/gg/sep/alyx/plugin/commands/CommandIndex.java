@@ -0,0 +1,119 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Getter;
+
+import gg.sep.alyx.plugin.util.MessageTokens;
+
+/**
+ * A prefix tree (trie) of {@link AlyxCommand}s, keyed on the tokens of each command's chain.
+ *
+ * Each depth of the tree corresponds to one position in {@link AlyxCommand#getCommandChain()}, with
+ * the command's name and each of its aliases at that position being edges to a separate child node.
+ * Resolving a message walks the tree one token at a time, so the cost of finding a command depends
+ * on the length of the command chain rather than on the number of commands which are loaded.
+ *
+ * Instances are immutable and safe to share between threads. A new index should be built whenever
+ * the set of loaded commands changes.
+ */
+public final class CommandIndex {
+
+    private static final CommandIndex EMPTY = new CommandIndex(Collections.emptyList());
+
+    private final Node root = new Node();
+    @Getter
+    private final int size;
+
+    /**
+     * Builds a new index over the given commands.
+     *
+     * If two commands share the exact same command chain, the first one in the collection's
+     * iteration order will be the one resolved by the index.
+     *
+     * @param commands The commands to index.
+     */
+    public CommandIndex(final Collection<AlyxCommand> commands) {
+        for (final AlyxCommand command : commands) {
+            insert(root, command, 0);
+        }
+        this.size = commands.size();
+    }
+
+    /**
+     * Returns an index which does not contain any commands.
+     *
+     * @return An index which does not contain any commands.
+     */
+    public static CommandIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Finds the command with the longest command chain which handles the supplied command string.
+     *
+     * @param messageText The event's message text minus the bot's prefix.
+     * @return The matching command with the longest command chain, or empty if no command matches.
+     */
+    public Optional<AlyxCommand> findCommand(final String messageText) {
+        return findCommand(MessageTokens.tokenize(messageText));
+    }
+
+    /**
+     * Finds the command with the longest command chain which handles the already tokenized message.
+     *
+     * @param tokens The event's message text minus the bot's prefix, split into words.
+     * @return The matching command with the longest command chain, or empty if no command matches.
+     */
+    public Optional<AlyxCommand> findCommand(final MessageTokens tokens) {
+        Node node = root;
+        AlyxCommand longest = null;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            node = node.children.get(tokens.get(i).trim());
+            if (node == null) {
+                break;
+            }
+            if (node.command != null) {
+                longest = node.command;
+            }
+        }
+        return Optional.ofNullable(longest);
+    }
+
+    /**
+     * Adds a command to the tree below {@code node}, creating an edge for the command's name and
+     * each of its aliases at the given {@code depth} of its command chain.
+     *
+     * @param node The node to insert the command below.
+     * @param command The command to insert.
+     * @param depth The current position in the command's chain.
+     */
+    private static void insert(final Node node, final AlyxCommand command, final int depth) {
+        final List<List<String>> commandChain = command.getCommandChain();
+        if (depth == commandChain.size()) {
+            if (node.command == null) {
+                node.command = command;
+            }
+            return;
+        }
+
+        for (final String token : commandChain.get(depth)) {
+            final Node child = node.children.computeIfAbsent(token.trim(), key -> new Node());
+            insert(child, command, depth + 1);
+        }
+    }
+
+    /**
+     * A single node of the tree. The command is set if a command chain ends at this node.
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private AlyxCommand command;
+    }
+}
@@ -0,0 +1,113 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.Getter;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+import gg.sep.alyx.plugin.AlyxException;
+
+/**
+ * Invokes the Java method which executes an {@link AlyxCommand}.
+ *
+ * The method is bound to its plugin instance once, when the plugin's commands are loaded, using a
+ * {@link MethodHandle} which accepts the command's arguments as a single array. Invoking the command
+ * then avoids the access checks and argument copying of {@link Method#invoke(Object, Object...)}.
+ *
+ * Metadata about the method's parameters is also computed once while binding, so it does not need
+ * to be inspected each time the command is executed.
+ *
+ * Plugins with a generated {@link CommandTable} skip binding entirely, and instead invoke each method
+ * through a stub which calls it directly. See {@link CommandLoader}.
+ */
+public final class CommandInvoker {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object[].class);
+
+    @Getter
+    private final boolean receivesEvent;
+    @Getter
+    private final int parameterCount;
+
+    private final Invocation invocation;
+
+    /**
+     * Calls a command's method with its arguments.
+     */
+    @FunctionalInterface
+    interface Invocation {
+        /**
+         * Calls the method.
+         *
+         * @param arguments Arguments to pass to the method.
+         * @throws Throwable Exception thrown by the method.
+         */
+        void invoke(Object[] arguments) throws Throwable;
+    }
+
+    private CommandInvoker(final List<Class<?>> parameterTypes, final Invocation invocation) {
+        this.invocation = invocation;
+        this.parameterCount = parameterTypes.size();
+        this.receivesEvent = !parameterTypes.isEmpty() && parameterTypes.get(0).equals(MessageReceivedEvent.class);
+    }
+
+    /**
+     * Creates an invoker which calls a command's method through the given invocation.
+     *
+     * @param parameterTypes The parameter types of the method.
+     * @param invocation Calls the method.
+     * @return Invoker for the method.
+     */
+    static CommandInvoker of(final List<Class<?>> parameterTypes, final Invocation invocation) {
+        return new CommandInvoker(parameterTypes, invocation);
+    }
+
+    /**
+     * Binds a command method to the object which it will be invoked on.
+     *
+     * @param target The object the method will be invoked on. Ignored if the method is static.
+     * @param method The Java method which executes the command.
+     * @return Invoker for the method, bound to the target.
+     * @throws AlyxException Thrown if the method is not accessible, or is an instance method and
+     *                       the target is not an instance of its declaring class.
+     */
+    public static CommandInvoker bind(final Object target, final Method method) throws AlyxException {
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic && !method.getDeclaringClass().isInstance(target)) {
+            throw new AlyxException(String.format("Unable to bind command method '%s' to '%s'",
+                method.getName(), target));
+        }
+
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!isStatic) {
+                handle = handle.bindTo(target);
+            }
+            final MethodHandle spreader = handle.asSpreader(Object[].class, method.getParameterCount())
+                .asType(INVOKER_TYPE);
+            return new CommandInvoker(Arrays.asList(method.getParameterTypes()),
+                arguments -> spreader.invokeExact(arguments));
+        } catch (final IllegalAccessException | RuntimeException e) {
+            throw new AlyxException(String.format("Unable to bind command method '%s': %s",
+                method.getName(), e.getMessage()));
+        }
+    }
+
+    /**
+     * Invokes the method with the given arguments.
+     *
+     * Any exception thrown by the method is thrown directly, without being wrapped.
+     *
+     * @param arguments Arguments to pass to the method. Must be exactly {@link #getParameterCount()} long.
+     * @throws Throwable Exception thrown by the method.
+     */
+    public void invoke(final Object[] arguments) throws Throwable {
+        invocation.invoke(arguments);
+    }
+}
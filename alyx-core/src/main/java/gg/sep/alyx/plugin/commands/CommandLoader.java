@@ -0,0 +1,284 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.log4j.Log4j2;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+
+import gg.sep.alyx.plugin.AlyxException;
+import gg.sep.alyx.plugin.AlyxPlugin;
+
+/**
+ * Builds the {@link AlyxCommand}s declared by a plugin's {@link Command} methods.
+ *
+ * If the plugin's class has a {@link CommandTable} generated at build time, the commands are built
+ * from the table, and each method is called through the table's stub. Otherwise, the plugin's
+ * methods and their annotations are read through reflection, and each method is bound using
+ * {@link CommandInvoker#bind(Object, Method)}.
+ */
+@Log4j2
+@UtilityClass
+public class CommandLoader {
+
+    private static final ClassValue<Optional<CommandTable<?>>> TABLES = new ClassValue<>() {
+        @Override
+        protected Optional<CommandTable<?>> computeValue(final Class<?> type) {
+            return createTable(type);
+        }
+    };
+
+    /**
+     * Builds the commands declared by the plugin, using its generated command table if it has one.
+     *
+     * @param plugin The plugin to load the commands of.
+     * @param parameterParsers The parameter parsers available to the commands, keyed by parameter type.
+     * @return The plugin's commands.
+     * @throws AlyxException Exception thrown if a command's parameter parsers could not be found,
+     *                       or its method could not be bound.
+     */
+    public static List<AlyxCommand> load(final AlyxPlugin<?> plugin,
+                                         final Map<Class<?>, ParameterParser<?>> parameterParsers)
+        throws AlyxException {
+
+        final Optional<CommandTable<?>> table = findTable(plugin.getClass());
+        if (table.isPresent()) {
+            return loadFromTable(plugin, table.get(), parameterParsers);
+        }
+        return loadReflective(plugin, parameterParsers);
+    }
+
+    /**
+     * Returns the generated command table of a plugin class.
+     *
+     * @param pluginClass The plugin class.
+     * @return The class's command table, or empty if one was not generated for it.
+     */
+    public static Optional<CommandTable<?>> findTable(final Class<?> pluginClass) {
+        return TABLES.get(pluginClass);
+    }
+
+    /**
+     * Builds the commands declared in a plugin's generated command table.
+     *
+     * @param plugin The plugin to load the commands of.
+     * @param table The command table generated for the plugin's class.
+     * @param parameterParsers The parameter parsers available to the commands, keyed by parameter type.
+     * @param <P> The type of the plugin class.
+     * @return The plugin's commands.
+     * @throws AlyxException Exception thrown if a command's parameter parsers could not be found,
+     *                       or its rate limit is invalid.
+     */
+    public static <P> List<AlyxCommand> loadFromTable(final AlyxPlugin<?> plugin, final CommandTable<P> table,
+                                                      final Map<Class<?>, ParameterParser<?>> parameterParsers)
+        throws AlyxException {
+
+        // the table was generated for the plugin's own class
+        @SuppressWarnings("unchecked")
+        final P target = (P) plugin;
+
+        final List<AlyxCommand> commands = new ArrayList<>();
+        for (final CommandDefinition<P> definition : table.getCommands()) {
+            final CommandDefinition.Stub<P> stub = definition.getStub();
+            final CommandInvoker invoker = CommandInvoker.of(definition.getParameterTypes(),
+                arguments -> stub.invoke(target, arguments));
+
+            final AlyxCommand command = new AlyxCommand(
+                plugin,
+                definition.getRequiredPermissions(),
+                definition.getRequiredRoles(),
+                definition.getPermissionLevel(),
+                definition.isGuildOnly(),
+                definition.getName(),
+                definition.getCommandChain(),
+                extractParsers(definition.getParameterTypes(), parameterParsers),
+                invoker
+            );
+            command.setRateLimit(definition.getRateLimit());
+            commands.add(command);
+        }
+        return commands;
+    }
+
+    /**
+     * Builds the commands declared by a plugin by reflecting over its methods.
+     *
+     * @param plugin The plugin to load the commands of.
+     * @param parameterParsers The parameter parsers available to the commands, keyed by parameter type.
+     * @return The plugin's commands.
+     * @throws AlyxException Exception thrown if a command's parameter parsers could not be found,
+     *                       or its method could not be bound.
+     */
+    public static List<AlyxCommand> loadReflective(final AlyxPlugin<?> plugin,
+                                                   final Map<Class<?>, ParameterParser<?>> parameterParsers)
+        throws AlyxException {
+
+        final List<AlyxCommand> commands = new ArrayList<>();
+        for (final Method method : plugin.getClass().getDeclaredMethods()) {
+            final Command[] cmdAnnotations = method.getAnnotationsByType(Command.class);
+            if (cmdAnnotations != null && cmdAnnotations.length > 0) {
+                commands.add(parseCommand(plugin, cmdAnnotations, method, parameterParsers));
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Parses a method and its {@link Command} annotations into an {@link AlyxCommand}.
+     *
+     * @param plugin The plugin which declares the method.
+     * @param commands Array of the {@link Command} annotations present on the {@code method}.
+     * @param method The method which will be used to execute the command.
+     * @param parameterParsers The parameter parsers available to the command, keyed by parameter type.
+     * @return Constructed {@link AlyxCommand} from the plugin's method.
+     * @throws AlyxException Exception thrown if extracting the command's paramter parsers or binding
+     *                       the command's method fails, or its rate limit is invalid.
+     */
+    private static AlyxCommand parseCommand(final AlyxPlugin<?> plugin, final Command[] commands,
+                                            final Method method,
+                                            final Map<Class<?>, ParameterParser<?>> parameterParsers)
+        throws AlyxException {
+
+        final List<List<String>> commandChain = getCommandChain(commands);
+        final List<ParameterParser<?>> commandParsers =
+            extractParsers(Arrays.asList(method.getParameterTypes()), parameterParsers);
+        final CommandInvoker invoker = CommandInvoker.bind(plugin, method);
+
+        // use the permissions associated with the last command for now
+        // TODO
+        final Command lastCommand = commands[commands.length - 1];
+        final String[] requiredRoles = lastCommand.roles();
+        final Permission[] requiredPermissions = lastCommand.permissions();
+
+        final AlyxCommand command = new AlyxCommand(
+            plugin,
+            Arrays.asList(requiredPermissions),
+            Arrays.asList(requiredRoles),
+            lastCommand.level(),
+            lastCommand.guildOnly(),
+            getCommandName(commands),
+            commandChain,
+            commandParsers,
+            invoker
+        );
+
+        // the method's own rate limit, otherwise the plugin's default
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        if (rateLimit == null) {
+            rateLimit = plugin.getClass().getAnnotation(RateLimit.class);
+        }
+        command.setRateLimit(rateLimit == null ? null : RateLimitPolicy.of(rateLimit));
+        return command;
+    }
+
+    /**
+     * Returns the name of the command.
+     *
+     * If the command is a nested command, will return the each's command name joined by a space.
+     *
+     * @param commands Array of commands on the method.
+     * @return The name of the command.
+     */
+    private static String getCommandName(final Command[] commands) {
+        final List<String> names = Stream.of(commands)
+            .map(Command::name)
+            .collect(Collectors.toList());
+        return String.join(" ", names);
+    }
+
+    /**
+     * Generates a list of the command's name plus its aliases for each of the commands
+     * in the method's command chain.
+     *
+     * For example, given the following method:
+     *
+     *   {@code
+     *     @Command(name = "foo", aliases = {"one", "two"})
+     *     @Command(name = "bar", aliases = {"baz"})
+     *     public void command(MessageReceivedEvent event) {
+     *
+     *     }
+     *   }
+     *
+     * The result of method would be: {@code [ ["foo", "one" two"], ["bar, "baz"] ]}.
+     *
+     * The method could be triggered by any one of:
+     *   - {@code !foo bar}
+     *   - {@code !one baz}
+     *   - {@code !two bar}
+     *
+     * @param commands Array of command annotations on the command method.
+     * @return List of the command's name plus its aliases which makes up the command's name chain.
+     */
+    private static List<List<String>> getCommandChain(final Command[] commands) {
+        return Stream.of(commands)
+            .map(command -> {
+                final List<String> withAliases = new ArrayList<>();
+                withAliases.add(command.name());
+                withAliases.addAll(Arrays.asList(command.aliases()));
+                return withAliases;
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Extracts a list of parameter parsers that are needed to execute this command.
+     *
+     * This list is ordered, and should match the exact size of parameters passed to
+     * the command.
+     * @param parameterTypes The parameter types of the command's method.
+     * @param parameterParsers The parameter parsers available to the command, keyed by parameter type.
+     * @return List of parameter parsers that are needed to execute this command.
+     * @throws AlyxException Exception thrown if a parser has not been registered for a given
+     *                       parameter type on the method.
+     */
+    private static List<ParameterParser<?>> extractParsers(final List<Class<?>> parameterTypes,
+                                                           final Map<Class<?>, ParameterParser<?>> parameterParsers)
+        throws AlyxException {
+
+        final List<ParameterParser<?>> parsers = new ArrayList<>();
+        for (final Class<?> parameterType : parameterTypes) {
+            if (parameterType.equals(MessageReceivedEvent.class)) {
+                continue;
+            }
+
+            final ParameterParser<?> parser = parameterParsers.get(parameterType);
+            if (parser == null) {
+                throw new AlyxException(String.format("A parameter parser for '%s' does not exist", parameterType));
+            }
+            parsers.add(parser);
+        }
+        return parsers;
+    }
+
+    /**
+     * Loads and instantiates the command table generated for a class.
+     *
+     * @param type The plugin class.
+     * @return The class's command table, or empty if one was not generated for it.
+     */
+    private static Optional<CommandTable<?>> createTable(final Class<?> type) {
+        final String tableName = type.getName() + CommandTable.CLASS_SUFFIX;
+        try {
+            final Class<?> tableClass = Class.forName(tableName, true, type.getClassLoader());
+            if (!CommandTable.class.isAssignableFrom(tableClass)) {
+                log.warn("Ignoring command table which does not implement CommandTable. class={}", tableName);
+                return Optional.empty();
+            }
+            return Optional.of((CommandTable<?>) tableClass.getDeclaredConstructor().newInstance());
+        } catch (final ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (final ReflectiveOperationException | LinkageError e) {
+            log.warn("Unable to load command table, falling back to reflection. class={}", tableName, e);
+            return Optional.empty();
+        }
+    }
+}
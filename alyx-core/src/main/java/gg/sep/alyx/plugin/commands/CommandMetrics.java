@@ -0,0 +1,85 @@
+package gg.sep.alyx.plugin.commands;
+
+import lombok.Getter;
+
+import gg.sep.alyx.plugin.metrics.Counter;
+import gg.sep.alyx.plugin.metrics.LatencyHistogram;
+import gg.sep.alyx.plugin.metrics.MetricFamily;
+import gg.sep.alyx.plugin.metrics.MetricsRegistry;
+
+/**
+ * The latencies and counters of a single command, labelled by its plugin and name.
+ *
+ * The metrics are looked up once, when the command is loaded, so recording them while handling
+ * a command does not touch the registry.
+ */
+public final class CommandMetrics {
+
+    /**
+     * Metrics of commands which have not been loaded into a bot, which are never exported.
+     */
+    static final CommandMetrics UNREGISTERED = register(new MetricsRegistry(), "", "");
+
+    @Getter
+    private final LatencyHistogram dispatchLatency;
+    @Getter
+    private final LatencyHistogram parseLatency;
+    @Getter
+    private final LatencyHistogram invokeLatency;
+    @Getter
+    private final Counter errors;
+    @Getter
+    private final Counter rateLimited;
+    @Getter
+    private final Counter rejected;
+
+    private final MetricFamily<Counter> parseFailures;
+    private final String plugin;
+    private final String command;
+
+    private CommandMetrics(final MetricsRegistry registry, final String plugin, final String command) {
+        this.plugin = plugin;
+        this.command = command;
+        this.dispatchLatency = registry.histogram("alyx_command_dispatch_seconds",
+            "Time commands waited for the dispatcher before starting.", "plugin", "command")
+            .labels(plugin, command);
+        this.parseLatency = registry.histogram("alyx_command_parse_seconds",
+            "Time taken to parse command parameters, including fetching them from Discord.", "plugin", "command")
+            .labels(plugin, command);
+        this.invokeLatency = registry.histogram("alyx_command_invoke_seconds",
+            "Time taken to run commands once their parameters are parsed.", "plugin", "command")
+            .labels(plugin, command);
+        this.errors = registry.counter("alyx_command_errors_total",
+            "Commands which failed with an exception.", "plugin", "command")
+            .labels(plugin, command);
+        this.rateLimited = registry.counter("alyx_command_rate_limited_total",
+            "Commands rejected by their rate limit.", "plugin", "command")
+            .labels(plugin, command);
+        this.rejected = registry.counter("alyx_command_rejected_total",
+            "Commands rejected because the dispatcher was saturated.", "plugin", "command")
+            .labels(plugin, command);
+        this.parseFailures = registry.counter("alyx_command_parse_failures_total",
+            "Command parameters which could not be parsed, by parameter type.", "plugin", "command", "type");
+    }
+
+    /**
+     * Registers the metrics of a command, or returns its existing metrics if they are already registered.
+     *
+     * @param registry The registry to register the metrics in.
+     * @param plugin Name of the command's plugin.
+     * @param command Name of the command.
+     * @return The command's metrics.
+     */
+    public static CommandMetrics register(final MetricsRegistry registry, final String plugin, final String command) {
+        return new CommandMetrics(registry, plugin, command);
+    }
+
+    /**
+     * Counts a parameter which could not be parsed.
+     *
+     * @param type The type the parameter was being parsed into.
+     */
+    public void recordParseFailure(final Class<?> type) {
+        parseFailures.labels(plugin, command, type.getSimpleName()).increment();
+    }
+}
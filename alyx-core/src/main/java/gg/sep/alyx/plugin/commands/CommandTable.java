@@ -0,0 +1,29 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.List;
+
+import gg.sep.alyx.plugin.commands.processor.CommandTableProcessor;
+
+/**
+ * The commands declared by a plugin class, generated at build time by {@link CommandTableProcessor}.
+ *
+ * A table is generated next to each class which declares {@link Command} methods, named after the
+ * class's binary name followed by {@value #CLASS_SUFFIX}. {@link CommandLoader} uses the table to
+ * load the plugin's commands without reflecting over its methods and annotations.
+ *
+ * @param <P> The type of the plugin class.
+ */
+public interface CommandTable<P> {
+
+    /**
+     * Suffix added to the binary name of a plugin class to name its generated table.
+     */
+    String CLASS_SUFFIX = "_CommandTable";
+
+    /**
+     * Returns the commands declared by the plugin class, in the order they are declared.
+     *
+     * @return The plugin class's commands.
+     */
+    List<CommandDefinition<P>> getCommands();
+}
@@ -0,0 +1,411 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import net.dv8tion.jda.api.entities.Emote;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildChannel;
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.events.ReconnectedEvent;
+import net.dv8tion.jda.api.events.channel.category.CategoryCreateEvent;
+import net.dv8tion.jda.api.events.channel.category.CategoryDeleteEvent;
+import net.dv8tion.jda.api.events.channel.category.update.CategoryUpdateNameEvent;
+import net.dv8tion.jda.api.events.channel.store.StoreChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.store.StoreChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.store.update.StoreChannelUpdateNameEvent;
+import net.dv8tion.jda.api.events.channel.text.TextChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.text.TextChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.text.update.TextChannelUpdateNameEvent;
+import net.dv8tion.jda.api.events.channel.voice.VoiceChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.voice.VoiceChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.voice.update.VoiceChannelUpdateNameEvent;
+import net.dv8tion.jda.api.events.emote.EmoteAddedEvent;
+import net.dv8tion.jda.api.events.emote.EmoteRemovedEvent;
+import net.dv8tion.jda.api.events.emote.update.EmoteUpdateNameEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.GuildUnavailableEvent;
+import net.dv8tion.jda.api.events.role.RoleCreateEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+/**
+ * Indexes the roles, channels and emotes of each guild by their case insensitive name.
+ *
+ * A guild's index is built from JDA's cache the first time a name is looked up in it, so guilds
+ * which never look up a name never have one. Once built, the index is kept up to date from the
+ * create, delete and rename events of the guild's roles, channels and emotes, and a lookup is a
+ * single map read rather than a scan of the guild.
+ *
+ * Events which race with building the index can leave a name pointing at an entity which was
+ * deleted or renamed. Lookups resolve each ID through JDA's cache and check the entity's current
+ * name, so these stale IDs are never returned. A guild's index is dropped when the bot leaves
+ * the guild or the guild becomes unavailable, and every index is dropped when a shard reconnects
+ * and JDA rebuilds its cache without firing events.
+ */
+public class GuildNameIndex extends ListenerAdapter {
+
+    private static final long[] NO_IDS = new long[0];
+
+    // GuildChannel#compareTo rejects channels of different types, so channels are ordered the way
+    // Discord lists them: text and store channels, then voice channels, then categories
+    private static final Comparator<GuildChannel> CHANNEL_ORDER = Comparator
+        .comparingInt((GuildChannel channel) -> channel.getType().getSortBucket())
+        .thenComparingInt(GuildChannel::getPositionRaw)
+        .thenComparingLong(GuildChannel::getIdLong);
+
+    private final Map<Long, GuildEntry> guilds = new ConcurrentHashMap<>();
+
+    private static final class NameTable {
+        private final Map<String, long[]> ids = new ConcurrentHashMap<>();
+
+        private long[] get(final String name) {
+            return ids.getOrDefault(fold(name), NO_IDS);
+        }
+
+        private void add(final String name, final long id) {
+            ids.compute(fold(name), (key, existing) -> {
+                if (existing == null) {
+                    return new long[] {id};
+                }
+                for (final long existingId : existing) {
+                    if (existingId == id) {
+                        return existing;
+                    }
+                }
+                final long[] added = Arrays.copyOf(existing, existing.length + 1);
+                added[existing.length] = id;
+                return added;
+            });
+        }
+
+        private void remove(final String name, final long id) {
+            ids.computeIfPresent(fold(name), (key, existing) -> {
+                final long[] removed = Arrays.stream(existing).filter(existingId -> existingId != id).toArray();
+                return removed.length == 0 ? null : removed;
+            });
+        }
+
+        private void rename(final String oldName, final String newName, final long id) {
+            remove(oldName, id);
+            add(newName, id);
+        }
+
+        private <T extends ISnowflake> void addAll(final Collection<T> entities, final Function<T, String> name) {
+            for (final T entity : entities) {
+                add(name.apply(entity), entity.getIdLong());
+            }
+        }
+    }
+
+    private static final class GuildEntry {
+        private final NameTable roles = new NameTable();
+        private final NameTable channels = new NameTable();
+        private final NameTable emotes = new NameTable();
+        private volatile boolean built;
+
+        private GuildEntry build(final Guild guild) {
+            if (!built) {
+                synchronized (this) {
+                    if (!built) {
+                        roles.addAll(guild.getRoles(), Role::getName);
+                        channels.addAll(guild.getCategories(), GuildChannel::getName);
+                        channels.addAll(guild.getTextChannels(), GuildChannel::getName);
+                        channels.addAll(guild.getVoiceChannels(), GuildChannel::getName);
+                        channels.addAll(guild.getStoreChannels(), GuildChannel::getName);
+                        emotes.addAll(guild.getEmotes(), Emote::getName);
+                        built = true;
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Finds the guild's role with the given name, ignoring case.
+     *
+     * If several roles have the name, the highest role is returned, the first of them in {@link Guild#getRoles()}.
+     *
+     * @param guild The guild.
+     * @param name Name of the role.
+     * @return The role, or {@code null} if the guild has no role with the name.
+     */
+    public Role findRole(final Guild guild, final String name) {
+        return find(entry(guild).roles, name, guild::getRoleById, Role::getName, Comparator.reverseOrder());
+    }
+
+    /**
+     * Finds the guild's channel or category with the given name, ignoring case.
+     *
+     * If several channels have the name, text and store channels are preferred over voice channels, and
+     * voice channels over categories. Channels of the same kind are ordered by position, then by ID.
+     *
+     * @param guild The guild.
+     * @param name Name of the channel.
+     * @return The channel, or {@code null} if the guild has no channel with the name.
+     */
+    public GuildChannel findChannel(final Guild guild, final String name) {
+        return find(entry(guild).channels, name, guild::getGuildChannelById, GuildChannel::getName, CHANNEL_ORDER);
+    }
+
+    /**
+     * Finds the guild's emote with the given name, ignoring case.
+     *
+     * If several emotes have the name, the oldest of them is returned.
+     *
+     * @param guild The guild.
+     * @param name Name of the emote.
+     * @return The emote, or {@code null} if the guild has no emote with the name.
+     */
+    public Emote findEmote(final Guild guild, final String name) {
+        return find(entry(guild).emotes, name, guild::getEmoteById, Emote::getName,
+            Comparator.comparingLong(Emote::getIdLong));
+    }
+
+    /**
+     * Checks whether a guild's index has been built.
+     *
+     * @param guildId ID of the guild.
+     * @return Returns {@code true} if the guild has an index.
+     */
+    public boolean isIndexed(final long guildId) {
+        return guilds.containsKey(guildId);
+    }
+
+    /**
+     * Drops the index of a guild, so it is rebuilt the next time it is needed.
+     *
+     * @param guildId ID of the guild.
+     */
+    public void invalidateGuild(final long guildId) {
+        guilds.remove(guildId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRoleCreate(final RoleCreateEvent event) {
+        withEntry(event.getGuild(), entry -> entry.roles.add(event.getRole().getName(), event.getRole().getIdLong()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRoleDelete(final RoleDeleteEvent event) {
+        withEntry(event.getGuild(), entry -> entry.roles.remove(event.getRole().getName(),
+            event.getRole().getIdLong()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRoleUpdateName(final RoleUpdateNameEvent event) {
+        withEntry(event.getGuild(), entry -> entry.roles.rename(event.getOldName(), event.getNewName(),
+            event.getRole().getIdLong()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onTextChannelCreate(final TextChannelCreateEvent event) {
+        channelAdded(event.getChannel());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onTextChannelDelete(final TextChannelDeleteEvent event) {
+        channelRemoved(event.getChannel());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onTextChannelUpdateName(final TextChannelUpdateNameEvent event) {
+        channelRenamed(event.getChannel(), event.getOldName(), event.getNewName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onVoiceChannelCreate(final VoiceChannelCreateEvent event) {
+        channelAdded(event.getChannel());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onVoiceChannelDelete(final VoiceChannelDeleteEvent event) {
+        channelRemoved(event.getChannel());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onVoiceChannelUpdateName(final VoiceChannelUpdateNameEvent event) {
+        channelRenamed(event.getChannel(), event.getOldName(), event.getNewName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCategoryCreate(final CategoryCreateEvent event) {
+        channelAdded(event.getCategory());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCategoryDelete(final CategoryDeleteEvent event) {
+        channelRemoved(event.getCategory());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCategoryUpdateName(final CategoryUpdateNameEvent event) {
+        channelRenamed(event.getCategory(), event.getOldName(), event.getNewName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStoreChannelCreate(final StoreChannelCreateEvent event) {
+        channelAdded(event.getChannel());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStoreChannelDelete(final StoreChannelDeleteEvent event) {
+        channelRemoved(event.getChannel());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStoreChannelUpdateName(final StoreChannelUpdateNameEvent event) {
+        channelRenamed(event.getChannel(), event.getOldName(), event.getNewName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onEmoteAdded(final EmoteAddedEvent event) {
+        withEntry(event.getGuild(), entry -> entry.emotes.add(event.getEmote().getName(),
+            event.getEmote().getIdLong()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onEmoteRemoved(final EmoteRemovedEvent event) {
+        withEntry(event.getGuild(), entry -> entry.emotes.remove(event.getEmote().getName(),
+            event.getEmote().getIdLong()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onEmoteUpdateName(final EmoteUpdateNameEvent event) {
+        withEntry(event.getGuild(), entry -> entry.emotes.rename(event.getOldName(), event.getNewName(),
+            event.getEmote().getIdLong()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGuildLeave(final GuildLeaveEvent event) {
+        invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGuildUnavailable(final GuildUnavailableEvent event) {
+        invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onReconnect(final ReconnectedEvent event) {
+        guilds.clear();
+    }
+
+    private void channelAdded(final GuildChannel channel) {
+        withEntry(channel.getGuild(), entry -> entry.channels.add(channel.getName(), channel.getIdLong()));
+    }
+
+    private void channelRemoved(final GuildChannel channel) {
+        withEntry(channel.getGuild(), entry -> entry.channels.remove(channel.getName(), channel.getIdLong()));
+    }
+
+    private void channelRenamed(final GuildChannel channel, final String oldName, final String newName) {
+        withEntry(channel.getGuild(), entry -> entry.channels.rename(oldName, newName, channel.getIdLong()));
+    }
+
+    private void withEntry(final Guild guild, final Consumer<GuildEntry> update) {
+        // guilds without an index are left alone, it is built from the updated cache when first needed
+        final GuildEntry entry = guilds.get(guild.getIdLong());
+        if (entry != null) {
+            update.accept(entry);
+        }
+    }
+
+    private GuildEntry entry(final Guild guild) {
+        return guilds.computeIfAbsent(guild.getIdLong(), id -> new GuildEntry()).build(guild);
+    }
+
+    private static <T> T find(final NameTable table, final String name, final LongFunction<T> lookup,
+                              final Function<T, String> getName, final Comparator<? super T> order) {
+        final String folded = fold(name);
+        T found = null;
+        for (final long id : table.get(name)) {
+            final T entity = lookup.apply(id);
+            if (entity == null || !fold(getName.apply(entity)).equals(folded)) {
+                continue; // deleted or renamed while the index was being built
+            }
+            if (found == null || order.compare(entity, found) < 0) {
+                found = entity;
+            }
+        }
+        return found;
+    }
+
+    private static String fold(final String name) {
+        // the same folding as String#equalsIgnoreCase, which compares both the upper and lower case of each char
+        return name.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
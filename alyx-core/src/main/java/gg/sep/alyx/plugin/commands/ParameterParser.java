@@ -1,5 +1,8 @@
 package gg.sep.alyx.plugin.commands;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import net.dv8tion.jda.api.events.Event;
 
 import gg.sep.alyx.plugin.CommandParseException;
@@ -24,4 +27,24 @@ public interface ParameterParser<T> {
      * @throws CommandParseException Thrown if parsing fails.
      */
     T parse(String value, Event event) throws CommandParseException;
+
+    /**
+     * Parses the given input string into the parser's type, without blocking.
+     *
+     * Parsers which may need to fetch the value from Discord, such as entities which are not in JDA's
+     * cache, override this to complete the stage once the value is fetched. By default the value
+     * is parsed immediately with {@link #parse(String, Event)}.
+     *
+     * @param value Input string value to parse.
+     * @param event The event which triggered the command.
+     * @return Stage completed with the parsed value, or completed exceptionally with a
+     *         {@link CommandParseException} if parsing fails.
+     */
+    default CompletionStage<T> parseAsync(final String value, final Event event) {
+        try {
+            return CompletableFuture.completedFuture(parse(value, event));
+        } catch (final CommandParseException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
@@ -0,0 +1,238 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildChannel;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.events.channel.category.CategoryDeleteEvent;
+import net.dv8tion.jda.api.events.channel.text.TextChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.voice.VoiceChannelDeleteEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.override.GenericPermissionOverrideEvent;
+import net.dv8tion.jda.api.events.role.GenericRoleEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+/**
+ * Caches the values needed to check whether a guild member is allowed to use a command.
+ *
+ * For each guild, the cache holds the IDs of the roles named by a command's required roles, and the
+ * effective permission bitmasks of each set of roles held by the members who have used a command,
+ * in the guild and in each channel they have used a command in. Entries are computed the first time
+ * they are needed.
+ *
+ * A member's permissions only depend on their roles, apart from the guild owner and members with
+ * their own permission overrides in a channel, whose permissions are computed each time they are
+ * needed instead. Since entries are keyed by the roles a member has, rather than by the member, the
+ * cache works the same whether or not JDA caches the guild's members, and a member's role changes
+ * don't need to drop any entries.
+ *
+ * The cache listens for the Discord events which change these values, and drops the affected
+ * entries when they fire:
+ *   - Any role event drops the guild's entries.
+ *   - Permission override events drop the entries of the override's channel.
+ *   - A channel being deleted drops the entries of that channel.
+ *   - The bot leaving a guild drops the guild's entries.
+ *
+ * Since JDA updates its own cache before firing these events, an entry dropped this way is
+ * recomputed from the updated values the next time it is needed. An entry which was computed
+ * before the event, but stored after, is stored into the dropped entry and is never seen again.
+ */
+public class PermissionCache extends ListenerAdapter {
+
+    private final Map<Long, GuildEntry> guilds = new ConcurrentHashMap<>();
+
+    private static final class GuildEntry {
+        private final Map<Collection<String>, long[]> roleIds = new ConcurrentHashMap<>();
+        private final Map<RoleSet, Long> permissions = new ConcurrentHashMap<>();
+        private final Map<Long, Map<RoleSet, Long>> channelPermissions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The sorted IDs of a member's roles.
+     */
+    private static final class RoleSet {
+        private final long[] roleIds;
+        private final int hash;
+
+        private RoleSet(final Member member) {
+            final List<Role> roles = member.getRoles();
+            this.roleIds = new long[roles.size()];
+            for (int i = 0; i < roleIds.length; i++) {
+                roleIds[i] = roles.get(i).getIdLong();
+            }
+            Arrays.sort(roleIds);
+            this.hash = Arrays.hashCode(roleIds);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof RoleSet && Arrays.equals(roleIds, ((RoleSet) other).roleIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Returns the raw bitmask of the member's effective permissions in their guild.
+     *
+     * See {@link Permission#getRawValue()}.
+     *
+     * @param member The guild member.
+     * @return The member's effective permissions.
+     */
+    public long getPermissions(final Member member) {
+        // the owner has every permission, whatever their roles
+        if (member.isOwner()) {
+            return Permission.getRaw(member.getPermissions());
+        }
+
+        // the entry must be looked up before reading the member's values, see the class docs
+        final GuildEntry entry = guildEntry(member.getGuild());
+        return entry.permissions.computeIfAbsent(new RoleSet(member),
+            roles -> Permission.getRaw(member.getPermissions()));
+    }
+
+    /**
+     * Returns the raw bitmask of the member's effective permissions in a channel of their guild,
+     * including the channel's permission overrides.
+     *
+     * See {@link Permission#getRawValue()}.
+     *
+     * @param member The guild member.
+     * @param channel The channel in the member's guild.
+     * @return The member's effective permissions in the channel.
+     */
+    public long getPermissions(final Member member, final GuildChannel channel) {
+        // the member's own override applies only to them, rather than to everyone with their roles
+        if (member.isOwner() || channel.getPermissionOverride(member) != null) {
+            return Permission.getRaw(member.getPermissions(channel));
+        }
+
+        final GuildEntry entry = guildEntry(member.getGuild());
+        return entry.channelPermissions.computeIfAbsent(channel.getIdLong(), id -> new ConcurrentHashMap<>())
+            .computeIfAbsent(new RoleSet(member), roles -> Permission.getRaw(member.getPermissions(channel)));
+    }
+
+    /**
+     * Checks whether the member has any of the roles with the given names.
+     *
+     * @param member The guild member.
+     * @param roleNames Names of the roles to check for.
+     * @return Returns {@code true} if the member has any of the roles.
+     */
+    public boolean hasAnyRole(final Member member, final Collection<String> roleNames) {
+        if (roleNames.isEmpty()) {
+            return false;
+        }
+
+        final long[] required = getRoleIds(member.getGuild(), roleNames);
+        if (required.length == 0) {
+            return false;
+        }
+        for (final Role role : member.getRoles()) {
+            if (Arrays.binarySearch(required, role.getIdLong()) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the sorted IDs of the guild's roles with the given names.
+     *
+     * @param guild The guild.
+     * @param roleNames Names of the roles.
+     * @return The sorted IDs of the roles with the given names.
+     */
+    public long[] getRoleIds(final Guild guild, final Collection<String> roleNames) {
+        return guildEntry(guild).roleIds.computeIfAbsent(roleNames, names -> guild.getRoles().stream()
+            .filter(role -> names.contains(role.getName()))
+            .mapToLong(Role::getIdLong)
+            .sorted()
+            .toArray());
+    }
+
+    /**
+     * Drops all of the cached entries of a guild.
+     *
+     * @param guildId ID of the guild.
+     */
+    public void invalidateGuild(final long guildId) {
+        guilds.remove(guildId);
+    }
+
+    /**
+     * Drops the cached permissions in a channel of a guild.
+     *
+     * @param guildId ID of the channel's guild.
+     * @param channelId ID of the channel.
+     */
+    public void invalidateChannel(final long guildId, final long channelId) {
+        final GuildEntry entry = guilds.get(guildId);
+        if (entry != null) {
+            entry.channelPermissions.remove(channelId);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGenericRole(final GenericRoleEvent event) {
+        invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGenericPermissionOverride(final GenericPermissionOverrideEvent event) {
+        invalidateChannel(event.getGuild().getIdLong(), event.getChannel().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGuildLeave(final GuildLeaveEvent event) {
+        invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onTextChannelDelete(final TextChannelDeleteEvent event) {
+        invalidateChannel(event.getGuild().getIdLong(), event.getChannel().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onVoiceChannelDelete(final VoiceChannelDeleteEvent event) {
+        invalidateChannel(event.getGuild().getIdLong(), event.getChannel().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCategoryDelete(final CategoryDeleteEvent event) {
+        invalidateChannel(event.getGuild().getIdLong(), event.getCategory().getIdLong());
+    }
+
+    private GuildEntry guildEntry(final Guild guild) {
+        return guilds.computeIfAbsent(guild.getIdLong(), id -> new GuildEntry());
+    }
+}
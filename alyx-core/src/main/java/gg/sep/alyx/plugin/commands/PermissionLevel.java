@@ -1,5 +1,6 @@
 package gg.sep.alyx.plugin.commands;
 
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
 
 import gg.sep.alyx.plugin.Alyx;
@@ -7,8 +8,8 @@ import gg.sep.alyx.plugin.Alyx;
 /**
  * Permission levels which can be used to determine who is allowed to execute a command.
  *
- * TODO: Right now this only works for users who get assigned BOT_OWNER. We'll need config
- * and plugin config checks to get the other levels working.
+ * The bot owner is always {@link #BOT_OWNER}. The other levels are granted by the bot's config,
+ * see {@link PermissionLevelResolver}.
  */
 public enum PermissionLevel {
     BOT_OWNER(Double.POSITIVE_INFINITY),
@@ -38,7 +39,7 @@ public enum PermissionLevel {
     }
 
     /**
-     * Returns the PermissionLevel for the given user.
+     * Returns the PermissionLevel for the given user, outside of any guild.
      * @param user User for which to get a Permission Level.
      * @param alyx Alyx bot instance.
      * @return Permission level if found, otherwise returns {@link #EVERYONE};
@@ -47,7 +48,20 @@ public enum PermissionLevel {
         if (user.equals(alyx.getBotOwner())) {
             return BOT_OWNER;
         }
-        // TODO Check user permissions
-        return EVERYONE;
+        return alyx.getPermissionLevelResolver().getLevel(user);
+    }
+
+    /**
+     * Returns the PermissionLevel for the given guild member, including the levels granted
+     * by the member's roles in the guild.
+     * @param member Guild member for which to get a Permission Level.
+     * @param alyx Alyx bot instance.
+     * @return Permission level if found, otherwise returns {@link #EVERYONE};
+     */
+    public static PermissionLevel getLevel(final Member member, final Alyx alyx) {
+        if (member.getUser().equals(alyx.getBotOwner())) {
+            return BOT_OWNER;
+        }
+        return alyx.getPermissionLevelResolver().getLevel(member);
     }
 }
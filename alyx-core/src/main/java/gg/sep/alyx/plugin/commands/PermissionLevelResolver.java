@@ -0,0 +1,220 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+import gg.sep.alyx.plugin.model.BotConfig;
+import gg.sep.alyx.plugin.model.GuildRoles;
+
+/**
+ * Resolves the {@link PermissionLevel} of users and guild members from the bot's config.
+ *
+ * The config's bot admins and per guild admin and mod roles are compiled into an in-memory table
+ * when the config is set, and the resolved level of each guild member is cached the first time it
+ * is needed. Resolving a level does no I/O, and a cached member level does not read the member's
+ * roles.
+ *
+ * The cached member levels are dropped when they may have changed:
+ *   - Member role changes, and a member leaving, drop the level of that member.
+ *   - Deleting a role, or the bot leaving a guild, drops the levels of the guild.
+ *   - Updating the config drops only the levels of the guilds whose roles changed. The bot applies
+ *     its config here each time it's saved.
+ *
+ * Guild levels are dropped by replacing the guild's entry, so a level which was resolved before one
+ * of these events, but stored after, is stored into the replaced entry and is never seen again. A
+ * member's level is resolved and stored atomically, so removing it can't race with storing it.
+ *
+ * JDA only fires member events for the members held in its member cache, so the levels of members
+ * outside of it are resolved each time they are needed, rather than cached. Resolving a level only
+ * searches the compiled roles for each of the member's roles, so this costs about as much as a cache
+ * keyed by the member's roles would, and Alyx doesn't need the member cache for it, see
+ * {@link gg.sep.alyx.plugin.GatewayRequirements#CORE}.
+ *
+ * The bot owner is not part of the config, see {@link PermissionLevel#getLevel(User, gg.sep.alyx.plugin.Alyx)}.
+ */
+public class PermissionLevelResolver extends ListenerAdapter {
+
+    private volatile Set<Long> botAdmins = Collections.emptySet();
+    private final Map<Long, GuildEntry> guilds = new ConcurrentHashMap<>();
+
+    private static final class GuildEntry {
+        private final long[] adminRoles;
+        private final long[] modRoles;
+        private final Map<Long, PermissionLevel> members = new ConcurrentHashMap<>();
+
+        private GuildEntry(final long[] adminRoles, final long[] modRoles) {
+            this.adminRoles = adminRoles;
+            this.modRoles = modRoles;
+        }
+
+        private GuildEntry reset() {
+            return new GuildEntry(adminRoles, modRoles);
+        }
+    }
+
+    /**
+     * Creates a new resolver for the permission levels set in the bot's config.
+     *
+     * @param config The bot's config.
+     */
+    public PermissionLevelResolver(final BotConfig config) {
+        updateConfig(config);
+    }
+
+    /**
+     * Replaces the permission levels with those set in an updated config.
+     *
+     * Only the guilds whose roles were added, removed or changed are recompiled, the cached
+     * member levels of any other guilds are kept.
+     *
+     * @param config The bot's updated config.
+     */
+    public synchronized void updateConfig(final BotConfig config) {
+        this.botAdmins = config.getBotAdmins() == null ? Collections.emptySet() : Set.copyOf(config.getBotAdmins());
+
+        final Map<Long, GuildRoles> guildRoles = config.getGuildRoles() == null
+            ? Collections.emptyMap() : config.getGuildRoles();
+        guilds.keySet().removeIf(guildId -> !guildRoles.containsKey(guildId));
+
+        for (final Map.Entry<Long, GuildRoles> entry : guildRoles.entrySet()) {
+            final long[] adminRoles = sortedIds(entry.getValue().getAdminRoles());
+            final long[] modRoles = sortedIds(entry.getValue().getModRoles());
+
+            final GuildEntry existing = guilds.get(entry.getKey());
+            if (existing == null || !Arrays.equals(existing.adminRoles, adminRoles)
+                || !Arrays.equals(existing.modRoles, modRoles)) {
+                guilds.put(entry.getKey(), new GuildEntry(adminRoles, modRoles));
+            }
+        }
+    }
+
+    /**
+     * Returns the permission level granted to a user by the config, outside of any guild.
+     *
+     * @param user The user.
+     * @return {@link PermissionLevel#BOT_ADMIN} if the user is a bot admin, otherwise
+     *         {@link PermissionLevel#EVERYONE}.
+     */
+    public PermissionLevel getLevel(final User user) {
+        return botAdmins.contains(user.getIdLong()) ? PermissionLevel.BOT_ADMIN : PermissionLevel.EVERYONE;
+    }
+
+    /**
+     * Returns the permission level granted to a guild member by the config.
+     *
+     * @param member The guild member.
+     * @return {@link PermissionLevel#BOT_ADMIN} if the member is a bot admin, otherwise the highest
+     *         level granted by the member's roles, or {@link PermissionLevel#EVERYONE}.
+     */
+    public PermissionLevel getLevel(final Member member) {
+        if (botAdmins.contains(member.getIdLong())) {
+            return PermissionLevel.BOT_ADMIN;
+        }
+
+        // the entry must be looked up before reading the member's roles, see the class docs
+        final GuildEntry entry = guilds.get(member.getGuild().getIdLong());
+        if (entry == null) {
+            return PermissionLevel.EVERYONE;
+        }
+        if (member.getGuild().getMemberById(member.getIdLong()) == null) {
+            return resolve(entry, member);
+        }
+        return entry.members.computeIfAbsent(member.getIdLong(), id -> resolve(entry, member));
+    }
+
+    /**
+     * Drops the cached member levels of a guild.
+     *
+     * @param guildId ID of the guild.
+     */
+    public void invalidateGuild(final long guildId) {
+        guilds.computeIfPresent(guildId, (id, entry) -> entry.reset());
+    }
+
+    /**
+     * Drops the cached level of a member in a guild.
+     *
+     * @param guildId ID of the member's guild.
+     * @param userId User ID of the member.
+     */
+    public void invalidateMember(final long guildId, final long userId) {
+        final GuildEntry entry = guilds.get(guildId);
+        if (entry != null) {
+            entry.members.remove(userId);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGuildMemberRoleAdd(final GuildMemberRoleAddEvent event) {
+        invalidateMember(event.getGuild().getIdLong(), event.getUser().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGuildMemberRoleRemove(final GuildMemberRoleRemoveEvent event) {
+        invalidateMember(event.getGuild().getIdLong(), event.getUser().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGuildMemberRemove(final GuildMemberRemoveEvent event) {
+        invalidateMember(event.getGuild().getIdLong(), event.getUser().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRoleDelete(final RoleDeleteEvent event) {
+        invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onGuildLeave(final GuildLeaveEvent event) {
+        invalidateGuild(event.getGuild().getIdLong());
+    }
+
+    private static PermissionLevel resolve(final GuildEntry entry, final Member member) {
+        PermissionLevel level = PermissionLevel.EVERYONE;
+        for (final Role role : member.getRoles()) {
+            if (Arrays.binarySearch(entry.adminRoles, role.getIdLong()) >= 0) {
+                return PermissionLevel.ADMIN;
+            }
+            if (Arrays.binarySearch(entry.modRoles, role.getIdLong()) >= 0) {
+                level = PermissionLevel.MOD;
+            }
+        }
+        return level;
+    }
+
+    private static long[] sortedIds(final Collection<Long> ids) {
+        if (ids == null) {
+            return new long[0];
+        }
+        return ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+}
@@ -0,0 +1,85 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import gg.sep.alyx.plugin.AlyxPlugin;
+
+/**
+ * Limits how often a command can be used.
+ *
+ * May be used on a {@link Command} method, or on an {@link AlyxPlugin} class to set the default
+ * limit of all of the plugin's commands which do not have their own.
+ *
+ * A command may be used {@link #uses()} times per {@link #period()}. Uses are spread evenly over
+ * the period, so once the limit is reached, another use becomes available every
+ * {@code period / uses}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RateLimit {
+
+    /**
+     * Determines who shares a command's rate limit.
+     */
+    enum Scope {
+        /**
+         * Each user has their own limit.
+         */
+        USER,
+        /**
+         * All users in a channel share a limit.
+         */
+        CHANNEL,
+        /**
+         * All users in a guild share a limit. Commands used in private channels are limited by channel.
+         */
+        GUILD
+    }
+
+    /**
+     * Number of times the command can be used per {@link #period()}.
+     *
+     * @return Number of times the command can be used per period.
+     */
+    int uses();
+
+    /**
+     * The period which the command's uses are limited over, in {@link #unit()}s.
+     *
+     * @return The period which the command's uses are limited over.
+     */
+    long period();
+
+    /**
+     * The time unit of the {@link #period()}.
+     *
+     * Defaults to {@link TimeUnit#SECONDS}.
+     *
+     * @return The time unit of the period.
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * Who shares the command's rate limit.
+     *
+     * Defaults to {@link Scope#USER}.
+     *
+     * @return Who shares the command's rate limit.
+     */
+    Scope scope() default Scope.USER;
+
+    /**
+     * Message sent to the channel the first time a command is rejected by its rate limit. Any
+     * {@code {seconds}} in the message is replaced with the number of seconds until the command can
+     * be used again.
+     *
+     * Defaults to an empty message, which reacts to the rejected command instead.
+     *
+     * @return The message sent when the command is rejected.
+     */
+    String message() default "";
+}
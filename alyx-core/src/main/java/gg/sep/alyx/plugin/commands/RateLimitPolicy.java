@@ -0,0 +1,33 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.time.Duration;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The rate limit of a command, as declared by its {@link RateLimit} annotation.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public final class RateLimitPolicy {
+    private final int uses;
+    private final Duration period;
+    private final RateLimit.Scope scope;
+    private final String message;
+
+    /**
+     * Creates the policy declared by a {@link RateLimit} annotation.
+     *
+     * @param rateLimit The annotation.
+     * @return The annotation's policy.
+     */
+    public static RateLimitPolicy of(final RateLimit rateLimit) {
+        return new RateLimitPolicy(rateLimit.uses(), Duration.ofNanos(rateLimit.unit().toNanos(rateLimit.period())),
+            rateLimit.scope(), rateLimit.message());
+    }
+}
@@ -0,0 +1,185 @@
+package gg.sep.alyx.plugin.commands;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import gg.sep.alyx.plugin.AlyxException;
+
+/**
+ * Enforces a {@link RateLimitPolicy} for each of a command's users, channels or guilds.
+ *
+ * Each key (a Discord snowflake ID) has a bucket which holds only the time at which it will next be
+ * full, using the generic cell rate algorithm. A use is allowed if it would not push that time more
+ * than the policy's period into the future. This behaves the same as a token bucket with
+ * {@code uses} tokens refilled evenly over the period, without needing to refill the bucket.
+ *
+ * Buckets are split across striped, access ordered maps, each guarded by its own lock. A bucket
+ * which is full is the same as a missing bucket, so idle full buckets are expired from the least
+ * recently used end of each stripe as other keys are used. Each stripe also holds at most a fixed
+ * number of buckets, evicting its least recently used bucket when it is full, so the memory used
+ * by the limiter stays bounded however many keys are seen. An evicted bucket which was not yet
+ * full is forgotten, which can only make the limit more lenient for that key.
+ */
+public final class RateLimiter {
+
+    /**
+     * Default maximum number of buckets held by a limiter.
+     */
+    public static final int DEFAULT_MAX_BUCKETS = 1 << 16;
+
+    private static final int STRIPES = 16;
+    private static final int EXPIRE_PER_ACQUIRE = 2;
+
+    @Getter
+    private final RateLimitPolicy policy;
+    private final long period;
+    private final long emissionInterval;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    /**
+     * Result of an attempt to use a command.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Result {
+        private static final Result ALLOWED = new Result(true, false, Duration.ZERO);
+
+        private final boolean allowed;
+        /**
+         * Whether this is the first rejection since the key's last allowed use, and the user
+         * should be told about it.
+         */
+        private final boolean firstRejection;
+        private final Duration retryAfter;
+
+        /**
+         * Returns the result of an allowed use.
+         *
+         * @return Result of an allowed use.
+         */
+        public static Result allowed() {
+            return ALLOWED;
+        }
+    }
+
+    private static final class Bucket {
+        private long fullAt;
+        private boolean rejected;
+    }
+
+    private static final class Stripe extends LinkedHashMap<Long, Bucket> {
+        private static final long serialVersionUID = 1L;
+        private final int maxBuckets;
+
+        private Stripe(final int maxBuckets) {
+            super(16, 0.75f, true);
+            this.maxBuckets = maxBuckets;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, Bucket> eldest) {
+            return size() > maxBuckets;
+        }
+    }
+
+    /**
+     * Creates a new limiter for the policy.
+     *
+     * @param policy The rate limit policy to enforce.
+     * @param maxBuckets Maximum number of buckets held by the limiter.
+     * @throws AlyxException Exception thrown if the policy's uses or period are not positive.
+     */
+    public RateLimiter(final RateLimitPolicy policy, final int maxBuckets) throws AlyxException {
+        this(policy, maxBuckets, System::nanoTime);
+    }
+
+    RateLimiter(final RateLimitPolicy policy, final int maxBuckets, final LongSupplier clock) throws AlyxException {
+        if (policy.getUses() <= 0 || policy.getPeriod().isNegative() || policy.getPeriod().isZero()) {
+            throw new AlyxException(String.format("Invalid rate limit, uses and period must be positive: %s", policy));
+        }
+        this.policy = policy;
+        this.period = policy.getPeriod().toNanos();
+        this.emissionInterval = Math.max(1, period / policy.getUses());
+        this.clock = clock;
+
+        this.stripes = new Stripe[STRIPES];
+        final int maxPerStripe = Math.max(1, maxBuckets / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxPerStripe);
+        }
+    }
+
+    /**
+     * Attempts to use the command for a key.
+     *
+     * @param key The snowflake ID of the user, channel or guild using the command, per the policy's scope.
+     * @return Result of the attempt.
+     */
+    public Result acquire(final long key) {
+        final Stripe stripe = stripes[stripe(key)];
+        final long now = clock.getAsLong();
+
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket();
+                bucket.fullAt = now;
+                stripe.put(key, bucket);
+            }
+
+            final long fullAt = Math.max(bucket.fullAt, now) + emissionInterval;
+            final Result result;
+            if (fullAt - now <= period) {
+                bucket.fullAt = fullAt;
+                bucket.rejected = false;
+                result = Result.ALLOWED;
+            } else {
+                final boolean first = !bucket.rejected;
+                bucket.rejected = true;
+                result = new Result(false, first, Duration.ofNanos(fullAt - period - now));
+            }
+
+            expireIdle(stripe, now);
+            return result;
+        }
+    }
+
+    /**
+     * Returns the number of buckets currently held by the limiter.
+     *
+     * @return The number of buckets.
+     */
+    public int size() {
+        int size = 0;
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private void expireIdle(final Stripe stripe, final long now) {
+        final Iterator<Bucket> buckets = stripe.values().iterator();
+        for (int i = 0; i < EXPIRE_PER_ACQUIRE && buckets.hasNext(); i++) {
+            if (buckets.next().fullAt - now > 0) {
+                return;
+            }
+            buckets.remove();
+        }
+    }
+
+    private static int stripe(final long key) {
+        // snowflakes share their low bits with other IDs created in the same millisecond, so mix them first
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 60) & (STRIPES - 1);
+    }
+}
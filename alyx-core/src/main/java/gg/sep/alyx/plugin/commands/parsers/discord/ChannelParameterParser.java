@@ -1,11 +1,13 @@
 package gg.sep.alyx.plugin.commands.parsers.discord;
 
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.GuildChannel;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.Event;
 
 import gg.sep.alyx.plugin.CommandParseException;
-import gg.sep.alyx.plugin.util.Strings;
+import gg.sep.alyx.plugin.commands.GuildNameIndex;
+import gg.sep.alyx.plugin.util.Mention;
 
 /**
  * Handles parsing of String parameters into Discord Guild Channels.
@@ -15,15 +17,20 @@ import gg.sep.alyx.plugin.util.Strings;
  * Order of evaluation:
  *   - ID
  *   - Mention
- *   - Name
+ *   - (if in a guild) Channel Name, case insensitive
  */
 public class ChannelParameterParser extends MentionParser<GuildChannel> {
 
+    private final GuildNameIndex nameIndex;
+
     /**
      * Creates a new instance of the ChannelParameterParser.
+     *
+     * @param nameIndex Index used to look up channels by name.
      */
-    public ChannelParameterParser() {
-        super(Message.MentionType.CHANNEL.getPattern(), 1);
+    public ChannelParameterParser(final GuildNameIndex nameIndex) {
+        super(Message.MentionType.CHANNEL);
+        this.nameIndex = nameIndex;
     }
     /**
      * {@inheritDoc}
@@ -37,11 +44,8 @@ public class ChannelParameterParser extends MentionParser<GuildChannel> {
      * {@inheritDoc}
      */
     @Override
-    protected GuildChannel getMentionedItem(final String value, final Event event) {
-        if (matches(value)) {
-            return event.getJDA().getGuildChannelById(getMentionId(value));
-        }
-        return null;
+    protected GuildChannel getItemById(final long id, final Event event) {
+        return event.getJDA().getGuildChannelById(id);
     }
 
     /**
@@ -51,20 +55,20 @@ public class ChannelParameterParser extends MentionParser<GuildChannel> {
     public GuildChannel parse(final String value, final Event event) throws CommandParseException {
         GuildChannel channel = null;
 
-        // match by ID
-        if (Strings.isNumeric(value)) {
-            channel = event.getJDA().getGuildChannelById(value);
+        // match by ID or mention
+        final long id = parseId(value);
+        if (id != Mention.NO_ID) {
+            channel = getItemById(id, event);
             if (channel != null) {
                 return channel;
             }
         }
 
-        // match by mention
-        channel = getMentionedItem(value, event);
-        if (channel != null) {
-            return channel;
+        // match by name
+        final Guild guild = getGuild(event);
+        if (guild != null) {
+            channel = nameIndex.findChannel(guild, value);
         }
-
         return channel;
     }
 }
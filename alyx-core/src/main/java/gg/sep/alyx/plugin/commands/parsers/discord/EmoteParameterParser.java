@@ -1,11 +1,14 @@
 package gg.sep.alyx.plugin.commands.parsers.discord;
 
 import net.dv8tion.jda.api.entities.Emote;
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.Event;
+import net.dv8tion.jda.api.sharding.ShardManager;
 
 import gg.sep.alyx.plugin.CommandParseException;
-import gg.sep.alyx.plugin.util.Strings;
+import gg.sep.alyx.plugin.commands.GuildNameIndex;
+import gg.sep.alyx.plugin.util.Mention;
 
 /**
  * Handles parsing of String parameters into Discord Emotes.
@@ -15,14 +18,20 @@ import gg.sep.alyx.plugin.util.Strings;
  * Order of evaluation:
  *   - ID
  *   - Mention
+ *   - (if in a guild) Emote Name, with or without surrounding colons, case insensitive
  */
 public class EmoteParameterParser extends MentionParser<Emote> {
 
+    private final GuildNameIndex nameIndex;
+
     /**
      * Creates a new instance of the EmoteParameterParser.
+     *
+     * @param nameIndex Index used to look up emotes by name.
      */
-    public EmoteParameterParser() {
-        super(Message.MentionType.EMOTE.getPattern(), 2);
+    public EmoteParameterParser(final GuildNameIndex nameIndex) {
+        super(Message.MentionType.EMOTE);
+        this.nameIndex = nameIndex;
     }
     /**
      * {@inheritDoc}
@@ -33,14 +42,16 @@ public class EmoteParameterParser extends MentionParser<Emote> {
     }
 
     /**
-     * {@inheritDoc}
+     * Finds the emote with the given ID, searching every shard of the bot if it is sharded.
+     *
+     * @param id The emote's ID.
+     * @param event The event which triggered the command.
+     * @return The emote, or {@code null} if it was not found.
      */
     @Override
-    protected Emote getMentionedItem(final String value, final Event event) {
-        if (matches(value)) {
-            return event.getJDA().getEmoteById(getMentionId(value));
-        }
-        return null;
+    protected Emote getItemById(final long id, final Event event) {
+        final ShardManager shardManager = event.getJDA().getShardManager();
+        return shardManager != null ? shardManager.getEmoteById(id) : event.getJDA().getEmoteById(id);
     }
 
     /**
@@ -50,20 +61,21 @@ public class EmoteParameterParser extends MentionParser<Emote> {
     public Emote parse(final String value, final Event event) throws CommandParseException {
         Emote emote = null;
 
-        // match by ID
-        if (Strings.isNumeric(value)) {
-            emote = event.getJDA().getEmoteById(value);
+        // match by ID or mention
+        final long id = parseId(value);
+        if (id != Mention.NO_ID) {
+            emote = getItemById(id, event);
             if (emote != null) {
                 return emote;
             }
         }
 
-        // match by mention
-        emote = getMentionedItem(value, event);
-        if (emote != null) {
-            return emote;
+        // match by name
+        final Guild guild = getGuild(event);
+        if (guild != null) {
+            final boolean colons = value.length() > 2 && value.startsWith(":") && value.endsWith(":");
+            emote = nameIndex.findEmote(guild, colons ? value.substring(1, value.length() - 1) : value);
         }
-
         return emote;
     }
 }
@@ -1,45 +1,40 @@
 package gg.sep.alyx.plugin.commands.parsers.discord;
 
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.Event;
 import net.dv8tion.jda.api.events.guild.GenericGuildEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
 import gg.sep.alyx.plugin.commands.ParameterParser;
+import gg.sep.alyx.plugin.util.Mention;
 
 /**
- * Abstract class which is able to parse Discord mention patterns
- * into the ID of the item that it refers to.
+ * Abstract class which is able to parse IDs and Discord mentions
+ * into the item that they refer to.
  *
  * @param <T> Type of Discord item which can be mentioned and parsed.
  */
 public abstract class MentionParser<T> implements ParameterParser<T> {
-    private final Pattern mentionPattern;
-    private final int idGroupNum;
+    private final Message.MentionType mentionType;
 
-    protected MentionParser(final Pattern mentionPattern, final int idGroupNum) {
-        this.mentionPattern = mentionPattern;
-        this.idGroupNum = idGroupNum;
+    protected MentionParser(final Message.MentionType mentionType) {
+        this.mentionType = mentionType;
     }
 
-    protected String getMentionId(final String mentionValue) {
-        final Matcher matcher = mentionPattern.matcher(mentionValue);
-        if (!matcher.matches() || matcher.groupCount() < idGroupNum) {
-            throw new IllegalArgumentException("Mention value does not match expected pattern");
-        }
-        return matcher.group(idGroupNum);
+    /**
+     * Returns the ID in a parameter which is either a bare ID, or a mention of this parser's type.
+     *
+     * @param value The parameter.
+     * @return The ID, or {@link Mention#NO_ID} if the parameter is neither.
+     */
+    protected long parseId(final String value) {
+        final Mention mention = Mention.scan(value);
+        return mention != null && mention.refersTo(mentionType) ? mention.getId() : Mention.NO_ID;
     }
 
-    protected abstract T getMentionedItem(String value, Event event);
-
-    protected boolean matches(final String mentionValue) {
-        final Matcher matcher = mentionPattern.matcher(mentionValue);
-        return matcher.matches() && matcher.groupCount() >= idGroupNum;
-    }
+    protected abstract T getItemById(long id, Event event);
 
     protected static Guild getGuild(final Event event) {
         if (event instanceof GenericGuildEvent) {
@@ -1,15 +1,13 @@
 package gg.sep.alyx.plugin.commands.parsers.discord;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.events.Event;
 
 import gg.sep.alyx.plugin.CommandParseException;
-import gg.sep.alyx.plugin.util.Strings;
+import gg.sep.alyx.plugin.commands.GuildNameIndex;
+import gg.sep.alyx.plugin.util.Mention;
 
 /**
  * Handles parsing of String parameters into Discord Roles.
@@ -21,11 +19,16 @@ import gg.sep.alyx.plugin.util.Strings;
  */
 public class RoleParameterParser extends MentionParser<Role> {
 
+    private final GuildNameIndex nameIndex;
+
     /**
      * Creates a new instance of the RoleParameterParser.
+     *
+     * @param nameIndex Index used to look up roles by name.
      */
-    public RoleParameterParser() {
-        super(Message.MentionType.ROLE.getPattern(), 1);
+    public RoleParameterParser(final GuildNameIndex nameIndex) {
+        super(Message.MentionType.ROLE);
+        this.nameIndex = nameIndex;
     }
 
     /**
@@ -40,11 +43,8 @@ public class RoleParameterParser extends MentionParser<Role> {
      * {@inheritDoc}
      */
     @Override
-    protected Role getMentionedItem(final String value, final Event event) {
-        if (matches(value)) {
-            return event.getJDA().getRoleById(getMentionId(value));
-        }
-        return null;
+    protected Role getItemById(final long id, final Event event) {
+        return event.getJDA().getRoleById(id);
     }
 
     /**
@@ -54,28 +54,19 @@ public class RoleParameterParser extends MentionParser<Role> {
     public Role parse(final String value, final Event event) throws CommandParseException {
         Role role = null;
 
-        // match by ID
-        if (Strings.isNumeric(value)) {
-            // try getting it by number
-            role = event.getJDA().getRoleById(value);
+        // match by ID or mention
+        final long id = parseId(value);
+        if (id != Mention.NO_ID) {
+            role = getItemById(id, event);
             if (role != null) {
                 return role;
             }
         }
 
-        // match by mention
-        role = getMentionedItem(value, event);
-        if (role != null) {
-            return role;
-        }
-
         // match by name
         final Guild guild = getGuild(event);
         if (guild != null) {
-            final List<Role> roles = guild.getRoles().stream()
-                .filter(r -> r.getName().equalsIgnoreCase(value))
-                .collect(Collectors.toList());
-            role = roles.size() > 0 ? roles.get(0) : null;
+            role = nameIndex.findRole(guild, value);
         }
         return role;
     }
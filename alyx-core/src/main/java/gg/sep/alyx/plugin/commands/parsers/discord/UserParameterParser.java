@@ -1,11 +1,18 @@
 package gg.sep.alyx.plugin.commands.parsers.discord;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.Event;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import net.dv8tion.jda.api.sharding.ShardManager;
 
-import gg.sep.alyx.plugin.CommandParseException;
-import gg.sep.alyx.plugin.util.Strings;
+import gg.sep.alyx.plugin.util.Mention;
 
 /**
  * Handles parsing of String parameters into Discord Users.
@@ -15,14 +22,21 @@ import gg.sep.alyx.plugin.util.Strings;
  * Order of evaluation:
  *   - ID
  *   - Mention
+ *
+ * When parsed with {@link #parseAsync(String, Event)}, a user who is not in JDA's cache is taken
+ * from the mentions of the command's message, or otherwise fetched from Discord. Only Discord
+ * reporting an unknown user parses as {@code null}, any other failure to fetch the user fails the stage.
  */
 public class UserParameterParser extends MentionParser<User> {
 
+    // the smallest 17 digit number, Discord has not issued any shorter snowflakes so they are not worth fetching
+    private static final long MIN_ID = 10_000_000_000_000_000L;
+
     /**
      * Creates a new instance of the UserParameterParser.
      */
     public UserParameterParser() {
-        super(Message.MentionType.USER.getPattern(), 1);
+        super(Message.MentionType.USER);
     }
     /**
      * {@inheritDoc}
@@ -32,38 +46,64 @@ public class UserParameterParser extends MentionParser<User> {
         return User.class;
     }
 
+    /**
+     * Finds the user with the given ID, searching every shard of the bot if it is sharded.
+     *
+     * @param id The user's ID.
+     * @param event The event which triggered the command.
+     * @return The user, or {@code null} if it was not found.
+     */
+    @Override
+    protected User getItemById(final long id, final Event event) {
+        final ShardManager shardManager = event.getJDA().getShardManager();
+        return shardManager != null ? shardManager.getUserById(id) : event.getJDA().getUserById(id);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    protected User getMentionedItem(final String value, final Event event) {
-        if (matches(value)) {
-            return event.getJDA().getUserById(getMentionId(value));
-        }
-        return null;
+    public User parse(final String value, final Event event) {
+        // match by ID or mention
+        final long id = parseId(value);
+        return id != Mention.NO_ID ? getItemById(id, event) : null;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public User parse(final String value, final Event event) throws CommandParseException {
-        User user = null;
+    public CompletionStage<User> parseAsync(final String value, final Event event) {
+        final long id = parseId(value);
+        if (id == Mention.NO_ID) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        // match by ID
-        if (Strings.isNumeric(value)) {
-            user = event.getJDA().getUserById(value);
-            if (user != null) {
-                return user;
-            }
+        final User cached = getItemById(id, event);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (id < MIN_ID) {
+            return CompletableFuture.completedFuture(null);
         }
 
-        // match by mention
-        user = getMentionedItem(value, event);
-        if (user != null) {
-            return user;
+        // mentioned users are sent along with the message, whether or not they are cached
+        if (event instanceof MessageReceivedEvent) {
+            for (final User mentioned : ((MessageReceivedEvent) event).getMessage().getMentionedUsers()) {
+                if (mentioned.getIdLong() == id) {
+                    return CompletableFuture.completedFuture(mentioned);
+                }
+            }
         }
 
-        return user;
+        return event.getJDA().retrieveUserById(id).submit()
+            .exceptionally(throwable -> {
+                final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                if (cause instanceof ErrorResponseException
+                    && ((ErrorResponseException) cause).getErrorResponse() == ErrorResponse.UNKNOWN_USER) {
+                    return null; // Discord has no such user
+                }
+                throw new CompletionException(cause);
+            });
     }
 }
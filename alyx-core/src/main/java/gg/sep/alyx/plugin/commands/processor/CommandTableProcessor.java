@@ -0,0 +1,329 @@
+package gg.sep.alyx.plugin.commands.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor which generates a {@code CommandTable} for each class declaring
+ * {@code Command} methods.
+ *
+ * The table lists the commands read from the annotations at build time, along with a stub for each
+ * method which calls it directly, so the plugin's commands can be loaded without reflection.
+ *
+ * Classes the generated table would not be able to reference, such as private, local or generic
+ * classes, or classes with private command methods, are skipped with a warning. Their commands are
+ * loaded through reflection instead.
+ */
+@SupportedAnnotationTypes({
+    CommandTableProcessor.COMMAND_ANNOTATION,
+    CommandTableProcessor.NESTED_COMMAND_ANNOTATION
+})
+public class CommandTableProcessor extends AbstractProcessor {
+
+    static final String COMMAND_ANNOTATION = "gg.sep.alyx.plugin.commands.Command";
+    static final String NESTED_COMMAND_ANNOTATION = "gg.sep.alyx.plugin.commands.NestedCommand";
+
+    private static final String RATE_LIMIT_ANNOTATION = "gg.sep.alyx.plugin.commands.RateLimit";
+    private static final String TABLE_INTERFACE = "gg.sep.alyx.plugin.commands.CommandTable";
+    private static final String DEFINITION_CLASS = "gg.sep.alyx.plugin.commands.CommandDefinition";
+    private static final String PERMISSION_CLASS = "net.dv8tion.jda.api.Permission";
+    private static final String LEVEL_CLASS = "gg.sep.alyx.plugin.commands.PermissionLevel";
+    private static final String RATE_LIMIT_POLICY_CLASS = "gg.sep.alyx.plugin.commands.RateLimitPolicy";
+    private static final String TABLE_SUFFIX = "_CommandTable";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final Set<TypeElement> owners = new LinkedHashSet<>();
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.METHOD) {
+                    owners.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        for (final TypeElement owner : owners) {
+            final List<ExecutableElement> methods = ElementFilter.methodsIn(owner.getEnclosedElements()).stream()
+                .filter(method -> !getCommands(method).isEmpty())
+                .collect(Collectors.toList());
+
+            final Optional<String> unsupported = findUnsupported(owner, methods);
+            if (unsupported.isPresent()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    String.format("Not generating a command table for %s, %s. Its commands will be loaded "
+                        + "through reflection.", owner.getQualifiedName(), unsupported.get()), owner);
+                continue;
+            }
+
+            try {
+                writeTable(owner, methods);
+            } catch (final IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    String.format("Unable to write the command table for %s: %s", owner.getQualifiedName(), e),
+                    owner);
+            }
+        }
+        // allow other processors to see the command annotations
+        return false;
+    }
+
+    /**
+     * Checks whether a generated table would be able to reference the class and its command methods.
+     *
+     * @param owner The class declaring the command methods.
+     * @param methods The command methods.
+     * @return Reason the table can not be generated, or empty if it can be.
+     */
+    private Optional<String> findUnsupported(final TypeElement owner, final List<ExecutableElement> methods) {
+        if (owner.getKind() != ElementKind.CLASS) {
+            return Optional.of("as it is not a class");
+        }
+
+        Element element = owner;
+        while (element instanceof TypeElement) {
+            final TypeElement type = (TypeElement) element;
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                return Optional.of("as it or an enclosing class is private");
+            }
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                return Optional.of("as it or an enclosing class is local or anonymous");
+            }
+            if (!type.getTypeParameters().isEmpty()) {
+                return Optional.of("as it or an enclosing class is generic");
+            }
+            element = type.getEnclosingElement();
+        }
+
+        for (final ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                return Optional.of(String.format("as its command method '%s' is private", method.getSimpleName()));
+            }
+            if (!method.getTypeParameters().isEmpty()) {
+                return Optional.of(String.format("as its command method '%s' is generic", method.getSimpleName()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Writes the command table source file for a class.
+     *
+     * @param owner The class declaring the command methods.
+     * @param methods The command methods, in the order they are declared.
+     * @throws IOException Exception thrown if the source file could not be written.
+     */
+    private void writeTable(final TypeElement owner, final List<ExecutableElement> methods) throws IOException {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(owner).getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(owner).toString();
+        final String tableName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+            + TABLE_SUFFIX;
+        final String ownerName = owner.getQualifiedName().toString();
+        final String defaultRateLimit = findAnnotation(owner, RATE_LIMIT_ANNOTATION)
+            .map(this::rateLimit)
+            .orElse("null");
+
+        final String qualifiedTableName = packageName.isEmpty() ? tableName : packageName + "." + tableName;
+        try (PrintWriter out = new PrintWriter(
+            processingEnv.getFiler().createSourceFile(qualifiedTableName, owner).openWriter())) {
+
+            if (!packageName.isEmpty()) {
+                out.printf("package %s;%n%n", packageName);
+            }
+            out.printf("@javax.annotation.processing.Generated(\"%s\")%n", CommandTableProcessor.class.getName());
+            out.printf("@SuppressWarnings({\"unchecked\", \"rawtypes\"})%n");
+            out.printf("public final class %s implements %s<%s> {%n%n", tableName, TABLE_INTERFACE, ownerName);
+            out.printf("    private static final java.util.List<%s<%s>> COMMANDS = java.util.List.of(%n",
+                DEFINITION_CLASS, ownerName);
+
+            final List<String> entries = new ArrayList<>();
+            for (final ExecutableElement method : methods) {
+                final String rateLimit = findAnnotation(method, RATE_LIMIT_ANNOTATION)
+                    .map(this::rateLimit)
+                    .orElse(defaultRateLimit);
+                entries.add(definition(ownerName, method, rateLimit));
+            }
+            out.print(String.join(",\n", entries));
+
+            out.printf("%n    );%n%n");
+            out.printf("    @Override%n");
+            out.printf("    public java.util.List<%s<%s>> getCommands() {%n", DEFINITION_CLASS, ownerName);
+            out.printf("        return COMMANDS;%n");
+            out.printf("    }%n");
+            out.printf("}%n");
+        }
+    }
+
+    /**
+     * Generates the expression which builds the definition of a command method.
+     *
+     * @param ownerName The qualified name of the class declaring the method.
+     * @param method The command method.
+     * @param rateLimit Source of the expression which creates the command's rate limit policy.
+     * @return Source of the definition expression.
+     */
+    private String definition(final String ownerName, final ExecutableElement method, final String rateLimit) {
+        final List<Map<String, Object>> commands = getCommands(method).stream()
+            .map(this::values)
+            .collect(Collectors.toList());
+        // use the permissions associated with the last command, matching the reflective loader
+        final Map<String, Object> lastCommand = commands.get(commands.size() - 1);
+
+        final List<String> names = new ArrayList<>();
+        final List<String> chain = new ArrayList<>();
+        for (final Map<String, Object> command : commands) {
+            final List<String> withAliases = new ArrayList<>();
+            withAliases.add(literal(command.get("name")));
+            for (final AnnotationValue alias : list(command.get("aliases"))) {
+                withAliases.add(literal(alias.getValue()));
+            }
+            names.add((String) command.get("name"));
+            chain.add("java.util.List.<java.lang.String>of(" + String.join(", ", withAliases) + ")");
+        }
+
+        final List<String> permissions = list(lastCommand.get("permissions")).stream()
+            .map(value -> PERMISSION_CLASS + "." + ((VariableElement) value.getValue()).getSimpleName())
+            .collect(Collectors.toList());
+        final List<String> roles = list(lastCommand.get("roles")).stream()
+            .map(value -> literal(value.getValue()))
+            .collect(Collectors.toList());
+        final String level = LEVEL_CLASS + "." + ((VariableElement) lastCommand.get("level")).getSimpleName();
+
+        final List<String> parameterTypes = new ArrayList<>();
+        final List<String> arguments = new ArrayList<>();
+        for (final VariableElement parameter : method.getParameters()) {
+            final TypeMirror erasure = processingEnv.getTypeUtils().erasure(parameter.asType());
+            parameterTypes.add(erasure + ".class");
+            arguments.add(String.format("(%s) arguments[%d]", erasure, arguments.size()));
+        }
+
+        final String receiver = method.getModifiers().contains(Modifier.STATIC) ? ownerName : "plugin";
+        return String.format("        %s.<%s>builder()%n", DEFINITION_CLASS, ownerName)
+            + String.format("            .name(%s)%n", literal(String.join(" ", names)))
+            + String.format("            .commandChain(java.util.List.<java.util.List<java.lang.String>>of(%s))%n",
+                String.join(", ", chain))
+            + String.format("            .requiredPermissions(java.util.List.<%s>of(%s))%n",
+                PERMISSION_CLASS, String.join(", ", permissions))
+            + String.format("            .requiredRoles(java.util.List.<java.lang.String>of(%s))%n",
+                String.join(", ", roles))
+            + String.format("            .permissionLevel(%s)%n", level)
+            + String.format("            .guildOnly(%s)%n", lastCommand.get("guildOnly"))
+            + String.format("            .parameterTypes(java.util.List.<java.lang.Class<?>>of(%s))%n",
+                String.join(", ", parameterTypes))
+            + String.format("            .rateLimit(%s)%n", rateLimit)
+            + String.format("            .stub((plugin, arguments) -> %s.%s(%s))%n",
+                receiver, method.getSimpleName(), String.join(", ", arguments))
+            + "            .build()";
+    }
+
+    /**
+     * Returns the {@code Command} annotations of a method, in the order they are declared,
+     * unwrapping them from their {@code NestedCommand} container if they are repeated.
+     *
+     * @param method The method.
+     * @return The method's command annotations.
+     */
+    private List<AnnotationMirror> getCommands(final ExecutableElement method) {
+        final List<AnnotationMirror> commands = new ArrayList<>();
+        for (final AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            final String type = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (COMMAND_ANNOTATION.equals(type)) {
+                commands.add(mirror);
+            } else if (NESTED_COMMAND_ANNOTATION.equals(type)) {
+                for (final AnnotationValue nested : list(values(mirror).get("value"))) {
+                    commands.add((AnnotationMirror) nested.getValue());
+                }
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Generates the expression which creates the policy of a {@code RateLimit} annotation.
+     *
+     * @param mirror The annotation.
+     * @return Source of the policy expression.
+     */
+    private String rateLimit(final AnnotationMirror mirror) {
+        final Map<String, Object> values = values(mirror);
+        return String.format("new %s(%s, java.time.Duration.ofNanos(java.util.concurrent.TimeUnit.%s.toNanos(%sL)), "
+                + "gg.sep.alyx.plugin.commands.RateLimit.Scope.%s, %s)",
+            RATE_LIMIT_POLICY_CLASS,
+            values.get("uses"),
+            ((VariableElement) values.get("unit")).getSimpleName(),
+            values.get("period"),
+            ((VariableElement) values.get("scope")).getSimpleName(),
+            literal(values.get("message")));
+    }
+
+    /**
+     * Returns an annotation of an element.
+     *
+     * @param element The annotated element.
+     * @param annotation The qualified name of the annotation's type.
+     * @return The annotation, or empty if the element does not have it.
+     */
+    private Optional<AnnotationMirror> findAnnotation(final Element element, final String annotation) {
+        return element.getAnnotationMirrors().stream()
+            .filter(mirror -> annotation.contentEquals(
+                ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()))
+            .findFirst()
+            .map(mirror -> (AnnotationMirror) mirror);
+    }
+
+    /**
+     * Returns the values of an annotation, including its defaults, keyed by the element name.
+     *
+     * @param mirror The annotation.
+     * @return The annotation's values.
+     */
+    private Map<String, Object> values(final AnnotationMirror mirror) {
+        return processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet().stream()
+            .collect(Collectors.toMap(
+                entry -> entry.getKey().getSimpleName().toString(),
+                entry -> entry.getValue().getValue()
+            ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AnnotationValue> list(final Object value) {
+        return (List<AnnotationValue>) value;
+    }
+
+    private String literal(final Object value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+}
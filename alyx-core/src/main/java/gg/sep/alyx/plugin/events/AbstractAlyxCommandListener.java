@@ -1,7 +1,8 @@
 package gg.sep.alyx.plugin.events;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import javax.annotation.Nonnull;
 
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,9 @@ import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import gg.sep.alyx.plugin.Alyx;
 import gg.sep.alyx.plugin.AlyxException;
 import gg.sep.alyx.plugin.commands.AlyxCommand;
+import gg.sep.alyx.plugin.commands.CommandDispatcher;
+import gg.sep.alyx.plugin.commands.CommandMetrics;
+import gg.sep.alyx.plugin.util.MessageTokens;
 
 /**
  * A abstract listener for Alyx which can be extended in order to listen
@@ -55,6 +59,8 @@ public abstract class AbstractAlyxCommandListener extends AbstractAlyxListenerAd
      * Handles a {@link MessageReceivedEvent} from either a guild or private Discord channel
      * and submits it to the bot's command processor.
      *
+     * The command is matched on the event thread, and then executed by the bot's {@link CommandDispatcher}.
+     *
      * @param event The {@link MessageReceivedEvent} event which triggered was received by the bot.
      */
     @Override
@@ -65,41 +71,57 @@ public abstract class AbstractAlyxCommandListener extends AbstractAlyxListenerAd
 
         final String rawMessage = event.getMessage().getContentRaw();
         if (rawMessage.startsWith(alyx.getCommandPrefix())) {
-            final String cmd = removeBotCommandPrefix(rawMessage);
+            // tokenize the message once, and share it between command matching and parameter parsing
+            final MessageTokens cmd = MessageTokens.tokenize(removeBotCommandPrefix(rawMessage));
 
-            final List<AlyxCommand> matchingCommands = this.alyx.getLoadedCommands().stream()
-                .filter(command -> command.matches(cmd))
-                .collect(Collectors.toList());
+            final Optional<AlyxCommand> executeCommand = this.alyx.getCommandIndex().findCommand(cmd);
 
-            // if there's more than one command, choose the one with the longest command chain
-            AlyxCommand executeCommand = null;
-            if (matchingCommands.size() > 1) {
-                int longest = 0;
-                AlyxCommand longestCommand = null;
+            if (executeCommand.isPresent()) {
+                final CommandMetrics metrics = executeCommand.get().getMetrics();
 
-                for (final AlyxCommand command : matchingCommands) {
-                    if (command.getCommandChain().size() > longest) {
-                        longest = command.getCommandChain().size();
-                        longestCommand = command;
-                    }
-                }
-                executeCommand = longestCommand;
-            } else if (!matchingCommands.isEmpty()) {
-                executeCommand = matchingCommands.get(0);
-            }
+                // the command's permissions and rate limit are checked once it's dispatched
+                final CommandDispatcher dispatcher = this.alyx.getCommandDispatcher();
+                final long dispatched = System.nanoTime();
+                final boolean accepted = dispatcher.dispatchAsync(dispatcher.orderingKey(event), () -> {
+                    metrics.getDispatchLatency().recordSince(dispatched);
+                    return invokeCommand(executeCommand.get(), event, cmd, dispatcher);
+                });
 
-            if (executeCommand != null) {
-                try {
-                    executeCommand.invoke(event, cmd);
-                } catch (final AlyxException e) {
-                    event.getMessage().addReaction("❌").queue();
-                    // TODO: This may contain private information.
-                    event.getChannel().sendMessage(e.getMessage()).queue();
+                if (!accepted) {
+                    metrics.getRejected().increment();
+                    // the bot is saturated, let the user know their command was dropped
+                    event.getMessage().addReaction("⏳").queue();
                 }
             }
         }
     }
 
+    /**
+     * Invokes a command which has been matched to a message, replying to the user if it fails.
+     *
+     * Parameters which are fetched from Discord don't hold up a dispatcher thread, the command is
+     * continued on the dispatcher's executor once they're ready.
+     *
+     * @param command The matched command.
+     * @param event The event which triggered the command.
+     * @param cmd The event's message text minus the bot's prefix, split into words.
+     * @param dispatcher The dispatcher running the command.
+     * @return Stage completed once the command has run.
+     */
+    private CompletionStage<Void> invokeCommand(final AlyxCommand command, final MessageReceivedEvent event,
+                                                final MessageTokens cmd, final CommandDispatcher dispatcher) {
+        return command.invokeAsync(event, cmd, dispatcher.getExecutor()).exceptionally(throwable -> {
+            final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            if (!(cause instanceof AlyxException)) {
+                throw new CompletionException(cause);
+            }
+            event.getMessage().addReaction("❌").queue();
+            // TODO: This may contain private information.
+            event.getChannel().sendMessage(cause.getMessage()).queue();
+            return null;
+        });
+    }
+
     /**
      * Removes the bot's command prefix from a message's text.
      *
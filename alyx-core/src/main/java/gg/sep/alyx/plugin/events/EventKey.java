@@ -0,0 +1,67 @@
+package gg.sep.alyx.plugin.events;
+
+import java.util.function.Function;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Extracts a lookup key from a Discord event, allowing the {@link EventWaiter} to route an incoming
+ * event directly to the waits registered for that key, instead of checking it against every pending wait.
+ *
+ * Waits are grouped by the {@link EventKey} instance which they were registered with, and each
+ * incoming event has its key extracted once for each {@link EventKey} in use for its class. Keys
+ * should therefore be created once and shared, such as the common keys defined here.
+ *
+ * @param <T> The type of the Discord event.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EventKey<T extends GenericEvent> {
+
+    /**
+     * Keys a {@link MessageReactionAddEvent} on the ID of the message which was reacted to and
+     * the ID of the user who added the reaction.
+     */
+    public static final EventKey<MessageReactionAddEvent> REACTION_BY_MESSAGE_AND_USER =
+        of(MessageReactionAddEvent.class, event -> Pair.of(event.getMessageIdLong(), event.getUserIdLong()));
+
+    /**
+     * Keys a {@link MessageReceivedEvent} on the ID of the channel the message was sent in and
+     * the ID of the message's author.
+     */
+    public static final EventKey<MessageReceivedEvent> MESSAGE_BY_CHANNEL_AND_AUTHOR =
+        of(MessageReceivedEvent.class, event -> Pair.of(event.getChannel().getIdLong(),
+            event.getAuthor().getIdLong()));
+
+    @Getter
+    private final Class<T> eventType;
+    private final Function<T, ?> extractor;
+
+    /**
+     * Creates a new key for events of the given type.
+     *
+     * @param eventType The class of the Discord event.
+     * @param extractor Extracts the key from an event. The key must implement {@code equals} and
+     *                  {@code hashCode}, and may be {@code null} if the event has no key.
+     * @param <T> The type of the Discord event.
+     * @return A new key for events of the given type.
+     */
+    public static <T extends GenericEvent> EventKey<T> of(final Class<T> eventType, final Function<T, ?> extractor) {
+        return new EventKey<>(eventType, extractor);
+    }
+
+    /**
+     * Extracts the key from an event.
+     *
+     * @param event The event to extract the key from.
+     * @return The event's key, or {@code null} if the event has no key.
+     */
+    Object extract(final T event) {
+        return extractor.apply(event);
+    }
+}
@@ -1,19 +1,19 @@
 package gg.sep.alyx.plugin.events;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -22,19 +22,35 @@ import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.hooks.SubscribeEvent;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
+import gg.sep.alyx.plugin.metrics.LatencyHistogram;
+import gg.sep.alyx.plugin.metrics.MetricFamily;
+import gg.sep.alyx.plugin.metrics.MetricsRegistry;
+
 /**
  * The {@link EventWaiter} class provides an asynchronous method
  * to wait for certain Discord events to fire which meet a certain condition.
+ *
+ * Pending waits do not hold on to a thread. Each wait's future is completed directly by
+ * {@link #onEvent(GenericEvent)} on the thread which delivered the matching event, and timeouts
+ * are handled by a single shared scheduler thread. As a result, any dependent stages added to the
+ * returned future without an executor (eg, {@link CompletableFuture#thenAccept}) will also run on
+ * that thread, and long running work should use the {@code *Async} variants instead.
+ *
+ * The time each wait took to complete or expire is recorded in the {@value #WAIT_METRIC} histogram,
+ * labelled by the event's class, and the number of pending waits is exported as a gauge.
  */
 @Log4j2
 public class EventWaiter implements EventListener {
 
-    private static final long THREAD_CHECK_INTERVAL = 50;
+    /**
+     * Name of the histogram of wait times.
+     */
+    public static final String WAIT_METRIC = "alyx_event_waiter_wait_seconds";
 
-    private final ExecutorService executorService;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final MetricFamily<LatencyHistogram> waitLatency;
 
-    private final Map<Class<? extends GenericEvent>, Collection<EventTask>> runningTasks =
-        new ConcurrentHashMap<>();
+    private final Map<Class<? extends GenericEvent>, EventTasks> runningTasks = new ConcurrentHashMap<>();
 
     /**
      * Constructs a new instances of an Event Waiter.
@@ -42,39 +58,126 @@ public class EventWaiter implements EventListener {
      *                  practices is to use the Bot's name.
      */
     public EventWaiter(final String identifier) {
+        this(identifier, new MetricsRegistry());
+    }
+
+    /**
+     * Constructs a new instances of an Event Waiter, recording the time taken by its waits.
+     * @param identifier Identifier used to name the threads spawned by this Event Waiter. A good
+     *                  practices is to use the Bot's name.
+     * @param metrics Registry to record the time taken by waits in.
+     */
+    public EventWaiter(final String identifier, final MetricsRegistry metrics) {
+
+        this.waitLatency = metrics.histogram(WAIT_METRIC,
+            "Time event waits took to complete, or to expire.", "event", "outcome");
+        metrics.gauge("alyx_event_waiter_pending", "Event waits which have not completed or expired.",
+            this::getPendingCount);
 
         final ThreadFactory threadFactory = new BasicThreadFactory.Builder()
             .namingPattern("EventWaiter-" + identifier + "-%d")
             .daemon(true)
             .build();
 
-        // TODO: Revisit this since this may be a bottleneck for large bot instances
-        this.executorService = Executors.newFixedThreadPool(8, threadFactory);
+        // a single thread is only responsible for expiring waits, and never runs the waits themselves
+        this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+        this.scheduler.setRemoveOnCancelPolicy(true);
     }
 
     @RequiredArgsConstructor
     private static final class EventTask<T, R> {
         private final Predicate<T> condition;
         private final Function<T, R> completedAction;
-        private volatile boolean completed;
-        private volatile R result = null;
+        private final LatencyHistogram completedLatency;
+        private final LatencyHistogram expiredLatency;
+        private final long started = System.nanoTime();
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timeout;
+        private volatile Runnable detach = () -> { };
 
+        /**
+         * Checks the event against the task's condition, completing the task if it matches.
+         *
+         * @param event The event to check.
+         * @return Returns {@code true} if the task is finished and no longer needs to receive events.
+         */
         private synchronized boolean check(final T event) {
-            final boolean check = condition.test(event);
-            if (check) {
-                completed = true;
-                result = completedAction.apply(event);
+            if (future.isDone()) {
                 return true;
             }
-            return false;
+            try {
+                if (!condition.test(event)) {
+                    return false;
+                }
+                future.complete(completedAction.apply(event));
+            } catch (final RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+            completedLatency.recordSince(started);
+            cancelTimeout();
+            return true;
         }
 
-        private synchronized boolean isCompleted() {
-            return completed;
+        private void expire() {
+            if (future.complete(null)) {
+                expiredLatency.recordSince(started);
+            }
         }
 
-        private synchronized R getResult() {
-            return result;
+        private void cancelTimeout() {
+            final ScheduledFuture<?> scheduled = this.timeout;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * The pending waits for a single class of event.
+     *
+     * Waits registered without a key are checked against every event of the class. Waits registered
+     * with an {@link EventKey} are grouped by the key, and then by the key's value, so that an event
+     * is only checked against the waits for the value extracted from it.
+     */
+    private static final class EventTasks {
+        private final Collection<EventTask<?, ?>> unkeyed = ConcurrentHashMap.newKeySet();
+        private final Map<EventKey<?>, Map<Object, Collection<EventTask<?, ?>>>> keyed = new ConcurrentHashMap<>();
+
+        private void add(final EventTask<?, ?> task) {
+            task.detach = () -> unkeyed.remove(task);
+            unkeyed.add(task);
+        }
+
+        private void add(final EventKey<?> key, final Object value, final EventTask<?, ?> task) {
+            final Map<Object, Collection<EventTask<?, ?>>> buckets = keyed.computeIfAbsent(key,
+                k -> new ConcurrentHashMap<>());
+            task.detach = () -> buckets.computeIfPresent(value, (k, bucket) -> {
+                bucket.remove(task);
+                return bucket.isEmpty() ? null : bucket;
+            });
+            buckets.compute(value, (k, bucket) -> {
+                final Collection<EventTask<?, ?>> tasks = bucket == null ? ConcurrentHashMap.newKeySet() : bucket;
+                tasks.add(task);
+                return tasks;
+            });
+        }
+
+        private int size() {
+            int size = unkeyed.size();
+            for (final Map<Object, Collection<EventTask<?, ?>>> buckets : keyed.values()) {
+                for (final Collection<EventTask<?, ?>> bucket : buckets.values()) {
+                    size += bucket.size();
+                }
+            }
+            return size;
+        }
+
+        private List<EventTask<?, ?>> all() {
+            final List<EventTask<?, ?>> tasks = new ArrayList<>(unkeyed);
+            for (final Map<Object, Collection<EventTask<?, ?>>> buckets : keyed.values()) {
+                buckets.values().forEach(tasks::addAll);
+            }
+            return tasks;
         }
     }
 
@@ -94,35 +197,94 @@ public class EventWaiter implements EventListener {
      * @param <T> The type of the Discord event.
      * @param <R> The type of result that is returned once the {@code callback} is applied to the event.
      * @return Asynchronous future containing the result of the {@code callback} applied to the event.
+     * @throws RejectedExecutionException Thrown if the EventWaiter has been shut down.
      */
     public <T extends GenericEvent, R> CompletableFuture<R> waitForEvent(final Class<T> clazz,
                                                                          final Predicate<T> condition,
                                                                          final Function<T, R> completedCallback,
                                                                          final Duration timeout) {
 
-        final EventTask<T, R> eventTask = new EventTask<>(condition, completedCallback);
-        final Collection<EventTask> currentTasks = runningTasks.computeIfAbsent(clazz,
-            key -> ConcurrentHashMap.newKeySet());
-        currentTasks.add(eventTask);
+        final EventTask<T, R> eventTask = newTask(clazz, condition, completedCallback);
+        runningTasks.computeIfAbsent(clazz, key -> new EventTasks()).add(eventTask);
+        return schedule(eventTask, timeout);
+    }
 
-        final Supplier<R> supplier = () -> {
-            final long startTime = System.currentTimeMillis();
-            while (System.currentTimeMillis() - startTime < timeout.toMillis()) {
-                if (eventTask.isCompleted()) {
-                    break;
-                }
-                try {
-                    Thread.sleep(THREAD_CHECK_INTERVAL);
-                } catch (final InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+    /**
+     * Wait for a Discord event to fire whose key matches {@code value}, and which matches the given
+     * {@code predicate}.
+     *
+     * Unlike {@link #waitForEvent(Class, Predicate, Function, Duration)}, incoming events are only
+     * checked against the waits registered for the key extracted from them, rather than against
+     * every pending wait for the event's class. This should be preferred whenever the event being
+     * waited for can be identified by IDs, such as a reaction on a specific message by a specific user.
+     *
+     * If the predicate is successful, {@code callback} is triggered in order to return the result.
+     *
+     * If the timeout was reached without the event being fired, the contents of the result
+     * will be {@code null}. Your calling function will need to handle this case appropriately.
+     *
+     * @param key Extracts the lookup key from each event. See {@link EventKey} for common keys.
+     * @param value The key of the event being waited for.
+     * @param condition Additional condition to check against events with the matching key in order
+     *                  to determine if the event completed.
+     * @param completedCallback Callback to execute on the event once the wait is completed.
+     * @param timeout Maximum duration to wait for the event to be completed.
+     * @param <T> The type of the Discord event.
+     * @param <R> The type of result that is returned once the {@code callback} is applied to the event.
+     * @return Asynchronous future containing the result of the {@code callback} applied to the event.
+     * @throws RejectedExecutionException Thrown if the EventWaiter has been shut down.
+     */
+    public <T extends GenericEvent, R> CompletableFuture<R> waitForEvent(final EventKey<T> key,
+                                                                         final Object value,
+                                                                         final Predicate<T> condition,
+                                                                         final Function<T, R> completedCallback,
+                                                                         final Duration timeout) {
 
-            }
-            currentTasks.remove(eventTask);
-            return eventTask.getResult();
-        };
+        final EventTask<T, R> eventTask = newTask(key.getEventType(), condition, completedCallback);
+        runningTasks.computeIfAbsent(key.getEventType(), k -> new EventTasks()).add(key, value, eventTask);
+        return schedule(eventTask, timeout);
+    }
+
+    /**
+     * Creates a task, along with the histograms its wait time is recorded in.
+     *
+     * @param eventType The class of the Discord event.
+     * @param condition The task's condition.
+     * @param completedCallback Callback to execute on the event once the wait is completed.
+     * @param <T> The type of the Discord event.
+     * @param <R> The type of the task's result.
+     * @return The new task.
+     */
+    private <T, R> EventTask<T, R> newTask(final Class<?> eventType, final Predicate<T> condition,
+                                           final Function<T, R> completedCallback) {
+        final String eventName = eventType.getSimpleName();
+        return new EventTask<>(condition, completedCallback,
+            waitLatency.labels(eventName, "completed"), waitLatency.labels(eventName, "expired"));
+    }
 
-        return CompletableFuture.supplyAsync(supplier, executorService);
+    /**
+     * Schedules the timeout of a task which has already been registered.
+     *
+     * @param eventTask The registered task.
+     * @param timeout Maximum duration to wait for the task to be completed.
+     * @param <R> The type of the task's result.
+     * @return The task's future.
+     */
+    private <R> CompletableFuture<R> schedule(final EventTask<?, R> eventTask, final Duration timeout) {
+        try {
+            eventTask.timeout = scheduler.schedule(() -> {
+                eventTask.detach.run();
+                eventTask.expire();
+            }, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException e) {
+            eventTask.detach.run();
+            throw e;
+        }
+        // the event may have arrived before the timeout was assigned to the task
+        if (eventTask.future.isDone()) {
+            eventTask.cancelTimeout();
+        }
+        return eventTask.future;
     }
 
     /**
@@ -135,19 +297,46 @@ public class EventWaiter implements EventListener {
     @SubscribeEvent
     @SuppressWarnings("unchecked")
     public void onEvent(final GenericEvent event) {
-        final Collection<EventTask> tasks = runningTasks.get(event.getClass());
+        final EventTasks tasks = runningTasks.get(event.getClass());
+        if (tasks == null) {
+            return;
+        }
 
-        if (tasks != null) {
-            final Collection<EventTask> finishedTasks = tasks.stream()
-                .filter(task -> task.check((event)))
-                .collect(Collectors.toList());
-            tasks.removeAll(finishedTasks);
+        tasks.unkeyed.removeIf(task -> ((EventTask<GenericEvent, ?>) task).check(event));
+
+        for (final Map.Entry<EventKey<?>, Map<Object, Collection<EventTask<?, ?>>>> entry : tasks.keyed.entrySet()) {
+            final Object value;
+            try {
+                value = ((EventKey<GenericEvent>) entry.getKey()).extract(event);
+            } catch (final RuntimeException e) {
+                log.warn("Failed to extract key from event. event={}", event.getClass().getSimpleName(), e);
+                continue;
+            }
+
+            final Collection<EventTask<?, ?>> bucket = value == null ? null : entry.getValue().get(value);
+            if (bucket != null) {
+                for (final EventTask<?, ?> task : bucket) {
+                    if (((EventTask<GenericEvent, ?>) task).check(event)) {
+                        task.detach.run();
+                    }
+                }
+            }
         }
     }
 
     /**
-     * Tells the EventWaiter to reject new tasks and wait for all running tasks to finish, up to
-     * the timeout specified in {@code timeout}/{@code unit}.
+     * Returns the number of waits which have not yet been completed or timed out.
+     *
+     * @return The number of pending waits.
+     */
+    public int getPendingCount() {
+        return runningTasks.values().stream().mapToInt(EventTasks::size).sum();
+    }
+
+    /**
+     * Tells the EventWaiter to reject new tasks, completing any pending waits with a {@code null}
+     * result, and waits for the timeout scheduler to stop, up to the timeout specified in
+     * {@code timeout}/{@code unit}.
      *
      * @param timeout The maximum time to wait
      * @param unit The time unit of the timeout argument
@@ -155,15 +344,22 @@ public class EventWaiter implements EventListener {
      *         {@code false} if the timeout elapsed before termination
      */
     public CompletableFuture<Boolean> shutdown(final long timeout, final TimeUnit unit) {
-        final AtomicBoolean result = new AtomicBoolean(false);
-        return CompletableFuture.runAsync(() -> {
-            this.executorService.shutdown();
+        this.scheduler.shutdownNow();
+
+        for (final EventTasks tasks : runningTasks.values()) {
+            for (final EventTask<?, ?> task : tasks.all()) {
+                task.detach.run();
+                task.expire();
+            }
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                result.set(this.executorService.awaitTermination(timeout, unit));
+                return this.scheduler.awaitTermination(timeout, unit);
             } catch (final InterruptedException e) {
                 Thread.currentThread().interrupt();
-                result.set(false);
+                return false;
             }
-        }).thenApply(f -> result.get());
+        });
     }
 }
@@ -0,0 +1,119 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import java.util.Set;
+
+/**
+ * Anonymises the IDs and content of recorded events, while keeping the shape the bot cares about.
+ *
+ * IDs are replaced by a keyed hash, so the same ID is always replaced by the same anonymous ID within
+ * a recording, but can't be traced back to the original without the key, which is never written to
+ * the recording. Anonymous IDs are still 17 or 18 digit snowflakes, but their timestamps are meaningless.
+ *
+ * In content, command names and punctuation are kept, so recorded commands still match the same
+ * commands and are split into the same parameters. Snowflakes, including those in mentions, are
+ * replaced by their anonymous IDs, other digits by {@code 1} and letters by {@code x}.
+ */
+final class EventAnonymizer {
+
+    private static final int MIN_SNOWFLAKE_DIGITS = 15;
+    private static final int MAX_SNOWFLAKE_DIGITS = 20;
+
+    private final long key;
+
+    /**
+     * Creates an anonymiser.
+     *
+     * @param key Key of the hash replacing IDs. Should be random, and not stored anywhere.
+     */
+    EventAnonymizer(final long key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the anonymous ID of an ID.
+     *
+     * @param id The ID.
+     * @return The anonymous ID, or the ID itself if it's {@code 0} or negative, which aren't real IDs.
+     */
+    long id(final long id) {
+        if (id <= 0) {
+            return id;
+        }
+        // SplitMix64's finalizer, which mixes every bit of the input into every bit of the output
+        long z = id ^ key;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        // keep the ID between 2^56 and 2^57, so it always has as many digits as a real snowflake
+        return (z >>> 8) | (1L << 56);
+    }
+
+    /**
+     * Anonymises the content of a message.
+     *
+     * @param content Raw content of the message.
+     * @param commandPrefix The bot's command prefix, which is kept at the start of the message.
+     * @param commandWords Names and aliases of the bot's commands, which are kept wherever they appear.
+     * @return The anonymised content, the same length as the original unless it contains snowflakes.
+     */
+    String content(final String content, final String commandPrefix, final Set<String> commandWords) {
+        final StringBuilder anonymised = new StringBuilder(content.length());
+        int start = 0;
+        if (!commandPrefix.isEmpty() && content.startsWith(commandPrefix)) {
+            anonymised.append(commandPrefix);
+            start = commandPrefix.length();
+        }
+
+        int i = start;
+        while (i < content.length()) {
+            if (Character.isWhitespace(content.charAt(i))) {
+                anonymised.append(content.charAt(i++));
+                continue;
+            }
+            int end = i;
+            while (end < content.length() && !Character.isWhitespace(content.charAt(end))) {
+                end++;
+            }
+            final String word = content.substring(i, end);
+            if (commandWords.contains(word)) {
+                anonymised.append(word);
+            } else {
+                word(word, anonymised);
+            }
+            i = end;
+        }
+        return anonymised.toString();
+    }
+
+    private void word(final String word, final StringBuilder anonymised) {
+        int i = 0;
+        while (i < word.length()) {
+            final char c = word.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int end = i;
+                while (end < word.length() && word.charAt(end) >= '0' && word.charAt(end) <= '9') {
+                    end++;
+                }
+                digits(word.substring(i, end), anonymised);
+                i = end;
+            } else {
+                anonymised.append(Character.isLetter(c) ? 'x' : c);
+                i++;
+            }
+        }
+    }
+
+    private void digits(final String digits, final StringBuilder anonymised) {
+        if (digits.length() >= MIN_SNOWFLAKE_DIGITS && digits.length() <= MAX_SNOWFLAKE_DIGITS) {
+            try {
+                anonymised.append(id(Long.parseLong(digits)));
+                return;
+            } catch (final NumberFormatException e) {
+                // too large to be a snowflake
+            }
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            anonymised.append('1');
+        }
+    }
+}
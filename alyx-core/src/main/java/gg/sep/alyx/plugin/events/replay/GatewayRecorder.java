@@ -0,0 +1,258 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.log4j.Log4j2;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.hooks.SubscribeEvent;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import gg.sep.alyx.plugin.Alyx;
+import gg.sep.alyx.plugin.PluginRegistry;
+import gg.sep.alyx.plugin.commands.AlyxCommand;
+import gg.sep.alyx.plugin.metrics.Counter;
+import gg.sep.alyx.plugin.metrics.MetricFamily;
+import gg.sep.alyx.plugin.storage.RecordLog;
+
+/**
+ * Records the messages and reactions received by the bot, anonymised, so that real traffic can be
+ * replayed against the bot's listeners with a {@link GatewayReplayer}.
+ *
+ * Events are anonymised on the thread which delivered them, then handed off to a single writer thread,
+ * so recording never waits for the disk. The writer appends the events waiting for it as one chunk,
+ * so the busier the bot is, the fewer times the recording is flushed per event. If the writer falls
+ * more than {@value #QUEUE_LIMIT} events behind, further events are dropped rather than slowing the
+ * bot down, and counted in the {@value #EVENTS_METRIC} counter.
+ *
+ * See {@link RecordedEvent} for what is recorded, and {@link EventAnonymizer} for how it's anonymised.
+ */
+@Log4j2
+public final class GatewayRecorder implements EventListener, Closeable {
+
+    /**
+     * Name of the counter of recorded and dropped events.
+     */
+    public static final String EVENTS_METRIC = "alyx_gateway_recorder_events_total";
+
+    /**
+     * Maximum number of events waiting to be written.
+     */
+    public static final int QUEUE_LIMIT = 65_536;
+
+    private static final int CHUNK_EVENTS = 4096;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final Alyx alyx;
+    private final RecordLog recording;
+    private final EventAnonymizer anonymizer = new EventAnonymizer(new SecureRandom().nextLong());
+    private final BlockingQueue<RecordedEvent> queue = new ArrayBlockingQueue<>(QUEUE_LIMIT);
+    private final long started = System.nanoTime();
+    private final Thread writer;
+    private final Counter recorded;
+    private final Counter dropped;
+    private volatile boolean closed;
+
+    // guarded by this, so the recording is closed exactly once by either close() or the writer
+    private boolean writerFinished;
+    private boolean abandoned;
+
+    private volatile PluginRegistry wordsRegistry;
+    private volatile Set<String> commandWords = Set.of();
+
+    private GatewayRecorder(final Alyx alyx, final RecordLog recording) {
+        this.alyx = alyx;
+        this.recording = recording;
+
+        final MetricFamily<Counter> events = alyx.getMetricsRegistry().counter(EVENTS_METRIC,
+            "Gateway events recorded for replay, or dropped because the recording fell behind.", "outcome");
+        this.recorded = events.labels("recorded");
+        this.dropped = events.labels("dropped");
+
+        this.writer = new BasicThreadFactory.Builder()
+            .namingPattern("GatewayRecorder-" + alyx.getBotEntry().getBotName() + "-%d")
+            .daemon(true)
+            .build()
+            .newThread(this::write);
+    }
+
+    /**
+     * Starts a new recording in a file.
+     *
+     * Event offsets and anonymised IDs are only consistent within a single recording, so a previous
+     * recording in the file is kept by renaming it with the time it was replaced, rather than appended to.
+     *
+     * The recorder must be added to the bot's listeners to receive any events.
+     *
+     * @param alyx The bot being recorded, whose command prefix and command names are kept in messages.
+     * @param path Path to the recording.
+     * @return The started recorder.
+     * @throws IOException Thrown if the previous recording could not be renamed, or the recording could
+     *                     not be opened.
+     */
+    public static GatewayRecorder start(final Alyx alyx, final Path path) throws IOException {
+        if (Files.exists(path) && Files.size(path) > 0) {
+            final Path previous = path.resolveSibling(path.getFileName() + "." + System.currentTimeMillis());
+            Files.move(path, previous);
+            log.info("Kept the previous gateway recording. path={}, movedTo={}", path, previous);
+        }
+
+        final GatewayRecorder recorder = new GatewayRecorder(alyx, RecordLog.open(path));
+        recorder.writer.start();
+        log.info("Recording gateway events. path={}", path);
+        return recorder;
+    }
+
+    /**
+     * Records messages and reactions, and ignores any other events.
+     *
+     * @param event Discord event.
+     */
+    @Override
+    @SubscribeEvent
+    public void onEvent(final GenericEvent event) {
+        if (closed) {
+            return;
+        }
+
+        final long offset = System.nanoTime() - started;
+        final RecordedEvent recordedEvent;
+        if (event instanceof MessageReceivedEvent) {
+            final MessageReceivedEvent message = (MessageReceivedEvent) event;
+            recordedEvent = RecordedEvent.message(offset,
+                message.isFromGuild() ? anonymizer.id(message.getGuild().getIdLong()) : 0,
+                anonymizer.id(message.getChannel().getIdLong()),
+                anonymizer.id(message.getAuthor().getIdLong()),
+                anonymizer.id(message.getMessageIdLong()),
+                anonymizer.content(message.getMessage().getContentRaw(), alyx.getCommandPrefix(), commandWords()));
+        } else if (event instanceof MessageReactionAddEvent) {
+            final MessageReactionAddEvent reaction = (MessageReactionAddEvent) event;
+            recordedEvent = RecordedEvent.reaction(offset,
+                reaction.isFromGuild() ? anonymizer.id(reaction.getGuild().getIdLong()) : 0,
+                anonymizer.id(reaction.getChannel().getIdLong()),
+                anonymizer.id(reaction.getUserIdLong()),
+                anonymizer.id(reaction.getMessageIdLong()),
+                reaction.getReactionEmote().getName());
+        } else {
+            return;
+        }
+
+        if (!queue.offer(recordedEvent)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Stops recording, waiting up to {@value #CLOSE_TIMEOUT_SECONDS} seconds for the events already
+     * received to be written.
+     *
+     * If the writer is still writing once the wait is over, the recording is left for the writer to close
+     * once it has finished, rather than closed underneath it.
+     *
+     * @throws IOException Thrown if the recording could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            if (!writerFinished) {
+                abandoned = true;
+                log.warn("Gateway recording is still being written, it will be closed once written. path={}, "
+                    + "waiting={}", recording.getPath(), queue.size());
+                return;
+            }
+        }
+        recording.close();
+    }
+
+    /**
+     * Returns the names and aliases of the loaded commands, which are kept in recorded messages.
+     *
+     * The names are only collected again when the plugin registry, which is replaced whenever a plugin
+     * is loaded or unloaded, has changed.
+     *
+     * @return The names and aliases of the loaded commands.
+     */
+    private Set<String> commandWords() {
+        final PluginRegistry registry = alyx.getPluginRegistry();
+        if (registry != wordsRegistry) {
+            final Set<String> words = new HashSet<>();
+            for (final AlyxCommand command : registry.getLoadedCommands()) {
+                command.getCommandChain().forEach(words::addAll);
+            }
+            commandWords = words;
+            wordsRegistry = registry;
+        }
+        return commandWords;
+    }
+
+    /**
+     * Writes events to the recording until the recorder is closed and every received event is written.
+     */
+    private void write() {
+        try {
+            writeChunks();
+        } finally {
+            finishWriting();
+        }
+    }
+
+    private void writeChunks() {
+        final List<RecordedEvent> chunk = new ArrayList<>(CHUNK_EVENTS);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final RecordedEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                chunk.add(first);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(chunk, CHUNK_EVENTS - 1);
+
+            try {
+                recording.append(RecordedEvent.encode(chunk));
+                recorded.add(chunk.size());
+            } catch (final IOException e) {
+                log.error("Failed to write gateway events to the recording. events={}", chunk.size(), e);
+                dropped.add(chunk.size());
+            }
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Marks the writer as finished, closing the recording if {@link #close()} stopped waiting for it.
+     */
+    private synchronized void finishWriting() {
+        writerFinished = true;
+        if (abandoned) {
+            try {
+                recording.close();
+            } catch (final IOException e) {
+                log.error("Failed to close the gateway recording. path={}", recording.getPath(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import lombok.extern.log4j.Log4j2;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+
+import gg.sep.alyx.plugin.commands.CommandDispatcher;
+import gg.sep.alyx.plugin.metrics.LatencyHistogram;
+
+/**
+ * Replays a recording made by a {@link GatewayRecorder} into the bot's listeners, such as its
+ * {@link gg.sep.alyx.plugin.events.AlyxCommandListener} and {@link gg.sep.alyx.plugin.events.EventWaiter},
+ * to measure how the bot handles real traffic.
+ *
+ * Events are delivered to the listeners one at a time, on the thread calling {@link #replay(List)}, as a
+ * single shard's events are delivered by JDA. Each event is created by the event factory before the replay
+ * starts, so creating them isn't measured.
+ *
+ * The latency of each event is measured from when it was due to be delivered until every listener has
+ * returned. At {@link Pace#ORIGINAL} pace this includes any time the event waited for the events before it,
+ * so it shows when the bot falls behind the original traffic. At {@link Pace#MAXIMUM} pace it's the time the
+ * listeners took to handle the event.
+ */
+@Log4j2
+public final class GatewayReplayer {
+
+    /**
+     * How quickly events are replayed.
+     */
+    public enum Pace {
+        /**
+         * Events are delivered at the same times, relative to the start of the replay, as they were received.
+         */
+        ORIGINAL,
+        /**
+         * Each event is delivered as soon as the listeners have handled the event before it.
+         */
+        MAXIMUM
+    }
+
+    /**
+     * Maximum time to wait for the commands dispatched by a replay to run.
+     */
+    public static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final List<EventListener> listeners;
+    private final Function<RecordedEvent, GenericEvent> eventFactory;
+    private final Pace pace;
+    private final CommandDispatcher dispatcher;
+
+    /**
+     * Creates a replayer.
+     *
+     * @param listeners The listeners events are delivered to, in order.
+     * @param eventFactory Creates the event delivered to the listeners for each recorded event.
+     * @param pace How quickly events are replayed.
+     * @param dispatcher The dispatcher running the commands of the listeners, so the replay isn't finished
+     *                   until the commands it dispatched have run. May be {@code null}.
+     */
+    public GatewayReplayer(final List<? extends EventListener> listeners,
+                           final Function<RecordedEvent, GenericEvent> eventFactory,
+                           final Pace pace, final CommandDispatcher dispatcher) {
+        this.listeners = List.copyOf(listeners);
+        this.eventFactory = eventFactory;
+        this.pace = pace;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Replays recorded events into the listeners.
+     *
+     * @param recording The recorded events, in the order they were received.
+     * @return Throughput and latency of the replay.
+     * @throws InterruptedException Thrown if interrupted while waiting for an event to be due, or for
+     *                              the dispatcher's commands to run.
+     */
+    public ReplayResult replay(final List<RecordedEvent> recording) throws InterruptedException {
+        final List<GenericEvent> events = new ArrayList<>(recording.size());
+        for (final RecordedEvent recorded : recording) {
+            events.add(eventFactory.apply(recorded));
+        }
+        final long[] offsets = offsets(recording);
+        final long recordedNanos = offsets.length == 0 ? 0 : offsets[offsets.length - 1];
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        long failures = 0;
+        final long started = System.nanoTime();
+        for (int i = 0; i < events.size(); i++) {
+            final long due;
+            if (pace == Pace.ORIGINAL) {
+                due = started + offsets[i];
+                waitUntil(due);
+            } else {
+                due = System.nanoTime();
+            }
+
+            for (final EventListener listener : listeners) {
+                try {
+                    listener.onEvent(events.get(i));
+                } catch (final RuntimeException e) {
+                    // JDA logs and ignores exceptions thrown by listeners, so the replay carries on too
+                    failures++;
+                    log.debug("Listener failed to handle replayed event. listener={}", listener, e);
+                }
+            }
+            latency.recordSince(due);
+        }
+
+        final boolean drained = awaitDispatcher();
+        return new ReplayResult(events.size(), failures, Duration.ofNanos(recordedNanos),
+            Duration.ofNanos(System.nanoTime() - started), drained, latency.snapshot());
+    }
+
+    /**
+     * Returns the time of each recorded event relative to the first.
+     *
+     * A recording's offsets start again from zero each time the bot starts recording, so a file joined
+     * from several recordings carries on from the event before any offset which goes backwards.
+     *
+     * @param recording The recorded events, in the order they were received.
+     * @return The time of each event since the first, in nanoseconds.
+     */
+    private static long[] offsets(final List<RecordedEvent> recording) {
+        final long[] offsets = new long[recording.size()];
+        for (int i = 1; i < offsets.length; i++) {
+            final long elapsed = recording.get(i).getOffsetNanos() - recording.get(i - 1).getOffsetNanos();
+            offsets[i] = offsets[i - 1] + Math.max(0, elapsed);
+        }
+        return offsets;
+    }
+
+    /**
+     * Waits until the dispatcher has run every command it was given, or the {@link #DRAIN_TIMEOUT} elapses.
+     *
+     * @return Returns {@code false} if the timeout elapsed first, or {@code true} otherwise.
+     * @throws InterruptedException Thrown if interrupted while waiting.
+     */
+    private boolean awaitDispatcher() throws InterruptedException {
+        if (dispatcher == null) {
+            return true;
+        }
+        final long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (dispatcher.getQueueDepth() > 0) {
+            if (System.nanoTime() - deadline > 0) {
+                log.warn("Timed out waiting for replayed commands to run. queueDepth={}", dispatcher.getQueueDepth());
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return true;
+    }
+
+    private static void waitUntil(final long due) throws InterruptedException {
+        long remaining = due - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = due - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import gg.sep.alyx.plugin.storage.RecordLog;
+
+/**
+ * A gateway event recorded by a {@link GatewayRecorder}, with its IDs and content anonymised.
+ *
+ * Only the events which drive the bot's commands and event waits are recorded: messages, and reactions
+ * added to messages.
+ *
+ * A recording is a {@link RecordLog} whose records are each a deflated chunk of events, so that the
+ * recorder only writes to disk once per chunk. Every event's IDs are written in full, but since the
+ * chunk is deflated as a whole, the IDs repeated between its events compress well.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RecordedEvent {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The type of a recorded event.
+     */
+    public enum Type {
+        /**
+         * A message was sent, recorded from a {@link net.dv8tion.jda.api.events.message.MessageReceivedEvent}.
+         */
+        MESSAGE,
+        /**
+         * A reaction was added to a message, recorded from a
+         * {@link net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent}.
+         */
+        REACTION
+    }
+
+    private final Type type;
+    /**
+     * Time the event was received, in nanoseconds since the recording started.
+     */
+    private final long offsetNanos;
+    /**
+     * ID of the guild the event happened in, or {@code 0} if it happened in a private channel.
+     */
+    private final long guildId;
+    private final long channelId;
+    /**
+     * ID of the message's author, or of the user who added the reaction.
+     */
+    private final long userId;
+    private final long messageId;
+    /**
+     * Raw content of the message, or the name of the reaction's emoji.
+     */
+    private final String content;
+
+    /**
+     * Creates a recorded message.
+     *
+     * @param offsetNanos Time the message was received, in nanoseconds since the recording started.
+     * @param guildId ID of the guild the message was sent in, or {@code 0} for a private channel.
+     * @param channelId ID of the channel the message was sent in.
+     * @param authorId ID of the message's author.
+     * @param messageId ID of the message.
+     * @param content Raw content of the message.
+     * @return The recorded message.
+     */
+    public static RecordedEvent message(final long offsetNanos, final long guildId, final long channelId,
+                                        final long authorId, final long messageId, final String content) {
+        return new RecordedEvent(Type.MESSAGE, offsetNanos, guildId, channelId, authorId, messageId, content);
+    }
+
+    /**
+     * Creates a recorded reaction.
+     *
+     * @param offsetNanos Time the reaction was received, in nanoseconds since the recording started.
+     * @param guildId ID of the guild the reaction was added in, or {@code 0} for a private channel.
+     * @param channelId ID of the channel of the message which was reacted to.
+     * @param userId ID of the user who added the reaction.
+     * @param messageId ID of the message which was reacted to.
+     * @param emoji Name of the reaction's emoji.
+     * @return The recorded reaction.
+     */
+    public static RecordedEvent reaction(final long offsetNanos, final long guildId, final long channelId,
+                                         final long userId, final long messageId, final String emoji) {
+        return new RecordedEvent(Type.REACTION, offsetNanos, guildId, channelId, userId, messageId, emoji);
+    }
+
+    /**
+     * Returns whether the event happened in a guild, rather than a private channel.
+     *
+     * @return Returns {@code true} if the event happened in a guild.
+     */
+    public boolean isFromGuild() {
+        return guildId != 0;
+    }
+
+    /**
+     * Reads every event in a recording, stopping at the first incomplete or corrupt chunk.
+     *
+     * @param path Path to the recording.
+     * @return The recorded events, in the order they were received.
+     * @throws IOException Thrown if reading the recording fails, or it was written in an unknown format.
+     */
+    public static List<RecordedEvent> read(final Path path) throws IOException {
+        final List<RecordedEvent> events = new ArrayList<>();
+        for (final byte[] chunk : RecordLog.readRecords(path)) {
+            events.addAll(decode(chunk));
+        }
+        return events;
+    }
+
+    /**
+     * Encodes a chunk of events as a single record of a recording.
+     *
+     * Offsets are stored as the difference from the previous event in the chunk, as events are
+     * recorded in order.
+     *
+     * @param events The events, in the order they were received.
+     * @return The encoded chunk.
+     * @throws IOException Never thrown, the chunk is written to memory.
+     */
+    static byte[] encode(final List<RecordedEvent> events) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            writeVarLong(out, events.size());
+            long previousOffset = 0;
+            for (final RecordedEvent event : events) {
+                out.writeByte(event.type.ordinal());
+                writeVarLong(out, Math.max(0, event.offsetNanos - previousOffset));
+                out.writeLong(event.guildId);
+                out.writeLong(event.channelId);
+                out.writeLong(event.userId);
+                out.writeLong(event.messageId);
+                out.writeUTF(event.content);
+                previousOffset = Math.max(previousOffset, event.offsetNanos);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a chunk of events written by {@link #encode(List)}.
+     *
+     * @param chunk The encoded chunk.
+     * @return The events, in the order they were received.
+     * @throws IOException Thrown if the chunk is truncated, or was written in an unknown format.
+     */
+    static List<RecordedEvent> decode(final byte[] chunk) throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(chunk)))) {
+            final int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unknown gateway recording format: " + version);
+            }
+
+            final Type[] types = Type.values();
+            final int count = (int) readVarLong(in);
+            final List<RecordedEvent> events = new ArrayList<>(count);
+            long offset = 0;
+            for (int i = 0; i < count; i++) {
+                final int type = in.readUnsignedByte();
+                if (type >= types.length) {
+                    throw new IOException("Unknown gateway recording event type: " + type);
+                }
+                offset += readVarLong(in);
+                events.add(new RecordedEvent(types[type], offset, in.readLong(), in.readLong(), in.readLong(),
+                    in.readLong(), in.readUTF()));
+            }
+            return events;
+        }
+    }
+
+    private static void writeVarLong(final OutputStream out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    private static long readVarLong(final InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final int b = in.read();
+            if (b < 0) {
+                throw new IOException("Truncated gateway recording chunk.");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed gateway recording chunk.");
+    }
+}
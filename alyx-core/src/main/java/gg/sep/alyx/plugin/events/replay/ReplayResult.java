@@ -0,0 +1,79 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import gg.sep.alyx.plugin.metrics.LatencyHistogram;
+
+/**
+ * The throughput and latency of a replay by a {@link GatewayReplayer}.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class ReplayResult {
+
+    private static final String[] PERCENTILES = {"50", "90", "99", "99.9"};
+
+    /**
+     * Number of events replayed.
+     */
+    private final int events;
+    /**
+     * Number of times a listener threw an exception while handling an event.
+     */
+    private final long failures;
+    /**
+     * Time between the first and last recorded events.
+     */
+    private final Duration recorded;
+    /**
+     * Time taken to replay the events, including running the commands they dispatched.
+     */
+    private final Duration elapsed;
+    /**
+     * Whether the commands dispatched by the replay finished running before the replay timed out.
+     */
+    private final boolean drained;
+    /**
+     * Time from each event being due to the listeners having handled it.
+     */
+    private final LatencyHistogram.Snapshot latency;
+
+    /**
+     * Returns the number of events replayed per second.
+     *
+     * @return The number of events replayed per second.
+     */
+    public double getEventsPerSecond() {
+        final long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : events * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * Summarizes the throughput and latency of the replay.
+     *
+     * @return A human readable summary.
+     */
+    public String summary() {
+        final StringBuilder summary = new StringBuilder();
+        summary.append(String.format("events: %d, failures: %d%n", events, failures));
+        summary.append(String.format("recorded over: %.3f s, replayed in: %.3f s%s%n", seconds(recorded),
+            seconds(elapsed), drained ? "" : " (timed out waiting for commands)"));
+        summary.append(String.format("throughput: %.1f events/s%n", getEventsPerSecond()));
+        summary.append(String.format("latency:%n"));
+        for (final String percentile : PERCENTILES) {
+            final long nanos = latency.getValueAtPercentile(Double.parseDouble(percentile));
+            summary.append(String.format("  p%s: %.3f ms%n", percentile,
+                nanos / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        return summary.toString();
+    }
+
+    private static double seconds(final Duration duration) {
+        return duration.toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,40 @@
+package gg.sep.alyx.plugin.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count which only increases, such as the number of times something has failed.
+ */
+public final class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds to the count.
+     *
+     * @param amount The amount to add, which must not be negative.
+     * @throws IllegalArgumentException Thrown if the amount is negative.
+     */
+    public void add(final long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Counters can not be decreased.");
+        }
+        count.add(amount);
+    }
+
+    /**
+     * Returns the current count.
+     *
+     * @return The current count.
+     */
+    public long get() {
+        return count.sum();
+    }
+}
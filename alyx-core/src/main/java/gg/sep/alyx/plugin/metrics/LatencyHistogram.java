@@ -0,0 +1,156 @@
+package gg.sep.alyx.plugin.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+
+/**
+ * A histogram of latencies, recorded in nanoseconds.
+ *
+ * Values are counted in log-linear buckets, in the same way as an HDR histogram: each power of two is
+ * split into 16 equally sized buckets, so a recorded value is known to within 1/16th
+ * of itself regardless of its size. The buckets are fixed when the histogram is created, so recording
+ * a value is a single atomic increment and never allocates.
+ *
+ * Values below zero are recorded as zero, and values of {@value #MAX_VALUE} nanoseconds (a little over
+ * 18 minutes) or more are recorded as {@value #MAX_VALUE}.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * The largest value which can be recorded, in nanoseconds.
+     */
+    public static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(bucketIndex(value));
+        sum.add(value);
+    }
+
+    /**
+     * Records the time elapsed since a start time taken from {@link System#nanoTime()}.
+     *
+     * @param startNanos The start time.
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns a copy of the histogram's current counts.
+     *
+     * Values recorded while the snapshot is being taken may or may not be included in it.
+     *
+     * @return Snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        final long[] snapshotCounts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshotCounts[i] = counts.get(i);
+            count += snapshotCounts[i];
+        }
+        return new Snapshot(snapshotCounts, count, sum.sum());
+    }
+
+    /**
+     * The counts of a {@link LatencyHistogram} at a single point in time.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        @Getter
+        private final long count;
+        @Getter
+        private final long sum;
+
+        private Snapshot(final long[] counts, final long count, final long sum) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        /**
+         * Returns the number of recorded values which are at or below a value.
+         *
+         * Values which fall in the same bucket as {@code nanos} are counted, even if they are slightly
+         * larger than it, as the histogram can not tell them apart.
+         *
+         * @param nanos The value in nanoseconds.
+         * @return The number of values at or below it.
+         */
+        public long getCountAtOrBelow(final long nanos) {
+            if (nanos < 0) {
+                return 0;
+            }
+            final int last = bucketIndex(Math.min(nanos, MAX_VALUE));
+            long total = 0;
+            for (int i = 0; i <= last; i++) {
+                total += counts[i];
+            }
+            return total;
+        }
+
+        /**
+         * Returns the value at a percentile of the recorded values.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return The largest value in the bucket holding the percentile, in nanoseconds, or {@code 0}
+         *         if nothing has been recorded.
+         */
+        public long getValueAtPercentile(final double percentile) {
+            final long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count));
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += counts[i];
+                if (total >= rank) {
+                    return highestValue(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the bucket which counts a value.
+     *
+     * @param value The value, between zero and {@link #MAX_VALUE}.
+     * @return The index of the value's bucket.
+     */
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Returns the largest value counted by a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The largest value counted by the bucket.
+     */
+    static long highestValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index >> SUB_BUCKET_BITS) - 1;
+        final long lowest = (long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
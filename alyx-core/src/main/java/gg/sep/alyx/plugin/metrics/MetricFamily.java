@@ -0,0 +1,84 @@
+package gg.sep.alyx.plugin.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+
+/**
+ * A named metric, holding a separate child metric for each combination of its label values.
+ *
+ * For example, a family of command latency histograms labelled by plugin and command has a
+ * {@link LatencyHistogram} for each command which has been timed. Callers which record often should
+ * keep the child returned by {@link #labels(String...)}, rather than looking it up each time.
+ *
+ * @param <T> Type of the child metrics.
+ */
+public final class MetricFamily<T> {
+
+    /**
+     * The kind of value held by a family, which decides how it is exported.
+     */
+    public enum Type {
+        /**
+         * A {@link Counter}.
+         */
+        COUNTER,
+        /**
+         * A {@link java.util.function.DoubleSupplier} of a value which can go up and down.
+         */
+        GAUGE,
+        /**
+         * A {@link LatencyHistogram}.
+         */
+        HISTOGRAM
+    }
+
+    @Getter
+    private final String name;
+    @Getter
+    private final String help;
+    @Getter
+    private final Type type;
+    @Getter
+    private final List<String> labelNames;
+    private final Supplier<T> factory;
+    private final Map<List<String>, T> children = new ConcurrentHashMap<>();
+
+    MetricFamily(final String name, final String help, final Type type, final List<String> labelNames,
+                 final Supplier<T> factory) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelNames = labelNames;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the child metric for a combination of label values, creating it the first time it is used.
+     *
+     * @param labelValues The value of each of the family's labels, in the same order as {@link #getLabelNames()}.
+     * @return The child metric.
+     * @throws IllegalArgumentException Thrown if the number of values does not match the number of labels.
+     */
+    public T labels(final String... labelValues) {
+        if (labelValues.length != labelNames.size()) {
+            throw new IllegalArgumentException(String.format("Metric %s has labels %s, but %d values were given.",
+                name, labelNames, labelValues.length));
+        }
+        final List<String> key = List.of(labelValues);
+        final T child = children.get(key);
+        return child != null ? child : children.computeIfAbsent(key, k -> factory.get());
+    }
+
+    /**
+     * Returns the child metrics which have been created, by their label values.
+     *
+     * @return The child metrics.
+     */
+    Map<List<String>, T> getChildren() {
+        return children;
+    }
+}
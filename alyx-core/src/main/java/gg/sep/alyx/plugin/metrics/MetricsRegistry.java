@@ -0,0 +1,140 @@
+package gg.sep.alyx.plugin.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the metrics of a bot and its plugins, and exports them in the Prometheus text format.
+ *
+ * Families are registered by name, and registering a name a second time returns the existing
+ * family, so components can register the metrics they use without coordinating with each other.
+ * Plugins should prefix the names of their own metrics with their name.
+ *
+ * Latencies are recorded in nanoseconds, and exported in seconds as Prometheus histograms.
+ */
+public final class MetricsRegistry {
+
+    private static final Pattern METRIC_NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern LABEL_NAME = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+    private final Map<String, MetricFamily<?>> families = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a family of counters, or returns the family if it is already registered.
+     *
+     * @param name Name of the metric. Counter names should end in {@code _total}.
+     * @param help Description of the metric.
+     * @param labelNames Names of the family's labels.
+     * @return The family of counters.
+     * @throws IllegalArgumentException Thrown if a name is invalid, or the metric is already registered
+     *                                  with a different type or labels.
+     */
+    public MetricFamily<Counter> counter(final String name, final String help, final String... labelNames) {
+        return register(name, help, MetricFamily.Type.COUNTER, labelNames, Counter::new);
+    }
+
+    /**
+     * Registers a family of latency histograms, or returns the family if it is already registered.
+     *
+     * @param name Name of the metric. Latency names should end in {@code _seconds}.
+     * @param help Description of the metric.
+     * @param labelNames Names of the family's labels.
+     * @return The family of histograms.
+     * @throws IllegalArgumentException Thrown if a name is invalid, or the metric is already registered
+     *                                  with a different type or labels.
+     */
+    public MetricFamily<LatencyHistogram> histogram(final String name, final String help,
+                                                    final String... labelNames) {
+        for (final String labelName : labelNames) {
+            if ("le".equals(labelName)) {
+                throw new IllegalArgumentException("The le label is reserved for histogram buckets.");
+            }
+        }
+        return register(name, help, MetricFamily.Type.HISTOGRAM, labelNames, LatencyHistogram::new);
+    }
+
+    /**
+     * Registers a gauge, whose value is read each time the metrics are exported.
+     *
+     * Registering a gauge which is already registered replaces its value.
+     *
+     * @param name Name of the metric.
+     * @param help Description of the metric.
+     * @param value Supplies the gauge's current value.
+     * @throws IllegalArgumentException Thrown if the name is invalid, or the metric is already registered
+     *                                  with a different type.
+     */
+    public void gauge(final String name, final String help, final DoubleSupplier value) {
+        final MetricFamily<DoubleSupplier> family = register(name, help, MetricFamily.Type.GAUGE,
+            new String[0], () -> value);
+        family.getChildren().put(List.of(), value);
+    }
+
+    /**
+     * Returns the registered families, ordered by name.
+     *
+     * @return The registered families.
+     */
+    public List<MetricFamily<?>> getFamilies() {
+        final List<MetricFamily<?>> sorted = new ArrayList<>(families.values());
+        sorted.sort(Comparator.comparing(MetricFamily::getName));
+        return sorted;
+    }
+
+    /**
+     * Writes the current value of every metric in the Prometheus text format.
+     *
+     * @param writer Writer to write the metrics to.
+     * @throws IOException Thrown if writing fails.
+     */
+    public void write(final Writer writer) throws IOException {
+        PrometheusFormat.write(getFamilies(), writer);
+    }
+
+    /**
+     * Returns the current value of every metric in the Prometheus text format.
+     *
+     * @return The metrics.
+     */
+    public String scrape() {
+        final StringWriter writer = new StringWriter();
+        try {
+            write(writer);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e); // StringWriter does not throw
+        }
+        return writer.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> MetricFamily<T> register(final String name, final String help, final MetricFamily.Type type,
+                                         final String[] labelNames, final Supplier<T> factory) {
+        if (!METRIC_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        for (final String labelName : labelNames) {
+            if (!LABEL_NAME.matcher(labelName).matches() || labelName.startsWith("__")) {
+                throw new IllegalArgumentException("Invalid label name: " + labelName);
+            }
+        }
+
+        final List<String> labels = List.of(labelNames);
+        final MetricFamily<?> family = families.computeIfAbsent(name,
+            k -> new MetricFamily<>(name, help, type, labels, factory));
+        if (family.getType() != type || !family.getLabelNames().equals(labels)) {
+            throw new IllegalArgumentException(String.format("Metric %s is already registered as a %s with labels %s.",
+                name, family.getType(), family.getLabelNames()));
+        }
+        return (MetricFamily<T>) family;
+    }
+}
@@ -0,0 +1,113 @@
+package gg.sep.alyx.plugin.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+/**
+ * Serves a {@link MetricsRegistry} to Prometheus over HTTP, at {@value #PATH}.
+ *
+ * The server uses the JDK's built in {@link HttpServer}, with a single daemon thread, so scrapes
+ * never compete with the bot's event or command threads. It has no authentication, and should only
+ * be bound to an address which is not reachable from outside of the host or its private network.
+ */
+@Log4j2
+public final class MetricsServer {
+
+    /**
+     * Path the metrics are served at.
+     */
+    public static final String PATH = "/metrics";
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new server, bound to an address but not yet serving requests.
+     *
+     * @param identifier Identifier used to name the thread spawned by this server. A good
+     *                   practices is to use the Bot's name.
+     * @param registry The metrics to serve.
+     * @param address The address to listen on.
+     * @throws IOException Thrown if the server could not be bound to the address.
+     */
+    public MetricsServer(final String identifier, final MetricsRegistry registry, final InetSocketAddress address)
+        throws IOException {
+
+        this.registry = registry;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+            .namingPattern("MetricsServer-" + identifier + "-%d")
+            .daemon(true)
+            .build());
+        this.server.setExecutor(executor);
+        this.server.createContext(PATH, this::handle);
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+        log.info("Serving metrics. address={}", getAddress());
+    }
+
+    /**
+     * Stops serving requests, waiting up to a second for any scrape in progress to finish.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the address the server is listening on.
+     *
+     * @return The address the server is listening on.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            final String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(body, StandardCharsets.UTF_8)) {
+                registry.write(writer);
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", PrometheusFormat.CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                body.writeTo(out);
+            }
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Failed to serve metrics.", e);
+        } finally {
+            exchange.close();
+        }
+    }
+}
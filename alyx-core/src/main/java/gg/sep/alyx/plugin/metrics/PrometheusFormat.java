@@ -0,0 +1,132 @@
+package gg.sep.alyx.plugin.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Writes metric families in version 0.0.4 of the Prometheus text exposition format.
+ */
+final class PrometheusFormat {
+
+    /**
+     * Content type of the format.
+     */
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // upper bounds of the exported latency buckets, in seconds
+    private static final double[] BUCKET_BOUNDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+    };
+    private static final double NANOS_PER_SECOND = 1_000_000_000D;
+    private static final String[] BUCKET_LABELS = new String[BUCKET_BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            BUCKET_LABELS[i] = BigDecimal.valueOf(BUCKET_BOUNDS[i]).toPlainString();
+        }
+    }
+
+    private PrometheusFormat() {
+    }
+
+    /**
+     * Writes the current value of each family's metrics.
+     *
+     * @param families The families to write.
+     * @param writer Writer to write the metrics to.
+     * @throws IOException Thrown if writing fails.
+     */
+    static void write(final List<MetricFamily<?>> families, final Writer writer) throws IOException {
+        for (final MetricFamily<?> family : families) {
+            writer.write("# HELP " + family.getName() + " " + escapeHelp(family.getHelp()) + "\n");
+            writer.write("# TYPE " + family.getName() + " " + family.getType().name().toLowerCase(Locale.ROOT) + "\n");
+
+            final List<Map.Entry<List<String>, ?>> children = new ArrayList<>(family.getChildren().entrySet());
+            children.sort((a, b) -> String.join("\0", a.getKey()).compareTo(String.join("\0", b.getKey())));
+            for (final Map.Entry<List<String>, ?> child : children) {
+                writeChild(family, child.getKey(), child.getValue(), writer);
+            }
+        }
+    }
+
+    private static void writeChild(final MetricFamily<?> family, final List<String> labelValues, final Object child,
+                                   final Writer writer) throws IOException {
+        final String name = family.getName();
+        final List<String> labelNames = family.getLabelNames();
+        switch (family.getType()) {
+            case COUNTER:
+                writer.write(name + labels(labelNames, labelValues, null) + " " + ((Counter) child).get() + "\n");
+                break;
+            case GAUGE:
+                writer.write(name + labels(labelNames, labelValues, null) + " "
+                    + formatDouble(readGauge((DoubleSupplier) child)) + "\n");
+                break;
+            case HISTOGRAM:
+            default:
+                final LatencyHistogram.Snapshot snapshot = ((LatencyHistogram) child).snapshot();
+                for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                    final long count = snapshot.getCountAtOrBelow((long) (BUCKET_BOUNDS[i] * NANOS_PER_SECOND));
+                    writer.write(name + "_bucket" + labels(labelNames, labelValues, BUCKET_LABELS[i])
+                        + " " + count + "\n");
+                }
+                writer.write(name + "_bucket" + labels(labelNames, labelValues, "+Inf")
+                    + " " + snapshot.getCount() + "\n");
+                writer.write(name + "_sum" + labels(labelNames, labelValues, null)
+                    + " " + formatDouble(snapshot.getSum() / NANOS_PER_SECOND) + "\n");
+                writer.write(name + "_count" + labels(labelNames, labelValues, null)
+                    + " " + snapshot.getCount() + "\n");
+                break;
+        }
+    }
+
+    private static double readGauge(final DoubleSupplier gauge) {
+        try {
+            return gauge.getAsDouble();
+        } catch (final RuntimeException e) {
+            return Double.NaN; // the value is unavailable, eg the bot has not connected yet
+        }
+    }
+
+    private static String labels(final List<String> labelNames, final List<String> labelValues, final String le) {
+        if (labelNames.isEmpty() && le == null) {
+            return "";
+        }
+        final StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < labelNames.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(labelNames.get(i)).append("=\"").append(escapeLabelValue(labelValues.get(i))).append('"');
+        }
+        if (le != null) {
+            if (!labelNames.isEmpty()) {
+                builder.append(',');
+            }
+            builder.append("le=\"").append(le).append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    private static String formatDouble(final double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    private static String escapeHelp(final String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabelValue(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -1,5 +1,6 @@
 package gg.sep.alyx.plugin.model;
 
+import java.util.Map;
 import java.util.Set;
 
 import lombok.Builder;
@@ -7,6 +8,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import gg.sep.alyx.plugin.commands.CommandDispatcher;
 import gg.sep.alyx.plugin.storage.AbstractJsonObject;
 import gg.sep.alyx.plugin.storage.JsonSerializable;
 
@@ -22,4 +24,31 @@ public class BotConfig extends AbstractJsonObject implements JsonSerializable {
     private final String discordToken;
     private final Character commandPrefix; // TODO: This should be configurable
     private final Set<String> loadedPlugins;
+
+    // number of gateway shards, null or -1 uses the count recommended by Discord
+    private final Integer shardCount;
+
+    // base URL of a stand-in for the Discord API such as alyx-simulator, null connects to Discord
+    private final String discordApiUrl;
+
+    // command dispatch settings, null values use the dispatcher's defaults
+    private final Integer commandThreads;
+    private final Boolean commandVirtualThreads;
+    private final Integer commandQueueLimit;
+    private final CommandDispatcher.Ordering commandOrdering;
+
+    // plugin data write delay in milliseconds, null uses the default and 0 writes immediately
+    private final Long storageWriteDelayMillis;
+
+    // port to serve metrics on in the Prometheus text format, null disables the endpoint
+    private final Integer metricsPort;
+    // address to serve metrics on, null only serves them on the loopback address
+    private final String metricsAddress;
+
+    // file to record anonymised gateway events to for replay, relative to the data dir, null disables recording
+    private final String gatewayRecordingPath;
+
+    // permission levels, user IDs granted BOT_ADMIN and the admin and mod roles of each guild by guild ID
+    private final Set<Long> botAdmins;
+    private final Map<Long, GuildRoles> guildRoles;
 }
@@ -0,0 +1,26 @@
+package gg.sep.alyx.plugin.model;
+
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import gg.sep.alyx.plugin.commands.PermissionLevel;
+import gg.sep.alyx.plugin.storage.AbstractJsonObject;
+import gg.sep.alyx.plugin.storage.JsonSerializable;
+
+/**
+ * Roles of a single guild which grant its members a {@link PermissionLevel}, as part of {@link BotConfig}.
+ */
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode(callSuper = false)
+public class GuildRoles extends AbstractJsonObject implements JsonSerializable {
+    // role IDs granting PermissionLevel.ADMIN
+    private final Set<Long> adminRoles;
+    // role IDs granting PermissionLevel.MOD
+    private final Set<Long> modRoles;
+}
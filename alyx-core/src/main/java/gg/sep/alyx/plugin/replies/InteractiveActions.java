@@ -11,11 +11,12 @@ import java.util.function.Predicate;
 
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import org.apache.commons.lang3.tuple.Pair;
 
 import gg.sep.alyx.plugin.Alyx;
+import gg.sep.alyx.plugin.events.EventKey;
 import gg.sep.alyx.plugin.events.EventWaiter;
 
 /**
@@ -30,28 +31,17 @@ public final class InteractiveActions {
 
     private InteractiveActions() { }
 
-    private static Predicate<MessageReactionAddEvent> yesNoReactionPredicate(final String userId,
-                                                                             final String messageId) {
-
-        return event -> {
-            if (messageId.equals(event.getMessageId()) && userId.equals(event.getUserId())) {
-                return event.getReactionEmote().getEmoji().equals(YES_EMOJI) ||
-                    event.getReactionEmote().getEmoji().equals(NO_EMOJI);
-            }
-            return false;
-        };
+    // the message/user and channel/author are matched through the waiter's key lookup
+    private static Predicate<MessageReactionAddEvent> yesNoReactionPredicate() {
+        return event -> event.getReactionEmote().isEmoji() && (
+            event.getReactionEmote().getEmoji().equals(YES_EMOJI) ||
+            event.getReactionEmote().getEmoji().equals(NO_EMOJI));
     }
 
-    private static Predicate<MessageReceivedEvent> yesNoMessagePredicate(final String userId,
-                                                                         final MessageChannel channel) {
-        return event -> {
-            if (channel.equals(event.getChannel()) && userId.equals(event.getAuthor().getId())) {
-                return List.of("y", "n").contains(
-                    event.getMessage().getContentRaw().trim().toLowerCase()
-                );
-            }
-            return false;
-        };
+    private static Predicate<MessageReceivedEvent> yesNoMessagePredicate() {
+        return event -> List.of("y", "n").contains(
+            event.getMessage().getContentRaw().trim().toLowerCase()
+        );
     }
 
     private static void addReactions(final Message message, final String... reactions) {
@@ -104,18 +94,18 @@ public final class InteractiveActions {
         final EventWaiter waiter = alyx.getEventWaiter();
 
         if (canReact) {
-            final Predicate<MessageReactionAddEvent> predicate = yesNoReactionPredicate(event.getAuthor().getId(),
-                noticeMessage.getId());
+            final Pair<Long, Long> key = Pair.of(noticeMessage.getIdLong(), event.getAuthor().getIdLong());
             final Function<MessageReactionAddEvent, Boolean> getAnswer = e ->
                 e.getReactionEmote().getEmoji().equals(YES_EMOJI);
             addReactions(noticeMessage, YES_EMOJI, NO_EMOJI);
-            return waiter.waitForEvent(MessageReactionAddEvent.class, predicate, getAnswer, timeout);
+            return waiter.waitForEvent(EventKey.REACTION_BY_MESSAGE_AND_USER, key, yesNoReactionPredicate(),
+                getAnswer, timeout);
         }
 
-        final Predicate<MessageReceivedEvent> predicate = yesNoMessagePredicate(event.getAuthor().getId(),
-            event.getChannel());
+        final Pair<Long, Long> key = Pair.of(event.getChannel().getIdLong(), event.getAuthor().getIdLong());
         final Function<MessageReceivedEvent, Boolean> checkAnswer = e ->
             e.getMessage().getContentRaw().trim().toLowerCase().equals("y");
-        return waiter.waitForEvent(MessageReceivedEvent.class, predicate, checkAnswer, timeout);
+        return waiter.waitForEvent(EventKey.MESSAGE_BY_CHANNEL_AND_AUTHOR, key, yesNoMessagePredicate(),
+            checkAnswer, timeout);
     }
 }
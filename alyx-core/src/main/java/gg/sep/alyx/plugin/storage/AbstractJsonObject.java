@@ -1,9 +1,12 @@
 package gg.sep.alyx.plugin.storage;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Path;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 
 import gg.sep.alyx.plugin.storage.serializer.PathDeserializerAdapter;
 import gg.sep.alyx.plugin.storage.serializer.PathSerializerAdapter;
@@ -18,6 +21,9 @@ import gg.sep.alyx.plugin.storage.serializer.PathSerializerAdapter;
  */
 public abstract class AbstractJsonObject implements JsonSerializable {
 
+    private static final Gson GSON = buildGson();
+    private static final Gson PRETTY_GSON = buildPrettyGson();
+
     private static GsonBuilder baseGsonBuilder() {
         return new GsonBuilder()
             .registerTypeAdapter(Path.class, new PathSerializerAdapter())
@@ -47,15 +53,25 @@ public abstract class AbstractJsonObject implements JsonSerializable {
      * {@inheritDoc}
      */
     public String toJson() {
-        return buildGson()
-            .toJson(this);
+        return GSON.toJson(this);
     }
 
     /**
      * {@inheritDoc}
      */
     public String toPrettyJson() {
-        return buildPrettyGson()
-            .toJson(this);
+        return PRETTY_GSON.toJson(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeJson(final Writer writer, final boolean pretty) throws IOException {
+        try {
+            (pretty ? PRETTY_GSON : GSON).toJson(this, writer);
+        } catch (final JsonIOException e) {
+            throw new IOException(e.getMessage(), e.getCause());
+        }
     }
 }
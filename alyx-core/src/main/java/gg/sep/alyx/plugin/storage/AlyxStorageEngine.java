@@ -29,5 +29,23 @@ public interface AlyxStorageEngine {
      */
     <T extends JsonSerializable> void writePluginData(String pluginId, Path botDataPath, T pluginData);
 
+    /**
+     * Writes any plugin data which the engine has buffered or delayed.
+     *
+     * Engines which write data as soon as it is passed to them do not need to override this method.
+     */
+    default void flush() {
+    }
 
+    /**
+     * Writes any data of a single plugin which the engine has buffered or delayed.
+     *
+     * Engines which cannot flush a single plugin's data flush all of it.
+     *
+     * @param pluginId Unique identifier of the plugin.
+     * @param botDataPath Path to the Bot's data directory.
+     */
+    default void flushPluginData(final String pluginId, final Path botDataPath) {
+        flush();
+    }
 }
@@ -0,0 +1,115 @@
+package gg.sep.alyx.plugin.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Utilities for replacing files without leaving them partially written if the process crashes.
+ *
+ * New contents are written and flushed to a temporary file next to the target, which is then
+ * renamed over the target. Readers of the target therefore see either the old contents or the
+ * new contents, never a mix of both.
+ */
+@Log4j2
+@UtilityClass
+public class AtomicFiles {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String CORRUPT_SUFFIX = ".corrupt-";
+
+    /**
+     * Writes the contents of a file through an open channel.
+     */
+    @FunctionalInterface
+    public interface ChannelWriter {
+        /**
+         * Writes the file's contents.
+         *
+         * @param channel The channel to write to.
+         * @throws IOException Thrown if writing fails.
+         */
+        void write(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Atomically replaces the contents of a file with a UTF-8 string, creating the file and
+     * its parent directories if they do not exist.
+     *
+     * @param path Path to the file.
+     * @param contents The new contents of the file.
+     * @throws IOException Thrown if writing the file fails. The file is left unchanged.
+     */
+    public static void writeString(final Path path, final String contents) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8));
+        write(path, channel -> {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * Atomically replaces the contents of a file with whatever {@code writer} writes, creating
+     * the file and its parent directories if they do not exist.
+     *
+     * @param path Path to the file.
+     * @param writer Writes the new contents of the file.
+     * @throws IOException Thrown if writing the file fails. The file is left unchanged.
+     */
+    public static void write(final Path path, final ChannelWriter writer) throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent == null) {
+            throw new IOException("File path cannot be a root directory.");
+        }
+        Files.createDirectories(parent);
+
+        final Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+                writer.write(channel);
+                channel.force(true);
+            }
+            move(temp, path);
+        } catch (final IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Renames a file which could not be read, so that it is kept for inspection instead of
+     * being overwritten by new data.
+     *
+     * The file is renamed to its original name followed by {@code .corrupt-} and the current time in milliseconds.
+     *
+     * @param path Path to the file.
+     * @return The file's new path.
+     * @throws IOException Thrown if the file could not be renamed.
+     */
+    public static Path moveAside(final Path path) throws IOException {
+        final Path target = path.resolveSibling(path.getFileName() + CORRUPT_SUFFIX + System.currentTimeMillis());
+        Files.move(path, target);
+        log.warn("Moved unreadable file aside. path={}, movedTo={}", path, target);
+        return target;
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            log.warn("Atomic rename is not supported, falling back to a regular rename. path={}", target);
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package gg.sep.alyx.plugin.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Key level changes between two versions of a plugin's JSON data, as stored in the records of a {@link RecordLog}.
+ *
+ * JSON objects are compared member by member, and any other values are replaced in full when changed,
+ * so the size of the changes depends on how much of the data changed rather than the size of the data.
+ */
+final class JsonChanges {
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+
+    private static final Gson GSON = AbstractJsonObject.buildGson();
+
+    /**
+     * A single change to a plugin's data, at a path of JSON object member names.
+     */
+    static final class Operation {
+        private final byte type;
+        private final List<String> path;
+        private final JsonElement value;
+
+        private Operation(final byte type, final List<String> path, final JsonElement value) {
+            this.type = type;
+            this.path = path;
+            this.value = value;
+        }
+    }
+
+    private JsonChanges() { }
+
+    /**
+     * Returns the change which replaces the whole of the data.
+     *
+     * @param data The new data.
+     * @return The change replacing the data.
+     */
+    static Operation replace(final JsonElement data) {
+        return new Operation(OP_PUT, List.of(), data);
+    }
+
+    /**
+     * Finds the changes needed to turn {@code previous} into {@code current}.
+     *
+     * @param previous The previously written data, or {@code null} if there is none.
+     * @param current The new data.
+     * @return The changes, which are empty if the data is unchanged.
+     */
+    static List<Operation> diff(final JsonElement previous, final JsonElement current) {
+        final List<Operation> changes = new ArrayList<>();
+        diff(previous, current, new ArrayList<>(), changes);
+        return changes;
+    }
+
+    /**
+     * Applies changes to the data.
+     *
+     * Applying changes to data which already includes them leaves the data unchanged.
+     *
+     * @param state The current data, or {@code null} if there is none. Objects within it may be modified.
+     * @param changes The changes to apply, in order.
+     * @return The data with the changes applied.
+     */
+    static JsonElement apply(final JsonElement state, final List<Operation> changes) {
+        JsonElement result = state;
+        for (final Operation operation : changes) {
+            result = apply(result, operation);
+        }
+        return result;
+    }
+
+    private static void diff(final JsonElement previous, final JsonElement current, final List<String> path,
+                             final List<Operation> changes) {
+        if (previous == null || !previous.isJsonObject() || !current.isJsonObject()) {
+            if (!current.equals(previous)) {
+                changes.add(new Operation(OP_PUT, List.copyOf(path), current));
+            }
+            return;
+        }
+
+        final JsonObject previousObject = previous.getAsJsonObject();
+        final JsonObject currentObject = current.getAsJsonObject();
+
+        for (final Map.Entry<String, JsonElement> member : currentObject.entrySet()) {
+            path.add(member.getKey());
+            diff(previousObject.get(member.getKey()), member.getValue(), path, changes);
+            path.remove(path.size() - 1);
+        }
+        for (final String key : previousObject.keySet()) {
+            if (!currentObject.has(key)) {
+                path.add(key);
+                changes.add(new Operation(OP_DELETE, List.copyOf(path), null));
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private static JsonElement apply(final JsonElement state, final Operation operation) {
+        if (operation.path.isEmpty()) {
+            return operation.type == OP_PUT ? operation.value : null;
+        }
+
+        final JsonObject root = state != null && state.isJsonObject() ? state.getAsJsonObject() : new JsonObject();
+        JsonObject parent = root;
+        for (final String key : operation.path.subList(0, operation.path.size() - 1)) {
+            final JsonElement child = parent.get(key);
+            if (child != null && child.isJsonObject()) {
+                parent = child.getAsJsonObject();
+            } else if (operation.type == OP_PUT) {
+                final JsonObject created = new JsonObject();
+                parent.add(key, created);
+                parent = created;
+            } else {
+                return root;
+            }
+        }
+
+        final String last = operation.path.get(operation.path.size() - 1);
+        if (operation.type == OP_PUT) {
+            parent.add(last, operation.value);
+        } else {
+            parent.remove(last);
+        }
+        return root;
+    }
+
+    /**
+     * Encodes changes as the payload of a single record.
+     *
+     * @param operations The changes to encode.
+     * @return The encoded changes.
+     * @throws IOException Thrown if encoding fails.
+     */
+    static byte[] encode(final List<Operation> operations) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(operations.size());
+            for (final Operation operation : operations) {
+                out.writeByte(operation.type);
+                out.writeInt(operation.path.size());
+                for (final String key : operation.path) {
+                    writeString(out, key);
+                }
+                if (operation.type == OP_PUT) {
+                    writeString(out, GSON.toJson(operation.value));
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the changes in a record written by {@link #encode(List)}.
+     *
+     * @param record The record's payload.
+     * @return The decoded changes.
+     * @throws IOException Thrown if the record could not be decoded.
+     */
+    static List<Operation> decode(final byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            final int count = in.readInt();
+            final List<Operation> operations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final byte type = in.readByte();
+                final int pathLength = in.readInt();
+                final List<String> path = new ArrayList<>(pathLength);
+                for (int j = 0; j < pathLength; j++) {
+                    path.add(readString(in));
+                }
+                final JsonElement value = type == OP_PUT ? JsonParser.parseString(readString(in)) : null;
+                operations.add(new Operation(type, path, value));
+            }
+            return operations;
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] encoded = new byte[in.readInt()];
+        in.readFully(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+}
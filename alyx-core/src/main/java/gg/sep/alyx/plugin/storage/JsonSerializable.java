@@ -1,5 +1,8 @@
 package gg.sep.alyx.plugin.storage;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * Describes a class which can be serialized to (and from) a JSON string.
  *
@@ -22,4 +25,19 @@ public interface JsonSerializable {
      * @return A formatted JSON string which is a serialized representation of the object's state.
      */
     String toPrettyJson();
+
+    /**
+     * Serializes the object as JSON directly to a writer.
+     *
+     * The default implementation writes the result of {@link #toJson()} or {@link #toPrettyJson()}.
+     * Implementations should override it to stream the object's JSON without building the whole
+     * string in memory first.
+     *
+     * @param writer The writer to serialize the object to. It is not flushed or closed.
+     * @param pretty Whether to format the JSON, as with {@link #toPrettyJson()}.
+     * @throws IOException Thrown if writing to the writer fails.
+     */
+    default void writeJson(final Writer writer, final boolean pretty) throws IOException {
+        writer.write(pretty ? toPrettyJson() : toJson());
+    }
 }
@@ -1,18 +1,133 @@
 package gg.sep.alyx.plugin.storage;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import lombok.extern.log4j.Log4j2;
 
 import gg.sep.alyx.plugin.NoOpPluginData;
 import gg.sep.alyx.plugin.util.ModelParser;
 
 /**
  * Class to interact with the bot's JSON data storage.
+ *
+ * Each write is compared against the plugin's previously written data, and only the JSON members which
+ * were added, changed or removed are appended to the plugin's {@code data.journal} file as a single
+ * {@link RecordLog} record, rather than rewriting the plugin's {@code data.json} file. Once the journal
+ * has grown larger than the JSON file, or when the engine is flushed, the latest data is written to
+ * {@code data.json} using {@link AtomicFiles} and the journal is cleared. Loading a plugin's data applies
+ * the changes in its journal to the JSON file.
+ *
+ * Plugin data larger than {@value #JOURNAL_RECORD_LIMIT} bytes is not journaled, and is instead
+ * streamed straight into {@code data.json}. Data is only buffered for the journal up to that size,
+ * and once a plugin's data has been too large, its next write is streamed without buffering it at all.
+ * Data is always streamed to and from files through
+ * Gson's {@link JsonWriter} and {@link JsonReader}, so large data is never held in memory as a
+ * single string.
+ *
+ * If a plugin's data cannot be parsed, its files are moved aside rather than being overwritten
+ * the next time the plugin writes its data.
  */
+@Log4j2
 public class JsonStorageEngine implements AlyxStorageEngine {
 
+    static final String DATA_FILE_NAME = "data.json";
+    static final String JOURNAL_FILE_NAME = "data.journal";
+
+    static final int JOURNAL_RECORD_LIMIT = 1024 * 1024;
+    private static final long CHECKPOINT_MIN_BYTES = 64 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PRETTY_INDENT = "  ";
+
+    private static final Gson GSON = AbstractJsonObject.buildGson();
+
+    private final boolean prettyOutput;
+    private final Map<Path, Journal> journals = new ConcurrentHashMap<>();
+
+    /**
+     * The open journal of a single plugin.
+     */
+    private static final class Journal {
+        private final Path dataFile;
+        private RecordLog log;
+        private int records;
+        private JsonElement state;
+        private long dataBytes;
+        private long lastSize;
+
+        private Journal(final Path dataFile) {
+            this.dataFile = dataFile;
+        }
+    }
+
+    /**
+     * Buffers a plugin's serialized data for its journal, failing as soon as the data grows larger than
+     * {@value #JOURNAL_RECORD_LIMIT} bytes, so data which is too large to journal is never buffered in full.
+     */
+    private static final class JournalBuffer extends OutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean full;
+
+        @Override
+        public void write(final int b) throws IOException {
+            reserve(1);
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            reserve(len);
+            bytes.write(b, off, len);
+        }
+
+        private void reserve(final int length) throws IOException {
+            if (bytes.size() + length > JOURNAL_RECORD_LIMIT) {
+                full = true;
+                throw new IOException("Plugin data is too large to journal.");
+            }
+        }
+    }
+
+    /**
+     * Creates a new JSON storage engine which writes formatted JSON files.
+     */
+    public JsonStorageEngine() {
+        this(true);
+    }
+
+    /**
+     * Creates a new JSON storage engine.
+     *
+     * @param prettyOutput Whether the JSON files are formatted for readability. Unformatted
+     *                     files are smaller and faster to write.
+     */
+    public JsonStorageEngine(final boolean prettyOutput) {
+        this.prettyOutput = prettyOutput;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -29,10 +144,42 @@ public class JsonStorageEngine implements AlyxStorageEngine {
         final Path pluginDataFile = getDbFilePath(botDataPath, pluginId);
 
         try {
-            ensureConfigFile(pluginDataFile);
-            final String configContents = Files.readString(pluginDataFile);
-            return ModelParser.parseJson(configContents, dataClass);
-        } catch (final IOException e) {
+            // a journal written to by this engine already holds the latest data
+            final Journal journal = journals.get(pluginDataFile);
+            if (journal != null) {
+                synchronized (journal) {
+                    if (journal.records > 0) {
+                        return Optional.ofNullable(GSON.fromJson(journal.state, dataClass));
+                    }
+                }
+            }
+
+            final Optional<T> data;
+            final List<byte[]> records = RecordLog.readRecords(journalPath(pluginDataFile));
+            if (!records.isEmpty()) {
+                data = Optional.ofNullable(GSON.fromJson(replay(pluginDataFile, records), dataClass));
+            } else if (Files.exists(pluginDataFile) && Files.size(pluginDataFile) > 0) {
+                try (Reader reader = newReader(pluginDataFile)) {
+                    data = ModelParser.parseJson(reader, dataClass);
+                }
+            } else {
+                return Optional.empty();
+            }
+
+            if (data.isEmpty()) {
+                moveAside(pluginDataFile);
+            }
+            return data;
+        } catch (final IOException | JsonIOException e) {
+            log.error("Error loading plugin data. plugin={}", pluginId, e);
+            return Optional.empty();
+        } catch (final JsonParseException e) {
+            log.error("Error parsing plugin data. plugin={}", pluginId, e);
+            try {
+                moveAside(pluginDataFile);
+            } catch (final IOException moveException) {
+                log.error("Error moving plugin data aside. plugin={}", pluginId, moveException);
+            }
             return Optional.empty();
         }
     }
@@ -53,27 +200,269 @@ public class JsonStorageEngine implements AlyxStorageEngine {
         final Path pluginDataFile = getDbFilePath(botDataPath, pluginId);
 
         try {
-            final String output = pluginData.toPrettyJson();
-            ensureConfigFile(pluginDataFile);
-            Files.writeString(pluginDataFile, output);
+            final Journal journal = openJournal(pluginDataFile);
+            synchronized (journal) {
+                if (journal.lastSize > JOURNAL_RECORD_LIMIT) {
+                    writeDirectly(journal, pluginData);
+                    return;
+                }
+
+                final JournalBuffer buffer = new JournalBuffer();
+                final Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+                try {
+                    pluginData.writeJson(writer, false);
+                    writer.flush();
+                } catch (final IOException e) {
+                    if (!buffer.full) {
+                        throw e;
+                    }
+                    // the data outgrew the journal while being serialized, so it's serialized again into the file
+                    writeDirectly(journal, pluginData);
+                    return;
+                }
+                journal.lastSize = buffer.bytes.size();
+                journal(journal, JsonParser.parseReader(newReader(buffer.bytes.toByteArray())));
+            }
         } catch (final IOException e) {
-            throw new RuntimeException("Error writing config.");
+            throw new RuntimeException("Error writing config.", e);
+        }
+    }
+
+    /**
+     * Writes the latest data of each plugin with journal records to its JSON file, and clears its journal.
+     */
+    @Override
+    public void flush() {
+        for (final Journal journal : journals.values()) {
+            synchronized (journal) {
+                try {
+                    checkpoint(journal);
+                } catch (final IOException e) {
+                    throw new RuntimeException("Error writing config.", e);
+                }
+            }
         }
     }
 
+    /**
+     * Writes the latest data of a single plugin to its JSON file, if it has journal records, and clears its journal.
+     *
+     * @param pluginId Unique identifier of the plugin.
+     * @param botDataPath Path to the Bot's data directory.
+     */
+    @Override
+    public void flushPluginData(final String pluginId, final Path botDataPath) {
+        final Journal journal = journals.get(getDbFilePath(botDataPath, pluginId));
+        if (journal == null) {
+            return;
+        }
+        synchronized (journal) {
+            try {
+                checkpoint(journal);
+            } catch (final IOException e) {
+                throw new RuntimeException("Error writing config.", e);
+            }
+        }
+    }
+
+    /**
+     * Reads the most recently written contents of a plugin's data, applying its journal if it has one.
+     *
+     * @param pluginDataFile Path to the plugin's {@code data.json} file.
+     * @return The plugin's latest JSON data, or empty if the plugin has no data.
+     * @throws IOException Thrown if reading the plugin's files fails.
+     * @throws JsonParseException Thrown if the plugin's data could not be parsed.
+     */
+    static Optional<JsonElement> readLatest(final Path pluginDataFile) throws IOException {
+        final JsonElement data = replay(pluginDataFile, RecordLog.readRecords(journalPath(pluginDataFile)));
+        return data == null || data.isJsonNull() ? Optional.empty() : Optional.of(data);
+    }
+
     private static Path getDbFilePath(final Path pluginDataDir, final String pluginId) {
         final Path pluginDirectory = pluginDataDir.resolve("plugins").resolve(pluginId);
-        return pluginDirectory.resolve("data.json");
+        return pluginDirectory.resolve(DATA_FILE_NAME);
     }
 
-    private void ensureConfigFile(final Path filePath) throws IOException {
-        final Path parentPath = filePath.getParent();
-        if (parentPath == null) {
-            throw new IOException("Config file path cannot be a root directory.");
+    private static Path journalPath(final Path pluginDataFile) {
+        return pluginDataFile.resolveSibling(JOURNAL_FILE_NAME);
+    }
+
+    private static Reader newReader(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE);
+    }
+
+    private static Reader newReader(final byte[] record) {
+        return new InputStreamReader(new ByteArrayInputStream(record), StandardCharsets.UTF_8);
+    }
+
+    private static Writer newWriter(final FileChannel channel) {
+        return Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE);
+    }
+
+    /**
+     * Applies the changes in a plugin's journal records to its JSON file.
+     *
+     * @param pluginDataFile Path to the plugin's {@code data.json} file.
+     * @param records The plugin's journal records.
+     * @return The plugin's latest data, or {@code null} if it has none.
+     * @throws IOException Thrown if reading the JSON file or decoding a record fails.
+     */
+    private static JsonElement replay(final Path pluginDataFile, final List<byte[]> records) throws IOException {
+        JsonElement data = null;
+        if (Files.exists(pluginDataFile) && Files.size(pluginDataFile) > 0) {
+            try (Reader reader = newReader(pluginDataFile)) {
+                data = JsonParser.parseReader(reader);
+            }
+        }
+        for (final byte[] record : records) {
+            data = JsonChanges.apply(data, JsonChanges.decode(record));
+        }
+        return data;
+    }
+
+    /**
+     * Returns the open journal for a plugin, opening it if this is the first time the plugin's
+     * data has been written.
+     *
+     * @param pluginDataFile Path to the plugin's {@code data.json} file.
+     * @return The plugin's open journal.
+     * @throws IOException Thrown if opening the journal fails.
+     */
+    private Journal openJournal(final Path pluginDataFile) throws IOException {
+        final Journal existing = journals.get(pluginDataFile);
+        if (existing != null) {
+            return existing;
+        }
+
+        synchronized (journals) {
+            final Journal current = journals.get(pluginDataFile);
+            if (current != null) {
+                return current;
+            }
+
+            final Path journalPath = journalPath(pluginDataFile);
+            final List<byte[]> records = RecordLog.readRecords(journalPath);
+
+            // without journal records, the first write journals the data in full
+            final Journal journal = new Journal(pluginDataFile);
+            journal.log = RecordLog.open(journalPath);
+            journal.records = records.size();
+            journal.dataBytes = Files.exists(pluginDataFile) ? Files.size(pluginDataFile) : 0;
+            if (!records.isEmpty()) {
+                journal.state = replay(pluginDataFile, records);
+            } else {
+                journal.lastSize = journal.dataBytes;
+            }
+
+            journals.put(pluginDataFile, journal);
+            return journal;
+        }
+    }
+
+    /**
+     * Appends the changes from the journal's latest data to a plugin's journal, checkpointing the journal
+     * once it has grown larger than the plugin's JSON file.
+     *
+     * @param journal The plugin's journal. The caller must hold its lock.
+     * @param data The plugin's new data.
+     * @throws IOException Thrown if writing the journal fails.
+     */
+    private void journal(final Journal journal, final JsonElement data) throws IOException {
+        final List<JsonChanges.Operation> changes = JsonChanges.diff(journal.state, data);
+        if (changes.isEmpty()) {
+            return;
+        }
+        journal.log.append(JsonChanges.encode(changes));
+        journal.records++;
+        journal.state = data;
+
+        if (journal.log.size() > Math.max(CHECKPOINT_MIN_BYTES, journal.dataBytes)) {
+            checkpoint(journal);
+        }
+    }
+
+    /**
+     * Streams a plugin's data straight into its JSON file, without journaling it or keeping it in memory.
+     *
+     * @param journal The plugin's journal. The caller must hold its lock.
+     * @param pluginData The plugin's new data.
+     * @throws IOException Thrown if writing the JSON file fails.
+     */
+    private void writeDirectly(final Journal journal, final JsonSerializable pluginData) throws IOException {
+        // the journal's changes are relative to the JSON file, so they're checkpointed before it's replaced
+        checkpoint(journal);
+        AtomicFiles.write(journal.dataFile, channel -> {
+            final Writer writer = newWriter(channel);
+            pluginData.writeJson(writer, prettyOutput);
+            writer.flush();
+        });
+        journal.state = null;
+        journal.dataBytes = Files.size(journal.dataFile);
+        journal.lastSize = journal.dataBytes;
+    }
+
+    /**
+     * Writes the latest data in a journal to the plugin's JSON file, and then clears the journal.
+     *
+     * The JSON file is written before the journal is cleared. A crash in between leaves journal records
+     * which are already included in the JSON file, and applying them again leaves the data unchanged.
+     *
+     * @param journal The plugin's journal. The caller must hold its lock.
+     * @throws IOException Thrown if writing the JSON file or clearing the journal fails.
+     */
+    private void checkpoint(final Journal journal) throws IOException {
+        if (journal.records == 0) {
+            return;
+        }
+
+        final JsonElement latest = journal.state;
+        AtomicFiles.write(journal.dataFile, channel -> {
+            final JsonWriter out = new JsonWriter(newWriter(channel));
+            if (prettyOutput) {
+                out.setIndent(PRETTY_INDENT);
+            }
+            GSON.toJson(latest, out);
+            out.flush();
+        });
+        journal.dataBytes = Files.size(journal.dataFile);
+
+        // the old journal stays open until it has been replaced, so a failed rewrite leaves it usable
+        final Path journalPath = journal.log.getPath();
+        RecordLog.rewrite(journalPath, List.of());
+        final RecordLog previous = journal.log;
+        try {
+            journal.log = RecordLog.open(journalPath);
+        } catch (final IOException e) {
+            journals.remove(journal.dataFile);
+            throw e;
+        } finally {
+            previous.close();
+        }
+        journal.records = 0;
+    }
+
+    /**
+     * Moves a plugin's unreadable data aside so that it is not overwritten.
+     *
+     * @param pluginDataFile Path to the plugin's {@code data.json} file.
+     * @throws IOException Thrown if the files could not be moved.
+     */
+    private void moveAside(final Path pluginDataFile) throws IOException {
+        log.error("Unable to parse plugin data, moving it aside. path={}", pluginDataFile);
+
+        synchronized (journals) {
+            final Journal journal = journals.remove(pluginDataFile);
+            if (journal != null) {
+                journal.log.close();
+            }
+        }
+        final Path journalPath = journalPath(pluginDataFile);
+        if (Files.exists(journalPath)) {
+            AtomicFiles.moveAside(journalPath);
         }
-        if (!Files.exists(filePath)) {
-            Files.createDirectories(parentPath);
-            Files.createFile(filePath);
+        if (Files.exists(pluginDataFile)) {
+            AtomicFiles.moveAside(pluginDataFile);
         }
     }
 }
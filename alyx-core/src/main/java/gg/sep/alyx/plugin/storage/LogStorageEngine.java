@@ -0,0 +1,227 @@
+package gg.sep.alyx.plugin.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import lombok.extern.log4j.Log4j2;
+
+import gg.sep.alyx.plugin.NoOpPluginData;
+
+/**
+ * Storage engine which persists plugin data as an append-only log of changes.
+ *
+ * Each time a plugin's data is written, it is compared against the last data which was written for
+ * the plugin, and only the JSON members which were added, changed or removed are appended to the
+ * plugin's {@code data.log} file as a single {@link RecordLog} record. The cost of a write therefore
+ * depends on how much of the data changed, rather than on the total size of the plugin's data.
+ *
+ * Loading a plugin's data replays the log from the start. Once the log has grown large relative
+ * to the size of the data itself, it is compacted into a single record containing the full data.
+ *
+ * If a plugin has no log yet but does have data from {@link JsonStorageEngine}, the data is imported
+ * as the first record of the log, the {@code data.json} file is renamed to {@code data.json.migrated},
+ * and the JSON engine's journal is removed. Data which cannot be parsed is moved aside with
+ * {@link AtomicFiles#moveAside(Path)} instead, so it isn't mistaken for migrated data.
+ */
+@Log4j2
+public class LogStorageEngine implements AlyxStorageEngine {
+
+    static final String LOG_FILE_NAME = "data.log";
+    static final String MIGRATED_SUFFIX = ".migrated";
+
+    private static final long COMPACT_MIN_BYTES = 1024 * 1024;
+    private static final int COMPACT_FACTOR = 4;
+
+    private static final Gson GSON = AbstractJsonObject.buildGson();
+
+    private final Map<Path, PluginLog> pluginLogs = new ConcurrentHashMap<>();
+
+    /**
+     * The open log of a single plugin, along with the data the log currently describes.
+     */
+    private static final class PluginLog {
+        private RecordLog log;
+        private JsonElement state;
+        private long snapshotBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends JsonSerializable> Optional<T> loadPluginData(
+        final String pluginId,
+        final Path botDataPath,
+        final Class<T> dataClass) {
+
+        if (dataClass.equals(NoOpPluginData.class)) {
+            return Optional.empty();
+        }
+
+        try {
+            final PluginLog pluginLog = openLog(getPluginDirectory(botDataPath, pluginId));
+            synchronized (pluginLog) {
+                if (pluginLog.state == null) {
+                    return Optional.empty();
+                }
+                return Optional.ofNullable(GSON.fromJson(pluginLog.state, dataClass));
+            }
+        } catch (final IOException | JsonParseException e) {
+            log.error("Error loading plugin data. plugin={}", pluginId, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends JsonSerializable> void writePluginData(
+        final String pluginId,
+        final Path botDataPath,
+        final T pluginData) {
+
+        if (pluginData.getClass().equals(NoOpPluginData.class)) {
+            return;
+        }
+
+        try {
+            final PluginLog pluginLog = openLog(getPluginDirectory(botDataPath, pluginId));
+            final JsonElement data = GSON.toJsonTree(pluginData);
+
+            synchronized (pluginLog) {
+                final List<JsonChanges.Operation> changes = JsonChanges.diff(pluginLog.state, data);
+                if (changes.isEmpty()) {
+                    return;
+                }
+                pluginLog.log.append(JsonChanges.encode(changes));
+                pluginLog.state = data;
+
+                final long logBytes = pluginLog.log.size();
+                if (logBytes > COMPACT_MIN_BYTES && logBytes > pluginLog.snapshotBytes * COMPACT_FACTOR) {
+                    compact(pluginLog);
+                }
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Error writing plugin data.", e);
+        }
+    }
+
+    private static Path getPluginDirectory(final Path botDataPath, final String pluginId) {
+        return botDataPath.resolve("plugins").resolve(pluginId);
+    }
+
+    /**
+     * Returns the open log for a plugin, opening and replaying it if this is the first time
+     * the plugin's data has been accessed.
+     *
+     * @param pluginDirectory The plugin's data directory.
+     * @return The plugin's open log.
+     * @throws IOException Thrown if opening or reading the log fails.
+     */
+    private PluginLog openLog(final Path pluginDirectory) throws IOException {
+        final PluginLog existing = pluginLogs.get(pluginDirectory);
+        if (existing != null) {
+            return existing;
+        }
+
+        synchronized (pluginLogs) {
+            final PluginLog current = pluginLogs.get(pluginDirectory);
+            if (current != null) {
+                return current;
+            }
+
+            final Path logPath = pluginDirectory.resolve(LOG_FILE_NAME);
+            migrateJson(pluginDirectory, logPath);
+
+            final PluginLog pluginLog = new PluginLog();
+            for (final byte[] record : RecordLog.readRecords(logPath)) {
+                pluginLog.state = JsonChanges.apply(pluginLog.state, JsonChanges.decode(record));
+            }
+            pluginLog.log = RecordLog.open(logPath);
+            pluginLog.snapshotBytes = pluginLog.log.size();
+
+            pluginLogs.put(pluginDirectory, pluginLog);
+            return pluginLog;
+        }
+    }
+
+    /**
+     * Imports a plugin's existing {@link JsonStorageEngine} data into a new log, if the plugin does not have a log yet.
+     *
+     * @param pluginDirectory The plugin's data directory.
+     * @param logPath Path to the plugin's log file.
+     * @throws IOException Thrown if reading the JSON file or writing the log fails.
+     */
+    private static void migrateJson(final Path pluginDirectory, final Path logPath) throws IOException {
+        final Path jsonPath = pluginDirectory.resolve(JsonStorageEngine.DATA_FILE_NAME);
+        if (Files.exists(logPath)) {
+            return;
+        }
+
+        final Optional<JsonElement> data;
+        try {
+            data = JsonStorageEngine.readLatest(jsonPath);
+        } catch (final JsonParseException e) {
+            // keep the unreadable data for inspection, rather than leaving it behind the new log
+            log.error("Unable to migrate plugin data, the existing JSON file could not be parsed. path={}",
+                jsonPath, e);
+            final Path journalPath = jsonPath.resolveSibling(JsonStorageEngine.JOURNAL_FILE_NAME);
+            if (Files.exists(journalPath)) {
+                AtomicFiles.moveAside(journalPath);
+            }
+            if (Files.exists(jsonPath)) {
+                AtomicFiles.moveAside(jsonPath);
+            }
+            return;
+        }
+        if (data.isEmpty()) {
+            return;
+        }
+
+        Files.createDirectories(pluginDirectory);
+        RecordLog.rewrite(logPath, List.of(JsonChanges.encode(List.of(JsonChanges.replace(data.get())))));
+        if (Files.exists(jsonPath)) {
+            Files.move(jsonPath, jsonPath.resolveSibling(JsonStorageEngine.DATA_FILE_NAME + MIGRATED_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(jsonPath.resolveSibling(JsonStorageEngine.JOURNAL_FILE_NAME));
+        log.info("Migrated plugin data from JSON to log storage. path={}", jsonPath);
+    }
+
+    /**
+     * Replaces a plugin's log with a single record containing its full data.
+     *
+     * The snapshot is written to a temporary file which replaces the log, while the old log stays open.
+     * If writing the snapshot fails, the old log is left unchanged and the plugin carries on appending to it.
+     *
+     * @param pluginLog The plugin's log. The caller must hold its lock.
+     * @throws IOException Thrown if writing the log fails.
+     */
+    private void compact(final PluginLog pluginLog) throws IOException {
+        final Path logPath = pluginLog.log.getPath();
+        final byte[] snapshot = JsonChanges.encode(List.of(JsonChanges.replace(pluginLog.state)));
+
+        RecordLog.rewrite(logPath, List.of(snapshot));
+        final RecordLog previous = pluginLog.log;
+        try {
+            pluginLog.log = RecordLog.open(logPath);
+        } catch (final IOException e) {
+            // the old log no longer refers to the file, so the log is opened again the next time it's used
+            pluginLogs.remove(logPath.getParent());
+            throw e;
+        } finally {
+            previous.close();
+        }
+        pluginLog.snapshotBytes = pluginLog.log.size();
+    }
+}
@@ -0,0 +1,92 @@
+package gg.sep.alyx.plugin.storage;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import gg.sep.alyx.plugin.metrics.LatencyHistogram;
+import gg.sep.alyx.plugin.metrics.MetricFamily;
+import gg.sep.alyx.plugin.metrics.MetricsRegistry;
+
+/**
+ * A storage engine which records how long another engine takes to load and write each plugin's data.
+ *
+ * When used with a {@link WriteBehindStorageEngine}, this engine should be its delegate, so that the
+ * recorded write times are those of the actual writes rather than of queueing them.
+ */
+public class MeteredStorageEngine implements AlyxStorageEngine {
+
+    private final AlyxStorageEngine delegate;
+    private final MetricFamily<LatencyHistogram> loadLatency;
+    private final MetricFamily<LatencyHistogram> writeLatency;
+    private final LatencyHistogram flushLatency;
+
+    /**
+     * Creates a new metered storage engine.
+     *
+     * @param delegate The engine which data is written to and loaded from.
+     * @param metrics Registry to record the time taken by the engine in.
+     */
+    public MeteredStorageEngine(final AlyxStorageEngine delegate, final MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.loadLatency = metrics.histogram("alyx_storage_load_seconds",
+            "Time taken to load plugin data.", "plugin");
+        this.writeLatency = metrics.histogram("alyx_storage_write_seconds",
+            "Time taken to write plugin data.", "plugin");
+        this.flushLatency = metrics.histogram("alyx_storage_flush_seconds",
+            "Time taken to flush buffered plugin data.").labels();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends JsonSerializable> Optional<T> loadPluginData(final String pluginId, final Path botDataPath,
+                                                                   final Class<T> dataClass) {
+        final long started = System.nanoTime();
+        try {
+            return delegate.loadPluginData(pluginId, botDataPath, dataClass);
+        } finally {
+            loadLatency.labels(pluginId).recordSince(started);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T extends JsonSerializable> void writePluginData(final String pluginId, final Path botDataPath,
+                                                             final T pluginData) {
+        final long started = System.nanoTime();
+        try {
+            delegate.writePluginData(pluginId, botDataPath, pluginData);
+        } finally {
+            writeLatency.labels(pluginId).recordSince(started);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() {
+        final long started = System.nanoTime();
+        try {
+            delegate.flush();
+        } finally {
+            flushLatency.recordSince(started);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flushPluginData(final String pluginId, final Path botDataPath) {
+        final long started = System.nanoTime();
+        try {
+            delegate.flushPluginData(pluginId, botDataPath);
+        } finally {
+            flushLatency.recordSince(started);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package gg.sep.alyx.plugin.storage;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * An append-only file of length-prefixed, checksummed binary records.
+ *
+ * Each record is stored as a 4 byte payload length, followed by a 4 byte CRC32 checksum of the
+ * payload, followed by the payload itself. A record is only considered to be written once all of
+ * its bytes are present and its checksum matches, so a record which was partially written when the
+ * process crashed is discarded, along with anything after it, the next time the log is opened.
+ */
+@Log4j2
+public final class RecordLog implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_RECORD_BYTES = Integer.MAX_VALUE - HEADER_BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+
+    private RecordLog(final Path path, final FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a record log for appending, creating the file and its parent directories if they do not exist.
+     *
+     * If the end of the file contains a partially written or corrupt record, the file is truncated
+     * to the end of the last valid record.
+     *
+     * @param path Path to the log file.
+     * @return The opened log, positioned after its last valid record.
+     * @throws IOException Thrown if the file could not be opened.
+     */
+    public static RecordLog open(final Path path) throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        final long validBytes = Files.exists(path) ? scan(path, null) : 0;
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() > validBytes) {
+            log.warn("Discarding incomplete records at the end of log. path={}, bytes={}",
+                path, channel.size() - validBytes);
+            channel.truncate(validBytes);
+            channel.force(true);
+        }
+        channel.position(validBytes);
+        return new RecordLog(path, channel);
+    }
+
+    /**
+     * Reads each of the valid records in a log file, stopping at the first incomplete or corrupt record.
+     *
+     * @param path Path to the log file.
+     * @return The payload of each valid record, in the order they were written. Empty if the file does not exist.
+     * @throws IOException Thrown if reading the file fails.
+     */
+    public static List<byte[]> readRecords(final Path path) throws IOException {
+        final List<byte[]> records = new ArrayList<>();
+        if (Files.exists(path)) {
+            scan(path, records);
+        }
+        return records;
+    }
+
+    /**
+     * Atomically replaces the contents of a log file with the given records.
+     *
+     * The records are written using {@link AtomicFiles}, so the log contains either all of its
+     * old records or all of the new ones.
+     *
+     * @param path Path to the log file.
+     * @param records The payloads of the records to write.
+     * @throws IOException Thrown if writing the file fails.
+     */
+    public static void rewrite(final Path path, final List<byte[]> records) throws IOException {
+        AtomicFiles.write(path, out -> {
+            for (final byte[] record : records) {
+                writeFully(out, encode(record));
+            }
+        });
+    }
+
+    /**
+     * Appends a record to the end of the log, and flushes it to the storage device.
+     *
+     * @param payload The record's payload.
+     * @throws IOException Thrown if writing the record fails.
+     */
+    public synchronized void append(final byte[] payload) throws IOException {
+        writeFully(channel, encode(payload));
+        channel.force(false);
+    }
+
+    /**
+     * Returns the size of the log file in bytes.
+     *
+     * @return The size of the log file in bytes.
+     * @throws IOException Thrown if the size of the file could not be read.
+     */
+    public synchronized long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Returns the path to the log file.
+     *
+     * @return The path to the log file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads through a log file, validating each record.
+     *
+     * @param path Path to the log file.
+     * @param records If not null, the payload of each valid record is added to this list.
+     * @return The number of bytes at the start of the file which contain valid records.
+     * @throws IOException Thrown if reading the file fails.
+     */
+    private static long scan(final Path path, final List<byte[]> records) throws IOException {
+        final long fileSize = Files.size(path);
+        long validBytes = 0;
+
+        try (InputStream fileStream = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileStream))) {
+
+            while (true) {
+                final int length;
+                final int checksum;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                } catch (final EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > fileSize - validBytes - HEADER_BYTES) {
+                    break;
+                }
+
+                final byte[] payload = new byte[length];
+                try {
+                    in.readFully(payload);
+                } catch (final EOFException e) {
+                    break;
+                }
+                if (checksum != checksum(payload)) {
+                    break;
+                }
+
+                if (records != null) {
+                    records.add(payload);
+                }
+                validBytes += HEADER_BYTES + length;
+            }
+        }
+        return validBytes;
+    }
+
+    private static ByteBuffer encode(final byte[] payload) {
+        if (payload.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Record is too large: " + payload.length);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt(checksum(payload));
+        buffer.put(payload);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int checksum(final byte[] payload) {
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
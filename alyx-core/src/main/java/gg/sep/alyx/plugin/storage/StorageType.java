@@ -1,5 +1,8 @@
 package gg.sep.alyx.plugin.storage;
 
+import java.util.function.Supplier;
+
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -9,9 +12,22 @@ import lombok.Getter;
 @Getter
 @AllArgsConstructor
 public enum StorageType {
-    JSON("json");
+    JSON("json", JsonStorageEngine::new),
+    JSON_COMPACT("json-compact", () -> new JsonStorageEngine(false)),
+    LOG("log", LogStorageEngine::new);
 
     private final String value;
+    @Getter(AccessLevel.NONE)
+    private final Supplier<AlyxStorageEngine> engineFactory;
+
+    /**
+     * Creates a new instance of the storage engine for this storage type.
+     *
+     * @return A new storage engine for this storage type.
+     */
+    public AlyxStorageEngine createEngine() {
+        return engineFactory.get();
+    }
 
     /**
      * {@inheritDoc}
@@ -0,0 +1,182 @@
+package gg.sep.alyx.plugin.storage;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * A storage engine which delays and coalesces plugin data writes before passing them on to another engine.
+ *
+ * A write is not performed immediately. Instead, the plugin's data is held for the configured delay,
+ * and then written to the underlying engine on a background thread. Any further writes for the same
+ * plugin during the delay replace the pending write, so a plugin which writes its data after every
+ * command only has its data written once per delay.
+ *
+ * Writes for different plugins are performed independently of each other, so a plugin whose data is slow
+ * to write doesn't hold up the writes of other plugins.
+ *
+ * Because the plugin's data object is serialized when the write is performed, rather than when it is
+ * requested, plugins should avoid modifying their data from multiple threads without synchronization.
+ *
+ * Writes which are still pending are lost if the process exits without calling {@link #flush()}.
+ */
+@Log4j2
+public class WriteBehindStorageEngine implements AlyxStorageEngine {
+
+    /**
+     * Default time to wait after a write is requested before writing it.
+     */
+    public static final Duration DEFAULT_DELAY = Duration.ofSeconds(1);
+
+    private static final int WRITER_THREADS = 4;
+
+    private final AlyxStorageEngine delegate;
+    private final long delayMillis;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final Map<Pair<Path, String>, PendingWrite<?>> pendingWrites = new ConcurrentHashMap<>();
+    private final Map<Pair<Path, String>, Object> flushLocks = new ConcurrentHashMap<>();
+    private final AtomicLong writesRequested = new AtomicLong();
+    private final AtomicLong writesPerformed = new AtomicLong();
+
+    @RequiredArgsConstructor
+    private static final class PendingWrite<T extends JsonSerializable> {
+        private final String pluginId;
+        private final Path botDataPath;
+        private final T pluginData;
+    }
+
+    /**
+     * Creates a new write-behind storage engine.
+     *
+     * @param identifier Identifier used to name the thread spawned by this engine. A good
+     *                   practices is to use the Bot's name.
+     * @param delegate The engine which data is written to and loaded from.
+     * @param delay How long to wait after a write is requested before writing it.
+     */
+    public WriteBehindStorageEngine(final String identifier, final AlyxStorageEngine delegate, final Duration delay) {
+        this.delegate = delegate;
+        this.delayMillis = delay.toMillis();
+        this.scheduler = new ScheduledThreadPoolExecutor(WRITER_THREADS, new BasicThreadFactory.Builder()
+            .namingPattern("StorageWriter-" + identifier + "-%d")
+            .daemon(true)
+            .build());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Any pending write for the plugin is performed first, so the loaded data always reflects
+     * the most recent write.
+     */
+    @Override
+    public <T extends JsonSerializable> Optional<T> loadPluginData(final String pluginId, final Path botDataPath,
+                                                                   final Class<T> dataClass) {
+        flush(Pair.of(botDataPath, pluginId));
+        return delegate.loadPluginData(pluginId, botDataPath, dataClass);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The write is performed in the background after the engine's delay.
+     */
+    @Override
+    public <T extends JsonSerializable> void writePluginData(final String pluginId, final Path botDataPath,
+                                                             final T pluginData) {
+        writesRequested.incrementAndGet();
+
+        final Pair<Path, String> key = Pair.of(botDataPath, pluginId);
+        final PendingWrite<T> write = new PendingWrite<>(pluginId, botDataPath, pluginData);
+        if (pendingWrites.put(key, write) == null) {
+            // only the first write within the delay needs to schedule the flush
+            scheduler.schedule(() -> flush(key), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Immediately performs all pending writes.
+     */
+    @Override
+    public void flush() {
+        for (final Pair<Path, String> key : new ArrayList<>(pendingWrites.keySet())) {
+            flush(key);
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Immediately performs the pending write of a single plugin, leaving other plugins' writes pending.
+     *
+     * @param pluginId Unique identifier of the plugin.
+     * @param botDataPath Path to the Bot's data directory.
+     */
+    @Override
+    public void flushPluginData(final String pluginId, final Path botDataPath) {
+        flush(Pair.of(botDataPath, pluginId));
+        delegate.flushPluginData(pluginId, botDataPath);
+    }
+
+    /**
+     * Returns the number of writes which have been requested from this engine.
+     *
+     * @return The number of writes which have been requested.
+     */
+    public long getWritesRequested() {
+        return writesRequested.get();
+    }
+
+    /**
+     * Returns the number of writes which have been performed by the underlying engine.
+     *
+     * @return The number of writes which have been performed.
+     */
+    public long getWritesPerformed() {
+        return writesPerformed.get();
+    }
+
+    /**
+     * Returns the number of plugins with a write which has not been performed yet.
+     *
+     * @return The number of pending writes.
+     */
+    public int getPendingWrites() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Performs the pending write for a single plugin, if there is one.
+     *
+     * @param key The bot data path and plugin ID of the write.
+     */
+    private void flush(final Pair<Path, String> key) {
+        // a plugin's writes are performed one at a time, so an older write can never finish after a newer one
+        synchronized (flushLocks.computeIfAbsent(key, k -> new Object())) {
+            final PendingWrite<?> write = pendingWrites.remove(key);
+            if (write == null) {
+                return;
+            }
+
+            try {
+                delegate.writePluginData(write.pluginId, write.botDataPath, write.pluginData);
+                writesPerformed.incrementAndGet();
+            } catch (final RuntimeException e) {
+                log.error("Error writing plugin data, retrying. plugin={}", write.pluginId, e);
+                if (pendingWrites.putIfAbsent(key, write) == null) {
+                    scheduler.schedule(() -> flush(key), delayMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package gg.sep.alyx.plugin.util;
+
+import lombok.Getter;
+import net.dv8tion.jda.api.entities.Message;
+
+/**
+ * A Discord ID found in a command parameter, either written out as a bare snowflake or as the
+ * mention of a user, role, channel or emote.
+ *
+ * Parameters are scanned a single time without the use of regular expressions, producing the ID as
+ * a primitive {@code long} which can be passed straight to JDA's {@code getXById(long)} lookups.
+ * The accepted forms are the same as the patterns of {@link Message.MentionType}:
+ *   - A bare ID: {@code 123}
+ *   - A user: {@code <@123>} or {@code <@!123>}
+ *   - A role: {@code <@&123>}
+ *   - A channel: {@code <#123>}
+ *   - An emote: {@code <:name:123>} or {@code <a:name:123>}, where the name is letters, digits and underscores
+ */
+@Getter
+public final class Mention {
+
+    /**
+     * Returned by {@link #parseSnowflake(CharSequence)} when the value is not a snowflake.
+     */
+    public static final long NO_ID = -1L;
+
+    // Long.MAX_VALUE has 19 digits
+    private static final int MAX_DIGITS = 19;
+
+    /**
+     * Type of the mention, or {@code null} if the ID was written out as a bare snowflake.
+     */
+    private final Message.MentionType type;
+    private final long id;
+
+    private Mention(final Message.MentionType type, final long id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    /**
+     * Scans a parameter for a bare ID or a mention.
+     *
+     * @param value The parameter.
+     * @return The ID and its mention type, or {@code null} if the whole parameter is neither a bare ID
+     *         nor a mention.
+     */
+    public static Mention scan(final String value) {
+        final int length = value.length();
+        if (length < 3 || value.charAt(0) != '<' || value.charAt(length - 1) != '>') {
+            final long id = parseSnowflake(value, 0, length);
+            return id == NO_ID ? null : new Mention(null, id);
+        }
+
+        final Message.MentionType type;
+        int start;
+        switch (value.charAt(1)) {
+            case '@':
+                start = 2;
+                if (length > 3 && value.charAt(2) == '&') {
+                    type = Message.MentionType.ROLE;
+                    start = 3;
+                } else {
+                    type = Message.MentionType.USER;
+                    if (length > 3 && value.charAt(2) == '!') {
+                        start = 3;
+                    }
+                }
+                break;
+            case '#':
+                type = Message.MentionType.CHANNEL;
+                start = 2;
+                break;
+            case 'a':
+            case ':':
+                type = Message.MentionType.EMOTE;
+                start = emoteIdStart(value);
+                if (start < 0) {
+                    return null;
+                }
+                break;
+            default:
+                return null;
+        }
+
+        final long id = parseSnowflake(value, start, length - 1);
+        return id == NO_ID ? null : new Mention(type, id);
+    }
+
+    /**
+     * Parses a bare snowflake ID.
+     *
+     * @param value The value to parse.
+     * @return The ID, or {@link #NO_ID} if the value is empty, contains anything other than the
+     *         digits {@code 0-9}, or is too large for a {@code long}.
+     */
+    public static long parseSnowflake(final CharSequence value) {
+        return parseSnowflake(value, 0, value.length());
+    }
+
+    /**
+     * Checks whether this is a bare ID, or a mention of the given type.
+     *
+     * @param mentionType The type of mention.
+     * @return Returns {@code true} if this is a bare ID or a mention of the type.
+     */
+    public boolean refersTo(final Message.MentionType mentionType) {
+        return type == null || type == mentionType;
+    }
+
+    private static long parseSnowflake(final CharSequence value, final int start, final int end) {
+        if (start >= end || end - start > MAX_DIGITS) {
+            return NO_ID;
+        }
+
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            final char current = value.charAt(i);
+            if (current < '0' || current > '9') {
+                return NO_ID;
+            }
+            id = id * 10 + (current - '0');
+        }
+        // only a 19 digit value can overflow, and any overflow wraps it to a negative value
+        return id < 0 ? NO_ID : id;
+    }
+
+    /**
+     * Returns the index of an emote mention's ID, after its name.
+     *
+     * @param value The mention, already known to start with {@code <} and end with {@code >}.
+     * @return The index of the emote's ID, or {@code -1} if the value is not an emote mention.
+     */
+    private static int emoteIdStart(final String value) {
+        int position = value.charAt(1) == 'a' ? 2 : 1;
+        if (position >= value.length() || value.charAt(position) != ':') {
+            return -1;
+        }
+        position++;
+
+        final int nameStart = position;
+        while (position < value.length() - 1 && isNameChar(value.charAt(position))) {
+            position++;
+        }
+        if (position == nameStart || value.charAt(position) != ':') {
+            return -1;
+        }
+        return position + 1;
+    }
+
+    private static boolean isNameChar(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -0,0 +1,227 @@
+package gg.sep.alyx.plugin.util;
+
+import java.util.Arrays;
+
+/**
+ * A view of a string which has been split into words, following the same rules as
+ * {@link Strings#splitWithQuotes(String)}.
+ *
+ * Words are stored as offsets into the original string and are only copied out into new strings
+ * when requested through {@link #get(int)}. The string is scanned a single time without the use of
+ * regular expressions, which allows a message to be tokenized once and the result shared between
+ * command matching, parameter extraction and parameter parsing.
+ *
+ * The rules for splitting a string are:
+ *   - Words are separated by whitespace. Leading and trailing whitespace is ignored.
+ *   - Text enclosed in double quotes is a single word, including any whitespace inside of the quotes.
+ *     The quotes are not part of the word, and {@code ""} is an empty word.
+ *   - A double quote preceded by a backslash ({@code \"}) is a literal double quote, both inside
+ *     and outside of a quoted word.
+ *   - A double quote which is never closed is ignored, and the remaining text is split as normal.
+ *   - Double quotes at the end of a word which was not quoted are removed from the word.
+ *
+ * Instances are not modified once the string has been tokenized.
+ */
+public final class MessageTokens {
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+
+    private final String source;
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private boolean[] escaped = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    private MessageTokens(final String source) {
+        this.source = source;
+    }
+
+    /**
+     * Splits the input string into words.
+     *
+     * @param input The string to split.
+     * @return Tokenized view of the input string.
+     */
+    public static MessageTokens tokenize(final String input) {
+        final MessageTokens tokens = new MessageTokens(input);
+        final int length = input.length();
+        int position = 0;
+
+        while (position < length) {
+            final char current = input.charAt(position);
+            if (Character.isWhitespace(current)) {
+                position++;
+            } else if (current == QUOTE) {
+                position = tokens.readQuoted(position);
+            } else {
+                position = tokens.readWord(position);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the original string which was tokenized.
+     *
+     * @return The original string which was tokenized.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the number of words in the string.
+     *
+     * @return The number of words in the string.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the string contained no words.
+     *
+     * @return Returns {@code true} if the string contained no words.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the word at the given position, with any surrounding quotes removed and
+     * escaped quotes replaced by a literal double quote.
+     *
+     * @param index Position of the word.
+     * @return The word at the given position.
+     * @throws IndexOutOfBoundsException Thrown if the index is not a valid word position.
+     */
+    public String get(final int index) {
+        checkIndex(index);
+        final int start = starts[index];
+        final int end = ends[index];
+
+        if (!escaped[index]) {
+            return source.substring(start, end);
+        }
+
+        final StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            final char current = source.charAt(i);
+            if (isEscapedQuote(i, end)) {
+                builder.append(QUOTE);
+                i++;
+            } else {
+                builder.append(current);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Checks whether the word at the given position is equal to {@code value}, without
+     * copying the word out of the original string.
+     *
+     * @param index Position of the word.
+     * @param value The value to compare the word against.
+     * @return Returns {@code true} if the word is equal to the value.
+     * @throws IndexOutOfBoundsException Thrown if the index is not a valid word position.
+     */
+    public boolean equals(final int index, final String value) {
+        checkIndex(index);
+        if (escaped[index]) {
+            return get(index).equals(value);
+        }
+        final int length = ends[index] - starts[index];
+        return length == value.length() && source.regionMatches(starts[index], value, 0, length);
+    }
+
+    /**
+     * Copies each of the words into a new array.
+     *
+     * @return Array of each of the words in the string.
+     */
+    public String[] toArray() {
+        final String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            words[i] = get(i);
+        }
+        return words;
+    }
+
+    /**
+     * Reads a quoted word starting at the opening quote.
+     *
+     * @param openQuote Position of the opening quote.
+     * @return The position after the closing quote, or after the opening quote if the quote is never closed.
+     */
+    private int readQuoted(final int openQuote) {
+        final int length = source.length();
+        boolean hasEscapes = false;
+
+        for (int i = openQuote + 1; i < length; i++) {
+            if (isEscapedQuote(i, length)) {
+                hasEscapes = true;
+                i++;
+            } else if (source.charAt(i) == QUOTE) {
+                add(openQuote + 1, i, hasEscapes);
+                return i + 1;
+            }
+        }
+        // the quote was never closed, skip past it and treat the rest as normal words
+        return openQuote + 1;
+    }
+
+    /**
+     * Reads an unquoted word which ends at the next whitespace. Any unescaped double quotes
+     * at the end of the word are not included in the word.
+     *
+     * @param start Position of the first character of the word.
+     * @return The position after the end of the word.
+     */
+    private int readWord(final int start) {
+        final int length = source.length();
+        boolean hasEscapes = false;
+        int position = start;
+        int end = start;
+
+        while (position < length && !Character.isWhitespace(source.charAt(position))) {
+            if (isEscapedQuote(position, length)) {
+                hasEscapes = true;
+                position += 2;
+                end = position;
+            } else if (source.charAt(position) == QUOTE) {
+                position++;
+            } else {
+                position++;
+                end = position;
+            }
+        }
+        add(start, end, hasEscapes);
+        return position;
+    }
+
+    private boolean isEscapedQuote(final int position, final int end) {
+        return source.charAt(position) == ESCAPE && position + 1 < end && source.charAt(position + 1) == QUOTE;
+    }
+
+    private void add(final int start, final int end, final boolean hasEscapes) {
+        if (size == starts.length) {
+            final int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            escaped = Arrays.copyOf(escaped, capacity);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        escaped[size] = hasEscapes;
+        size++;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d out of bounds for %d words", index, size));
+        }
+    }
+}
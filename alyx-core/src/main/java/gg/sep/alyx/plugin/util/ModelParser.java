@@ -1,5 +1,6 @@
 package gg.sep.alyx.plugin.util;
 
+import java.io.Reader;
 import java.util.Optional;
 
 import com.google.gson.Gson;
@@ -36,4 +37,25 @@ public class ModelParser {
             return Optional.empty();
         }
     }
+
+    /**
+     * Attempts to parse JSON read from the specified reader into the specified model class.
+     *
+     * The JSON is parsed as it is read, without reading it all into a string first.
+     * If parsing was successful, will return an Optional of the class, otherwise empty.
+     *
+     * @param json Reader of the JSON/json contents. It is not closed.
+     * @param clazz Class of the model which the JSON is parsed into.
+     * @param <T> Type of the model which the JSON is parsed into.
+     * @return If parsing was successful, returns an Optional of the model's class, otherwise empty.
+     * @throws com.google.gson.JsonIOException Thrown if reading from the reader fails.
+     */
+    public static <T> Optional<T> parseJson(final Reader json, final Class<T> clazz) {
+        try {
+            return Optional.ofNullable(GSON.fromJson(json, clazz));
+        } catch (final JsonSyntaxException e) {
+            log.error("Error parsing JSON into models. class={}, error={}", clazz, e);
+            return Optional.empty();
+        }
+    }
 }
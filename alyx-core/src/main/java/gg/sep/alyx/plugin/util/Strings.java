@@ -1,10 +1,5 @@
 package gg.sep.alyx.plugin.util;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import lombok.experimental.UtilityClass;
 import org.apache.commons.lang3.StringUtils;
 
@@ -22,23 +17,17 @@ public class Strings extends StringUtils {
      * Handles double quotes in the string, considering the inner portion
      * of the quotes a a single string.
      *
-     * Double quotes are stripped from the beginning and end of each string.
+     * Double quotes are stripped from the beginning and end of each string. Quotes escaped
+     * with a backslash ({@code \"}) are kept as literal double quotes.
      *
-     * TODO: Handle escaped quotes.
+     * See {@link MessageTokens} for the full splitting rules, and to split a string without
+     * copying each word into a new string.
      *
      * @param input The string to split.
      * @return Array of words in the string, split by spaces. Strings enclosed in double quotes
      *         within the string are considered a single word.
      */
     public String[] splitWithQuotes(final String input) {
-        // trim beginning and ending whitespace
-        final String cleanString = strip(input);
-        final List<String> list = new ArrayList<>();
-        final Matcher m = Pattern.compile("([^\"]\\S*|\".*?\")\\s*").matcher(cleanString);
-        while (m.find()) {
-            list.add(strip(m.group(1), "\""));
-        }
-
-        return list.toArray(new String[0]);
+        return MessageTokens.tokenize(input).toArray();
     }
 }
@@ -0,0 +1,64 @@
+package gg.sep.alyx.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link GatewayRequirements}.
+ */
+public class GatewayRequirementsTest {
+
+    private static AlyxPlugin<?> plugin(final GatewayRequirements requirements) {
+        final AlyxPlugin<?> plugin = mock(AlyxPlugin.class);
+        when(plugin.getGatewayRequirements()).thenReturn(requirements);
+        return plugin;
+    }
+
+    @Test
+    void of_CacheFlagsImplyIntents() {
+        final GatewayRequirements requirements = GatewayRequirements.of(Set.of(), Set.of(CacheFlag.ACTIVITY));
+        assertEquals(EnumSet.of(GatewayIntent.GUILD_PRESENCES), requirements.getIntents());
+        assertFalse(requirements.getDisabledCacheFlags().contains(CacheFlag.ACTIVITY));
+        assertTrue(requirements.getDisabledCacheFlags().contains(CacheFlag.CLIENT_STATUS));
+    }
+
+    @Test
+    void of_NoMemberCacheWithoutMembersIntent() {
+        assertSame(MemberCachePolicy.NONE,
+            GatewayRequirements.of(Set.of(), Set.of(), MemberCachePolicy.ALL).getMemberCachePolicy());
+        assertSame(MemberCachePolicy.ALL, GatewayRequirements.of(Set.of(GatewayIntent.GUILD_MEMBERS), Set.of(),
+            MemberCachePolicy.ALL).getMemberCachePolicy());
+    }
+
+    @Test
+    void union_OfPlugins() {
+        final GatewayRequirements base = GatewayRequirements.of(Set.of(GatewayIntent.GUILD_MESSAGES), Set.of());
+        final GatewayRequirements voice = GatewayRequirements.of(Set.of(GatewayIntent.GUILD_MEMBERS),
+            Set.of(CacheFlag.VOICE_STATE), MemberCachePolicy.VOICE);
+
+        final GatewayRequirements union = GatewayRequirements.union(base,
+            List.of(plugin(GatewayRequirements.NONE), plugin(voice)));
+
+        assertEquals(EnumSet.of(GatewayIntent.GUILD_MESSAGES, GatewayIntent.GUILD_MEMBERS,
+            GatewayIntent.GUILD_VOICE_STATES), union.getIntents());
+        assertEquals(EnumSet.of(CacheFlag.VOICE_STATE), union.getCacheFlags());
+        assertSame(MemberCachePolicy.VOICE, union.getMemberCachePolicy());
+
+        assertTrue(voice.isSatisfiedBy(union));
+        assertTrue(GatewayRequirements.NONE.isSatisfiedBy(base));
+        assertFalse(voice.isSatisfiedBy(base));
+    }
+}
@@ -0,0 +1,115 @@
+package gg.sep.alyx.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import gg.sep.alyx.plugin.commands.AlyxCommand;
+import gg.sep.alyx.plugin.commands.CommandInvoker;
+
+/**
+ * Tests for {@link PluginRegistry}.
+ */
+public class PluginRegistryTest {
+
+    private static AlyxCommand command(final String name) throws Exception {
+        final Method method = PluginRegistryTest.class.getDeclaredMethod("noop");
+        return new AlyxCommand(null, name, List.of(List.of(name)), List.of(), CommandInvoker.bind(null, method));
+    }
+
+    private static void noop() { }
+
+    @Test
+    void withLoaded_CommandsIndexed() throws Exception {
+        final AlyxPlugin<?> plugin = mock(AlyxPlugin.class);
+        final AlyxCommand ping = command("ping");
+
+        final PluginRegistry registered = PluginRegistry.empty().withRegistered(plugin);
+        final PluginRegistry loaded = registered.withLoaded(plugin, List.of(ping));
+
+        assertTrue(loaded.isRegistered(plugin));
+        assertTrue(loaded.isLoaded(plugin));
+        assertEquals(Set.of(plugin), loaded.getLoadedPlugins());
+        assertSame(ping, loaded.getCommands(plugin).get(0));
+        assertSame(ping, loaded.getCommandIndex().findCommand("ping").orElse(null));
+
+        // earlier snapshots are unchanged
+        assertFalse(registered.isLoaded(plugin));
+        assertEquals(Optional.empty(), registered.getCommandIndex().findCommand("ping"));
+    }
+
+    @Test
+    void withUnloaded_RemovesOnlyPluginCommands() throws Exception {
+        final AlyxPlugin<?> first = mock(AlyxPlugin.class);
+        final AlyxPlugin<?> second = mock(AlyxPlugin.class);
+        final AlyxCommand ping = command("ping");
+        final AlyxCommand pong = command("pong");
+
+        final PluginRegistry registry = PluginRegistry.empty()
+            .withRegistered(first)
+            .withRegistered(second)
+            .withLoaded(first, List.of(ping))
+            .withLoaded(second, List.of(pong))
+            .withUnloaded(first);
+
+        assertTrue(registry.isRegistered(first));
+        assertFalse(registry.isLoaded(first));
+        assertEquals(List.of(), registry.getCommands(first));
+        assertEquals(1, registry.getLoadedCommands().size());
+        assertSame(pong, registry.getLoadedCommands().get(0));
+        assertEquals(Optional.empty(), registry.getCommandIndex().findCommand("ping"));
+    }
+
+    @Test
+    void batchTransitions_KeepOrder() throws Exception {
+        final AlyxPlugin<?> first = mock(AlyxPlugin.class);
+        final AlyxPlugin<?> second = mock(AlyxPlugin.class);
+        final AlyxCommand ping = command("ping");
+        final AlyxCommand pong = command("pong");
+
+        final Map<AlyxPlugin<?>, List<AlyxCommand>> commands = new LinkedHashMap<>();
+        commands.put(first, List.of(ping));
+        commands.put(second, List.of(pong));
+        final PluginRegistry registry = PluginRegistry.empty()
+            .withRegistered(List.of(first, second))
+            .withLoaded(commands);
+
+        assertEquals(List.of(first, second), List.copyOf(registry.getRegisteredPlugins()));
+        assertEquals(List.of(ping, pong), registry.getLoadedCommands());
+        assertSame(pong, registry.getCommandIndex().findCommand("pong").orElse(null));
+
+        assertThrows(AlyxException.class, () -> registry.withRegistered(List.of(second)));
+        assertThrows(AlyxException.class, () -> PluginRegistry.empty().withLoaded(commands));
+    }
+
+    @Test
+    void invalidTransitions_Throw() throws Exception {
+        final AlyxPlugin<?> plugin = mock(AlyxPlugin.class);
+        final PluginRegistry registered = PluginRegistry.empty().withRegistered(plugin);
+
+        assertThrows(AlyxException.class, () -> registered.withRegistered(plugin));
+        assertThrows(AlyxException.class, () -> PluginRegistry.empty().withLoaded(plugin, List.of()));
+        assertThrows(AlyxException.class, () -> registered.withUnloaded(plugin));
+    }
+
+    @Test
+    void snapshots_Unmodifiable() throws Exception {
+        final AlyxPlugin<?> plugin = mock(AlyxPlugin.class);
+        final PluginRegistry registry = PluginRegistry.empty().withRegistered(plugin);
+
+        assertThrows(UnsupportedOperationException.class, () -> registry.getRegisteredPlugins().clear());
+        assertThrows(UnsupportedOperationException.class, () -> registry.getLoadedCommands().clear());
+    }
+}
@@ -0,0 +1,78 @@
+package gg.sep.alyx.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ShardMetrics}.
+ */
+public class ShardMetricsTest {
+
+    private static JDA shard(final int shardId, final long gatewayPing) {
+        final JDA shard = mock(JDA.class);
+        when(shard.getShardInfo()).thenReturn(new JDA.ShardInfo(shardId, 2));
+        when(shard.getStatus()).thenReturn(JDA.Status.CONNECTED);
+        when(shard.getGatewayPing()).thenReturn(gatewayPing);
+        return shard;
+    }
+
+    @Test
+    void snapshot_EventsPerSecondSincePreviousSnapshot() {
+        final JDA first = shard(0, 40);
+        final JDA second = shard(1, 60);
+        final ShardManager shardManager = mock(ShardManager.class);
+        when(shardManager.getShards()).thenReturn(List.of(second, first));
+
+        final AtomicLong now = new AtomicLong();
+        final ShardMetrics metrics = new ShardMetrics(shardManager, now::get);
+
+        when(first.getResponseTotal()).thenReturn(100L);
+        when(second.getResponseTotal()).thenReturn(50L);
+        final List<ShardMetrics.ShardStats> initial = metrics.snapshot();
+        assertEquals(0, initial.get(0).getShardId());
+        assertEquals(40, initial.get(0).getGatewayPing());
+        assertEquals(0, initial.get(0).getEventsPerSecond());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        when(first.getResponseTotal()).thenReturn(300L);
+        when(second.getResponseTotal()).thenReturn(60L);
+        final List<ShardMetrics.ShardStats> stats = metrics.snapshot();
+
+        assertEquals(100, stats.get(0).getEventsPerSecond());
+        assertEquals(300, stats.get(0).getEventsReceived());
+        assertEquals(1, stats.get(1).getShardId());
+        assertEquals(2, stats.get(1).getShardTotal());
+        assertEquals(5, stats.get(1).getEventsPerSecond());
+    }
+
+    @Test
+    void snapshot_CountResetNotNegative() {
+        final JDA shard = shard(0, 40);
+        final ShardManager shardManager = mock(ShardManager.class);
+        when(shardManager.getShards()).thenReturn(List.of(shard));
+
+        final AtomicLong now = new AtomicLong();
+        final ShardMetrics metrics = new ShardMetrics(shardManager, now::get);
+
+        when(shard.getResponseTotal()).thenReturn(500L);
+        metrics.snapshot();
+
+        // the shard resumed in a new session, which restarts its count
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        when(shard.getResponseTotal()).thenReturn(20L);
+        assertEquals(0, metrics.snapshot().get(0).getEventsPerSecond());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        when(shard.getResponseTotal()).thenReturn(40L);
+        assertEquals(10, metrics.snapshot().get(0).getEventsPerSecond());
+    }
+}
@@ -0,0 +1,186 @@
+package gg.sep.alyx.plugin.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.Event;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import gg.sep.alyx.plugin.Alyx;
+import gg.sep.alyx.plugin.AlyxException;
+import gg.sep.alyx.plugin.AlyxPlugin;
+import gg.sep.alyx.plugin.CommandParseException;
+import gg.sep.alyx.plugin.model.BotConfig;
+import gg.sep.alyx.plugin.util.MessageTokens;
+
+/**
+ * Tests for {@link AlyxCommand}.
+ */
+public class AlyxCommandTest {
+
+    private static final MessageTokens PING = MessageTokens.tokenize("ping");
+
+    private AlyxPlugin<?> plugin;
+    private User owner;
+    private MessageChannel channel;
+    private AtomicInteger invocations;
+
+    private AlyxCommand command(final PermissionLevel permissionLevel, final List<ParameterParser<?>> parsers,
+                                final CommandInvoker.Invocation invocation) {
+        final List<Class<?>> types = parsers.stream().<Class<?>>map(ParameterParser::getType)
+            .collect(Collectors.toList());
+        return new AlyxCommand(plugin, List.of(), List.of(), permissionLevel, false, "ping",
+            List.of(List.of("ping")), parsers, CommandInvoker.of(types, invocation));
+    }
+
+    private static ParameterParser<String> parser(final CompletableFuture<String> parsed) {
+        return new ParameterParser<>() {
+            @Override
+            public Class<String> getType() {
+                return String.class;
+            }
+
+            @Override
+            public String parse(final String value, final Event event) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletionStage<String> parseAsync(final String value, final Event event) {
+                return parsed;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private MessageReceivedEvent event(final User author) {
+        final Message message = mock(Message.class);
+        when(message.addReaction(anyString())).thenReturn(mock(RestAction.class));
+        final MessageReceivedEvent event = mock(MessageReceivedEvent.class);
+        when(event.getAuthor()).thenReturn(author);
+        when(event.getChannel()).thenReturn(channel);
+        when(event.getMessage()).thenReturn(message);
+        return event;
+    }
+
+    @BeforeEach
+    void setup() {
+        final Alyx alyx = mock(Alyx.class);
+        owner = mock(User.class);
+        when(alyx.getBotOwner()).thenReturn(owner);
+        when(alyx.getPermissionCache()).thenReturn(new PermissionCache());
+        when(alyx.getPermissionLevelResolver()).thenReturn(new PermissionLevelResolver(BotConfig.builder().build()));
+        plugin = mock(AlyxPlugin.class);
+        when(plugin.getAlyx()).thenReturn(alyx);
+
+        channel = mock(MessageChannel.class);
+        when(channel.getIdLong()).thenReturn(10L);
+        invocations = new AtomicInteger();
+    }
+
+    @Test
+    void invokeAsync_RateLimitOnlyUsedByAllowedUsers() throws Exception {
+        final AlyxCommand command = command(PermissionLevel.ADMIN, List.of(), args -> invocations.incrementAndGet());
+        command.setRateLimit(new RateLimitPolicy(1, Duration.ofHours(1), RateLimit.Scope.CHANNEL, ""));
+
+        // users who can't use the command don't take up the channel's limit
+        final MessageReceivedEvent denied = event(mock(User.class));
+        command.invoke(denied, PING);
+        command.invoke(denied, PING);
+        verify(denied.getMessage(), never()).addReaction(anyString());
+
+        final MessageReceivedEvent allowed = event(owner);
+        command.invoke(allowed, PING);
+        assertEquals(1, invocations.get());
+
+        command.invoke(allowed, PING);
+        assertEquals(1, invocations.get());
+        verify(allowed.getMessage(), times(1)).addReaction("🐢");
+    }
+
+    @Test
+    void invokeAsync_ParsedImmediatelyRunsInline() {
+        final List<Object> arguments = new ArrayList<>();
+        final AlyxCommand command = command(PermissionLevel.EVERYONE,
+            List.of(parser(CompletableFuture.completedFuture("a"))), args -> arguments.addAll(List.of(args)));
+
+        final CompletableFuture<Void> invoked = command.invokeAsync(event(owner), MessageTokens.tokenize("ping a"),
+            task -> fail("the command should run on the calling thread")).toCompletableFuture();
+
+        assertTrue(invoked.isDone());
+        assertEquals(List.of("a"), arguments);
+    }
+
+    @Test
+    void invokeAsync_PendingParametersComposed() {
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+        final List<Object> arguments = new ArrayList<>();
+        final AlyxCommand command = command(PermissionLevel.EVERYONE,
+            List.of(parser(first), parser(CompletableFuture.completedFuture("b")), parser(second)),
+            args -> arguments.addAll(List.of(args)));
+
+        final List<Runnable> executed = new ArrayList<>();
+        final CompletableFuture<Void> invoked = command.invokeAsync(event(owner),
+            MessageTokens.tokenize("ping a b c"), executed::add).toCompletableFuture();
+
+        // completed out of order, and run on the executor once the last one is ready
+        second.complete("c");
+        assertFalse(invoked.isDone());
+        first.complete("a");
+        assertFalse(invoked.isDone());
+        assertEquals(1, executed.size());
+
+        executed.get(0).run();
+        assertTrue(invoked.isDone());
+        assertEquals(List.of("a", "b", "c"), arguments);
+    }
+
+    @Test
+    void invokeAsync_FailedParameterIsCommandError() {
+        final CompletableFuture<String> pending = new CompletableFuture<>();
+        final AlyxCommand command = command(PermissionLevel.EVERYONE, List.of(parser(pending)),
+            args -> invocations.incrementAndGet());
+
+        final CompletableFuture<Void> invoked = command.invokeAsync(event(owner), MessageTokens.tokenize("ping a"),
+            Runnable::run).toCompletableFuture();
+        final CommandParseException failure = new CommandParseException("a", String.class);
+        pending.completeExceptionally(failure);
+
+        final CompletionException thrown = assertThrows(CompletionException.class, invoked::join);
+        assertSame(failure, thrown.getCause());
+        assertEquals(0, invocations.get());
+
+        // and is thrown directly when invoked synchronously
+        final AlyxCommand failed = command(PermissionLevel.EVERYONE,
+            List.of(parser(CompletableFuture.failedFuture(failure))), args -> invocations.incrementAndGet());
+        assertSame(failure, assertThrows(AlyxException.class,
+            () -> failed.invoke(event(owner), MessageTokens.tokenize("ping a"))));
+        assertEquals(0, invocations.get());
+    }
+}
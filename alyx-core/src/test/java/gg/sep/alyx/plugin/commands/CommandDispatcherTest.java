@@ -0,0 +1,125 @@
+package gg.sep.alyx.plugin.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CommandDispatcher}.
+ */
+public class CommandDispatcherTest {
+
+    private CommandDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void dispatch_SameKeyRunsInOrder() {
+        dispatcher = new CommandDispatcher(Executors.newFixedThreadPool(8), CommandDispatcher.Ordering.CHANNEL, 1000);
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < 500; i++) {
+            final int value = i;
+            assertTrue(dispatcher.dispatch(1L, () -> order.add(value)));
+        }
+        assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+
+        assertEquals(500, order.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, order.get(i));
+        }
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+
+    @Test
+    void dispatch_DifferentKeysRunConcurrently() throws InterruptedException {
+        dispatcher = new CommandDispatcher(Executors.newFixedThreadPool(2), CommandDispatcher.Ordering.CHANNEL, 1000);
+        final CountDownLatch bothRunning = new CountDownLatch(2);
+        final Runnable command = () -> {
+            bothRunning.countDown();
+            try {
+                bothRunning.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        dispatcher.dispatch(1L, command);
+        dispatcher.dispatch(2L, command);
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void dispatch_ShedsLoadWhenSaturated() throws InterruptedException {
+        dispatcher = new CommandDispatcher(Executors.newFixedThreadPool(1), CommandDispatcher.Ordering.CHANNEL, 2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Runnable blocked = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        assertTrue(dispatcher.dispatch(1L, blocked));
+        assertTrue(dispatcher.dispatch(2L, blocked));
+        assertEquals(2, dispatcher.getQueueDepth());
+
+        assertFalse(dispatcher.dispatch(3L, blocked));
+        assertEquals(1, dispatcher.getRejectedCount());
+
+        release.countDown();
+        assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertFalse(dispatcher.dispatch(1L, blocked));
+    }
+
+    @Test
+    void dispatch_FailingCommandDoesNotBlockKey() {
+        dispatcher = new CommandDispatcher(Executors.newFixedThreadPool(1), CommandDispatcher.Ordering.CHANNEL, 10);
+        final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        dispatcher.dispatch(1L, () -> {
+            throw new IllegalStateException("failed");
+        });
+        dispatcher.dispatch(1L, () -> ran.add("second"));
+        assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("second"), ran);
+    }
+
+    @Test
+    void dispatchAsync_HoldsKeyUntilStageCompletes() throws InterruptedException {
+        dispatcher = new CommandDispatcher(Executors.newFixedThreadPool(1), CommandDispatcher.Ordering.CHANNEL, 10);
+        final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        final CompletableFuture<Void> fetched = new CompletableFuture<>();
+        final CountDownLatch otherKeyRan = new CountDownLatch(1);
+
+        assertTrue(dispatcher.dispatchAsync(1L, () -> fetched.thenRun(() -> ran.add("first"))));
+        assertTrue(dispatcher.dispatch(1L, () -> ran.add("second")));
+
+        // the only thread is free while the first command waits, so other keys still run
+        assertTrue(dispatcher.dispatch(2L, otherKeyRan::countDown));
+        assertTrue(otherKeyRan.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(), ran);
+
+        fetched.complete(null);
+        assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "second"), ran);
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+}
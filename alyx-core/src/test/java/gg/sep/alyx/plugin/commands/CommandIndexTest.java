@@ -0,0 +1,79 @@
+package gg.sep.alyx.plugin.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CommandIndex}.
+ */
+public class CommandIndexTest {
+
+    private static AlyxCommand command(final String name, final List<List<String>> commandChain) throws Exception {
+        final Method method = CommandIndexTest.class.getDeclaredMethod("noop");
+        return new AlyxCommand(null, name, commandChain, List.of(), CommandInvoker.bind(null, method));
+    }
+
+    private static void noop() { }
+
+    // AlyxCommand's equality uses its plugin, so compare the resolved instances directly
+    private static void assertFound(final AlyxCommand expected, final Optional<AlyxCommand> actual) {
+        assertSame(expected, actual.orElse(null));
+    }
+
+    @Test
+    void findCommand_EmptyIndex() {
+        assertEquals(Optional.empty(), CommandIndex.empty().findCommand("ping"));
+    }
+
+    @Test
+    void findCommand_NameAndAliases() throws Exception {
+        final AlyxCommand ping = command("ping", List.of(List.of("ping", "pong", "tennis")));
+        final CommandIndex index = new CommandIndex(List.of(ping));
+
+        assertFound(ping, index.findCommand("ping"));
+        assertFound(ping, index.findCommand("pong"));
+        assertFound(ping, index.findCommand("tennis with arguments"));
+        assertEquals(Optional.empty(), index.findCommand("pingpong"));
+        assertEquals(Optional.empty(), index.findCommand(""));
+    }
+
+    @Test
+    void findCommand_LongestChain() throws Exception {
+        final AlyxCommand shutdown = command("shutdown", List.of(List.of("shutdown")));
+        final AlyxCommand shutdownNow = command("shutdown now", List.of(List.of("shutdown"), List.of("now")));
+        final CommandIndex index = new CommandIndex(List.of(shutdown, shutdownNow));
+
+        assertFound(shutdown, index.findCommand("shutdown"));
+        assertFound(shutdown, index.findCommand("shutdown later"));
+        assertFound(shutdownNow, index.findCommand("shutdown now"));
+        assertFound(shutdownNow, index.findCommand("  shutdown   now please "));
+    }
+
+    @Test
+    void findCommand_AliasesDoNotCrossChains() throws Exception {
+        final AlyxCommand list = command("plugins list", List.of(List.of("plugins"), List.of("list")));
+        final AlyxCommand load = command("plugins load", List.of(List.of("plugins", "p"), List.of("load")));
+        final CommandIndex index = new CommandIndex(List.of(list, load));
+
+        assertFound(list, index.findCommand("plugins list"));
+        assertFound(load, index.findCommand("p load Foo"));
+        assertEquals(Optional.empty(), index.findCommand("p list"));
+        assertEquals(Optional.empty(), index.findCommand("plugins"));
+    }
+
+    @Test
+    void size_CountsIndexedCommands() throws Exception {
+        final CommandIndex index = new CommandIndex(List.of(
+            command("foo", List.of(List.of("foo"))),
+            command("bar", List.of(List.of("bar", "baz")))
+        ));
+        assertEquals(2, index.getSize());
+        assertEquals(0, CommandIndex.empty().getSize());
+    }
+}
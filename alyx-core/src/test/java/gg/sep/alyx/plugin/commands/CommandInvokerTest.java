@@ -0,0 +1,82 @@
+package gg.sep.alyx.plugin.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import org.junit.jupiter.api.Test;
+
+import gg.sep.alyx.plugin.AlyxException;
+
+/**
+ * Tests for {@link CommandInvoker}.
+ */
+public class CommandInvokerTest {
+
+    private String received;
+
+    private void concat(final String value, final Integer count) {
+        received = value.repeat(count);
+    }
+
+    private void withEvent(final MessageReceivedEvent event, final String value) {
+        received = value;
+    }
+
+    private void fails() throws IOException {
+        throw new IOException("failed");
+    }
+
+    private static int staticCount;
+
+    private static void increment() {
+        staticCount++;
+    }
+
+    @Test
+    void invoke_InstanceMethod() throws Throwable {
+        final CommandInvoker invoker = CommandInvoker.bind(this,
+            CommandInvokerTest.class.getDeclaredMethod("concat", String.class, Integer.class));
+
+        invoker.invoke(new Object[]{"ab", 3});
+        assertEquals("ababab", received);
+        assertEquals(2, invoker.getParameterCount());
+        assertFalse(invoker.isReceivesEvent());
+    }
+
+    @Test
+    void invoke_StaticMethod() throws Throwable {
+        final CommandInvoker invoker = CommandInvoker.bind(null, CommandInvokerTest.class.getDeclaredMethod("increment"));
+        final int before = staticCount;
+
+        invoker.invoke(new Object[]{});
+        assertEquals(before + 1, staticCount);
+    }
+
+    @Test
+    void bind_ReceivesEvent() throws Exception {
+        final CommandInvoker invoker = CommandInvoker.bind(this,
+            CommandInvokerTest.class.getDeclaredMethod("withEvent", MessageReceivedEvent.class, String.class));
+
+        assertTrue(invoker.isReceivesEvent());
+        assertEquals(2, invoker.getParameterCount());
+    }
+
+    @Test
+    void invoke_ExceptionNotWrapped() throws Exception {
+        final CommandInvoker invoker = CommandInvoker.bind(this, CommandInvokerTest.class.getDeclaredMethod("fails"));
+        assertThrows(IOException.class, () -> invoker.invoke(new Object[]{}));
+    }
+
+    @Test
+    void bind_WrongTarget() throws Exception {
+        assertThrows(AlyxException.class, () -> CommandInvoker.bind(new Object(),
+            CommandInvokerTest.class.getDeclaredMethod("fails")));
+        assertThrows(AlyxException.class, () -> CommandInvoker.bind(null,
+            CommandInvokerTest.class.getDeclaredMethod("fails")));
+    }
+}
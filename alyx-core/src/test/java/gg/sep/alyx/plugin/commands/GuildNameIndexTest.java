@@ -0,0 +1,262 @@
+package gg.sep.alyx.plugin.commands;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.dv8tion.jda.api.entities.Category;
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.entities.Emote;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildChannel;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.entities.VoiceChannel;
+import net.dv8tion.jda.api.events.ReconnectedEvent;
+import net.dv8tion.jda.api.events.channel.text.update.TextChannelUpdateNameEvent;
+import net.dv8tion.jda.api.events.channel.voice.VoiceChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.voice.VoiceChannelDeleteEvent;
+import net.dv8tion.jda.api.events.emote.EmoteAddedEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.role.RoleCreateEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import gg.sep.alyx.plugin.commands.parsers.discord.EmoteParameterParser;
+
+/**
+ * Tests for {@link GuildNameIndex}.
+ */
+public class GuildNameIndexTest {
+
+    private static final long GUILD_ID = 1L;
+
+    private GuildNameIndex index;
+    private Guild guild;
+    private List<Role> roles;
+    private List<TextChannel> textChannels;
+    private List<VoiceChannel> voiceChannels;
+    private List<Category> categories;
+    private List<Emote> emotes;
+
+    private Role role(final long id, final String name) {
+        final Role role = mock(Role.class);
+        when(role.getIdLong()).thenReturn(id);
+        when(role.getName()).thenReturn(name);
+        when(guild.getRoleById(id)).thenReturn(role);
+        roles.add(role);
+        return role;
+    }
+
+    private <T extends GuildChannel> T channel(final Class<T> type, final ChannelType channelType, final long id,
+                                              final String name, final int position) {
+        final T channel = mock(type);
+        when(channel.getIdLong()).thenReturn(id);
+        when(channel.getName()).thenReturn(name);
+        when(channel.getType()).thenReturn(channelType);
+        when(channel.getPositionRaw()).thenReturn(position);
+        when(channel.getGuild()).thenReturn(guild);
+        // JDA rejects comparing channels of different types
+        when(channel.compareTo(any())).thenThrow(new IllegalArgumentException("Cannot compare channels"));
+        when(guild.getGuildChannelById(id)).thenReturn(channel);
+        return channel;
+    }
+
+    private Emote emote(final long id, final String name) {
+        final Emote emote = mock(Emote.class);
+        when(emote.getIdLong()).thenReturn(id);
+        when(emote.getName()).thenReturn(name);
+        when(guild.getEmoteById(id)).thenReturn(emote);
+        emotes.add(emote);
+        return emote;
+    }
+
+    @BeforeEach
+    void setup() {
+        index = new GuildNameIndex();
+        guild = mock(Guild.class);
+        roles = new ArrayList<>();
+        textChannels = new ArrayList<>();
+        voiceChannels = new ArrayList<>();
+        categories = new ArrayList<>();
+        emotes = new ArrayList<>();
+        when(guild.getIdLong()).thenReturn(GUILD_ID);
+        when(guild.getRoles()).thenReturn(roles);
+        when(guild.getTextChannels()).thenReturn(textChannels);
+        when(guild.getVoiceChannels()).thenReturn(voiceChannels);
+        when(guild.getCategories()).thenReturn(categories);
+        when(guild.getEmotes()).thenReturn(emotes);
+    }
+
+    @Test
+    void findRole_IgnoresCase() {
+        final Role mod = role(20L, "Moderator");
+
+        assertFalse(index.isIndexed(GUILD_ID));
+        assertSame(mod, index.findRole(guild, "moderator"));
+        assertSame(mod, index.findRole(guild, "MODERATOR"));
+        assertNull(index.findRole(guild, "admin"));
+        assertTrue(index.isIndexed(GUILD_ID));
+
+        // built once, from the guild's roles
+        verify(guild, times(1)).getRoles();
+    }
+
+    @Test
+    void findRole_UpdatedFromEvents() {
+        final Role mod = role(20L, "mod");
+        index.findRole(guild, "mod");
+
+        final Role admin = role(30L, "admin");
+        final RoleCreateEvent created = mock(RoleCreateEvent.class);
+        when(created.getGuild()).thenReturn(guild);
+        when(created.getRole()).thenReturn(admin);
+        index.onRoleCreate(created);
+        assertSame(admin, index.findRole(guild, "Admin"));
+
+        when(mod.getName()).thenReturn("helper");
+        final RoleUpdateNameEvent renamed = mock(RoleUpdateNameEvent.class);
+        when(renamed.getGuild()).thenReturn(guild);
+        when(renamed.getRole()).thenReturn(mod);
+        when(renamed.getOldName()).thenReturn("mod");
+        when(renamed.getNewName()).thenReturn("helper");
+        index.onRoleUpdateName(renamed);
+        assertNull(index.findRole(guild, "mod"));
+        assertSame(mod, index.findRole(guild, "helper"));
+
+        when(guild.getRoleById(30L)).thenReturn(null);
+        final RoleDeleteEvent deleted = mock(RoleDeleteEvent.class);
+        when(deleted.getGuild()).thenReturn(guild);
+        when(deleted.getRole()).thenReturn(admin);
+        index.onRoleDelete(deleted);
+        assertNull(index.findRole(guild, "admin"));
+
+        verify(guild, times(1)).getRoles();
+    }
+
+    @Test
+    void findRole_StaleNameNotReturned() {
+        final Role mod = role(20L, "mod");
+        index.findRole(guild, "mod");
+
+        // renamed without an event reaching the index
+        when(mod.getName()).thenReturn("helper");
+        assertNull(index.findRole(guild, "mod"));
+    }
+
+    @Test
+    void findRole_HighestOfDuplicates() {
+        final Role low = role(20L, "team");
+        final Role high = role(30L, "team");
+        when(low.compareTo(high)).thenReturn(-1);
+        when(high.compareTo(low)).thenReturn(1);
+
+        assertSame(high, index.findRole(guild, "team"));
+    }
+
+    @Test
+    void findChannel_MixedTypesAndDuplicates() {
+        final TextChannel general = channel(TextChannel.class, ChannelType.TEXT, 10L, "general", 0);
+        textChannels.add(general);
+        voiceChannels.add(channel(VoiceChannel.class, ChannelType.VOICE, 11L, "General", 0));
+        categories.add(channel(Category.class, ChannelType.CATEGORY, 12L, "GENERAL", 0));
+
+        // text channels come before voice channels and categories, whatever their positions
+        assertSame(general, index.findChannel(guild, "General"));
+
+        // then the lowest position, then the lowest ID
+        final TextChannel lower = channel(TextChannel.class, ChannelType.TEXT, 20L, "chat", 2);
+        final TextChannel higher = channel(TextChannel.class, ChannelType.TEXT, 21L, "chat", 1);
+        final TextChannel sameNewer = channel(TextChannel.class, ChannelType.TEXT, 22L, "chat", 1);
+        textChannels.addAll(List.of(lower, sameNewer, higher));
+        index.invalidateGuild(GUILD_ID);
+        assertSame(higher, index.findChannel(guild, "chat"));
+    }
+
+    @Test
+    void findChannel_UpdatedFromEvents() {
+        final TextChannel general = channel(TextChannel.class, ChannelType.TEXT, 10L, "general", 0);
+        textChannels.add(general);
+        index.findChannel(guild, "general");
+
+        final VoiceChannel lounge = channel(VoiceChannel.class, ChannelType.VOICE, 11L, "lounge", 0);
+        final VoiceChannelCreateEvent created = mock(VoiceChannelCreateEvent.class);
+        when(created.getChannel()).thenReturn(lounge);
+        index.onVoiceChannelCreate(created);
+        assertSame(lounge, index.findChannel(guild, "Lounge"));
+
+        when(general.getName()).thenReturn("chat");
+        final TextChannelUpdateNameEvent renamed = mock(TextChannelUpdateNameEvent.class);
+        when(renamed.getChannel()).thenReturn(general);
+        when(renamed.getOldName()).thenReturn("general");
+        when(renamed.getNewName()).thenReturn("chat");
+        index.onTextChannelUpdateName(renamed);
+        assertNull(index.findChannel(guild, "general"));
+        assertSame(general, index.findChannel(guild, "chat"));
+
+        when(guild.getGuildChannelById(11L)).thenReturn(null);
+        final VoiceChannelDeleteEvent deleted = mock(VoiceChannelDeleteEvent.class);
+        when(deleted.getChannel()).thenReturn(lounge);
+        index.onVoiceChannelDelete(deleted);
+        assertNull(index.findChannel(guild, "lounge"));
+
+        verify(guild, times(1)).getTextChannels();
+    }
+
+    @Test
+    void findEmote_OldestAndColonForm() throws Exception {
+        emote(50L, "party");
+        final Emote older = emote(40L, "Party");
+        assertSame(older, index.findEmote(guild, "PARTY"));
+
+        final Emote wave = emote(60L, "wave");
+        emotes.remove(wave);
+        final EmoteAddedEvent added = mock(EmoteAddedEvent.class);
+        when(added.getGuild()).thenReturn(guild);
+        when(added.getEmote()).thenReturn(wave);
+        index.onEmoteAdded(added);
+
+        final MessageReceivedEvent message = mock(MessageReceivedEvent.class);
+        when(message.isFromGuild()).thenReturn(true);
+        when(message.getGuild()).thenReturn(guild);
+        final EmoteParameterParser parser = new EmoteParameterParser(index);
+        assertSame(older, parser.parse(":party:", message));
+        assertSame(wave, parser.parse(":wave:", message));
+        assertSame(wave, parser.parse("wave", message));
+        assertNull(parser.parse("::", message));
+        assertSame(older, parser.parse("party", message));
+    }
+
+    @Test
+    void leaveAndReconnect_DropIndex() {
+        role(20L, "mod");
+        index.findRole(guild, "mod");
+        assertTrue(index.isIndexed(GUILD_ID));
+
+        final GuildLeaveEvent left = mock(GuildLeaveEvent.class);
+        when(left.getGuild()).thenReturn(guild);
+        index.onGuildLeave(left);
+        assertFalse(index.isIndexed(GUILD_ID));
+
+        index.findRole(guild, "mod");
+        assertTrue(index.isIndexed(GUILD_ID));
+        index.onReconnect(mock(ReconnectedEvent.class));
+        assertFalse(index.isIndexed(GUILD_ID));
+
+        // rebuilt from JDA's cache when next needed
+        index.findRole(guild, "mod");
+        verify(guild, times(3)).getRoles();
+    }
+}
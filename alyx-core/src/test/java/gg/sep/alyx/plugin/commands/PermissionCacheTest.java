@@ -0,0 +1,191 @@
+package gg.sep.alyx.plugin.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.PermissionOverride;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.events.channel.text.TextChannelDeleteEvent;
+import net.dv8tion.jda.api.events.guild.override.GenericPermissionOverrideEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePermissionsEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link PermissionCache}.
+ */
+public class PermissionCacheTest {
+
+    private static final long GUILD_ID = 1L;
+    private static final long MEMBER_ID = 2L;
+
+    private PermissionCache cache;
+    private Guild guild;
+    private Member member;
+    private Role admin;
+    private Role mod;
+
+    private static Role role(final long id, final String name) {
+        final Role role = mock(Role.class);
+        when(role.getIdLong()).thenReturn(id);
+        when(role.getName()).thenReturn(name);
+        return role;
+    }
+
+    @BeforeEach
+    void setup() {
+        cache = new PermissionCache();
+        guild = mock(Guild.class);
+        member = mock(Member.class);
+        admin = role(30L, "admin");
+        mod = role(20L, "mod");
+
+        when(guild.getIdLong()).thenReturn(GUILD_ID);
+        when(guild.getRoles()).thenReturn(List.of(admin, mod));
+        when(member.getGuild()).thenReturn(guild);
+        when(member.getIdLong()).thenReturn(MEMBER_ID);
+    }
+
+    @Test
+    void hasAnyRole_MatchesRoleNames() {
+        when(member.getRoles()).thenReturn(List.of(mod));
+
+        assertTrue(cache.hasAnyRole(member, List.of("mod", "admin")));
+        assertFalse(cache.hasAnyRole(member, List.of("admin")));
+        assertFalse(cache.hasAnyRole(member, List.of("missing")));
+        assertFalse(cache.hasAnyRole(member, List.of()));
+    }
+
+    @Test
+    void hasAnyRole_UsesCurrentRoles() {
+        when(member.getRoles()).thenReturn(List.of(mod));
+        assertFalse(cache.hasAnyRole(member, List.of("admin")));
+
+        when(member.getRoles()).thenReturn(List.of(mod, admin));
+        assertTrue(cache.hasAnyRole(member, List.of("admin")));
+    }
+
+    @Test
+    void getRoleIds_InvalidatedGuildRecomputed() {
+        assertEquals(1, cache.getRoleIds(guild, List.of("admin")).length);
+
+        final Role renamed = role(40L, "admin");
+        when(guild.getRoles()).thenReturn(List.of(admin, mod, renamed));
+        assertEquals(1, cache.getRoleIds(guild, List.of("admin")).length);
+
+        cache.invalidateGuild(GUILD_ID);
+        final long[] roleIds = cache.getRoleIds(guild, List.of("admin", "mod"));
+        assertEquals(List.of(20L, 30L, 40L), List.of(roleIds[0], roleIds[1], roleIds[2]));
+    }
+
+    @Test
+    void getPermissions_CachedPerChannel() {
+        final TextChannel first = mock(TextChannel.class);
+        final TextChannel second = mock(TextChannel.class);
+        when(first.getIdLong()).thenReturn(10L);
+        when(second.getIdLong()).thenReturn(11L);
+        when(member.getPermissions()).thenReturn(EnumSet.of(Permission.KICK_MEMBERS));
+        when(member.getPermissions(first)).thenReturn(EnumSet.of(Permission.MESSAGE_MANAGE));
+        when(member.getPermissions(second)).thenReturn(EnumSet.noneOf(Permission.class));
+
+        assertEquals(Permission.KICK_MEMBERS.getRawValue(), cache.getPermissions(member));
+        assertEquals(Permission.MESSAGE_MANAGE.getRawValue(), cache.getPermissions(member, first));
+        assertEquals(0L, cache.getPermissions(member, second));
+
+        cache.getPermissions(member);
+        cache.getPermissions(member, first);
+        verify(member, times(1)).getPermissions();
+        verify(member, times(1)).getPermissions(first);
+
+        cache.invalidateGuild(GUILD_ID);
+        cache.getPermissions(member, first);
+        verify(member, times(2)).getPermissions(first);
+    }
+
+    @Test
+    void getPermissions_SharedByMembersWithSameRoles() {
+        final Member other = mock(Member.class);
+        when(other.getGuild()).thenReturn(guild);
+        when(member.getRoles()).thenReturn(List.of(admin, mod));
+        when(other.getRoles()).thenReturn(List.of(mod, admin));
+        when(member.getPermissions()).thenReturn(EnumSet.of(Permission.KICK_MEMBERS));
+
+        // entries are keyed by roles, so neither member needs to be in JDA's member cache
+        assertEquals(Permission.KICK_MEMBERS.getRawValue(), cache.getPermissions(member));
+        assertEquals(Permission.KICK_MEMBERS.getRawValue(), cache.getPermissions(other));
+        verify(other, never()).getPermissions();
+
+        // the member's role change gives them a different entry
+        when(member.getRoles()).thenReturn(List.of(mod));
+        when(member.getPermissions()).thenReturn(EnumSet.noneOf(Permission.class));
+        assertEquals(0L, cache.getPermissions(member));
+    }
+
+    @Test
+    void getPermissions_MemberOverrideNotShared() {
+        final TextChannel channel = mock(TextChannel.class);
+        when(channel.getIdLong()).thenReturn(10L);
+        when(channel.getPermissionOverride(member)).thenReturn(mock(PermissionOverride.class));
+        when(member.getPermissions(channel)).thenReturn(EnumSet.of(Permission.MESSAGE_MANAGE));
+
+        cache.getPermissions(member, channel);
+        cache.getPermissions(member, channel);
+        verify(member, times(2)).getPermissions(channel);
+    }
+
+    @Test
+    void events_DropAffectedEntries() {
+        final TextChannel channel = mock(TextChannel.class);
+        final TextChannel otherChannel = mock(TextChannel.class);
+        when(channel.getIdLong()).thenReturn(10L);
+        when(otherChannel.getIdLong()).thenReturn(11L);
+        when(member.getPermissions()).thenReturn(EnumSet.of(Permission.KICK_MEMBERS));
+        when(member.getPermissions(channel)).thenReturn(EnumSet.of(Permission.MESSAGE_MANAGE));
+        when(member.getPermissions(otherChannel)).thenReturn(EnumSet.of(Permission.MESSAGE_MANAGE));
+        cache.getPermissions(member);
+        cache.getPermissions(member, channel);
+        cache.getPermissions(member, otherChannel);
+
+        final RoleUpdatePermissionsEvent roleUpdated = mock(RoleUpdatePermissionsEvent.class);
+        when(roleUpdated.getGuild()).thenReturn(guild);
+        cache.onGenericRole(roleUpdated);
+        cache.getPermissions(member);
+        cache.getPermissions(member, channel);
+        cache.getPermissions(member, otherChannel);
+        verify(member, times(2)).getPermissions();
+
+        // only the override's channel is dropped
+        final GenericPermissionOverrideEvent overridden = mock(GenericPermissionOverrideEvent.class);
+        when(overridden.getGuild()).thenReturn(guild);
+        when(overridden.getChannel()).thenReturn(channel);
+        cache.onGenericPermissionOverride(overridden);
+        cache.getPermissions(member);
+        cache.getPermissions(member, channel);
+        cache.getPermissions(member, otherChannel);
+        verify(member, times(2)).getPermissions();
+        verify(member, times(3)).getPermissions(channel);
+        verify(member, times(2)).getPermissions(otherChannel);
+
+        final TextChannelDeleteEvent deleted = mock(TextChannelDeleteEvent.class);
+        when(deleted.getGuild()).thenReturn(guild);
+        when(deleted.getChannel()).thenReturn(otherChannel);
+        cache.onTextChannelDelete(deleted);
+        cache.getPermissions(member, channel);
+        cache.getPermissions(member, otherChannel);
+        verify(member, times(3)).getPermissions(channel);
+        verify(member, times(3)).getPermissions(otherChannel);
+    }
+}
@@ -0,0 +1,148 @@
+package gg.sep.alyx.plugin.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import gg.sep.alyx.plugin.model.BotConfig;
+import gg.sep.alyx.plugin.model.GuildRoles;
+
+/**
+ * Tests for {@link PermissionLevelResolver}.
+ */
+public class PermissionLevelResolverTest {
+
+    private static final long GUILD_ID = 1L;
+    private static final long ADMIN_ROLE = 10L;
+    private static final long MOD_ROLE = 20L;
+
+    private Guild guild;
+
+    private static Role role(final long id) {
+        final Role role = mock(Role.class);
+        when(role.getIdLong()).thenReturn(id);
+        return role;
+    }
+
+    private static BotConfig config(final Set<Long> botAdmins, final Set<Long> adminRoles) {
+        final GuildRoles roles = GuildRoles.builder()
+            .adminRoles(adminRoles)
+            .modRoles(Set.of(MOD_ROLE))
+            .build();
+        return BotConfig.builder()
+            .botAdmins(botAdmins)
+            .guildRoles(Map.of(GUILD_ID, roles))
+            .build();
+    }
+
+    private Member member(final long id, final Role... roles) {
+        final Member member = mock(Member.class);
+        when(member.getIdLong()).thenReturn(id);
+        when(member.getGuild()).thenReturn(guild);
+        when(member.getRoles()).thenReturn(List.of(roles));
+        when(guild.getMemberById(id)).thenReturn(member);
+        return member;
+    }
+
+    @BeforeEach
+    void setup() {
+        guild = mock(Guild.class);
+        when(guild.getIdLong()).thenReturn(GUILD_ID);
+    }
+
+    @Test
+    void getLevel_FromConfig() {
+        final PermissionLevelResolver resolver = new PermissionLevelResolver(config(Set.of(100L), Set.of(ADMIN_ROLE)));
+
+        final User botAdmin = mock(User.class);
+        when(botAdmin.getIdLong()).thenReturn(100L);
+        assertEquals(PermissionLevel.BOT_ADMIN, resolver.getLevel(botAdmin));
+        assertEquals(PermissionLevel.BOT_ADMIN, resolver.getLevel(member(100L)));
+
+        assertEquals(PermissionLevel.ADMIN, resolver.getLevel(member(200L, role(MOD_ROLE), role(ADMIN_ROLE))));
+        assertEquals(PermissionLevel.MOD, resolver.getLevel(member(201L, role(MOD_ROLE))));
+        assertEquals(PermissionLevel.EVERYONE, resolver.getLevel(member(202L, role(99L))));
+    }
+
+    @Test
+    void getLevel_NullConfig() {
+        final PermissionLevelResolver resolver = new PermissionLevelResolver(BotConfig.builder().build());
+        assertEquals(PermissionLevel.EVERYONE, resolver.getLevel(member(200L, role(ADMIN_ROLE))));
+    }
+
+    @Test
+    void getLevel_CachedUntilInvalidated() {
+        final PermissionLevelResolver resolver = new PermissionLevelResolver(config(Set.of(), Set.of(ADMIN_ROLE)));
+        final Member member = member(200L, role(MOD_ROLE));
+
+        assertEquals(PermissionLevel.MOD, resolver.getLevel(member));
+        when(member.getRoles()).thenReturn(List.of(role(ADMIN_ROLE)));
+        assertEquals(PermissionLevel.MOD, resolver.getLevel(member));
+        verify(member, times(1)).getRoles();
+
+        resolver.invalidateGuild(GUILD_ID);
+        assertEquals(PermissionLevel.ADMIN, resolver.getLevel(member));
+    }
+
+    @Test
+    void onGuildMemberRoleAdd_DropsOnlyMember() {
+        final PermissionLevelResolver resolver = new PermissionLevelResolver(config(Set.of(), Set.of(ADMIN_ROLE)));
+        final Member member = member(200L, role(MOD_ROLE));
+        final Member other = member(201L, role(MOD_ROLE));
+        resolver.getLevel(member);
+        resolver.getLevel(other);
+
+        final User user = mock(User.class);
+        when(user.getIdLong()).thenReturn(200L);
+        final GuildMemberRoleAddEvent event = mock(GuildMemberRoleAddEvent.class);
+        when(event.getGuild()).thenReturn(guild);
+        when(event.getUser()).thenReturn(user);
+        when(member.getRoles()).thenReturn(List.of(role(ADMIN_ROLE)));
+        resolver.onGuildMemberRoleAdd(event);
+
+        assertEquals(PermissionLevel.ADMIN, resolver.getLevel(member));
+        assertEquals(PermissionLevel.MOD, resolver.getLevel(other));
+        verify(other, times(1)).getRoles();
+    }
+
+    @Test
+    void getLevel_UncachedMemberNotCached() {
+        final PermissionLevelResolver resolver = new PermissionLevelResolver(config(Set.of(), Set.of(ADMIN_ROLE)));
+        final Member member = member(200L, role(MOD_ROLE));
+        when(guild.getMemberById(200L)).thenReturn(null);
+
+        assertEquals(PermissionLevel.MOD, resolver.getLevel(member));
+        when(member.getRoles()).thenReturn(List.of(role(ADMIN_ROLE)));
+        assertEquals(PermissionLevel.ADMIN, resolver.getLevel(member));
+    }
+
+    @Test
+    void updateConfig_KeepsUnchangedGuilds() {
+        final PermissionLevelResolver resolver = new PermissionLevelResolver(config(Set.of(), Set.of(ADMIN_ROLE)));
+        final Member member = member(200L, role(MOD_ROLE));
+        assertEquals(PermissionLevel.MOD, resolver.getLevel(member));
+
+        // unchanged roles keep the cached level
+        resolver.updateConfig(config(Set.of(), Set.of(ADMIN_ROLE)));
+        assertEquals(PermissionLevel.MOD, resolver.getLevel(member));
+        verify(member, times(1)).getRoles();
+
+        // the member's mod role is now an admin role
+        resolver.updateConfig(config(Set.of(), Set.of(ADMIN_ROLE, MOD_ROLE)));
+        assertEquals(PermissionLevel.ADMIN, resolver.getLevel(member));
+    }
+}
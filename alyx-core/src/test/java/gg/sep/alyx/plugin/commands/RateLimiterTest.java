@@ -0,0 +1,88 @@
+package gg.sep.alyx.plugin.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import gg.sep.alyx.plugin.AlyxException;
+
+/**
+ * Tests for {@link RateLimiter}.
+ */
+public class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+
+    private RateLimiter limiter(final int uses, final Duration period, final int maxBuckets) throws AlyxException {
+        return new RateLimiter(new RateLimitPolicy(uses, period, RateLimit.Scope.USER, ""), maxBuckets, now::get);
+    }
+
+    private void advance(final Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void acquire_BurstThenRefill() throws Exception {
+        final RateLimiter limiter = limiter(3, Duration.ofSeconds(3), 1024);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.acquire(1L).isAllowed());
+        }
+        final RateLimiter.Result rejected = limiter.acquire(1L);
+        assertFalse(rejected.isAllowed());
+        assertTrue(rejected.isFirstRejection());
+        assertEquals(Duration.ofSeconds(1), rejected.getRetryAfter());
+
+        // only the first rejection is reported
+        assertFalse(limiter.acquire(1L).isFirstRejection());
+
+        // other keys have their own buckets
+        assertTrue(limiter.acquire(2L).isAllowed());
+
+        // a single use is refilled after period / uses
+        advance(Duration.ofSeconds(1));
+        assertTrue(limiter.acquire(1L).isAllowed());
+        assertFalse(limiter.acquire(1L).isAllowed());
+    }
+
+    @Test
+    void acquire_IdleBucketsExpire() throws Exception {
+        final RateLimiter limiter = limiter(1, Duration.ofSeconds(1), 1024);
+        for (long key = 0; key < 100; key++) {
+            limiter.acquire(key);
+        }
+        assertEquals(100, limiter.size());
+
+        // every bucket is full again, and is expired as other keys are used
+        advance(Duration.ofSeconds(2));
+        for (long key = 100; key < 300; key++) {
+            limiter.acquire(key);
+        }
+        assertTrue(limiter.size() <= 200, () -> "size " + limiter.size());
+        for (long key = 0; key < 100; key++) {
+            assertTrue(limiter.acquire(key).isAllowed());
+        }
+    }
+
+    @Test
+    void acquire_BucketsBounded() throws Exception {
+        final RateLimiter limiter = limiter(1, Duration.ofHours(1), 1024);
+        for (long key = 0; key < 500_000; key++) {
+            limiter.acquire(key);
+        }
+        assertTrue(limiter.size() <= 1024, () -> "size " + limiter.size());
+    }
+
+    @Test
+    void create_InvalidPolicy() {
+        assertThrows(AlyxException.class, () -> limiter(0, Duration.ofSeconds(1), 1024));
+        assertThrows(AlyxException.class, () -> limiter(1, Duration.ZERO, 1024));
+    }
+}
@@ -0,0 +1,133 @@
+package gg.sep.alyx.plugin.commands.parsers.discord;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link UserParameterParser}.
+ */
+public class UserParameterParserTest {
+
+    private static final long USER_ID = 123_456_789_012_345_678L;
+    private static final String MENTION = "<@!" + USER_ID + ">";
+
+    private final UserParameterParser parser = new UserParameterParser();
+    private JDA jda;
+    private Message message;
+    private MessageReceivedEvent event;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        jda = mock(JDA.class);
+        message = mock(Message.class);
+        event = mock(MessageReceivedEvent.class);
+        user = mock(User.class);
+        when(event.getJDA()).thenReturn(jda);
+        when(event.getMessage()).thenReturn(message);
+        when(user.getIdLong()).thenReturn(USER_ID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<User> retrieved() {
+        final CompletableFuture<User> future = new CompletableFuture<>();
+        final RestAction<User> action = mock(RestAction.class);
+        when(action.submit()).thenReturn(future);
+        when(jda.retrieveUserById(USER_ID)).thenReturn(action);
+        return future;
+    }
+
+    private static ErrorResponseException errorResponse(final ErrorResponse response) {
+        final ErrorResponseException exception = mock(ErrorResponseException.class);
+        when(exception.getErrorResponse()).thenReturn(response);
+        return exception;
+    }
+
+    @Test
+    void parseAsync_CachedUser() {
+        when(jda.getUserById(USER_ID)).thenReturn(user);
+
+        final CompletableFuture<User> parsed = parser.parseAsync(MENTION, event).toCompletableFuture();
+        assertTrue(parsed.isDone());
+        assertSame(user, parsed.join());
+        verify(jda, never()).retrieveUserById(anyLong());
+    }
+
+    @Test
+    void parseAsync_MentionedUser() {
+        when(message.getMentionedUsers()).thenReturn(List.of(user));
+
+        final CompletableFuture<User> parsed = parser.parseAsync(MENTION, event).toCompletableFuture();
+        assertTrue(parsed.isDone());
+        assertSame(user, parsed.join());
+        verify(jda, never()).retrieveUserById(anyLong());
+    }
+
+    @Test
+    void parseAsync_FetchedUser() {
+        when(message.getMentionedUsers()).thenReturn(List.of());
+        final CompletableFuture<User> retrieved = retrieved();
+
+        // neither cached nor mentioned, so the user is fetched
+        final CompletableFuture<User> parsed = parser.parseAsync(String.valueOf(USER_ID), event)
+            .toCompletableFuture();
+        assertFalse(parsed.isDone());
+
+        retrieved.complete(user);
+        assertSame(user, parsed.join());
+    }
+
+    @Test
+    void parseAsync_UnknownUserNull() {
+        when(message.getMentionedUsers()).thenReturn(List.of());
+        final CompletableFuture<User> retrieved = retrieved();
+
+        final CompletableFuture<User> parsed = parser.parseAsync(MENTION, event).toCompletableFuture();
+        retrieved.completeExceptionally(errorResponse(ErrorResponse.UNKNOWN_USER));
+        assertNull(parsed.join());
+    }
+
+    @Test
+    void parseAsync_ServerErrorPropagated() {
+        when(message.getMentionedUsers()).thenReturn(List.of());
+        final CompletableFuture<User> retrieved = retrieved();
+
+        final CompletableFuture<User> parsed = parser.parseAsync(MENTION, event).toCompletableFuture();
+        final ErrorResponseException failure = errorResponse(ErrorResponse.SERVER_ERROR);
+        retrieved.completeExceptionally(failure);
+        assertSame(failure, assertThrows(CompletionException.class, parsed::join).getCause());
+    }
+
+    @Test
+    void parseAsync_OtherFailuresPropagated() {
+        when(message.getMentionedUsers()).thenReturn(List.of());
+        final CompletableFuture<User> retrieved = retrieved();
+
+        final CompletableFuture<User> parsed = parser.parseAsync(MENTION, event).toCompletableFuture();
+        final IllegalStateException failure = new IllegalStateException("closed");
+        retrieved.completeExceptionally(failure);
+        assertSame(failure, assertThrows(CompletionException.class, parsed::join).getCause());
+    }
+}
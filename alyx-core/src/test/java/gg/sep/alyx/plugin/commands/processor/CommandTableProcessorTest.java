@@ -0,0 +1,124 @@
+package gg.sep.alyx.plugin.commands.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import net.dv8tion.jda.api.Permission;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gg.sep.alyx.plugin.commands.CommandDefinition;
+import gg.sep.alyx.plugin.commands.CommandLoader;
+import gg.sep.alyx.plugin.commands.CommandTable;
+import gg.sep.alyx.plugin.commands.PermissionLevel;
+
+/**
+ * Tests for {@link CommandTableProcessor}.
+ */
+public class CommandTableProcessorTest {
+
+    private static final String SAMPLE_PLUGIN = String.join("\n",
+        "package sample;",
+        "import gg.sep.alyx.plugin.commands.Command;",
+        "import gg.sep.alyx.plugin.commands.PermissionLevel;",
+        "import net.dv8tion.jda.api.Permission;",
+        "public class SamplePlugin {",
+        "    public String received;",
+        "    @Command(name = \"echo\", aliases = {\"say\"})",
+        "    void echo(final String message, final int times) { received = message.repeat(times); }",
+        "    @Command(name = \"shutdown\", level = PermissionLevel.BOT_ADMIN)",
+        "    @Command(name = \"now\", permissions = Permission.ADMINISTRATOR, roles = \"admin\", guildOnly = true)",
+        "    public void shutdownNow() { received = \"shutdown\"; }",
+        "}");
+
+    private static final String PRIVATE_PLUGIN = String.join("\n",
+        "package sample;",
+        "import gg.sep.alyx.plugin.commands.Command;",
+        "public class PrivatePlugin {",
+        "    @Command(name = \"hidden\")",
+        "    private void hidden() { }",
+        "}");
+
+    private static DiagnosticCollector<JavaFileObject> compile(final Path dir, final String name,
+                                                               final String source) throws IOException {
+        final Path sourceFile = dir.resolve("src").resolve(name + ".java");
+        final Path classes = Files.createDirectories(dir.resolve("classes"));
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source);
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                List.of("-classpath", System.getProperty("java.class.path"), "-d", classes.toString()),
+                null, fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(List.of(new CommandTableProcessor()));
+            assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+        }
+        return diagnostics;
+    }
+
+    private static URLClassLoader classLoader(final Path dir) throws IOException {
+        return new URLClassLoader(new URL[]{dir.resolve("classes").toUri().toURL()},
+            CommandTableProcessorTest.class.getClassLoader());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void process_GeneratesTable(@TempDir final Path tempDir) throws Throwable {
+        compile(tempDir, "SamplePlugin", SAMPLE_PLUGIN);
+
+        try (URLClassLoader loader = classLoader(tempDir)) {
+            final Class<?> pluginClass = loader.loadClass("sample.SamplePlugin");
+            final Optional<CommandTable<?>> table = CommandLoader.findTable(pluginClass);
+            assertTrue(table.isPresent());
+
+            final List<CommandDefinition<Object>> commands = ((CommandTable<Object>) table.get()).getCommands();
+            assertEquals(2, commands.size());
+
+            final CommandDefinition<Object> echo = commands.get(0);
+            assertEquals("echo", echo.getName());
+            assertEquals(List.of(List.of("echo", "say")), echo.getCommandChain());
+            assertEquals(List.of(String.class, int.class), echo.getParameterTypes());
+            assertEquals(PermissionLevel.EVERYONE, echo.getPermissionLevel());
+            assertFalse(echo.isGuildOnly());
+
+            final CommandDefinition<Object> shutdown = commands.get(1);
+            assertEquals("shutdown now", shutdown.getName());
+            assertEquals(List.of(List.of("shutdown"), List.of("now")), shutdown.getCommandChain());
+            assertEquals(List.of(Permission.ADMINISTRATOR), shutdown.getRequiredPermissions());
+            assertEquals(List.of("admin"), shutdown.getRequiredRoles());
+            assertEquals(PermissionLevel.EVERYONE, shutdown.getPermissionLevel());
+            assertTrue(shutdown.isGuildOnly());
+
+            final Object plugin = pluginClass.getDeclaredConstructor().newInstance();
+            echo.getStub().invoke(plugin, new Object[]{"ab", 2});
+            assertEquals("abab", pluginClass.getField("received").get(plugin));
+        }
+    }
+
+    @Test
+    void process_PrivateMethodSkipped(@TempDir final Path tempDir) throws Exception {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(tempDir, "PrivatePlugin", PRIVATE_PLUGIN);
+        assertTrue(diagnostics.getDiagnostics().stream()
+            .anyMatch(diagnostic -> diagnostic.getMessage(null).contains("'hidden' is private")));
+
+        try (URLClassLoader loader = classLoader(tempDir)) {
+            assertEquals(Optional.empty(), CommandLoader.findTable(loader.loadClass("sample.PrivatePlugin")));
+        }
+    }
+}
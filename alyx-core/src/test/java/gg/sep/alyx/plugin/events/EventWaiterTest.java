@@ -0,0 +1,181 @@
+package gg.sep.alyx.plugin.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import net.dv8tion.jda.api.events.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link EventWaiter}.
+ */
+public class EventWaiterTest {
+
+    private static final Duration LONG_TIMEOUT = Duration.ofMinutes(5);
+    private static final int THREAD_SLACK = 4;
+
+    private static final EventKey<TestEvent> BY_ID = EventKey.of(TestEvent.class, e -> e.id);
+
+    private EventWaiter waiter;
+
+    /**
+     * Minimal event which is never attached to a JDA instance.
+     */
+    private static final class TestEvent extends Event {
+        private final int id;
+
+        private TestEvent(final int id) {
+            super(null, 0);
+            this.id = id;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        waiter = new EventWaiter("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        waiter.shutdown(5, TimeUnit.SECONDS).join();
+    }
+
+    private CompletableFuture<Integer> waitFor(final int id, final Duration timeout) {
+        return waiter.waitForEvent(TestEvent.class, e -> e.id == id, e -> e.id, timeout);
+    }
+
+    @Test
+    void waitForEvent_CompletedByMatchingEvent() {
+        final CompletableFuture<Integer> future = waitFor(1, LONG_TIMEOUT);
+
+        waiter.onEvent(new TestEvent(2));
+        assertFalse(future.isDone());
+
+        waiter.onEvent(new TestEvent(1));
+        assertTrue(future.isDone());
+        assertEquals(1, future.join());
+        assertEquals(0, waiter.getPendingCount());
+    }
+
+    private CompletableFuture<Integer> waitForKey(final int id, final Duration timeout) {
+        return waiter.waitForEvent(BY_ID, id, e -> true, e -> e.id, timeout);
+    }
+
+    @Test
+    void waitForEvent_KeyedCompletedByMatchingKey() {
+        final CompletableFuture<Integer> first = waitForKey(1, LONG_TIMEOUT);
+        final CompletableFuture<Integer> second = waitForKey(2, LONG_TIMEOUT);
+        final CompletableFuture<Integer> unkeyed = waitFor(2, LONG_TIMEOUT);
+
+        waiter.onEvent(new TestEvent(2));
+        assertFalse(first.isDone());
+        assertEquals(2, second.getNow(null));
+        assertEquals(2, unkeyed.getNow(null));
+        assertEquals(1, waiter.getPendingCount());
+
+        waiter.onEvent(new TestEvent(1));
+        assertEquals(1, first.getNow(null));
+        assertEquals(0, waiter.getPendingCount());
+    }
+
+    @Test
+    void waitForEvent_KeyedConditionChecked() {
+        final CompletableFuture<Integer> future = waiter.waitForEvent(BY_ID, 1, e -> false, e -> e.id, LONG_TIMEOUT);
+
+        waiter.onEvent(new TestEvent(1));
+        assertFalse(future.isDone());
+        assertEquals(1, waiter.getPendingCount());
+    }
+
+    @Test
+    void waitForEvent_KeyedTimeoutCompletesWithNull() {
+        final CompletableFuture<Integer> future = waitForKey(1, Duration.ofMillis(10));
+
+        assertNull(future.orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(0, waiter.getPendingCount());
+    }
+
+    @Test
+    void waitForEvent_TimeoutCompletesWithNull() {
+        final CompletableFuture<Integer> future = waitFor(1, Duration.ofMillis(10));
+
+        assertNull(future.orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(0, waiter.getPendingCount());
+    }
+
+    @Test
+    void waitForEvent_FailingConditionCompletesExceptionally() {
+        final CompletableFuture<Object> future = waiter.waitForEvent(TestEvent.class, e -> {
+            throw new IllegalStateException("failed");
+        }, e -> e, LONG_TIMEOUT);
+
+        waiter.onEvent(new TestEvent(1));
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, waiter.getPendingCount());
+    }
+
+    @Test
+    void shutdown_CompletesPendingWaits() {
+        final CompletableFuture<Integer> future = waitFor(1, LONG_TIMEOUT);
+        final CompletableFuture<Integer> keyed = waitForKey(1, LONG_TIMEOUT);
+
+        assertTrue(waiter.shutdown(5, TimeUnit.SECONDS).join());
+        assertNull(future.getNow(-1));
+        assertNull(keyed.getNow(-1));
+        assertEquals(0, waiter.getPendingCount());
+        assertThrows(RejectedExecutionException.class, () -> waitFor(2, LONG_TIMEOUT));
+    }
+
+    @Test
+    void waitForEvent_ManyConcurrentKeyedWaits() {
+        final int waits = 10_000;
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>(waits);
+        for (int i = 0; i < waits; i++) {
+            futures.add(waitForKey(i, LONG_TIMEOUT));
+        }
+        assertEquals(waits, waiter.getPendingCount());
+
+        for (int i = waits - 1; i >= 0; i--) {
+            waiter.onEvent(new TestEvent(i));
+            assertEquals(i, futures.get(i).getNow(null));
+        }
+        assertEquals(0, waiter.getPendingCount());
+    }
+
+    @Test
+    void waitForEvent_ManyConcurrentWaitsUseNoThreads() {
+        final int waits = 10_000;
+        // start the scheduler thread before taking the baseline
+        waitFor(-1, LONG_TIMEOUT);
+        final int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>(waits);
+        for (int i = 0; i < waits; i++) {
+            futures.add(waitFor(i, LONG_TIMEOUT));
+        }
+        assertEquals(waits + 1, waiter.getPendingCount());
+        // allow for unrelated JVM threads (eg, JIT compiler threads) starting during the test
+        assertTrue(ManagementFactory.getThreadMXBean().getThreadCount() <= threadsBefore + THREAD_SLACK);
+
+        for (int i = 0; i < waits; i++) {
+            waiter.onEvent(new TestEvent(i));
+        }
+        for (int i = 0; i < waits; i++) {
+            assertEquals(i, futures.get(i).getNow(null));
+        }
+        assertEquals(1, waiter.getPendingCount());
+    }
+}
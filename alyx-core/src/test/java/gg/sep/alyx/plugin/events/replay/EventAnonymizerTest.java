@@ -0,0 +1,39 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link EventAnonymizer}.
+ */
+public class EventAnonymizerTest {
+
+    private final EventAnonymizer anonymizer = new EventAnonymizer(42);
+
+    @Test
+    void id_SameIdsStaySame() {
+        final long id = 481_539_443_170_344_961L;
+        assertEquals(anonymizer.id(id), anonymizer.id(id));
+        assertNotEquals(anonymizer.id(id), anonymizer.id(id + 1));
+        assertNotEquals(id, anonymizer.id(id));
+        assertEquals(0, anonymizer.id(0));
+
+        final int digits = Long.toString(anonymizer.id(id)).length();
+        assertTrue(digits == 17 || digits == 18);
+    }
+
+    @Test
+    void content_KeepsCommandsAndShape() {
+        final long id = 481_539_443_170_344_961L;
+        assertEquals("!config set xxx \"xxxxx xxx\" 11",
+            anonymizer.content("!config set key \"Hello you\" 42", "!", Set.of("config", "set")));
+        assertEquals("!roll <@!" + anonymizer.id(id) + ">",
+            anonymizer.content("!roll <@!" + id + ">", "!", Set.of("roll")));
+        assertEquals("xxxxxx, xxx!", anonymizer.content("config, set!", "!", Set.of("config", "set")));
+    }
+}
@@ -0,0 +1,37 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link GatewayReplayer}.
+ */
+public class GatewayReplayerTest {
+
+    @Test
+    void replay_OffsetsGoingBackwardsCarryOn() throws Exception {
+        // two recordings joined together, the second starting again from zero
+        final List<RecordedEvent> recording = List.of(
+            RecordedEvent.message(5_000_000, 0, 11, 12, 13, "!ping"),
+            RecordedEvent.message(25_000_000, 0, 11, 12, 14, "!ping"),
+            RecordedEvent.message(0, 0, 21, 22, 23, "!ping"),
+            RecordedEvent.message(10_000_000, 0, 21, 22, 24, "!ping"));
+
+        final List<GenericEvent> delivered = new ArrayList<>();
+        final EventListener listener = delivered::add;
+        final GatewayReplayer replayer = new GatewayReplayer(List.of(listener),
+            recorded -> mock(GenericEvent.class), GatewayReplayer.Pace.ORIGINAL, null);
+        final ReplayResult result = replayer.replay(recording);
+
+        assertEquals(4, delivered.size());
+        assertEquals(Duration.ofMillis(30), result.getRecorded());
+    }
+}
@@ -0,0 +1,37 @@
+package gg.sep.alyx.plugin.events.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gg.sep.alyx.plugin.storage.RecordLog;
+
+/**
+ * Tests for {@link RecordedEvent}.
+ */
+public class RecordedEventTest {
+
+    @Test
+    void read_ReturnsEventsOfEveryChunkInOrder(@TempDir final Path tempDir) throws Exception {
+        final List<RecordedEvent> first = List.of(
+            RecordedEvent.message(0, 0, 11, 12, 13, "!ping"),
+            RecordedEvent.message(1_500_000, 21, 22, 23, 24, "héllo \"quoted words\""));
+        final List<RecordedEvent> second = List.of(
+            RecordedEvent.reaction(2_000_000_000L, 21, 22, 25, 24, "✅"));
+
+        final Path path = tempDir.resolve("recording.log");
+        try (RecordLog log = RecordLog.open(path)) {
+            log.append(RecordedEvent.encode(first));
+            log.append(RecordedEvent.encode(second));
+        }
+
+        final List<RecordedEvent> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected, RecordedEvent.read(path));
+    }
+}
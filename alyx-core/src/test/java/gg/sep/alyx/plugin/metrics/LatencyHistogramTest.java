@@ -0,0 +1,73 @@
+package gg.sep.alyx.plugin.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    void bucketIndex_BucketsAreContiguous() {
+        for (int index = 1; LatencyHistogram.highestValue(index - 1) < LatencyHistogram.MAX_VALUE; index++) {
+            final long lowest = LatencyHistogram.highestValue(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.bucketIndex(lowest));
+            assertEquals(index, LatencyHistogram.bucketIndex(LatencyHistogram.highestValue(index)));
+        }
+    }
+
+    @Test
+    void bucketIndex_WithinOneSixteenth() {
+        for (long value = 1; value < LatencyHistogram.MAX_VALUE; value = value * 3 + 1) {
+            final long highest = LatencyHistogram.highestValue(LatencyHistogram.bucketIndex(value));
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / 16, "value=" + value + ", highest=" + highest);
+        }
+    }
+
+    @Test
+    void snapshot_CountsAndSums() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value * 1_000_000L);
+        }
+        histogram.record(-5);
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(101, snapshot.getCount());
+        assertEquals(5050 * 1_000_000L, snapshot.getSum());
+        assertEquals(1, snapshot.getCountAtOrBelow(0));
+        assertEquals(11, snapshot.getCountAtOrBelow(10_000_000L));
+        assertEquals(101, snapshot.getCountAtOrBelow(Long.MAX_VALUE));
+    }
+
+    @Test
+    void snapshot_Percentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(50));
+
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1_000L);
+        }
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertWithin(500_000L, snapshot.getValueAtPercentile(50));
+        assertWithin(990_000L, snapshot.getValueAtPercentile(99));
+        assertWithin(1_000_000L, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    void record_ClampsLargeValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.snapshot().getSum());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.snapshot().getValueAtPercentile(100));
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 16,
+            "expected=" + expected + ", actual=" + actual);
+    }
+}
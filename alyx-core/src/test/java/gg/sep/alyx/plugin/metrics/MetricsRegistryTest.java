@@ -0,0 +1,98 @@
+package gg.sep.alyx.plugin.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link MetricsRegistry} and {@link MetricsServer}.
+ */
+public class MetricsRegistryTest {
+
+    @Test
+    void register_ReturnsExistingFamily() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final MetricFamily<Counter> family = registry.counter("test_total", "Test.", "plugin");
+        assertSame(family, registry.counter("test_total", "Test.", "plugin"));
+        assertSame(family.labels("a"), registry.counter("test_total", "Test.", "plugin").labels("a"));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("test_total", "Test.", "command"));
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("test_total", "Test.", "plugin"));
+        assertThrows(IllegalArgumentException.class, () -> family.labels("a", "b"));
+    }
+
+    @Test
+    void register_RejectsInvalidNames() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("test-total", "Test."));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("test_total", "Test.", "a b"));
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("test_seconds", "Test.", "le"));
+    }
+
+    @Test
+    void scrape_PrometheusTextFormat() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("test_errors_total", "Errors.", "plugin").labels("quote\"d").add(3);
+        registry.gauge("test_depth", "Depth.", () -> 2);
+        registry.gauge("test_unavailable", "Unavailable.", () -> {
+            throw new IllegalStateException();
+        });
+        final LatencyHistogram histogram = registry.histogram("test_seconds", "Latency.\nSecond line.", "plugin")
+            .labels("a");
+        histogram.record(2_000_000L);
+        histogram.record(2_000_000_000L);
+
+        final String scrape = registry.scrape();
+        assertTrue(scrape.contains("# HELP test_errors_total Errors.\n# TYPE test_errors_total counter\n"
+            + "test_errors_total{plugin=\"quote\\\"d\"} 3\n"), scrape);
+        assertTrue(scrape.contains("# TYPE test_depth gauge\ntest_depth 2.0\n"), scrape);
+        assertTrue(scrape.contains("test_unavailable NaN\n"), scrape);
+        assertTrue(scrape.contains("# HELP test_seconds Latency.\\nSecond line.\n# TYPE test_seconds histogram\n"),
+            scrape);
+        assertTrue(scrape.contains("test_seconds_bucket{plugin=\"a\",le=\"0.001\"} 0\n"), scrape);
+        assertTrue(scrape.contains("test_seconds_bucket{plugin=\"a\",le=\"0.0025\"} 1\n"), scrape);
+        assertTrue(scrape.contains("test_seconds_bucket{plugin=\"a\",le=\"2.5\"} 2\n"), scrape);
+        assertTrue(scrape.contains("test_seconds_bucket{plugin=\"a\",le=\"+Inf\"} 2\n"), scrape);
+        assertTrue(scrape.contains("test_seconds_sum{plugin=\"a\"} 2.002\n"), scrape);
+        assertTrue(scrape.contains("test_seconds_count{plugin=\"a\"} 2\n"), scrape);
+
+        // families are ordered by name
+        assertTrue(scrape.indexOf("test_depth") < scrape.indexOf("test_errors_total"));
+    }
+
+    @Test
+    void server_ServesMetrics() throws IOException {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("test_depth", "Depth.", () -> 2);
+        final MetricsServer server = new MetricsServer("test", registry,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        try {
+            final URL url = new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(),
+                MetricsServer.PATH);
+            final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+            try (InputStream in = connection.getInputStream()) {
+                assertEquals(registry.scrape(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            final HttpURLConnection post = (HttpURLConnection) url.openConnection();
+            post.setRequestMethod("POST");
+            assertEquals(405, post.getResponseCode());
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package gg.sep.alyx.plugin.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link JsonStorageEngine}.
+ */
+public class JsonStorageEngineTest {
+
+    private static final String PLUGIN_ID = "1.TestPlugin";
+
+    /**
+     * Plugin data used by the tests.
+     */
+    private static final class TestData extends AbstractJsonObject {
+        private int counter;
+        private String padding;
+    }
+
+    private static Path pluginDir(final Path dataDir) {
+        return dataDir.resolve("plugins").resolve(PLUGIN_ID);
+    }
+
+    private static TestData data(final int counter) {
+        final TestData data = new TestData();
+        data.counter = counter;
+        return data;
+    }
+
+    @Test
+    void writePluginData_ReplayedFromJournal(@TempDir final Path tempDir) throws Exception {
+        final JsonStorageEngine engine = new JsonStorageEngine();
+        engine.writePluginData(PLUGIN_ID, tempDir, data(1));
+        engine.writePluginData(PLUGIN_ID, tempDir, data(2));
+
+        // not yet checkpointed, so only the journal has the data
+        assertFalse(Files.exists(pluginDir(tempDir).resolve(JsonStorageEngine.DATA_FILE_NAME)));
+
+        final TestData loaded = new JsonStorageEngine().loadPluginData(PLUGIN_ID, tempDir, TestData.class)
+            .orElseThrow();
+        assertEquals(2, loaded.counter);
+    }
+
+    @Test
+    void writePluginData_JournalsOnlyChanges(@TempDir final Path tempDir) throws Exception {
+        final Path journal = pluginDir(tempDir).resolve(JsonStorageEngine.JOURNAL_FILE_NAME);
+        final TestData data = data(1);
+        data.padding = "x".repeat(100_000);
+
+        final JsonStorageEngine engine = new JsonStorageEngine();
+        engine.writePluginData(PLUGIN_ID, tempDir, data);
+        final long initialSize = Files.size(journal);
+
+        data.counter = 2;
+        engine.writePluginData(PLUGIN_ID, tempDir, data);
+        final long changeSize = Files.size(journal) - initialSize;
+        assertTrue(changeSize < 100, "Journaled " + changeSize + " bytes for a single change");
+
+        final TestData loaded = new JsonStorageEngine().loadPluginData(PLUGIN_ID, tempDir, TestData.class)
+            .orElseThrow();
+        assertEquals(2, loaded.counter);
+        assertEquals(data.padding, loaded.padding);
+    }
+
+    @Test
+    void flush_WritesJsonAndClearsJournal(@TempDir final Path tempDir) throws Exception {
+        final JsonStorageEngine engine = new JsonStorageEngine();
+        engine.writePluginData(PLUGIN_ID, tempDir, data(3));
+        engine.flush();
+
+        assertTrue(Files.exists(pluginDir(tempDir).resolve(JsonStorageEngine.DATA_FILE_NAME)));
+        assertEquals(0, Files.size(pluginDir(tempDir).resolve(JsonStorageEngine.JOURNAL_FILE_NAME)));
+
+        final TestData loaded = new JsonStorageEngine().loadPluginData(PLUGIN_ID, tempDir, TestData.class)
+            .orElseThrow();
+        assertEquals(3, loaded.counter);
+    }
+
+    @Test
+    void flush_CompactOutput(@TempDir final Path tempDir) throws Exception {
+        final JsonStorageEngine engine = new JsonStorageEngine(false);
+        engine.writePluginData(PLUGIN_ID, tempDir, data(5));
+        engine.flush();
+
+        assertEquals("{\"counter\":5}", Files.readString(pluginDir(tempDir).resolve(JsonStorageEngine.DATA_FILE_NAME)));
+    }
+
+    @Test
+    void writePluginData_LargeDataWrittenDirectly(@TempDir final Path tempDir) throws Exception {
+        final TestData large = data(6);
+        large.padding = "x".repeat(JsonStorageEngine.JOURNAL_RECORD_LIMIT);
+
+        final JsonStorageEngine engine = new JsonStorageEngine();
+        engine.writePluginData(PLUGIN_ID, tempDir, large);
+
+        // the first write only finds out the data is too large while serializing it
+        assertEquals(0, Files.size(pluginDir(tempDir).resolve(JsonStorageEngine.JOURNAL_FILE_NAME)));
+        assertTrue(Files.exists(pluginDir(tempDir).resolve(JsonStorageEngine.DATA_FILE_NAME)));
+
+        large.counter = 7;
+        engine.writePluginData(PLUGIN_ID, tempDir, large);
+        assertEquals(0, Files.size(pluginDir(tempDir).resolve(JsonStorageEngine.JOURNAL_FILE_NAME)));
+        final TestData loaded = new JsonStorageEngine().loadPluginData(PLUGIN_ID, tempDir, TestData.class)
+            .orElseThrow();
+        assertEquals(7, loaded.counter);
+    }
+
+    @Test
+    void loadPluginData_CorruptFileMovedAside(@TempDir final Path tempDir) throws Exception {
+        Files.createDirectories(pluginDir(tempDir));
+        Files.writeString(pluginDir(tempDir).resolve(JsonStorageEngine.DATA_FILE_NAME), "{\"counter\": 4");
+
+        final JsonStorageEngine engine = new JsonStorageEngine();
+        assertEquals(Optional.empty(), engine.loadPluginData(PLUGIN_ID, tempDir, TestData.class));
+        assertFalse(Files.exists(pluginDir(tempDir).resolve(JsonStorageEngine.DATA_FILE_NAME)));
+        assertEquals(1, countCorruptFiles(pluginDir(tempDir)));
+    }
+
+    private static long countCorruptFiles(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().contains(".corrupt-")).count();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package gg.sep.alyx.plugin.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gg.sep.alyx.plugin.NoOpPluginData;
+
+/**
+ * Tests for {@link LogStorageEngine}.
+ */
+public class LogStorageEngineTest {
+
+    private static final String PLUGIN_ID = "1.TestPlugin";
+
+    /**
+     * Plugin data used by the tests.
+     */
+    private static final class TestData extends AbstractJsonObject {
+        private int counter;
+        private Map<String, String> values = new HashMap<>();
+    }
+
+    private static Path logPath(final Path dataDir) {
+        return dataDir.resolve("plugins").resolve(PLUGIN_ID).resolve(LogStorageEngine.LOG_FILE_NAME);
+    }
+
+    @Test
+    void loadPluginData_NoData(@TempDir final Path tempDir) {
+        final LogStorageEngine engine = new LogStorageEngine();
+        assertEquals(Optional.empty(), engine.loadPluginData(PLUGIN_ID, tempDir, TestData.class));
+        assertEquals(Optional.empty(), engine.loadPluginData(PLUGIN_ID, tempDir, NoOpPluginData.class));
+    }
+
+    @Test
+    void writePluginData_ReplayedByNewEngine(@TempDir final Path tempDir) {
+        final LogStorageEngine engine = new LogStorageEngine();
+        final TestData data = new TestData();
+        data.counter = 1;
+        data.values.put("removed", "a");
+        engine.writePluginData(PLUGIN_ID, tempDir, data);
+
+        data.counter = 2;
+        data.values.remove("removed");
+        data.values.put("added", "b");
+        engine.writePluginData(PLUGIN_ID, tempDir, data);
+
+        final TestData loaded = new LogStorageEngine().loadPluginData(PLUGIN_ID, tempDir, TestData.class)
+            .orElseThrow();
+        assertEquals(2, loaded.counter);
+        assertEquals(Map.of("added", "b"), loaded.values);
+    }
+
+    @Test
+    void writePluginData_OnlyAppendsChanges(@TempDir final Path tempDir) throws Exception {
+        final LogStorageEngine engine = new LogStorageEngine();
+        final TestData data = new TestData();
+        for (int i = 0; i < 1000; i++) {
+            data.values.put("key" + i, "some value which takes up space " + i);
+        }
+        engine.writePluginData(PLUGIN_ID, tempDir, data);
+        final long initialSize = Files.size(logPath(tempDir));
+
+        data.values.put("key500", "changed");
+        engine.writePluginData(PLUGIN_ID, tempDir, data);
+        final long changeSize = Files.size(logPath(tempDir)) - initialSize;
+        assertTrue(changeSize < 100, "Appended " + changeSize + " bytes for a single change");
+
+        // unchanged data is not written at all
+        engine.writePluginData(PLUGIN_ID, tempDir, data);
+        assertEquals(initialSize + changeSize, Files.size(logPath(tempDir)));
+    }
+
+    @Test
+    void loadPluginData_MigratesJson(@TempDir final Path tempDir) throws Exception {
+        final Path pluginDir = tempDir.resolve("plugins").resolve(PLUGIN_ID);
+        Files.createDirectories(pluginDir);
+        Files.writeString(pluginDir.resolve(JsonStorageEngine.DATA_FILE_NAME),
+            "{\"counter\": 5, \"values\": {\"key\": \"value\"}}");
+
+        final TestData loaded = new LogStorageEngine().loadPluginData(PLUGIN_ID, tempDir, TestData.class)
+            .orElseThrow();
+        assertEquals(5, loaded.counter);
+        assertEquals(Map.of("key", "value"), loaded.values);
+
+        assertFalse(Files.exists(pluginDir.resolve(JsonStorageEngine.DATA_FILE_NAME)));
+        assertTrue(Files.exists(pluginDir.resolve(
+            JsonStorageEngine.DATA_FILE_NAME + LogStorageEngine.MIGRATED_SUFFIX)));
+        assertTrue(Files.exists(logPath(tempDir)));
+    }
+
+    @Test
+    void loadPluginData_UnparseableJsonMovedAside(@TempDir final Path tempDir) throws Exception {
+        final Path pluginDir = tempDir.resolve("plugins").resolve(PLUGIN_ID);
+        Files.createDirectories(pluginDir);
+        Files.writeString(pluginDir.resolve(JsonStorageEngine.DATA_FILE_NAME), "{not json");
+
+        assertEquals(Optional.empty(), new LogStorageEngine().loadPluginData(PLUGIN_ID, tempDir, TestData.class));
+
+        assertFalse(Files.exists(pluginDir.resolve(JsonStorageEngine.DATA_FILE_NAME)));
+        try (Stream<Path> files = Files.list(pluginDir)) {
+            assertTrue(files.anyMatch(file -> file.getFileName().toString()
+                .startsWith(JsonStorageEngine.DATA_FILE_NAME + ".corrupt-")));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package gg.sep.alyx.plugin.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link RecordLog}.
+ */
+public class RecordLogTest {
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void append_ReadRecords(@TempDir final Path tempDir) throws Exception {
+        final Path path = tempDir.resolve("nested").resolve("records.log");
+        try (RecordLog log = RecordLog.open(path)) {
+            log.append(bytes("one"));
+            log.append(bytes(""));
+            log.append(bytes("three"));
+        }
+
+        final List<byte[]> records = RecordLog.readRecords(path);
+        assertEquals(3, records.size());
+        assertArrayEquals(bytes("one"), records.get(0));
+        assertArrayEquals(bytes(""), records.get(1));
+        assertArrayEquals(bytes("three"), records.get(2));
+    }
+
+    @Test
+    void readRecords_MissingFile(@TempDir final Path tempDir) throws Exception {
+        assertTrue(RecordLog.readRecords(tempDir.resolve("missing.log")).isEmpty());
+    }
+
+    @Test
+    void open_DiscardsIncompleteRecord(@TempDir final Path tempDir) throws Exception {
+        final Path path = tempDir.resolve("records.log");
+        try (RecordLog log = RecordLog.open(path)) {
+            log.append(bytes("one"));
+        }
+        final long validSize = Files.size(path);
+
+        // a record header claiming more bytes than were written
+        Files.write(path, new byte[]{0, 0, 0, 10, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+        assertEquals(1, RecordLog.readRecords(path).size());
+
+        try (RecordLog log = RecordLog.open(path)) {
+            assertEquals(validSize, log.size());
+            log.append(bytes("two"));
+        }
+        final List<byte[]> records = RecordLog.readRecords(path);
+        assertEquals(2, records.size());
+        assertArrayEquals(bytes("two"), records.get(1));
+    }
+
+    @Test
+    void readRecords_StopsAtCorruptRecord(@TempDir final Path tempDir) throws Exception {
+        final Path path = tempDir.resolve("records.log");
+        try (RecordLog log = RecordLog.open(path)) {
+            log.append(bytes("one"));
+            log.append(bytes("two"));
+        }
+
+        // flip a byte in the second record's payload
+        final byte[] contents = Files.readAllBytes(path);
+        contents[contents.length - 1] ^= 1;
+        Files.write(path, contents);
+
+        final List<byte[]> records = RecordLog.readRecords(path);
+        assertEquals(1, records.size());
+        assertArrayEquals(bytes("one"), records.get(0));
+    }
+
+    @Test
+    void rewrite_ReplacesRecords(@TempDir final Path tempDir) throws Exception {
+        final Path path = tempDir.resolve("records.log");
+        try (RecordLog log = RecordLog.open(path)) {
+            log.append(bytes("one"));
+            log.append(bytes("two"));
+        }
+
+        RecordLog.rewrite(path, List.of(bytes("snapshot")));
+
+        final List<byte[]> records = RecordLog.readRecords(path);
+        assertEquals(1, records.size());
+        assertArrayEquals(bytes("snapshot"), records.get(0));
+    }
+}
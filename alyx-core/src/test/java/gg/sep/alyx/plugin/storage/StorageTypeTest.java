@@ -1,6 +1,7 @@
 package gg.sep.alyx.plugin.storage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -15,4 +16,11 @@ public class StorageTypeTest {
             assertEquals(storageType.getValue(), storageType.toString());
         }
     }
+
+    @Test
+    void createEngine_MatchesType() {
+        assertTrue(StorageType.JSON.createEngine() instanceof JsonStorageEngine);
+        assertTrue(StorageType.JSON_COMPACT.createEngine() instanceof JsonStorageEngine);
+        assertTrue(StorageType.LOG.createEngine() instanceof LogStorageEngine);
+    }
 }
@@ -0,0 +1,96 @@
+package gg.sep.alyx.plugin.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link WriteBehindStorageEngine}.
+ */
+public class WriteBehindStorageEngineTest {
+
+    private static final Path DATA_DIR = Path.of("data");
+
+    /**
+     * Plugin data used by the tests.
+     */
+    private static final class TestData extends AbstractJsonObject {
+    }
+
+    @Test
+    void writePluginData_CoalescedWithinDelay() {
+        final AlyxStorageEngine delegate = mock(AlyxStorageEngine.class);
+        final WriteBehindStorageEngine engine = new WriteBehindStorageEngine("test", delegate, Duration.ofHours(1));
+        final TestData first = new TestData();
+        final TestData last = new TestData();
+
+        engine.writePluginData("a", DATA_DIR, first);
+        engine.writePluginData("a", DATA_DIR, last);
+        engine.writePluginData("b", DATA_DIR, first);
+        verify(delegate, never()).writePluginData(any(), any(), any());
+        assertEquals(2, engine.getPendingWrites());
+
+        engine.flush();
+        verify(delegate).writePluginData("a", DATA_DIR, last);
+        verify(delegate).writePluginData("b", DATA_DIR, first);
+        verify(delegate, never()).writePluginData("a", DATA_DIR, first);
+        verify(delegate).flush();
+
+        assertEquals(3, engine.getWritesRequested());
+        assertEquals(2, engine.getWritesPerformed());
+        assertEquals(0, engine.getPendingWrites());
+    }
+
+    @Test
+    void writePluginData_WrittenInBackground() {
+        final AlyxStorageEngine delegate = mock(AlyxStorageEngine.class);
+        final WriteBehindStorageEngine engine = new WriteBehindStorageEngine("test", delegate, Duration.ofMillis(10));
+        final TestData data = new TestData();
+
+        engine.writePluginData("a", DATA_DIR, data);
+        verify(delegate, timeout(5000)).writePluginData("a", DATA_DIR, data);
+    }
+
+    @Test
+    void loadPluginData_FlushesPendingWrite() {
+        final AlyxStorageEngine delegate = mock(AlyxStorageEngine.class);
+        final WriteBehindStorageEngine engine = new WriteBehindStorageEngine("test", delegate, Duration.ofHours(1));
+        final TestData data = new TestData();
+
+        engine.writePluginData("a", DATA_DIR, data);
+        engine.writePluginData("b", DATA_DIR, data);
+        engine.loadPluginData("a", DATA_DIR, TestData.class);
+
+        verify(delegate).writePluginData("a", DATA_DIR, data);
+        verify(delegate, never()).writePluginData(eq("b"), any(), any());
+        verify(delegate, times(1)).loadPluginData("a", DATA_DIR, TestData.class);
+        assertEquals(1, engine.getPendingWrites());
+    }
+
+    @Test
+    void flushPluginData_OnlyFlushesPlugin() {
+        final AlyxStorageEngine delegate = mock(AlyxStorageEngine.class);
+        final WriteBehindStorageEngine engine = new WriteBehindStorageEngine("test", delegate, Duration.ofHours(1));
+        final TestData data = new TestData();
+
+        engine.writePluginData("a", DATA_DIR, data);
+        engine.writePluginData("b", DATA_DIR, data);
+        engine.flushPluginData("a", DATA_DIR);
+
+        verify(delegate).writePluginData("a", DATA_DIR, data);
+        verify(delegate).flushPluginData("a", DATA_DIR);
+        verify(delegate, never()).writePluginData(eq("b"), any(), any());
+        verify(delegate, never()).flush();
+        assertEquals(1, engine.getPendingWrites());
+    }
+}
@@ -0,0 +1,86 @@
+package gg.sep.alyx.plugin.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import net.dv8tion.jda.api.entities.Message;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Unit tests for {@link Mention}.
+ */
+public class MentionTest {
+
+    @MethodSource("mentions")
+    @ParameterizedTest
+    void scan(final String input, final Message.MentionType type, final long id) {
+        final Mention mention = Mention.scan(input);
+        assertNotNull(mention);
+        assertEquals(type, mention.getType());
+        assertEquals(id, mention.getId());
+    }
+
+    @ValueSource(strings = {
+        "", "abc", "-1", "12a", "<>", "<@>", "<@!>", "<@&>", "<#>", "<@abc>", "<@123", "@123>", "<!123>",
+        "<@!!123>", "<:123>", "<::123>", "<:na me:123>", "<a:123>", "<b:name:123>", "<:name:>", "<:name:12a>",
+        "<#123 >", " 123", "99999999999999999999", "9223372036854775808", "<@12345678901234567890>"
+    })
+    @ParameterizedTest
+    void scan_NotAMention(final String input) {
+        assertNull(Mention.scan(input));
+    }
+
+    @Test
+    void parseSnowflake() {
+        assertEquals(0L, Mention.parseSnowflake("0"));
+        assertEquals(Long.MAX_VALUE, Mention.parseSnowflake("9223372036854775807"));
+        assertEquals(Mention.NO_ID, Mention.parseSnowflake("9223372036854775808"));
+        assertEquals(Mention.NO_ID, Mention.parseSnowflake(""));
+        assertEquals(Mention.NO_ID, Mention.parseSnowflake("+1"));
+    }
+
+    @Test
+    void refersTo() {
+        final Mention bare = Mention.scan("123");
+        assertTrue(bare.refersTo(Message.MentionType.USER));
+        assertTrue(bare.refersTo(Message.MentionType.EMOTE));
+
+        final Mention role = Mention.scan("<@&123>");
+        assertTrue(role.refersTo(Message.MentionType.ROLE));
+        assertFalse(role.refersTo(Message.MentionType.USER));
+    }
+
+    private static Stream<Arguments> mentions() {
+        final long id = 123456789012345678L;
+        return Stream.of(
+            // bare IDs
+            Arguments.arguments("123456789012345678", null, id),
+            Arguments.arguments("1", null, 1L),
+            Arguments.arguments("9223372036854775807", null, Long.MAX_VALUE),
+
+            // users
+            Arguments.arguments("<@123456789012345678>", Message.MentionType.USER, id),
+            Arguments.arguments("<@!123456789012345678>", Message.MentionType.USER, id),
+
+            // roles
+            Arguments.arguments("<@&123456789012345678>", Message.MentionType.ROLE, id),
+
+            // channels
+            Arguments.arguments("<#123456789012345678>", Message.MentionType.CHANNEL, id),
+
+            // emotes
+            Arguments.arguments("<:alyx:123456789012345678>", Message.MentionType.EMOTE, id),
+            Arguments.arguments("<a:alyx_wave2:123456789012345678>", Message.MentionType.EMOTE, id),
+            Arguments.arguments("<:a:123456789012345678>", Message.MentionType.EMOTE, id)
+        );
+    }
+}
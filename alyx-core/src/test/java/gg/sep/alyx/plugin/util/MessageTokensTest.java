@@ -0,0 +1,60 @@
+package gg.sep.alyx.plugin.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link MessageTokens}.
+ *
+ * Splitting rules are covered by {@link StringsTest}.
+ */
+public class MessageTokensTest {
+
+    @Test
+    void tokenize_KeepsSource() {
+        final String input = "plugins load \"Foo Bar\"";
+        final MessageTokens tokens = MessageTokens.tokenize(input);
+
+        assertSame(input, tokens.getSource());
+        assertEquals(3, tokens.size());
+        assertFalse(tokens.isEmpty());
+        assertTrue(MessageTokens.tokenize("  ").isEmpty());
+    }
+
+    @Test
+    void equals_ComparesWords() {
+        final MessageTokens tokens = MessageTokens.tokenize("say \"hello world\" \\\"hi\\\"");
+
+        assertTrue(tokens.equals(0, "say"));
+        assertFalse(tokens.equals(0, "sa"));
+        assertFalse(tokens.equals(0, "says"));
+        assertTrue(tokens.equals(1, "hello world"));
+        assertTrue(tokens.equals(2, "\"hi\""));
+        assertFalse(tokens.equals(2, "\\\"hi\\\""));
+    }
+
+    @Test
+    void get_InvalidIndex() {
+        final MessageTokens tokens = MessageTokens.tokenize("one two");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> tokens.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> tokens.get(-1));
+    }
+
+    @Test
+    void tokenize_ManyWords() {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            input.append("word").append(i).append(' ');
+        }
+        final MessageTokens tokens = MessageTokens.tokenize(input.toString());
+
+        assertEquals(100, tokens.size());
+        assertEquals("word99", tokens.get(99));
+    }
+}
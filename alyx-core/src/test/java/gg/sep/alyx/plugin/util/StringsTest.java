@@ -53,7 +53,21 @@ public class StringsTest {
 
             // empty quotes
             Arguments.arguments("hello \"\" \" world\"", new String[]{"hello", "", " world"}),
-            Arguments.arguments("hello \" \" \" world\"", new String[]{"hello", " ", " world"})
+            Arguments.arguments("hello \" \" \" world\"", new String[]{"hello", " ", " world"}),
+
+            // escaped quotes
+            Arguments.arguments("say \\\"hi\\\"", new String[]{"say", "\"hi\""}),
+            Arguments.arguments("say \"\\\"hi\\\" there\"", new String[]{"say", "\"hi\" there"}),
+            Arguments.arguments("\"foo \\\" bar\" baz", new String[]{"foo \" bar", "baz"}),
+
+            // unclosed and trailing quotes
+            Arguments.arguments("hello \"world", new String[]{"hello", "world"}),
+            Arguments.arguments("hello \"foo bar", new String[]{"hello", "foo", "bar"}),
+            Arguments.arguments("hello world\"", new String[]{"hello", "world"}),
+
+            // blank input
+            Arguments.arguments("", new String[]{}),
+            Arguments.arguments("   ", new String[]{})
         );
     }
 }
@@ -0,0 +1,284 @@
+package gg.sep.alyx.simulator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+/**
+ * An in-process stand-in for the Discord gateway and API, so that the bot's end to end throughput can
+ * be measured on a single machine without a network connection.
+ *
+ * The simulator generates a population of guilds, channels, roles and members, sends it to the bot
+ * when the bot connects to the simulated gateway, and then sends the bot messages from its members.
+ * The requests the bot makes to the simulated API, and the time it took to respond to each message,
+ * are recorded in {@link #getRecorder()}.
+ *
+ * A bot is pointed at the simulator by setting {@code discordApiUrl} in its config to {@link #getApiUrl()}.
+ * The bot finds the simulated gateway through the API, as it would find Discord's.
+ *
+ * <pre>{@code
+ * try (DiscordSimulator simulator = new DiscordSimulator(SimulatorConfig.builder().guilds(10).build())) {
+ *     simulator.start();
+ *     // start the bot with discordApiUrl set to simulator.getApiUrl()
+ *     simulator.awaitReady(Duration.ofMinutes(1));
+ *     simulator.generateLoad(MessageLoad.builder().messages(10_000).messagesPerSecond(500).build()).join();
+ *     System.out.println(simulator.getRecorder().summary());
+ * }
+ * }</pre>
+ */
+@Log4j2
+public final class DiscordSimulator implements AutoCloseable {
+
+    @Getter
+    private final SimulatorConfig config;
+    @Getter
+    private final RestRecorder recorder = new RestRecorder();
+    @Getter
+    private final long botId;
+    @Getter
+    private final long ownerId;
+    @Getter
+    private final List<SimulatedGuild> guilds;
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<Long, SimulatedGuild> guildsByChannel = new HashMap<>();
+
+    private final Snowflakes snowflakes = new Snowflakes();
+    private final Random random;
+    private final InetAddress address = InetAddress.getLoopbackAddress();
+    private final ScheduledExecutorService loadScheduler;
+    private GatewayServer gateway;
+    private RestServer rest;
+
+    /**
+     * Creates a simulator, generating its population.
+     *
+     * @param config Size of the population, and how the simulated API behaves.
+     */
+    public DiscordSimulator(final SimulatorConfig config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+        this.botId = snowflakes.next();
+        this.ownerId = snowflakes.next();
+
+        final List<SimulatedGuild> generated = new ArrayList<>(config.getGuilds());
+        for (int i = 0; i < config.getGuilds(); i++) {
+            final SimulatedGuild guild = SimulatedGuild.generate(i, config, snowflakes);
+            generated.add(guild);
+            for (final long channelId : guild.getChannelIds()) {
+                guildsByChannel.put(channelId, guild);
+            }
+        }
+        this.guilds = Collections.unmodifiableList(generated);
+
+        this.loadScheduler = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+            .namingPattern("SimulatedLoad-%d")
+            .daemon(true)
+            .build());
+    }
+
+    /**
+     * Starts the simulated gateway and API.
+     *
+     * @throws IOException Thrown if either could not be bound to its port.
+     */
+    public void start() throws IOException {
+        gateway = new GatewayServer(new InetSocketAddress(address, config.getGatewayPort()), botId, ownerId,
+            guilds, config);
+        gateway.start();
+        try {
+            gateway.awaitStarted();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while starting the simulated gateway.", e);
+        }
+        if (gateway.getPort() == 0) {
+            throw new IOException("The simulated gateway failed to start.");
+        }
+
+        rest = new RestServer(new InetSocketAddress(address, config.getRestPort()), this, recorder,
+            this::getGatewayUrl);
+        rest.start();
+    }
+
+    /**
+     * Stops the simulated gateway and API, and any load being generated.
+     */
+    public void stop() {
+        loadScheduler.shutdownNow();
+        if (rest != null) {
+            rest.stop();
+        }
+        if (gateway != null) {
+            try {
+                gateway.stop(1000);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Stops the simulator, see {@link #stop()}.
+     */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Returns the base URL of the simulated API, which the bot's {@code discordApiUrl} is set to.
+     *
+     * @return The base URL of the simulated API.
+     */
+    public String getApiUrl() {
+        return "http://" + address.getHostAddress() + ":" + rest.getAddress().getPort();
+    }
+
+    /**
+     * Returns the URL of the simulated gateway.
+     *
+     * @return The URL of the simulated gateway.
+     */
+    public String getGatewayUrl() {
+        return "ws://" + address.getHostAddress() + ":" + gateway.getPort();
+    }
+
+    /**
+     * Waits for the bot to connect and receive every guild.
+     *
+     * @param timeout Maximum time to wait.
+     * @return Returns {@code true} if the bot received every guild, or {@code false} if the timeout elapsed first.
+     * @throws InterruptedException Thrown if interrupted while waiting.
+     */
+    public boolean awaitReady(final Duration timeout) throws InterruptedException {
+        return gateway.awaitGuildsDelivered(timeout.toMillis());
+    }
+
+    /**
+     * Sends the bot a message from a member of a guild.
+     *
+     * @param guild The guild.
+     * @param channel Index of the channel in the guild.
+     * @param member Index of the member in the guild.
+     * @param content Content of the message.
+     * @return ID of the message.
+     * @throws IllegalStateException Thrown if the bot has no gateway session receiving the guild's events.
+     */
+    public long sendMessage(final SimulatedGuild guild, final int channel, final int member, final String content) {
+        final long messageId = snowflakes.next();
+        final long channelId = guild.getChannelIds().get(channel);
+
+        // recorded before it is sent, in case the bot responds before this returns
+        recorder.messageSent(channelId, messageId, System.nanoTime());
+        final boolean sent = gateway.dispatch(guild.getId(), "MESSAGE_CREATE", Payloads.message(messageId,
+            channelId, guild, guild.getMemberIds().get(member), member, content, Instant.now()));
+        if (!sent) {
+            recorder.messageDropped(channelId, messageId);
+            throw new IllegalStateException("The bot has no gateway session receiving the guild's events.");
+        }
+        return messageId;
+    }
+
+    /**
+     * Sends the bot messages at a steady rate.
+     *
+     * @param load The messages to send.
+     * @return Future completed once every message has been sent, or completed exceptionally if one of them
+     *         could not be sent.
+     */
+    public CompletableFuture<Void> generateLoad(final MessageLoad load) {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        if (load.getMessages() <= 0) {
+            done.complete(null);
+            return done;
+        }
+
+        final AtomicInteger sent = new AtomicInteger();
+        final long periodNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / load.getMessagesPerSecond()));
+        final ScheduledFuture<?> task = loadScheduler.scheduleAtFixedRate(() -> {
+            final int index = sent.getAndIncrement();
+            if (index >= load.getMessages()) {
+                return;
+            }
+            try {
+                final SimulatedGuild guild = guilds.get(random.nextInt(guilds.size()));
+                sendMessage(guild, random.nextInt(guild.getChannelIds().size()),
+                    random.nextInt(guild.getMemberIds().size()),
+                    load.getContents().get(index % load.getContents().size()));
+            } catch (final RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+            if (index + 1 == load.getMessages()) {
+                done.complete(null);
+            }
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        done.whenComplete((result, e) -> task.cancel(false));
+        return done;
+    }
+
+    /**
+     * Returns a new snowflake ID.
+     *
+     * @return The ID.
+     */
+    long nextId() {
+        return snowflakes.next();
+    }
+
+    /**
+     * Runs a simulator until a bot connects to it, sends the bot a load of messages and prints what the bot did.
+     *
+     * Arguments, all optional: {@code port guilds membersPerGuild messages messagesPerSecond content}
+     *
+     * @param args The arguments.
+     * @throws Exception Thrown if the simulator fails to start.
+     */
+    public static void main(final String[] args) throws Exception {
+        final SimulatorConfig config = SimulatorConfig.builder()
+            .restPort(args.length > 0 ? Integer.parseInt(args[0]) : 8080)
+            .guilds(args.length > 1 ? Integer.parseInt(args[1]) : 10)
+            .membersPerGuild(args.length > 2 ? Integer.parseInt(args[2]) : 1000)
+            .build();
+        final MessageLoad load = MessageLoad.builder()
+            .messages(args.length > 3 ? Integer.parseInt(args[3]) : 10_000)
+            .messagesPerSecond(args.length > 4 ? Double.parseDouble(args[4]) : 100)
+            .contents(List.of(args.length > 5 ? args[5] : "!ping"))
+            .build();
+
+        try (DiscordSimulator simulator = new DiscordSimulator(config)) {
+            simulator.start();
+            log.info("Waiting for a bot to connect. discordApiUrl={}", simulator.getApiUrl());
+            while (!simulator.awaitReady(Duration.ofMinutes(1))) {
+                log.info("Still waiting for a bot to connect. discordApiUrl={}", simulator.getApiUrl());
+            }
+
+            // forget the requests made while connecting
+            simulator.getRecorder().reset();
+            log.info("Bot connected, sending messages. load={}", load);
+            simulator.generateLoad(load).join();
+
+            // give the bot a few seconds to respond to the last messages
+            Thread.sleep(5000);
+            log.info("Load finished.{}{}", System.lineSeparator(), simulator.getRecorder().summary());
+        }
+    }
+}
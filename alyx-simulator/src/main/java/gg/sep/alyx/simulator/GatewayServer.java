@@ -0,0 +1,243 @@
+package gg.sep.alyx.simulator;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import lombok.extern.log4j.Log4j2;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+/**
+ * The simulated Discord gateway.
+ *
+ * Speaks enough of the gateway protocol for JDA, without compression: sessions are greeted with
+ * {@code HELLO}, heartbeats are acknowledged, and an {@code IDENTIFY} is answered with {@code READY}
+ * followed by a {@code GUILD_CREATE} for each of the shard's guilds. Resuming a session is not
+ * supported, the session is invalidated so the bot identifies again. Presence updates and member
+ * requests are ignored.
+ */
+@Log4j2
+class GatewayServer extends WebSocketServer {
+
+    static final int OP_DISPATCH = 0;
+    static final int OP_HEARTBEAT = 1;
+    static final int OP_IDENTIFY = 2;
+    static final int OP_RESUME = 6;
+    static final int OP_INVALID_SESSION = 9;
+    static final int OP_HELLO = 10;
+    static final int OP_HEARTBEAT_ACK = 11;
+
+    private final long botId;
+    private final long ownerId;
+    private final List<SimulatedGuild> guilds;
+    private final long heartbeatInterval;
+
+    private final Map<WebSocket, Session> sessions = new ConcurrentHashMap<>();
+    private final Set<Long> deliveredGuilds = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    /**
+     * An identified gateway session, receiving the events of a single shard.
+     */
+    private static final class Session {
+        private final WebSocket connection;
+        private final String id = UUID.randomUUID().toString();
+        private final int shard;
+        private final int shards;
+        private int sequence;
+
+        private Session(final WebSocket connection, final int shard, final int shards) {
+            this.connection = connection;
+            this.shard = shard;
+            this.shards = shards;
+        }
+
+        private synchronized void dispatch(final String type, final JsonObject data) {
+            connection.send(Payloads.dispatch(type, ++sequence, data).toString());
+        }
+    }
+
+    /**
+     * Creates the gateway, bound to an address once started.
+     *
+     * @param address The address to listen on.
+     * @param botId ID of the bot.
+     * @param ownerId ID of the owner of the bot and its guilds.
+     * @param guilds The guilds the bot is a member of.
+     * @param config The simulator's config.
+     */
+    GatewayServer(final InetSocketAddress address, final long botId, final long ownerId,
+                  final List<SimulatedGuild> guilds, final SimulatorConfig config) {
+        super(address);
+        this.botId = botId;
+        this.ownerId = ownerId;
+        this.guilds = guilds;
+        this.heartbeatInterval = config.getHeartbeatInterval().toMillis();
+        setReuseAddr(true);
+    }
+
+    /**
+     * Waits for the server to be bound to its address.
+     *
+     * @throws InterruptedException Thrown if interrupted while waiting.
+     */
+    void awaitStarted() throws InterruptedException {
+        started.await();
+    }
+
+    /**
+     * Waits until every guild has been sent to the bot.
+     *
+     * @param timeoutMillis Maximum time to wait, in milliseconds.
+     * @return Returns {@code true} if every guild was sent, or {@code false} if the timeout elapsed first.
+     * @throws InterruptedException Thrown if interrupted while waiting.
+     */
+    boolean awaitGuildsDelivered(final long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (deliveredGuilds) {
+            while (deliveredGuilds.size() < guilds.size()) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                deliveredGuilds.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sends an event to the session receiving a guild's events.
+     *
+     * @param guildId ID of the guild.
+     * @param type Type of the event.
+     * @param data The event.
+     * @return Returns {@code true} if the event was sent, or {@code false} if no session receives
+     *         the guild's events.
+     */
+    boolean dispatch(final long guildId, final String type, final JsonObject data) {
+        for (final Session session : sessions.values()) {
+            if (Snowflakes.shardOf(guildId, session.shards) == session.shard && session.connection.isOpen()) {
+                session.dispatch(type, data);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStart() {
+        log.info("Simulated gateway started. port={}", getPort());
+        started.countDown();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onOpen(final WebSocket connection, final ClientHandshake handshake) {
+        final JsonObject hello = new JsonObject();
+        hello.addProperty("heartbeat_interval", heartbeatInterval);
+        connection.send(Payloads.op(OP_HELLO, hello).toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onClose(final WebSocket connection, final int code, final String reason, final boolean remote) {
+        final Session session = sessions.remove(connection);
+        if (session != null) {
+            log.info("Simulated gateway session closed. shard={}, code={}", session.shard, code);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onMessage(final WebSocket connection, final String message) {
+        final JsonObject payload;
+        try {
+            payload = JsonParser.parseString(message).getAsJsonObject();
+        } catch (final JsonParseException | IllegalStateException e) {
+            log.warn("Received an invalid gateway payload. payload={}", message);
+            return;
+        }
+
+        switch (payload.get("op").getAsInt()) {
+            case OP_HEARTBEAT:
+                connection.send(Payloads.op(OP_HEARTBEAT_ACK, JsonNull.INSTANCE).toString());
+                break;
+            case OP_IDENTIFY:
+                identify(connection, payload.getAsJsonObject("d"));
+                break;
+            case OP_RESUME:
+                connection.send(Payloads.op(OP_INVALID_SESSION, new JsonPrimitive(false)).toString());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onError(final WebSocket connection, final Exception e) {
+        log.warn("Simulated gateway error.", e);
+        if (connection == null) {
+            // the server itself failed, don't leave anyone waiting for it to start
+            started.countDown();
+        }
+    }
+
+    private void identify(final WebSocket connection, final JsonObject identify) {
+        int shard = 0;
+        int shards = 1;
+        final JsonArray shardInfo = identify.getAsJsonArray("shard");
+        if (shardInfo != null && shardInfo.size() == 2) {
+            shard = shardInfo.get(0).getAsInt();
+            shards = shardInfo.get(1).getAsInt();
+        }
+
+        final Session session = new Session(connection, shard, shards);
+        final List<SimulatedGuild> shardGuilds = new ArrayList<>();
+        for (final SimulatedGuild guild : guilds) {
+            if (Snowflakes.shardOf(guild.getId(), shards) == shard) {
+                shardGuilds.add(guild);
+            }
+        }
+        log.info("Simulated gateway session identified. shard={}/{}, guilds={}", shard, shards, shardGuilds.size());
+
+        synchronized (session) {
+            session.dispatch("READY", Payloads.ready(botId, session.id, shard, shards, shardGuilds));
+            for (final SimulatedGuild guild : shardGuilds) {
+                session.dispatch("GUILD_CREATE", Payloads.guildCreate(guild, botId, ownerId));
+                deliveredGuilds.add(guild.getId());
+            }
+            // only receive other events once the guilds have been sent
+            sessions.put(connection, session);
+        }
+
+        synchronized (deliveredGuilds) {
+            deliveredGuilds.notifyAll();
+        }
+    }
+}
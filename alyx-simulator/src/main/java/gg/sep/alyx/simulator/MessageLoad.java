@@ -0,0 +1,37 @@
+package gg.sep.alyx.simulator;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Messages sent to the bot by {@link DiscordSimulator#generateLoad(MessageLoad)}.
+ *
+ * Each message is sent by a random member, in a random channel of a random guild, and the contents
+ * are used in turn.
+ */
+@Builder
+@Getter
+@ToString
+public class MessageLoad {
+
+    /**
+     * Total number of messages to send.
+     */
+    @Builder.Default
+    private final int messages = 1000;
+
+    /**
+     * Rate the messages are sent at.
+     */
+    @Builder.Default
+    private final double messagesPerSecond = 100;
+
+    /**
+     * Contents of the messages, for example commands such as {@code !ping}.
+     */
+    @Builder.Default
+    private final List<String> contents = List.of("!ping");
+}
@@ -0,0 +1,358 @@
+package gg.sep.alyx.simulator;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Builds the JSON payloads of the simulated gateway and API, with the fields JDA reads from them.
+ *
+ * IDs and permissions are written as strings, as Discord does.
+ */
+@UtilityClass
+class Payloads {
+
+    /**
+     * Permissions of the everyone role in a new guild, which include reading and sending messages
+     * and adding reactions.
+     */
+    static final String DEFAULT_PERMISSIONS = "104324673";
+
+    /**
+     * Version of the gateway and API the payloads are written for.
+     */
+    static final int API_VERSION = 6;
+
+    private static final String JOINED_AT = timestamp(Snowflakes.START);
+
+    /**
+     * Formats a time as an ISO 8601 timestamp.
+     *
+     * @param time The time.
+     * @return The timestamp.
+     */
+    static String timestamp(final Instant time) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time.atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Builds a user.
+     *
+     * @param id ID of the user.
+     * @param name Name of the user.
+     * @param bot Whether the user is a bot.
+     * @return The user.
+     */
+    static JsonObject user(final long id, final String name, final boolean bot) {
+        final JsonObject user = new JsonObject();
+        user.addProperty("id", Long.toString(id));
+        user.addProperty("username", name);
+        user.addProperty("discriminator", String.format("%04d", id % 10_000));
+        user.add("avatar", JsonNull.INSTANCE);
+        user.addProperty("bot", bot);
+        user.addProperty("public_flags", 0);
+        return user;
+    }
+
+    /**
+     * Builds the bot's own user, as returned by {@code /users/@me}.
+     *
+     * @param id ID of the bot.
+     * @return The bot's user.
+     */
+    static JsonObject selfUser(final long id) {
+        final JsonObject user = user(id, "alyx", true);
+        user.addProperty("verified", true);
+        user.addProperty("mfa_enabled", false);
+        user.addProperty("flags", 0);
+        return user;
+    }
+
+    /**
+     * Builds the response of {@code /gateway} and {@code /gateway/bot}.
+     *
+     * @param url URL of the gateway.
+     * @param shards Recommended number of shards.
+     * @return The gateway response.
+     */
+    static JsonObject gateway(final String url, final int shards) {
+        final JsonObject limit = new JsonObject();
+        limit.addProperty("total", 1000);
+        limit.addProperty("remaining", 1000);
+        limit.addProperty("reset_after", 86_400_000);
+        limit.addProperty("max_concurrency", 1);
+
+        final JsonObject gateway = new JsonObject();
+        gateway.addProperty("url", url);
+        gateway.addProperty("shards", shards);
+        gateway.add("session_start_limit", limit);
+        return gateway;
+    }
+
+    /**
+     * Builds the bot's application, as returned by {@code /oauth2/applications/@me}.
+     *
+     * @param botId ID of the bot, which is also the ID of its application.
+     * @param ownerId ID of the application's owner.
+     * @return The application.
+     */
+    static JsonObject application(final long botId, final long ownerId) {
+        final JsonObject application = new JsonObject();
+        application.addProperty("id", Long.toString(botId));
+        application.addProperty("name", "alyx");
+        application.add("icon", JsonNull.INSTANCE);
+        application.addProperty("description", "");
+        application.addProperty("summary", "");
+        application.add("rpc_origins", new JsonArray());
+        application.addProperty("bot_public", true);
+        application.addProperty("bot_require_code_grant", false);
+        application.add("owner", user(ownerId, "owner", false));
+        application.add("team", JsonNull.INSTANCE);
+        application.addProperty("flags", 0);
+        return application;
+    }
+
+    /**
+     * Builds the payload of a gateway dispatch.
+     *
+     * @param type Type of the event.
+     * @param sequence Sequence number of the event in its session.
+     * @param data The event.
+     * @return The dispatch.
+     */
+    static JsonObject dispatch(final String type, final int sequence, final JsonObject data) {
+        final JsonObject payload = new JsonObject();
+        payload.addProperty("op", GatewayServer.OP_DISPATCH);
+        payload.addProperty("t", type);
+        payload.addProperty("s", sequence);
+        payload.add("d", data);
+        return payload;
+    }
+
+    /**
+     * Builds the payload of a gateway message other than a dispatch.
+     *
+     * @param op The message's opcode.
+     * @param data The message's data, which may be {@link JsonNull#INSTANCE}.
+     * @return The message.
+     */
+    static JsonObject op(final int op, final JsonElement data) {
+        final JsonObject payload = new JsonObject();
+        payload.addProperty("op", op);
+        payload.add("d", data);
+        return payload;
+    }
+
+    /**
+     * Builds the {@code READY} event of a shard, listing its guilds as unavailable until their
+     * {@code GUILD_CREATE} events are sent.
+     *
+     * @param botId ID of the bot.
+     * @param sessionId ID of the session.
+     * @param shard ID of the shard.
+     * @param shards Total number of shards.
+     * @param guilds The shard's guilds.
+     * @return The event.
+     */
+    static JsonObject ready(final long botId, final String sessionId, final int shard, final int shards,
+                            final List<SimulatedGuild> guilds) {
+        final JsonArray unavailable = new JsonArray();
+        for (final SimulatedGuild guild : guilds) {
+            final JsonObject entry = new JsonObject();
+            entry.addProperty("id", Long.toString(guild.getId()));
+            entry.addProperty("unavailable", true);
+            unavailable.add(entry);
+        }
+
+        final JsonArray shardInfo = new JsonArray();
+        shardInfo.add(shard);
+        shardInfo.add(shards);
+
+        final JsonObject application = new JsonObject();
+        application.addProperty("id", Long.toString(botId));
+        application.addProperty("flags", 0);
+
+        final JsonObject ready = new JsonObject();
+        ready.addProperty("v", API_VERSION);
+        ready.add("user", selfUser(botId));
+        ready.add("guilds", unavailable);
+        ready.addProperty("session_id", sessionId);
+        ready.add("private_channels", new JsonArray());
+        ready.add("relationships", new JsonArray());
+        ready.add("presences", new JsonArray());
+        ready.add("application", application);
+        ready.add("shard", shardInfo);
+        return ready;
+    }
+
+    /**
+     * Builds the {@code GUILD_CREATE} event of a guild, including its channels, roles and members.
+     *
+     * Member {@code N} has the role {@code N} modulo the number of roles, and the bot is a member with no roles.
+     *
+     * @param guild The guild.
+     * @param botId ID of the bot.
+     * @param ownerId ID of the guild's owner.
+     * @return The event.
+     */
+    static JsonObject guildCreate(final SimulatedGuild guild, final long botId, final long ownerId) {
+        final String guildId = Long.toString(guild.getId());
+
+        final JsonArray roles = new JsonArray();
+        roles.add(role(guild.getId(), "@everyone", 0, DEFAULT_PERMISSIONS));
+        for (int i = 0; i < guild.getRoleIds().size(); i++) {
+            roles.add(role(guild.getRoleIds().get(i), "role-" + i, i + 1, "0"));
+        }
+
+        final JsonArray channels = new JsonArray();
+        for (int i = 0; i < guild.getChannelIds().size(); i++) {
+            final JsonObject channel = new JsonObject();
+            channel.addProperty("id", Long.toString(guild.getChannelIds().get(i)));
+            channel.addProperty("type", 0);
+            channel.addProperty("guild_id", guildId);
+            channel.addProperty("name", "channel-" + i);
+            channel.addProperty("position", i);
+            channel.add("permission_overwrites", new JsonArray());
+            channel.add("topic", JsonNull.INSTANCE);
+            channel.addProperty("nsfw", false);
+            channel.add("last_message_id", JsonNull.INSTANCE);
+            channel.addProperty("rate_limit_per_user", 0);
+            channel.add("parent_id", JsonNull.INSTANCE);
+            channels.add(channel);
+        }
+
+        final JsonArray members = new JsonArray();
+        members.add(member(guild, botId, -1, true));
+        for (int i = 0; i < guild.getMemberIds().size(); i++) {
+            members.add(member(guild, guild.getMemberIds().get(i), i, false));
+        }
+
+        final JsonObject create = new JsonObject();
+        create.addProperty("id", guildId);
+        create.addProperty("name", guild.getName());
+        create.add("icon", JsonNull.INSTANCE);
+        create.add("splash", JsonNull.INSTANCE);
+        create.add("banner", JsonNull.INSTANCE);
+        create.add("description", JsonNull.INSTANCE);
+        create.add("vanity_url_code", JsonNull.INSTANCE);
+        create.addProperty("region", "us-west");
+        create.addProperty("owner_id", Long.toString(ownerId));
+        create.addProperty("afk_timeout", 300);
+        create.add("afk_channel_id", JsonNull.INSTANCE);
+        create.add("system_channel_id", JsonNull.INSTANCE);
+        create.add("rules_channel_id", JsonNull.INSTANCE);
+        create.add("public_updates_channel_id", JsonNull.INSTANCE);
+        create.addProperty("verification_level", 0);
+        create.addProperty("default_message_notifications", 0);
+        create.addProperty("explicit_content_filter", 0);
+        create.addProperty("mfa_level", 0);
+        create.addProperty("premium_tier", 0);
+        create.addProperty("premium_subscription_count", 0);
+        create.addProperty("preferred_locale", "en-US");
+        create.addProperty("max_members", 250_000);
+        create.addProperty("max_presences", 25_000);
+        create.addProperty("member_count", members.size());
+        create.addProperty("large", members.size() > 250);
+        create.addProperty("unavailable", false);
+        create.addProperty("joined_at", JOINED_AT);
+        create.add("features", new JsonArray());
+        create.add("emojis", new JsonArray());
+        create.add("voice_states", new JsonArray());
+        create.add("presences", new JsonArray());
+        create.add("roles", roles);
+        create.add("channels", channels);
+        create.add("members", members);
+        return create;
+    }
+
+    /**
+     * Builds a message.
+     *
+     * @param id ID of the message.
+     * @param channelId ID of the channel the message was sent in.
+     * @param guild Guild the message was sent in.
+     * @param author ID of the message's author.
+     * @param memberIndex Index of the author in the guild's members, or {@code -1} for the bot.
+     * @param content Content of the message.
+     * @param sent Time the message was sent.
+     * @return The message.
+     */
+    static JsonObject message(final long id, final long channelId, final SimulatedGuild guild, final long author,
+                              final int memberIndex, final String content, final Instant sent) {
+        final JsonObject member = member(guild, author, memberIndex, memberIndex < 0);
+
+        final JsonObject message = new JsonObject();
+        message.addProperty("id", Long.toString(id));
+        message.addProperty("type", 0);
+        message.addProperty("channel_id", Long.toString(channelId));
+        message.addProperty("guild_id", Long.toString(guild.getId()));
+        message.add("author", member.remove("user"));
+        message.add("member", member);
+        message.addProperty("content", content);
+        message.addProperty("timestamp", timestamp(sent));
+        message.add("edited_timestamp", JsonNull.INSTANCE);
+        message.addProperty("tts", false);
+        message.addProperty("mention_everyone", false);
+        message.add("mentions", new JsonArray());
+        message.add("mention_roles", new JsonArray());
+        message.add("attachments", new JsonArray());
+        message.add("embeds", new JsonArray());
+        message.addProperty("pinned", false);
+        message.addProperty("flags", 0);
+        return message;
+    }
+
+    /**
+     * Builds an error response of the API.
+     *
+     * @param code Discord's error code.
+     * @param message Description of the error.
+     * @return The error.
+     */
+    static JsonObject error(final int code, final String message) {
+        final JsonObject error = new JsonObject();
+        error.addProperty("code", code);
+        error.addProperty("message", message);
+        return error;
+    }
+
+    private static JsonObject role(final long id, final String name, final int position, final String permissions) {
+        final JsonObject role = new JsonObject();
+        role.addProperty("id", Long.toString(id));
+        role.addProperty("name", name);
+        role.addProperty("color", 0);
+        role.addProperty("hoist", false);
+        role.addProperty("position", position);
+        role.addProperty("permissions", permissions);
+        role.addProperty("permissions_new", permissions);
+        role.addProperty("managed", false);
+        role.addProperty("mentionable", false);
+        return role;
+    }
+
+    private static JsonObject member(final SimulatedGuild guild, final long userId, final int index,
+                                     final boolean bot) {
+        final JsonArray roles = new JsonArray();
+        if (index >= 0 && !guild.getRoleIds().isEmpty()) {
+            roles.add(Long.toString(guild.getRoleIds().get(index % guild.getRoleIds().size())));
+        }
+
+        final JsonObject member = new JsonObject();
+        member.add("user", bot ? user(userId, "alyx", true) : user(userId, "user-" + index, false));
+        member.add("nick", JsonNull.INSTANCE);
+        member.add("roles", roles);
+        member.addProperty("joined_at", JOINED_AT);
+        member.add("premium_since", JsonNull.INSTANCE);
+        member.addProperty("deaf", false);
+        member.addProperty("mute", false);
+        member.addProperty("pending", false);
+        return member;
+    }
+}
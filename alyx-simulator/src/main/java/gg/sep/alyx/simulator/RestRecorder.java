@@ -0,0 +1,217 @@
+package gg.sep.alyx.simulator;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import gg.sep.alyx.plugin.metrics.LatencyHistogram;
+
+/**
+ * Records the HTTP requests the bot makes to the simulated API, and how long the bot took to respond
+ * to the messages sent by the simulator.
+ *
+ * A message counts as responded to once the bot sends a message in its channel, or reacts to it.
+ * Messages in a channel are assumed to be responded to in the order they were sent, as the bot runs
+ * the commands of a channel in order.
+ */
+public final class RestRecorder {
+
+    private final Queue<RestCall> calls = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Deque<SentMessage>> unanswered = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram responseLatency = new LatencyHistogram();
+
+    /**
+     * A request made by the bot.
+     */
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static final class RestCall {
+        private final Instant received;
+        private final String method;
+        /**
+         * Path of the request with its IDs replaced by placeholders, such as
+         * {@code /channels/{id}/messages}.
+         */
+        private final String route;
+        private final int status;
+    }
+
+    @RequiredArgsConstructor
+    private static final class SentMessage {
+        private final long messageId;
+        private final long sentNanos;
+    }
+
+    /**
+     * Records a message sent by the simulator, which the bot may respond to.
+     *
+     * @param channelId ID of the channel the message was sent in.
+     * @param messageId ID of the message.
+     * @param sentNanos Time the message was sent, from {@link System#nanoTime()}.
+     */
+    void messageSent(final long channelId, final long messageId, final long sentNanos) {
+        final Deque<SentMessage> channel = unanswered.computeIfAbsent(channelId, id -> new ArrayDeque<>());
+        synchronized (channel) {
+            channel.add(new SentMessage(messageId, sentNanos));
+        }
+    }
+
+    /**
+     * Records a request made by the bot.
+     *
+     * @param call The request.
+     */
+    void record(final RestCall call) {
+        calls.add(call);
+    }
+
+    /**
+     * Records the bot sending a message in a channel, responding to the oldest message it has not
+     * yet responded to in the channel.
+     *
+     * @param channelId ID of the channel.
+     */
+    void respondedInChannel(final long channelId) {
+        final Deque<SentMessage> channel = unanswered.get(channelId);
+        if (channel == null) {
+            return;
+        }
+        final SentMessage message;
+        synchronized (channel) {
+            message = channel.poll();
+        }
+        if (message != null) {
+            responseLatency.recordSince(message.sentNanos);
+        }
+    }
+
+    /**
+     * Records the bot reacting to a message.
+     *
+     * @param channelId ID of the message's channel.
+     * @param messageId ID of the message.
+     */
+    void respondedToMessage(final long channelId, final long messageId) {
+        final SentMessage message = remove(channelId, messageId);
+        if (message != null) {
+            responseLatency.recordSince(message.sentNanos);
+        }
+    }
+
+    /**
+     * Forgets a message which could not be sent to the bot.
+     *
+     * @param channelId ID of the message's channel.
+     * @param messageId ID of the message.
+     */
+    void messageDropped(final long channelId, final long messageId) {
+        remove(channelId, messageId);
+    }
+
+    /**
+     * Returns the requests made by the bot, in the order they were received.
+     *
+     * @return The requests.
+     */
+    public List<RestCall> getCalls() {
+        return new ArrayList<>(calls);
+    }
+
+    /**
+     * Returns the number of requests made to each route, such as {@code POST /channels/{id}/messages}.
+     *
+     * @return The number of requests, by method and route.
+     */
+    public Map<String, Long> getCallCounts() {
+        final Map<String, Long> counts = new TreeMap<>();
+        for (final RestCall call : calls) {
+            counts.merge(call.getMethod() + " " + call.getRoute(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the time the bot took to respond to each message it responded to.
+     *
+     * @return Snapshot of the response times.
+     */
+    public LatencyHistogram.Snapshot getResponseLatency() {
+        return responseLatency.snapshot();
+    }
+
+    /**
+     * Returns the number of messages sent by the simulator which the bot has not responded to.
+     *
+     * @return The number of messages without a response.
+     */
+    public int getUnansweredCount() {
+        int count = 0;
+        for (final Deque<SentMessage> channel : unanswered.values()) {
+            synchronized (channel) {
+                count += channel.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Forgets every request and message recorded so far, for example once the bot has warmed up.
+     */
+    public void reset() {
+        calls.clear();
+        unanswered.clear();
+        responseLatency = new LatencyHistogram();
+    }
+
+    /**
+     * Summarizes the recorded requests and response times.
+     *
+     * @return A human readable summary.
+     */
+    public String summary() {
+        final LatencyHistogram.Snapshot latency = getResponseLatency();
+        final StringBuilder summary = new StringBuilder();
+        summary.append(String.format("responses: %d, unanswered: %d%n", latency.getCount(), getUnansweredCount()));
+        for (final String percentile : new String[]{"50", "90", "99", "99.9"}) {
+            final long nanos = latency.getValueAtPercentile(Double.parseDouble(percentile));
+            summary.append(String.format("  p%s: %.3f ms%n", percentile,
+                nanos / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        summary.append(String.format("requests: %d%n", calls.size()));
+        for (final Map.Entry<String, Long> route : getCallCounts().entrySet()) {
+            summary.append(String.format("  %s: %d%n", route.getKey(), route.getValue()));
+        }
+        return summary.toString();
+    }
+
+    private SentMessage remove(final long channelId, final long messageId) {
+        final Deque<SentMessage> channel = unanswered.get(channelId);
+        if (channel == null) {
+            return null;
+        }
+        synchronized (channel) {
+            for (final Iterator<SentMessage> it = channel.iterator(); it.hasNext();) {
+                final SentMessage sent = it.next();
+                if (sent.messageId == messageId) {
+                    it.remove();
+                    return sent;
+                }
+            }
+        }
+        return null;
+    }
+}
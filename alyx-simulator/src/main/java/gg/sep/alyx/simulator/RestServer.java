@@ -0,0 +1,279 @@
+package gg.sep.alyx.simulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+/**
+ * The simulated Discord API.
+ *
+ * Answers the requests JDA makes while connecting, sending messages and adding reactions, and
+ * answers every other request with a {@code 404}. Every request is recorded in a {@link RestRecorder}.
+ *
+ * Requests are handled on a cached thread pool, so that the configured latency of the API delays
+ * each request without holding up the others.
+ */
+@Log4j2
+class RestServer {
+
+    private static final Pattern API_PREFIX = Pattern.compile("^/api(/v\\d+)?");
+    private static final Pattern ID = Pattern.compile("\\d+");
+    private static final int NO_CONTENT = 204;
+    private static final int NOT_FOUND = 404;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RestRecorder recorder;
+    private final long botId;
+    private final long ownerId;
+    private final Map<Long, SimulatedGuild> guildsByChannel;
+    private final List<SimulatedGuild> guilds;
+    private final int shards;
+    private final long latencyNanos;
+    private final LongSupplier nextId;
+    private final Supplier<String> gatewayUrl;
+
+    /**
+     * A response to a request.
+     */
+    private static final class Reply {
+        private final int status;
+        private final JsonElement body;
+
+        private Reply(final int status, final JsonElement body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Creates the API, bound to an address but not yet serving requests.
+     *
+     * @param address The address to listen on.
+     * @param simulator The simulator whose population the API serves.
+     * @param recorder Records the requests made to the API.
+     * @param gatewayUrl Supplies the URL of the simulated gateway.
+     * @throws IOException Thrown if the server could not be bound to the address.
+     */
+    RestServer(final InetSocketAddress address, final DiscordSimulator simulator, final RestRecorder recorder,
+               final Supplier<String> gatewayUrl) throws IOException {
+        this.recorder = recorder;
+        this.botId = simulator.getBotId();
+        this.ownerId = simulator.getOwnerId();
+        this.guilds = simulator.getGuilds();
+        this.guildsByChannel = simulator.getGuildsByChannel();
+        this.shards = simulator.getConfig().getShards();
+        this.latencyNanos = simulator.getConfig().getRestLatency().toNanos();
+        this.nextId = simulator::nextId;
+        this.gatewayUrl = gatewayUrl;
+
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
+            .namingPattern("SimulatedApi-%d")
+            .daemon(true)
+            .build());
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    void start() {
+        server.start();
+        log.info("Simulated API started. address={}", getAddress());
+    }
+
+    /**
+     * Stops serving requests.
+     */
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the address the server is listening on.
+     *
+     * @return The address the server is listening on.
+     */
+    InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final Instant received = Instant.now();
+        try {
+            final String method = exchange.getRequestMethod();
+            final String path = API_PREFIX.matcher(exchange.getRequestURI().getPath()).replaceFirst("");
+            final String[] segments = path.substring(path.startsWith("/") ? 1 : 0).split("/");
+            final byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+
+            if (latencyNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            }
+
+            final Reply reply = route(method, segments, body);
+            recorder.record(new RestRecorder.RestCall(received, method, template(segments), reply.status));
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            addRateLimitHeaders(exchange, segments);
+            if (reply.body == null) {
+                exchange.sendResponseHeaders(reply.status, -1);
+                return;
+            }
+            final byte[] response = reply.body.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(reply.status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Failed to answer a simulated API request.", e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Reply route(final String method, final String[] segments, final byte[] body) {
+        final String first = segments[0];
+        if ("GET".equals(method) && "gateway".equals(first)) {
+            return new Reply(200, Payloads.gateway(gatewayUrl.get(), shards));
+        }
+        if ("GET".equals(method) && segments.length == 2 && "users".equals(first)) {
+            return user(segments[1]);
+        }
+        if ("GET".equals(method) && segments.length == 3 && "oauth2".equals(first) && "@me".equals(segments[2])) {
+            return new Reply(200, Payloads.application(botId, ownerId));
+        }
+        if ("channels".equals(first) && segments.length >= 3) {
+            return channel(method, segments, body);
+        }
+        return notFound(0, "404: Not Found");
+    }
+
+    private Reply user(final String id) {
+        if ("@me".equals(id)) {
+            return new Reply(200, Payloads.selfUser(botId));
+        }
+        final long userId = parseId(id);
+        if (userId == ownerId) {
+            return new Reply(200, Payloads.user(ownerId, "owner", false));
+        }
+        for (final SimulatedGuild guild : guilds) {
+            final int index = guild.getMemberIds().indexOf(userId);
+            if (index >= 0) {
+                return new Reply(200, Payloads.user(userId, "user-" + index, false));
+            }
+        }
+        return notFound(10013, "Unknown User");
+    }
+
+    private Reply channel(final String method, final String[] segments, final byte[] body) {
+        final long channelId = parseId(segments[1]);
+        final SimulatedGuild guild = guildsByChannel.get(channelId);
+        if (guild == null) {
+            return notFound(10003, "Unknown Channel");
+        }
+
+        // POST /channels/{id}/messages
+        if ("POST".equals(method) && segments.length == 3 && "messages".equals(segments[2])) {
+            recorder.respondedInChannel(channelId);
+            return new Reply(200, Payloads.message(nextId.getAsLong(), channelId, guild, botId, -1,
+                content(body), Instant.now()));
+        }
+        // POST /channels/{id}/typing
+        if ("POST".equals(method) && segments.length == 3 && "typing".equals(segments[2])) {
+            return new Reply(NO_CONTENT, null);
+        }
+        // PUT or DELETE /channels/{id}/messages/{id}/reactions/{emoji}/@me
+        if (segments.length == 7 && "messages".equals(segments[2]) && "reactions".equals(segments[4])) {
+            if ("PUT".equals(method)) {
+                recorder.respondedToMessage(channelId, parseId(segments[3]));
+            }
+            return new Reply(NO_CONTENT, null);
+        }
+        return notFound(0, "404: Not Found");
+    }
+
+    private static Reply notFound(final int code, final String message) {
+        return new Reply(NOT_FOUND, Payloads.error(code, message));
+    }
+
+    private static String content(final byte[] body) {
+        try {
+            final JsonObject message = JsonParser.parseString(new String(body, StandardCharsets.UTF_8))
+                .getAsJsonObject();
+            return message.has("content") && !message.get("content").isJsonNull()
+                ? message.get("content").getAsString() : "";
+        } catch (final JsonParseException | IllegalStateException e) {
+            // messages with attachments are sent as multipart forms, which aren't parsed
+            return "";
+        }
+    }
+
+    private static long parseId(final String segment) {
+        return ID.matcher(segment).matches() && segment.length() <= 19 ? Long.parseLong(segment) : -1L;
+    }
+
+    /**
+     * Returns the route of a request, with its IDs and emoji replaced by placeholders.
+     *
+     * @param segments The segments of the request's path.
+     * @return The route.
+     */
+    private static String template(final String[] segments) {
+        final StringBuilder route = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            route.append('/');
+            if (ID.matcher(segments[i]).matches()) {
+                route.append("{id}");
+            } else if (i > 0 && "reactions".equals(segments[i - 1])) {
+                route.append("{emoji}");
+            } else {
+                route.append(segments[i]);
+            }
+        }
+        return route.toString();
+    }
+
+    /**
+     * Adds rate limit headers which never limit the bot, as the simulated API doesn't enforce rate limits.
+     *
+     * @param exchange The request being answered.
+     * @param segments The segments of the request's path.
+     */
+    private static void addRateLimitHeaders(final HttpExchange exchange, final String[] segments) {
+        final long resetMillis = System.currentTimeMillis() + 1000;
+        exchange.getResponseHeaders().set("X-RateLimit-Bucket", "simulated-" + segments[0]);
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", "100000");
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", "99999");
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", String.format("%d.%03d", resetMillis / 1000,
+            resetMillis % 1000));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset-After", "1.000");
+    }
+}
@@ -0,0 +1,57 @@
+package gg.sep.alyx.simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * A guild of the simulated population, along with the IDs of its channels, roles and members.
+ *
+ * The guild's everyone role has the same ID as the guild, as it does on Discord.
+ */
+@Getter
+public final class SimulatedGuild {
+    private final long id;
+    private final String name;
+    private final List<Long> channelIds;
+    private final List<Long> roleIds;
+    private final List<Long> memberIds;
+
+    private SimulatedGuild(final long id, final String name, final List<Long> channelIds,
+                           final List<Long> roleIds, final List<Long> memberIds) {
+        this.id = id;
+        this.name = name;
+        this.channelIds = Collections.unmodifiableList(channelIds);
+        this.roleIds = Collections.unmodifiableList(roleIds);
+        this.memberIds = Collections.unmodifiableList(memberIds);
+    }
+
+    /**
+     * Generates a guild of the size given by the config.
+     *
+     * Channels are named {@code channel-N}, roles {@code role-N} and members {@code user-N}.
+     *
+     * @param index Index of the guild, used in its name.
+     * @param config Size of the guild.
+     * @param snowflakes Generator of the guild's IDs.
+     * @return The guild.
+     */
+    static SimulatedGuild generate(final int index, final SimulatorConfig config, final Snowflakes snowflakes) {
+        final long id = snowflakes.next();
+        final List<Long> channelIds = new ArrayList<>(config.getChannelsPerGuild());
+        for (int i = 0; i < config.getChannelsPerGuild(); i++) {
+            channelIds.add(snowflakes.next());
+        }
+        final List<Long> roleIds = new ArrayList<>(config.getRolesPerGuild());
+        for (int i = 0; i < config.getRolesPerGuild(); i++) {
+            roleIds.add(snowflakes.next());
+        }
+        final List<Long> memberIds = new ArrayList<>(config.getMembersPerGuild());
+        for (int i = 0; i < config.getMembersPerGuild(); i++) {
+            memberIds.add(snowflakes.next());
+        }
+        return new SimulatedGuild(id, "guild-" + index, channelIds, roleIds, memberIds);
+    }
+}
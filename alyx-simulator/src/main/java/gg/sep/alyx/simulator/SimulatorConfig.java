@@ -0,0 +1,76 @@
+package gg.sep.alyx.simulator;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Size of the simulated Discord population, and how the simulated API behaves.
+ */
+@Builder
+@Getter
+@ToString
+public class SimulatorConfig {
+
+    /**
+     * Number of gateway shards the simulator recommends to bots which don't choose their own.
+     */
+    @Builder.Default
+    private final int shards = 1;
+
+    /**
+     * Number of guilds the bot is a member of.
+     */
+    @Builder.Default
+    private final int guilds = 1;
+
+    /**
+     * Number of text channels in each guild.
+     */
+    @Builder.Default
+    private final int channelsPerGuild = 5;
+
+    /**
+     * Number of roles in each guild, besides the everyone role.
+     */
+    @Builder.Default
+    private final int rolesPerGuild = 5;
+
+    /**
+     * Number of members in each guild, besides the bot.
+     */
+    @Builder.Default
+    private final int membersPerGuild = 100;
+
+    /**
+     * Time taken by the simulated API to respond to each HTTP request.
+     */
+    @Builder.Default
+    private final Duration restLatency = Duration.ZERO;
+
+    /**
+     * Interval at which bots are told to send gateway heartbeats.
+     */
+    @Builder.Default
+    private final Duration heartbeatInterval = Duration.ofMillis(41_250);
+
+    /**
+     * Port to serve the simulated API on, or {@code 0} for any free port.
+     */
+    @Builder.Default
+    private final int restPort = 0;
+
+    /**
+     * Port to serve the simulated gateway on, or {@code 0} for any free port.
+     */
+    @Builder.Default
+    private final int gatewayPort = 0;
+
+    /**
+     * Seed of the random choices made when generating load, so runs can be repeated.
+     */
+    @Builder.Default
+    private final long seed = 42;
+}
@@ -0,0 +1,43 @@
+package gg.sep.alyx.simulator;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique snowflake IDs, in the same format as Discord's.
+ *
+ * Each ID is given its own millisecond, counting up from {@link #START}, so that the IDs spread evenly
+ * across shards, which are chosen by the timestamp of a guild's ID.
+ */
+final class Snowflakes {
+
+    /**
+     * Time of the first generated ID.
+     */
+    static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+    private static final long DISCORD_EPOCH = 1_420_070_400_000L;
+    private static final int TIMESTAMP_SHIFT = 22;
+
+    private final AtomicLong next = new AtomicLong(START.toEpochMilli() - DISCORD_EPOCH);
+
+    /**
+     * Returns a new ID.
+     *
+     * @return The ID.
+     */
+    long next() {
+        return next.getAndIncrement() << TIMESTAMP_SHIFT;
+    }
+
+    /**
+     * Returns the shard which receives a guild's events.
+     *
+     * @param guildId ID of the guild.
+     * @param shards Total number of shards.
+     * @return ID of the shard.
+     */
+    static int shardOf(final long guildId, final int shards) {
+        return (int) ((guildId >>> TIMESTAMP_SHIFT) % shards);
+    }
+}
@@ -0,0 +1,128 @@
+package gg.sep.alyx.simulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.Compression;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import gg.sep.alyx.DiscordApiRedirect;
+import gg.sep.alyx.plugin.GatewayRequirements;
+
+/**
+ * Tests for {@link DiscordSimulator}.
+ */
+public class DiscordSimulatorTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private DiscordSimulator simulator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        simulator = new DiscordSimulator(SimulatorConfig.builder().guilds(2).membersPerGuild(10).build());
+        simulator.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.close();
+    }
+
+    @Test
+    void gateway_ReturnsSimulatedGateway() throws Exception {
+        final HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/v6/gateway/bot")).GET());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains(simulator.getGatewayUrl()));
+    }
+
+    @Test
+    void sendMessage_RecordsRequests() throws Exception {
+        final SimulatedGuild guild = simulator.getGuilds().get(0);
+        final long channelId = guild.getChannelIds().get(0);
+        final HttpRequest.Builder request = HttpRequest.newBuilder(uri("/api/v6/channels/" + channelId + "/messages"))
+            .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"pong\"}"));
+
+        assertEquals(200, send(request).statusCode());
+        assertEquals(404, send(HttpRequest.newBuilder(uri("/api/v6/channels/1/messages")).GET()).statusCode());
+        assertEquals(Map.of("GET /channels/{id}/messages", 1L, "POST /channels/{id}/messages", 1L),
+            simulator.getRecorder().getCallCounts());
+
+        // the bot isn't connected, so nothing can receive the message
+        assertThrows(IllegalStateException.class, () -> simulator.sendMessage(guild, 0, 0, "!ping"));
+        assertEquals(0, simulator.getRecorder().getUnansweredCount());
+    }
+
+    @Test
+    void sendMessage_JdaReplyRecorded() throws Exception {
+        final ShardManager shardManager = connect(new ListenerAdapter() {
+            @Override
+            public void onGuildMessageReceived(final GuildMessageReceivedEvent event) {
+                if (!event.getAuthor().isBot()) {
+                    event.getChannel().sendMessage("pong").queue();
+                }
+            }
+        });
+        try {
+            assertTrue(simulator.awaitReady(Duration.ofSeconds(30)));
+            for (final JDA shard : shardManager.getShards()) {
+                shard.awaitStatus(JDA.Status.CONNECTED);
+            }
+
+            // forget the requests made while connecting
+            simulator.getRecorder().reset();
+            simulator.sendMessage(simulator.getGuilds().get(0), 0, 0, "!ping");
+
+            final long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (simulator.getRecorder().getUnansweredCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, simulator.getRecorder().getUnansweredCount());
+            assertEquals(1, simulator.getRecorder().getResponseLatency().getCount());
+            assertEquals(1L, simulator.getRecorder().getCallCounts().get("POST /channels/{id}/messages"));
+        } finally {
+            shardManager.shutdown();
+        }
+    }
+
+    private ShardManager connect(final ListenerAdapter listener) throws Exception {
+        // the same way AlyxBot connects to a stand-in for the Discord API
+        final GatewayRequirements requirements = GatewayRequirements.CORE;
+        return DefaultShardManagerBuilder.create("simulated-token", requirements.getIntents())
+            .setShardsTotal(-1)
+            .addEventListeners(listener)
+            .enableCache(requirements.getCacheFlags())
+            .disableCache(requirements.getDisabledCacheFlags())
+            .setMemberCachePolicy(requirements.getMemberCachePolicy())
+            .setChunkingFilter(ChunkingFilter.NONE)
+            .setHttpClientBuilder(new OkHttpClient.Builder()
+                .addInterceptor(new DiscordApiRedirect(simulator.getApiUrl())))
+            .setCompression(Compression.NONE)
+            .build();
+    }
+
+    private URI uri(final String path) {
+        return URI.create(simulator.getApiUrl() + path);
+    }
+
+    private HttpResponse<String> send(final HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
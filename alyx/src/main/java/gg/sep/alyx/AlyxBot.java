@@ -1,34 +1,53 @@
 package gg.sep.alyx;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import javax.security.auth.login.LoginException;
 
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.User;
-import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.Compression;
+import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.pf4j.PluginManager;
 
 import gg.sep.alyx.config.ConfigHandler;
 import gg.sep.alyx.plugin.Alyx;
 import gg.sep.alyx.plugin.AlyxException;
 import gg.sep.alyx.plugin.AlyxPlugin;
+import gg.sep.alyx.plugin.GatewayRequirements;
+import gg.sep.alyx.plugin.PluginRegistry;
+import gg.sep.alyx.plugin.ShardMetrics;
 import gg.sep.alyx.plugin.commands.AlyxCommand;
+import gg.sep.alyx.plugin.commands.CommandDispatcher;
+import gg.sep.alyx.plugin.commands.CommandIndex;
+import gg.sep.alyx.plugin.commands.CommandMetrics;
+import gg.sep.alyx.plugin.commands.GuildNameIndex;
 import gg.sep.alyx.plugin.commands.ParameterParser;
+import gg.sep.alyx.plugin.commands.PermissionCache;
+import gg.sep.alyx.plugin.commands.PermissionLevelResolver;
 import gg.sep.alyx.plugin.commands.parsers.DoubleParameterParser;
 import gg.sep.alyx.plugin.commands.parsers.InstantParameterParser;
 import gg.sep.alyx.plugin.commands.parsers.IntegerParameterParser;
@@ -40,10 +59,16 @@ import gg.sep.alyx.plugin.commands.parsers.discord.RoleParameterParser;
 import gg.sep.alyx.plugin.commands.parsers.discord.UserParameterParser;
 import gg.sep.alyx.plugin.events.AlyxCommandListener;
 import gg.sep.alyx.plugin.events.EventWaiter;
+import gg.sep.alyx.plugin.events.replay.GatewayRecorder;
+import gg.sep.alyx.plugin.metrics.MetricsRegistry;
+import gg.sep.alyx.plugin.metrics.MetricsServer;
 import gg.sep.alyx.plugin.model.BotConfig;
 import gg.sep.alyx.plugin.model.BotEntry;
 import gg.sep.alyx.plugin.storage.AlyxStorageEngine;
-import gg.sep.alyx.plugin.storage.JsonStorageEngine;
+import gg.sep.alyx.plugin.storage.MeteredStorageEngine;
+import gg.sep.alyx.plugin.storage.StorageType;
+import gg.sep.alyx.plugin.storage.WriteBehindStorageEngine;
+import gg.sep.alyx.startup.StartupTimings;
 
 /**
  * The Alyx bot instance.
@@ -54,45 +79,163 @@ public final class AlyxBot implements Alyx {
     private final AlyxCommandListener commandListener;
     private volatile boolean isShutdown = false;
     private final ConfigHandler configHandler;
-    private final JDA jda;
 
     @Getter
     private final BotEntry botEntry;
     @Getter
+    private volatile ShardManager shardManager;
+    @Getter
+    private volatile ShardMetrics shardMetrics;
+    private volatile GatewayRequirements gatewayRequirements = GatewayRequirements.NONE;
+    @Getter
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private MetricsServer metricsServer;
+    private GatewayRecorder gatewayRecorder;
+    @Getter
     private final EventWaiter eventWaiter;
     @Getter
-    private final String commandPrefix;
+    private final CommandDispatcher commandDispatcher;
     @Getter
-    private final User botOwner;
+    private final PermissionCache permissionCache = new PermissionCache();
     @Getter
-    private final Collection<AlyxPlugin<?>> registeredPlugins = Collections.synchronizedSet(new HashSet<>());
+    private final PermissionLevelResolver permissionLevelResolver;
     @Getter
-    private final Collection<AlyxPlugin<?>> loadedPlugins = Collections.synchronizedSet(new HashSet<>());
+    private final GuildNameIndex guildNameIndex = new GuildNameIndex();
+    @Getter
+    private final String commandPrefix;
+    @Getter
+    private volatile User botOwner;
     @Getter
     private final Map<Class<?>, ParameterParser<?>> parameterParsers = new ConcurrentHashMap<>();
     @Getter
-    private final Collection<AlyxCommand> loadedCommands = new ArrayList<>();
+    private volatile PluginRegistry pluginRegistry = PluginRegistry.empty();
+    private final Object registryLock = new Object();
     @Getter
-    private final AlyxStorageEngine storageEngine = new JsonStorageEngine();
+    private final AlyxStorageEngine storageEngine;
 
-    private AlyxBot(final BotEntry botEntry) throws LoginException, IOException {
+    private AlyxBot(final BotEntry botEntry) throws IOException {
         this.botEntry = botEntry;
         this.botConfig = loadBotConfig(botEntry);
         this.configHandler = new ConfigHandler(botEntry.getDataDir());
+        this.storageEngine = createStorageEngine(botEntry, botConfig, metricsRegistry);
 
         this.commandPrefix = botConfig.getCommandPrefix().toString();
-        this.eventWaiter = new EventWaiter(botEntry.getBotName());
+        this.eventWaiter = new EventWaiter(botEntry.getBotName(), metricsRegistry);
+        this.commandDispatcher = CommandDispatcher.fromConfig(botEntry.getBotName(), botConfig);
         this.commandListener = new AlyxCommandListener(this);
+        this.permissionLevelResolver = new PermissionLevelResolver(botConfig);
+
+        metricsRegistry.gauge("alyx_command_queue_depth", "Commands waiting to run or running.",
+            commandDispatcher::getQueueDepth);
+        metricsRegistry.gauge("alyx_plugins_loaded", "Plugins loaded into the bot.",
+            () -> getLoadedPlugins().size());
+        metricsRegistry.gauge("alyx_gateway_ping_milliseconds", "Average gateway latency of the bot's shards.",
+            () -> shardMetrics == null ? Double.NaN : shardMetrics.getAverageGatewayPing());
+    }
+
+    /**
+     * Starts serving the bot's metrics, if a metrics port is configured.
+     *
+     * @throws IOException Exception thrown if the server could not be bound to the configured address.
+     */
+    private void startMetricsServer() throws IOException {
+        if (botConfig.getMetricsPort() == null) {
+            return;
+        }
+        final InetAddress address = botConfig.getMetricsAddress() != null
+            ? InetAddress.getByName(botConfig.getMetricsAddress())
+            : InetAddress.getLoopbackAddress();
+        this.metricsServer = new MetricsServer(botEntry.getBotName(), metricsRegistry,
+            new InetSocketAddress(address, botConfig.getMetricsPort()));
+        this.metricsServer.start();
+    }
+
+    /**
+     * Starts recording the bot's gateway events for replay, if a recording path is configured.
+     *
+     * @throws IOException Exception thrown if the recording could not be opened.
+     */
+    private void startGatewayRecorder() throws IOException {
+        if (botConfig.getGatewayRecordingPath() == null) {
+            return;
+        }
+        this.gatewayRecorder = GatewayRecorder.start(this,
+            botEntry.getDataDir().resolve(botConfig.getGatewayRecordingPath()));
+    }
 
-        this.jda = JDABuilder.createDefault(botConfig.getDiscordToken())
+    /**
+     * Connects the bot to the Discord gateway, enabling only the given intents and caches.
+     *
+     * @param requirements The gateway requirements of the bot and its plugins.
+     * @throws LoginException Exception thrown if the bot's token is invalid.
+     */
+    private void connect(final GatewayRequirements requirements) throws LoginException {
+        log.info("Connecting to the gateway. requirements={}", requirements);
+        this.gatewayRequirements = requirements;
+
+        // the same listeners receive the events of every shard
+        final DefaultShardManagerBuilder builder = DefaultShardManagerBuilder
+            .create(botConfig.getDiscordToken(), requirements.getIntents())
+            .setShardsTotal(Optional.ofNullable(botConfig.getShardCount()).orElse(-1))
             .addEventListeners(this.commandListener)
             .addEventListeners(eventWaiter)
-            .enableIntents(GatewayIntent.GUILD_MEMBERS, GatewayIntent.GUILD_PRESENCES)
+            .addEventListeners(permissionCache)
+            .addEventListeners(permissionLevelResolver)
+            .addEventListeners(guildNameIndex)
+            .enableCache(requirements.getCacheFlags())
+            .disableCache(requirements.getDisabledCacheFlags())
+            .setMemberCachePolicy(requirements.getMemberCachePolicy())
+            .setChunkingFilter(ChunkingFilter.NONE)
             .setAutoReconnect(true)
-            .setActivity(Activity.playing("λ Half Life: Alyx"))
-            .build();
+            .setActivity(Activity.playing("λ Half Life: Alyx"));
+
+        if (this.gatewayRecorder != null) {
+            builder.addEventListeners(this.gatewayRecorder);
+        }
+
+        if (botConfig.getDiscordApiUrl() != null) {
+            log.warn("Connecting to a stand-in for the Discord API. url={}", botConfig.getDiscordApiUrl());
+            builder.setHttpClientBuilder(new OkHttpClient.Builder()
+                .addInterceptor(new DiscordApiRedirect(botConfig.getDiscordApiUrl())))
+                .setCompression(Compression.NONE);
+        }
+
+        this.shardManager = builder.build();
+        this.shardMetrics = new ShardMetrics(this.shardManager);
+
+        this.botOwner = retrieveBotOwner(this.shardManager);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<AlyxPlugin<?>> getRegisteredPlugins() {
+        return pluginRegistry.getRegisteredPlugins();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<AlyxPlugin<?>> getLoadedPlugins() {
+        return pluginRegistry.getLoadedPlugins();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<AlyxCommand> getLoadedCommands() {
+        return pluginRegistry.getLoadedCommands();
+    }
 
-        this.botOwner = retrieveBotOwner(this.jda);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandIndex getCommandIndex() {
+        return pluginRegistry.getCommandIndex();
     }
 
     /**
@@ -106,33 +249,191 @@ public final class AlyxBot implements Alyx {
     /**
      * Launches a new instance of Alyx for the provided {@link BotEntry}.
      *
+     * The bot starts up in phases, and logs how long each of them took once it has started. Logging in to the
+     * gateway happens in the background while the plugins are registered and their commands are loaded, and
+     * the plugins' commands and data are loaded in parallel.
+     *
      * @param botEntry Bot Entry with metadata about the bot and where to find the bot's configuration.
      * @return New instance of Alyx.
      */
     public static Alyx launchBot(final BotEntry botEntry) {
+        final StartupTimings timings = new StartupTimings();
+        final ExecutorService startupExecutor = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), new BasicThreadFactory.Builder()
+                .namingPattern("Startup-" + botEntry.getBotName() + "-%d")
+                .daemon(true)
+                .build());
         try {
-            final AlyxBot alyx = new AlyxBot(botEntry);
-            alyx.registerDefaultParsers();
+            final AlyxBot alyx = timings.time("config", () -> new AlyxBot(botEntry));
+            timings.run("services", () -> {
+                alyx.registerDefaultParsers();
+                alyx.startMetricsServer();
+                alyx.startGatewayRecorder();
+            });
 
             // find any plugins that are part of the classpath
-            final PluginManager pluginManager = new AlyxPluginManager(alyx); // TODO: Path to the plugin folder
-            pluginManager.loadPlugins();
-            pluginManager.startPlugins();
-
+            final List<AlyxPlugin<?>> plugins = timings.time("discovery", alyx::discoverPlugins);
             final Collection<String> savedLoadedPlugins = alyx.botConfig.getLoadedPlugins();
-
-            final List<AlyxPlugin> plugins = pluginManager.getExtensions(AlyxPlugin.class);
-            for (final AlyxPlugin plugin: plugins) {
-                alyx.registerPlugin(plugin); // register all plugins | TODO: Revisit whether we need to "register"
-
+            final List<AlyxPlugin<?>> startupPlugins = new ArrayList<>();
+            for (final AlyxPlugin<?> plugin : plugins) {
                 if (savedLoadedPlugins != null && savedLoadedPlugins.contains(plugin.getIdentifier())) {
-                    alyx.loadPlugin(plugin);
+                    startupPlugins.add(plugin);
                 }
             }
 
+            // only enable what the plugins being loaded need, so they have to be found before logging in,
+            // but they can be registered and have their commands loaded while the bot logs in
+            final GatewayRequirements requirements = GatewayRequirements.union(GatewayRequirements.CORE,
+                startupPlugins);
+            final CompletableFuture<Void> login = CompletableFuture.runAsync(() -> {
+                try {
+                    timings.run("login", () -> alyx.connect(requirements));
+                } catch (final LoginException e) {
+                    throw new CompletionException(e);
+                }
+            }, startupExecutor);
+
+            timings.run("registration", () -> alyx.registerPlugins(plugins));
+            final Map<AlyxPlugin<?>, Collection<AlyxCommand>> commands = timings.time("commands",
+                () -> loadCommands(startupPlugins, startupExecutor));
+
+            // plugins are loaded once the bot is connected, as they would be if loaded later on
+            await(login, LoginException.class);
+            timings.run("loading", () -> alyx.loadPlugins(commands, startupExecutor));
+
+            // written once, rather than for each plugin registered and loaded
+            timings.run("save", alyx::saveBotConfig);
+
+            log.info("Started bot. bot={}, plugins={}, {}", botEntry.getBotName(), startupPlugins.size(),
+                timings.report());
             return alyx;
         } catch (final AlyxException | LoginException | IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            startupExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Finds the plugins which are part of the classpath.
+     *
+     * @return The plugins found.
+     */
+    private List<AlyxPlugin<?>> discoverPlugins() {
+        final PluginManager pluginManager = new AlyxPluginManager(this); // TODO: Path to the plugin folder
+        pluginManager.loadPlugins();
+        pluginManager.startPlugins();
+
+        final List<AlyxPlugin<?>> plugins = new ArrayList<>();
+        for (final AlyxPlugin plugin : pluginManager.getExtensions(AlyxPlugin.class)) {
+            plugins.add(plugin);
+        }
+        return plugins;
+    }
+
+    /**
+     * Registers the plugins found at startup, without writing the bot's config.
+     *
+     * @param plugins The plugins to register.
+     * @throws AlyxException Exception thrown if a matching plugin is already registered.
+     */
+    private void registerPlugins(final Collection<AlyxPlugin<?>> plugins) throws AlyxException {
+        // TODO: Revisit whether we need to "register"
+        synchronized (registryLock) {
+            this.pluginRegistry = this.pluginRegistry.withRegistered(plugins);
+        }
+        for (final AlyxPlugin<?> plugin : plugins) {
+            plugin.register();
+        }
+    }
+
+    /**
+     * Loads the commands of each of the plugins in parallel.
+     *
+     * @param plugins The plugins to load the commands of.
+     * @param executor Executor loading the commands.
+     * @return The commands of each plugin, in the same order as the plugins.
+     * @throws AlyxException Exception thrown if loading a plugin's commands fails.
+     */
+    private static Map<AlyxPlugin<?>, Collection<AlyxCommand>> loadCommands(final List<AlyxPlugin<?>> plugins,
+                                                                            final Executor executor)
+        throws AlyxException {
+
+        final Map<AlyxPlugin<?>, CompletableFuture<Collection<AlyxCommand>>> loading = new LinkedHashMap<>();
+        for (final AlyxPlugin<?> plugin : plugins) {
+            loading.put(plugin, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return plugin.loadCommands();
+                } catch (final AlyxException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        final Map<AlyxPlugin<?>, Collection<AlyxCommand>> commands = new LinkedHashMap<>();
+        for (final Map.Entry<AlyxPlugin<?>, CompletableFuture<Collection<AlyxCommand>>> entry : loading.entrySet()) {
+            commands.put(entry.getKey(), await(entry.getValue(), AlyxException.class));
+        }
+        return commands;
+    }
+
+    /**
+     * Loads the plugins found at startup, whose commands have already been loaded.
+     *
+     * The plugins are swapped into the registry together, and their {@link AlyxPlugin#load()} hooks are run
+     * in parallel. The bot's config is not written.
+     *
+     * @param commands The plugins to load, with their commands.
+     * @param executor Executor running the plugins' load hooks.
+     * @throws AlyxException Exception thrown if any of the plugins is not registered.
+     */
+    private void loadPlugins(final Map<AlyxPlugin<?>, Collection<AlyxCommand>> commands, final Executor executor)
+        throws AlyxException {
+
+        synchronized (registryLock) {
+            for (final Map.Entry<AlyxPlugin<?>, Collection<AlyxCommand>> entry : commands.entrySet()) {
+                for (final AlyxCommand command : entry.getValue()) {
+                    command.setMetrics(CommandMetrics.register(metricsRegistry, entry.getKey().getName(),
+                        command.getName()));
+                }
+            }
+            final PluginRegistry updated = this.pluginRegistry.withLoaded(commands);
+            for (final AlyxPlugin<?> plugin : commands.keySet()) {
+                this.botConfig.getLoadedPlugins().add(plugin.getIdentifier());
+            }
+            this.pluginRegistry = updated;
+        }
+
+        // each plugin only loads its own data
+        final CompletableFuture<?>[] loading = commands.keySet().stream()
+            .map(plugin -> CompletableFuture.runAsync(plugin::load, executor))
+            .toArray(CompletableFuture[]::new);
+        await(CompletableFuture.allOf(loading), RuntimeException.class);
+    }
+
+    /**
+     * Waits for a startup task to finish, rethrowing the exception it failed with.
+     *
+     * @param future The startup task.
+     * @param failure Type of the checked exception the task can fail with.
+     * @param <T> Type of the task's result.
+     * @param <E> Type of the checked exception the task can fail with.
+     * @return The task's result.
+     * @throws E Exception thrown if the task failed with an exception of the given type.
+     */
+    private static <T, E extends Exception> T await(final CompletableFuture<T> future, final Class<E> failure)
+        throws E {
+
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (failure.isInstance(e.getCause())) {
+                throw failure.cast(e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
     }
 
@@ -140,14 +441,15 @@ public final class AlyxBot implements Alyx {
      * {@inheritDoc}
      */
     @Override
-    public synchronized void registerPlugin(final AlyxPlugin<?> plugin) {
+    public void registerPlugin(final AlyxPlugin<?> plugin) {
 
         // TODO: Loading/unloading won't be here so remove the try/catch
         try {
-            if (!this.registeredPlugins.add(plugin)) {
-                throw new AlyxException("A matching plugin already exists.");
+            // saved under the lock, so the config isn't written while a plugin is loaded or unloaded
+            synchronized (registryLock) {
+                this.pluginRegistry = this.pluginRegistry.withRegistered(plugin);
+                saveBotConfig();
             }
-            this.configHandler.writeBotConfig(this.botEntry, this.botConfig);
             plugin.register();
         } catch (final AlyxException | IOException e) {
             throw new RuntimeException(e);
@@ -159,22 +461,28 @@ public final class AlyxBot implements Alyx {
      */
     @Override
     public void loadPlugin(final AlyxPlugin<?> plugin) throws AlyxException {
-        if (!registeredPlugins.contains(plugin)) {
-            throw new AlyxException(
-                String.format("Plugin '%s' is not registered.", plugin.getName())
-            );
-        }
+        synchronized (registryLock) {
+            final Collection<AlyxCommand> commands = plugin.loadCommands();
+            for (final AlyxCommand command : commands) {
+                command.setMetrics(CommandMetrics.register(metricsRegistry, plugin.getName(), command.getName()));
+            }
+            final PluginRegistry updated = this.pluginRegistry.withLoaded(plugin, commands);
 
-        this.botConfig.getLoadedPlugins().add(plugin.getIdentifier());
-        try {
-            this.configHandler.updateBotConfig(this.botEntry, this.botConfig);
-        } catch (final IOException e) {
-            throw new RuntimeException(e); // TODO handle this properly
-        }
+            this.botConfig.getLoadedPlugins().add(plugin.getIdentifier());
+            try {
+                saveBotConfig();
+            } catch (final IOException e) {
+                throw new RuntimeException(e); // TODO handle this properly
+            }
 
-        this.loadedPlugins.add(plugin);
-        this.loadedCommands.addAll(plugin.loadCommands());
+            this.pluginRegistry = updated;
+        }
         plugin.load();
+
+        if (!plugin.getGatewayRequirements().isSatisfiedBy(this.gatewayRequirements)) {
+            log.warn("Plugin needs gateway intents or caches which are not enabled until the bot is restarted. "
+                + "plugin={}, requirements={}", plugin.getIdentifier(), plugin.getGatewayRequirements());
+        }
     }
 
     /**
@@ -198,19 +506,18 @@ public final class AlyxBot implements Alyx {
             throw new AlyxException(plugin.getName() + " is a guarded plugin.");
         }
 
-        if (!registeredPlugins.contains(plugin) || !loadedPlugins.contains(plugin)) {
-            throw new AlyxException(
-                String.format("Plugin '%s' is not registered or loaded", plugin.getName())
-            );
-        }
-        plugin.unload();
-        this.loadedPlugins.remove(plugin);
-        this.botConfig.getLoadedPlugins().remove(plugin.getIdentifier());
-        this.loadedCommands.removeAll(plugin.loadCommands());
-        try {
-            this.configHandler.updateBotConfig(this.botEntry, this.botConfig);
-        } catch (final IOException e) {
-            throw new RuntimeException(e); // TODO handle this properly
+        synchronized (registryLock) {
+            // the plugin's cached commands are dropped along with it
+            final PluginRegistry updated = this.pluginRegistry.withUnloaded(plugin);
+            plugin.unload();
+            this.pluginRegistry = updated;
+
+            this.botConfig.getLoadedPlugins().remove(plugin.getIdentifier());
+            try {
+                saveBotConfig();
+            } catch (final IOException e) {
+                throw new RuntimeException(e); // TODO handle this properly
+            }
         }
     }
 
@@ -226,8 +533,11 @@ public final class AlyxBot implements Alyx {
         }
         this.isShutdown = true;
 
-        // stop listening for new commands
+        // stop listening for new commands, and let any commands already received finish
         this.commandListener.setListening(false);
+        if (!this.commandDispatcher.shutdown(30, TimeUnit.SECONDS)) {
+            log.error("Timed out waiting for running commands to finish.");
+        }
 
         // tell plugins that we're shutting down
         // they have 30 seconds to complete and should respond asynchronously
@@ -261,20 +571,83 @@ public final class AlyxBot implements Alyx {
             return result;
         }).join(); // block
 
+        // write any plugin data that is still waiting to be written
+        try {
+            this.storageEngine.flush();
+        } catch (final RuntimeException e) {
+            log.error("Error writing plugin data during shutdown.", e);
+        }
+
         // don't shutdown JDA until we know it's safe or the timeout has been reached
-        this.jda.shutdown();
+        for (final JDA shard : this.shardManager.getShards()) {
+            log.info("Shutting down shard. shard={}, status={}", shard.getShardInfo(), shard.getStatus());
+        }
+        this.shardManager.shutdown();
+
+        // write any gateway events that are still waiting to be recorded
+        if (this.gatewayRecorder != null) {
+            try {
+                this.gatewayRecorder.close();
+            } catch (final IOException e) {
+                log.error("Error closing the gateway recording during shutdown.", e);
+            }
+        }
+
+        if (this.metricsServer != null) {
+            this.metricsServer.stop();
+        }
+    }
+
+    /**
+     * Writes the bot's config to its config file, and applies the permission levels set in it.
+     *
+     * The config is written while holding the registry lock, which guards the list of loaded plugins.
+     *
+     * @throws IOException Exception thrown if writing to the config file failed.
+     */
+    private void saveBotConfig() throws IOException {
+        synchronized (registryLock) {
+            this.configHandler.updateBotConfig(this.botEntry, this.botConfig);
+            this.permissionLevelResolver.updateConfig(this.botConfig);
+        }
+    }
+
+    /**
+     * Creates the storage engine for the bot, delaying and coalescing plugin data writes unless
+     * the bot is configured to write them immediately.
+     *
+     * The time taken by the engine's loads and writes is recorded in the bot's metrics.
+     *
+     * @param botEntry The bot's entry.
+     * @param botConfig The bot's configuration.
+     * @param metrics The bot's metrics.
+     * @return The bot's storage engine.
+     */
+    private static AlyxStorageEngine createStorageEngine(final BotEntry botEntry, final BotConfig botConfig,
+                                                         final MetricsRegistry metrics) {
+        final AlyxStorageEngine engine = new MeteredStorageEngine(Optional.ofNullable(botEntry.getStorageType())
+            .orElse(StorageType.JSON)
+            .createEngine(), metrics);
+        final Duration delay = Optional.ofNullable(botConfig.getStorageWriteDelayMillis())
+            .map(Duration::ofMillis)
+            .orElse(WriteBehindStorageEngine.DEFAULT_DELAY);
+
+        if (delay.isZero() || delay.isNegative()) {
+            return engine;
+        }
+        return new WriteBehindStorageEngine(botEntry.getBotName(), engine, delay);
     }
 
     /**
-     * Returns the Bot Owner {@link User} for the given instance of JDA.
+     * Returns the Bot Owner {@link User} for the given shard manager.
      *
      * This is a blocking call.
      *
-     * @param jda JDA instance.
+     * @param shardManager The bot's shard manager.
      * @return Bot owner user.
      */
-    private static User retrieveBotOwner(final JDA jda) {
-        return jda.retrieveApplicationInfo().complete()
+    private static User retrieveBotOwner(final ShardManager shardManager) {
+        return shardManager.retrieveApplicationInfo().complete()
             .getOwner();
     }
 
@@ -291,9 +664,9 @@ public final class AlyxBot implements Alyx {
 
             // Discord types
             new UserParameterParser(),
-            new RoleParameterParser(),
-            new ChannelParameterParser(),
-            new EmoteParameterParser()
+            new RoleParameterParser(guildNameIndex),
+            new ChannelParameterParser(guildNameIndex),
+            new EmoteParameterParser(guildNameIndex)
         ).forEach(this::registerParameterParser);
     }
 
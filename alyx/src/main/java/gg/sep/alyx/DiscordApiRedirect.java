@@ -0,0 +1,50 @@
+package gg.sep.alyx;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Sends every HTTP request made by JDA to a stand-in for the Discord API, such as alyx-simulator,
+ * rather than to Discord.
+ *
+ * Only the scheme, host and port of each request are replaced, the path is kept as is. The gateway
+ * URL is fetched over HTTP, so the stand-in also decides which gateway the bot connects to.
+ *
+ * Public so that alyx-simulator's tests can connect JDA to the simulator the same way the bot does.
+ */
+public final class DiscordApiRedirect implements Interceptor {
+
+    private final HttpUrl target;
+
+    /**
+     * Creates a redirect to the given base URL.
+     *
+     * @param baseUrl Base URL of the stand-in, for example {@code http://127.0.0.1:8080}.
+     * @throws IllegalArgumentException Thrown if the URL is not a valid HTTP or HTTPS URL.
+     */
+    public DiscordApiRedirect(final String baseUrl) {
+        final HttpUrl url = HttpUrl.parse(baseUrl);
+        if (url == null) {
+            throw new IllegalArgumentException("Invalid Discord API URL: " + baseUrl);
+        }
+        this.target = url;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        final Request request = chain.request();
+        final HttpUrl url = request.url().newBuilder()
+            .scheme(target.scheme())
+            .host(target.host())
+            .port(target.port())
+            .build();
+        return chain.proceed(request.newBuilder().url(url).build());
+    }
+}
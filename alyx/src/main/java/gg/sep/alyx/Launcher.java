@@ -45,11 +45,16 @@ public final class Launcher {
 
         // handle setup mode or existing bot mode
         final String botName = arguments.getBotName().orElse(null);
-        final TextIO textIO = TextIoFactory.getTextIO();
-        final Result<BotEntry, String> botEntry = arguments.isSetup() ? setup(configHandler, textIO) :
-            loadExisting(botName, configHandler, textIO);
-
-        textIO.dispose();
+        final Result<BotEntry, String> botEntry;
+        if (arguments.isSetup() || StringUtils.isEmpty(botName)) {
+            final TextIO textIO = TextIoFactory.getTextIO();
+            botEntry = arguments.isSetup() ? setup(configHandler, textIO) :
+                loadExisting(botName, configHandler, textIO);
+            textIO.dispose();
+        } else {
+            // the terminal is only needed to ask which bot to start
+            botEntry = loadExisting(botName, configHandler, null);
+        }
 
         if (botEntry.isErr()) {
             errorExit(botEntry.unwrapErr());
@@ -63,6 +68,7 @@ public final class Launcher {
      * @param botName Name of the bot to load.
      * @param configHandler Config handler instance for the config file.
      * @param textIO TextIO instance for allowing the user to select a valid bot entry from the ones in the config file.
+     *               Only used if no bot name is given, and may be {@code null} otherwise.
      * @return Result of a BotEntry of loaded successfully, otherwise an error string.
      */
     public static Result<BotEntry, String> loadExisting(final String botName, final ConfigHandler configHandler,
@@ -14,6 +14,7 @@ import net.harawata.appdirs.AppDirsFactory;
 import gg.sep.alyx.plugin.model.AlyxConfig;
 import gg.sep.alyx.plugin.model.BotConfig;
 import gg.sep.alyx.plugin.model.BotEntry;
+import gg.sep.alyx.plugin.storage.AtomicFiles;
 import gg.sep.alyx.plugin.util.ModelParser;
 
 /**
@@ -47,7 +48,7 @@ public class ConfigHandler {
      */
     public Optional<AlyxConfig> loadAlyxConfig() {
         try {
-            return ModelParser.parseJson(readConfig(configPath), AlyxConfig.class);
+            return readConfig(configPath, AlyxConfig.class);
         } catch (final IOException e) {
             log.error(e);
         }
@@ -64,7 +65,7 @@ public class ConfigHandler {
         try {
             final Path botConfigPath = botEntry.getDataDir()
                 .resolve(String.format("%s_config.json", botEntry.getBotName()));
-            return ModelParser.parseJson(readConfig(botConfigPath), BotConfig.class);
+            return readConfig(botConfigPath, BotConfig.class);
         } catch (final IOException e) {
             log.error(e);
         }
@@ -104,7 +105,7 @@ public class ConfigHandler {
      */
     public void writeConfig(final AlyxConfig alyxConfig) throws IOException {
         ensureConfigFile(configPath);
-        Files.writeString(configPath, alyxConfig.toPrettyJson());
+        AtomicFiles.writeString(configPath, alyxConfig.toPrettyJson());
     }
 
     /**
@@ -117,11 +118,29 @@ public class ConfigHandler {
         final String fileName = String.format("%s_config.json", botEntry.getBotName());
         final Path botConfigPath = botEntry.getDataDir().resolve(fileName);
         ensureConfigFile(botConfigPath);
-        Files.writeString(botConfigPath, botConfig.toPrettyJson());
+        AtomicFiles.writeString(botConfigPath, botConfig.toPrettyJson());
     }
 
-    private String readConfig(final Path filePath) throws IOException {
-        return Files.readString(filePath);
+    /**
+     * Reads and parses a config file.
+     *
+     * If the file exists but cannot be parsed, it is moved aside so that it is not overwritten
+     * by a blank config.
+     *
+     * @param filePath Path to the config file.
+     * @param configClass Class model of the config.
+     * @param <T> Type of the config class.
+     * @return The parsed config if successful, otherwise an empty Optional.
+     * @throws IOException Exception thrown if reading or moving the config file failed.
+     */
+    private <T> Optional<T> readConfig(final Path filePath, final Class<T> configClass) throws IOException {
+        final String contents = Files.readString(filePath);
+        final Optional<T> config = ModelParser.parseJson(contents, configClass);
+        if (config.isEmpty() && !contents.isBlank()) {
+            log.error("Unable to parse config file, moving it aside. path={}", filePath);
+            AtomicFiles.moveAside(filePath);
+        }
+        return config;
     }
 
     private AlyxConfig generateBlankAlyxConfig() throws IOException {
@@ -135,9 +154,6 @@ public class ConfigHandler {
         if (parentPath == null) {
             throw new IOException("Config file path cannot be a root directory.");
         }
-        if (!Files.exists(configPath)) {
-            Files.createDirectories(parentPath);
-            Files.createFile(configPath);
-        }
+        Files.createDirectories(parentPath);
     }
 }
@@ -4,10 +4,12 @@ import static gg.sep.alyx.plugins.PluginConstants.ALYX_PLUGIN_SERIAL;
 
 import java.time.Duration;
 
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import org.pf4j.Extension;
 
 import gg.sep.alyx.plugin.Alyx;
+import gg.sep.alyx.plugin.ShardMetrics;
 import gg.sep.alyx.plugin.StatelessAlyxPlugin;
 import gg.sep.alyx.plugin.commands.Command;
 import gg.sep.alyx.plugin.commands.PermissionLevel;
@@ -19,6 +21,8 @@ import gg.sep.alyx.plugin.replies.InteractiveActions;
 @Extension
 public class AdminCommandsPlugin extends StatelessAlyxPlugin {
     private static final String NAME = "AlyxAdminCommands";
+    private static final String CODE_BLOCK_START = "```\n";
+    private static final String CODE_BLOCK_END = "```";
 
     /**
      * Initialize the plugin.
@@ -62,4 +66,27 @@ public class AdminCommandsPlugin extends StatelessAlyxPlugin {
             getAlyx().shutdown();
         });
     }
+
+    /**
+     * Replies with the gateway latency and event throughput of each of the bot's shards.
+     *
+     * Bots with many shards are replied to over several messages, each within Discord's message length limit.
+     *
+     * @param event Shards command message event.
+     */
+    @Command(name = "shards", level = PermissionLevel.BOT_ADMIN)
+    public void shards(final MessageReceivedEvent event) {
+        StringBuilder reply = new StringBuilder(CODE_BLOCK_START);
+        for (final ShardMetrics.ShardStats shard : getAlyx().getShardMetrics().snapshot()) {
+            final String line = String.format("Shard %d/%d: %s, ping %dms, %.1f events/s%n", shard.getShardId(),
+                shard.getShardTotal(), shard.getStatus(), shard.getGatewayPing(), shard.getEventsPerSecond());
+            if (reply.length() + line.length() + CODE_BLOCK_END.length() > Message.MAX_CONTENT_LENGTH) {
+                event.getChannel().sendMessage(reply.append(CODE_BLOCK_END).toString()).queue();
+                reply = new StringBuilder(CODE_BLOCK_START);
+            }
+            reply.append(line);
+        }
+        reply.append(CODE_BLOCK_END);
+        event.getChannel().sendMessage(reply.toString()).queue();
+    }
 }
@@ -0,0 +1,101 @@
+package gg.sep.alyx.startup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each phase of a bot's startup, so the startup can be summarised in a single log line.
+ *
+ * Phases may run on different threads, and overlap each other. Each phase is reported in the order it finished,
+ * so the total can be less than the sum of the phases.
+ */
+public final class StartupTimings {
+
+    /**
+     * A phase of the startup which returns a value.
+     *
+     * @param <T> Type of the value returned by the phase.
+     * @param <E> Type of the exception thrown by the phase.
+     */
+    @FunctionalInterface
+    public interface Phase<T, E extends Exception> {
+        /**
+         * Runs the phase.
+         *
+         * @return The value returned by the phase.
+         * @throws E Thrown if the phase fails.
+         */
+        T get() throws E;
+    }
+
+    /**
+     * A phase of the startup which doesn't return a value.
+     *
+     * @param <E> Type of the exception thrown by the phase.
+     */
+    @FunctionalInterface
+    public interface Step<E extends Exception> {
+        /**
+         * Runs the phase.
+         *
+         * @throws E Thrown if the phase fails.
+         */
+        void run() throws E;
+    }
+
+    private final long started = System.nanoTime();
+    private final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Runs and times a phase of the startup.
+     *
+     * @param name Name of the phase, as it's shown in the report.
+     * @param phase The phase to run.
+     * @param <T> Type of the value returned by the phase.
+     * @param <E> Type of the exception thrown by the phase.
+     * @return The value returned by the phase.
+     * @throws E Thrown if the phase fails, in which case it isn't reported.
+     */
+    public <T, E extends Exception> T time(final String name, final Phase<T, E> phase) throws E {
+        final long phaseStarted = System.nanoTime();
+        final T result = phase.get();
+        phases.put(name, System.nanoTime() - phaseStarted);
+        return result;
+    }
+
+    /**
+     * Runs and times a phase of the startup which doesn't return a value.
+     *
+     * @param name Name of the phase, as it's shown in the report.
+     * @param step The phase to run.
+     * @param <E> Type of the exception thrown by the phase.
+     * @throws E Thrown if the phase fails, in which case it isn't reported.
+     */
+    public <E extends Exception> void run(final String name, final Step<E> step) throws E {
+        time(name, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Summarises the time taken by the startup and each of its finished phases.
+     *
+     * @return The summary, for example {@code total=950ms, config=12ms, login=900ms}.
+     */
+    public String report() {
+        final StringBuilder report = new StringBuilder("total=").append(millis(System.nanoTime() - started));
+        synchronized (phases) {
+            for (final Map.Entry<String, Long> phase : phases.entrySet()) {
+                report.append(", ").append(phase.getKey()).append('=').append(millis(phase.getValue()));
+            }
+        }
+        return report.toString();
+    }
+
+    private static String millis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos) + "ms";
+    }
+}
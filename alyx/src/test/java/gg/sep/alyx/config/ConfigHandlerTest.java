@@ -1,14 +1,17 @@
 package gg.sep.alyx.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -100,6 +103,19 @@ public class ConfigHandlerTest {
         assertEquals(expectedMap, alyxConfig.get().getBots());
     }
 
+    @Test
+    void loadConfig_CorruptFileMovedAside(@TempDir final Path tempDir) throws Exception {
+        final ConfigHandler configHandler = tempDirConfigHandler(tempDir);
+        Files.writeString(configHandler.getConfigPath(), "{\"bots\": {");
+
+        assertEquals(Optional.empty(), configHandler.loadAlyxConfig());
+        assertFalse(Files.exists(configHandler.getConfigPath()));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.filter(file -> file.getFileName().toString().startsWith("config.json.corrupt-"))
+                .count());
+        }
+    }
+
     @Test
     void writeConfig_NoParentDirectory() {
         final Path rootPath = Path.of("/");